@@ -111,7 +111,9 @@ create_service_secrets "job-service" '{
   "data": {
     "DATASOURCE_URL": "jdbc:postgresql://job-postgres:5432/job_db",
     "DATASOURCE_USERNAME": "user",
-    "DATASOURCE_PASSWORD": "job@123"
+    "DATASOURCE_PASSWORD": "job@123",
+    "redis.host": "job-redis",
+    "redis.port": "6379"
   }
 }'
 
@@ -1,26 +1,80 @@
 package org.workfitai.apigateway.client;
 
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Map;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class AuthWebClient {
 
+  private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
   private final WebClient.Builder webClientBuilder;
   @Value("${service.auth.url}")
   private String authServiceUrl;
 
-  public Map<String, String> getPublicKey() {
+  /** JWK Set của auth-service (non-blocking); auth-service cũ chưa có /jwks → dùng /public */
+  public Mono<JWKSet> getKeySet() {
+    return webClientBuilder.build()
+        .get()
+        .uri(authServiceUrl + "/api/v1/keys/jwks")
+        .retrieve()
+        .bodyToMono(String.class)
+        .timeout(TIMEOUT)
+        .map(AuthWebClient::parseKeySet)
+        .onErrorResume(err -> {
+          log.warn("⚠️ JWKS endpoint unavailable ({}), falling back to /api/v1/keys/public", err.getMessage());
+          return getLegacyPublicKey();
+        });
+  }
+
+  private Mono<JWKSet> getLegacyPublicKey() {
     return webClientBuilder.build()
         .get()
         .uri(authServiceUrl + "/api/v1/keys/public")
         .retrieve()
         .bodyToMono(Map.class)
-        .block(); // lấy 1 lần thôi, chấp nhận blocking ở startup
+        .timeout(TIMEOUT)
+        .map(response -> {
+          Object encoded = response.get("publicKey");
+          if (encoded == null) {
+            throw new IllegalStateException("Auth Service returned invalid public key response");
+          }
+          return new JWKSet(legacyKey(encoded.toString()));
+        });
+  }
+
+  private static JWKSet parseKeySet(String json) {
+    try {
+      return JWKSet.parse(json);
+    } catch (java.text.ParseException e) {
+      throw new IllegalStateException("Auth Service returned invalid JWK Set", e);
+    }
+  }
+
+  private static RSAKey legacyKey(String encoded) {
+    try {
+      byte[] decoded = Base64.getDecoder().decode(encoded);
+      RSAPublicKey key = (RSAPublicKey) KeyFactory.getInstance("RSA")
+          .generatePublic(new X509EncodedKeySpec(decoded));
+      // kid = RFC 7638 thumbprint, giống cách auth-service tính
+      return new RSAKey.Builder(key).keyIDFromThumbprint().build();
+    } catch (Exception e) {
+      throw new IllegalStateException("Could not decode public key from Auth Service", e);
+    }
   }
 }
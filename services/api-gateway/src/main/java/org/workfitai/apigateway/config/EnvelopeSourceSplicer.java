@@ -0,0 +1,168 @@
+package org.workfitai.apigateway.config;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams an existing ResponseData envelope with "source" set to the route.
+ *
+ * The gateway member is emitted right after the opening brace; a top-level
+ * "source" member sent by the downstream service is dropped wherever it
+ * appears, so the result never carries a duplicate key. Top-level commas are
+ * re-emitted in front of the next kept key, which keeps the member list
+ * well-formed whichever member is removed. Stateful: one instance per
+ * response, buffers must be applied in order.
+ */
+final class EnvelopeSourceSplicer {
+
+  private static final byte[] KEY = "source".getBytes(StandardCharsets.US_ASCII);
+
+  private final byte[] member;
+
+  private boolean opened;
+  private boolean done;
+  private int depth;
+  private boolean inString;
+  private boolean escape;
+  private boolean expectKey;
+  /** >= 0 while a top-level key is held back: number of bytes matching "source" so far */
+  private int keyMatch = -1;
+  private boolean skipping;
+  private int skipDepth;
+
+  EnvelopeSourceSplicer(String sourceJson) {
+    this.member = ("\"source\":" + sourceJson).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** Rewrites one buffer of the body; releases the input buffer */
+  DataBuffer apply(DataBuffer in, DataBufferFactory factory) {
+    byte[] out = new byte[in.readableByteCount() + member.length + KEY.length + 2];
+    int n = 0;
+
+    for (int i = in.readPosition(); i < in.writePosition(); i++) {
+      byte c = in.getByte(i);
+
+      if (done) {
+        out[n++] = c;
+      } else if (!opened) {
+        out[n++] = c;
+        if (c == '{') {
+          opened = true;
+          depth = 1;
+          expectKey = true;
+          System.arraycopy(member, 0, out, n, member.length);
+          n += member.length;
+        }
+      } else if (skipping) {
+        n = skip(c, out, n);
+      } else if (keyMatch >= 0) {
+        n = matchKey(c, out, n);
+      } else if (inString) {
+        out[n++] = c;
+        string(c);
+      } else if (depth == 1) {
+        if (c == ',') {
+          // phát lại ngay trước key kế tiếp (xem matchKey)
+          expectKey = true;
+          continue;
+        }
+        if (c == '"' && expectKey) {
+          keyMatch = 0;
+          continue;
+        }
+        out[n++] = c;
+        switch (c) {
+          case '"' -> inString = true;
+          case ':' -> expectKey = false;
+          case '{', '[' -> depth++;
+          case '}' -> {
+            depth = 0;
+            done = true;
+          }
+          default -> {
+          }
+        }
+      } else {
+        out[n++] = c;
+        if (c == '"') {
+          inString = true;
+        } else if (c == '{' || c == '[') {
+          depth++;
+        } else if (c == '}' || c == ']') {
+          depth--;
+        }
+      }
+    }
+
+    DataBufferUtils.release(in);
+    return factory.wrap(ByteBuffer.wrap(out, 0, n));
+  }
+
+  private int matchKey(byte c, byte[] out, int n) {
+    if (keyMatch < KEY.length && c == KEY[keyMatch]) {
+      keyMatch++;
+      return n;
+    }
+    if (keyMatch == KEY.length && c == '"') {
+      // key "source" của downstream → bỏ cả member
+      keyMatch = -1;
+      expectKey = false;
+      skipping = true;
+      skipDepth = 0;
+      return n;
+    }
+
+    // không phải "source": phát lại dấu phẩy + phần key đã giữ
+    out[n++] = ',';
+    out[n++] = '"';
+    System.arraycopy(KEY, 0, out, n, keyMatch);
+    n += keyMatch;
+    out[n++] = c;
+    keyMatch = -1;
+    expectKey = false;
+    if (c == '\\') {
+      inString = true;
+      escape = true;
+    } else if (c != '"') {
+      inString = true;
+    }
+    return n;
+  }
+
+  private int skip(byte c, byte[] out, int n) {
+    if (inString) {
+      string(c);
+    } else if (c == '"') {
+      inString = true;
+    } else if (c == '{' || c == '[') {
+      skipDepth++;
+    } else if (c == '}' || c == ']') {
+      if (skipDepth > 0) {
+        skipDepth--;
+      } else {
+        skipping = false;
+        depth = 0;
+        done = true;
+        out[n++] = c;
+      }
+    } else if (c == ',' && skipDepth == 0) {
+      skipping = false;
+      expectKey = true;
+    }
+    return n;
+  }
+
+  private void string(byte c) {
+    if (escape) {
+      escape = false;
+    } else if (c == '\\') {
+      escape = true;
+    } else if (c == '"') {
+      inString = false;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package org.workfitai.apigateway.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.ExponentialBackOff;
+import org.workfitai.apigateway.model.dto.kafka.JobCacheEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka consumer for job.created / job.updated / job.deleted
+ * (response cache invalidation, JobCacheInvalidationConsumer).
+ *
+ * One consumer group for the whole gateway cluster: a single node bumps the
+ * generation in Redis and the change reaches the other nodes via pub/sub.
+ */
+@Configuration
+@EnableKafka
+@ConditionalOnProperty(prefix = "app.cache", name = {"enabled", "job-events.enabled"}, havingValue = "true")
+public class JobEventKafkaConfig {
+
+  @Value("${spring.kafka.bootstrap-servers:kafka:29092}")
+  private String bootstrapServers;
+
+  @Bean
+  public ConsumerFactory<String, JobCacheEvent> jobCacheEventConsumerFactory(ResponseCacheConfig cacheConfig) {
+    Map<String, Object> props = new HashMap<>();
+    props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+    props.put(ConsumerConfig.GROUP_ID_CONFIG, cacheConfig.getJobEvents().getGroupId());
+    // Cache chỉ cần event mới; event cũ đã hết hạn theo TTL
+    props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+    JsonDeserializer<JobCacheEvent> valueDeserializer = new JsonDeserializer<>(JobCacheEvent.class, false);
+    valueDeserializer.ignoreTypeHeaders();
+    return new DefaultKafkaConsumerFactory<>(props,
+        new StringDeserializer(),
+        new ErrorHandlingDeserializer<>(valueDeserializer));
+  }
+
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, JobCacheEvent> jobCacheEventListenerContainerFactory(
+      ConsumerFactory<String, JobCacheEvent> jobCacheEventConsumerFactory) {
+    ConcurrentKafkaListenerContainerFactory<String, JobCacheEvent> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(jobCacheEventConsumerFactory);
+    // Redis lỗi → retry với backoff (tối đa ~1 phút) trước khi bỏ qua event
+    ExponentialBackOff backOff = new ExponentialBackOff(500, 2.0);
+    backOff.setMaxInterval(10_000);
+    backOff.setMaxElapsedTime(60_000);
+    factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+    return factory;
+  }
+}
@@ -0,0 +1,252 @@
+package org.workfitai.apigateway.config;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded scanner over the head of a response body.
+ *
+ * Decides - without parsing the whole document - whether the body is already
+ * a ResponseData envelope (top-level "status" + "message"), a JSON value that
+ * must be wrapped, something that should pass through untouched, or a body
+ * the head cannot decide (then the filter parses it fully, like BUFFERED).
+ * The scanned bytes are checked against the JSON grammar, so a text body
+ * that merely starts with '{' is never spliced. Only top-level keys are
+ * collected; nested objects/strings are skipped.
+ */
+final class JsonEnvelopeSniffer {
+
+  enum Shape {
+    ENVELOPE,
+    WRAP,
+    PASS_THROUGH,
+    FULL_PARSE
+  }
+
+  /** bufferIndex/offset point at the first non-whitespace byte of the body */
+  record Result(Shape shape, int bufferIndex, int offset) {
+  }
+
+  private enum Expect {
+    VALUE,
+    VALUE_OR_END,
+    KEY,
+    KEY_OR_END,
+    COLON,
+    COMMA_OR_END
+  }
+
+  private static final int MAX_KEY_LENGTH = 32;
+  private static final int MAX_TOKEN_LENGTH = 64;
+  private static final Pattern NUMBER = Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?");
+
+  private JsonEnvelopeSniffer() {
+  }
+
+  static Result sniff(List<? extends DataBuffer> buffers, int limit, boolean jsonDeclared) {
+    Scan scan = new Scan();
+    int scanned = 0;
+
+    for (int bi = 0; bi < buffers.size(); bi++) {
+      DataBuffer buffer = buffers.get(bi);
+      for (int i = buffer.readPosition(); i < buffer.writePosition(); i++) {
+        if (scanned++ == limit) {
+          return scan.result(scan.truncated(jsonDeclared));
+        }
+        byte c = buffer.getByte(i);
+
+        if (scan.startBuffer < 0) {
+          if (isWhitespace(c)) continue;
+          scan.startBuffer = bi;
+          scan.startOffset = i;
+          if (c != '{' && c != '[') {
+            // scalar (hoặc text trông như scalar) → parse hẳn như legacy; body loại này rất nhỏ
+            return scan.result(isScalarStart(c) ? Shape.FULL_PARSE : Shape.PASS_THROUGH);
+          }
+        }
+
+        if (!scan.accept(c)) {
+          return scan.result(Shape.PASS_THROUGH);
+        }
+      }
+    }
+
+    if (scan.startBuffer < 0) {
+      return new Result(Shape.PASS_THROUGH, -1, -1);
+    }
+    // đã thấy toàn bộ body: chưa đóng → không phải JSON hợp lệ
+    return scan.result(scan.closed ? scan.closedShape() : Shape.PASS_THROUGH);
+  }
+
+  /** Incremental JSON grammar check over the scanned bytes */
+  private static final class Scan {
+
+    int startBuffer = -1;
+    int startOffset = -1;
+    boolean closed;
+
+    private final BitSet objects = new BitSet();
+    private int depth;
+    private Expect expect = Expect.VALUE;
+    private boolean inString;
+    private boolean keyString;
+    private boolean escape;
+    private StringBuilder key;
+    private StringBuilder token;
+    private String firstKey;
+    private boolean hasStatus;
+    private boolean hasMessage;
+
+    Result result(Shape shape) {
+      return new Result(shape, startBuffer, startOffset);
+    }
+
+    Shape closedShape() {
+      return (hasStatus && hasMessage) ? Shape.ENVELOPE : Shape.WRAP;
+    }
+
+    /** Hết giới hạn quét khi value gốc chưa đóng */
+    Shape truncated(boolean jsonDeclared) {
+      if (closed) {
+        return closedShape();
+      }
+      if (!jsonDeclared) {
+        // phần đầu hợp lệ nhưng header không khẳng định JSON → không đoán phần còn lại
+        return Shape.FULL_PARSE;
+      }
+      // các service đều serialize "status" làm key đầu tiên
+      return ((hasStatus && hasMessage) || "status".equals(firstKey)) ? Shape.ENVELOPE : Shape.WRAP;
+    }
+
+    /** @return false when the byte cannot continue a JSON document */
+    boolean accept(byte c) {
+      if (closed) {
+        return isWhitespace(c);
+      }
+      if (inString) {
+        return acceptInString(c);
+      }
+      if (token != null) {
+        if (isTokenChar(c)) {
+          if (token.length() >= MAX_TOKEN_LENGTH) return false;
+          token.append((char) c);
+          return true;
+        }
+        if (!isValidToken(token)) return false;
+        token = null;
+        expect = Expect.COMMA_OR_END;
+      }
+      if (isWhitespace(c)) {
+        return true;
+      }
+
+      switch (expect) {
+        case VALUE, VALUE_OR_END -> {
+          if (c == ']' && expect == Expect.VALUE_OR_END) return close(false);
+          if (c == '{') {
+            open(true);
+            expect = Expect.KEY_OR_END;
+          } else if (c == '[') {
+            open(false);
+            expect = Expect.VALUE_OR_END;
+          } else if (c == '"') {
+            inString = true;
+            keyString = false;
+          } else if (isScalarStart(c)) {
+            token = new StringBuilder().append((char) c);
+          } else {
+            return false;
+          }
+          return true;
+        }
+        case KEY, KEY_OR_END -> {
+          if (c == '}' && expect == Expect.KEY_OR_END) return close(true);
+          if (c != '"') return false;
+          inString = true;
+          keyString = true;
+          key = (depth == 1) ? new StringBuilder() : null;
+          return true;
+        }
+        case COLON -> {
+          if (c != ':') return false;
+          expect = Expect.VALUE;
+          return true;
+        }
+        default -> {
+          boolean inObject = objects.get(depth);
+          if (c == ',') {
+            expect = inObject ? Expect.KEY : Expect.VALUE;
+            return true;
+          }
+          return c == (inObject ? '}' : ']') && close(inObject);
+        }
+      }
+    }
+
+    private boolean acceptInString(byte c) {
+      if (escape) {
+        escape = false;
+      } else if (c == '\\') {
+        escape = true;
+      } else if (c == '"') {
+        inString = false;
+        if (keyString) {
+          keyString = false;
+          expect = Expect.COLON;
+          if (key != null) {
+            String k = key.toString();
+            key = null;
+            if (firstKey == null) firstKey = k;
+            if (k.equals("status")) hasStatus = true;
+            if (k.equals("message")) hasMessage = true;
+          }
+        } else {
+          expect = Expect.COMMA_OR_END;
+        }
+        return true;
+      } else if ((c & 0xFF) < 0x20) {
+        // ký tự điều khiển chưa escape → không phải chuỗi JSON
+        return false;
+      }
+      if (key != null && key.length() < MAX_KEY_LENGTH) key.append((char) c);
+      return true;
+    }
+
+    private void open(boolean object) {
+      depth++;
+      objects.set(depth, object);
+    }
+
+    private boolean close(boolean object) {
+      if (objects.get(depth) != object) return false;
+      depth--;
+      if (depth == 0) {
+        closed = true;
+      } else {
+        expect = Expect.COMMA_OR_END;
+      }
+      return true;
+    }
+  }
+
+  private static boolean isValidToken(CharSequence token) {
+    String t = token.toString();
+    return t.equals("true") || t.equals("false") || t.equals("null") || NUMBER.matcher(t).matches();
+  }
+
+  private static boolean isTokenChar(byte c) {
+    return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+        || c == '-' || c == '+' || c == '.';
+  }
+
+  private static boolean isWhitespace(byte c) {
+    return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+  }
+
+  private static boolean isScalarStart(byte c) {
+    return c == '"' || c == '-' || (c >= '0' && c <= '9') || c == 't' || c == 'f' || c == 'n';
+  }
+}
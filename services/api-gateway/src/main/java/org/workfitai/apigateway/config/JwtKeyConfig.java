@@ -0,0 +1,36 @@
+package org.workfitai.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * JWT Signing Key & Verified-Token Cache Configuration Properties
+ *
+ * - Signing keys are fetched from auth-service's JWK Set and refreshed in the
+ *   background; an unknown "kid" triggers an on-demand refresh (at most once
+ *   per min-refresh-interval)
+ * - Keys no longer published are kept for retention so tokens signed before a
+ *   rotation stay valid until they expire
+ * - verified-cache: token hash → parsed JWT, so each token's signature is
+ *   checked once instead of on every request
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.jwt")
+@Data
+public class JwtKeyConfig {
+
+    private Duration refreshInterval = Duration.ofMinutes(5);
+    private Duration minRefreshInterval = Duration.ofSeconds(30);
+    private Duration retention = Duration.ofHours(1);
+    private VerifiedCache verifiedCache = new VerifiedCache();
+
+    @Data
+    public static class VerifiedCache {
+        private boolean enabled = true;
+        private long maxSize = 100_000;
+        private Duration maxTtl = Duration.ofMinutes(5);
+    }
+}
@@ -10,6 +10,8 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
+import org.workfitai.apigateway.filter.OpaqueToJwtPreFilter;
+import org.workfitai.apigateway.security.OpaqueTokenNearCache;
 import org.workfitai.apigateway.service.IOpaqueTokenService;
 import reactor.core.publisher.Mono;
 
@@ -26,6 +28,7 @@ import reactor.core.publisher.Mono;
 public class OpaqueToJwtWebFilter implements WebFilter {
 
     private final IOpaqueTokenService opaqueTokenService;
+    private final OpaqueTokenNearCache nearCache;
 
     @Override
     @SuppressWarnings("null")
@@ -56,6 +59,17 @@ public class OpaqueToJwtWebFilter implements WebFilter {
             return chain.filter(exchange);
         }
 
+        // Lưu opaque cho logout revoke + near-cache population
+        exchange.getAttributes().put(OpaqueToJwtPreFilter.ATTR_OPAQUE_USED, token);
+
+        // Near-cache hit: bỏ qua Redis + verify chữ ký
+        OpaqueTokenNearCache.Entry cached = nearCache.get(token);
+        if (cached != null) {
+            log.debug("[OpaqueWebFilter] ⚡ Near-cache hit for opaque={}", token.substring(0, Math.min(8, token.length())));
+            exchange.getAttributes().put(OpaqueTokenNearCache.ATTR_CACHED_AUTHENTICATION, cached.authentication());
+            return chain.filter(exchange.mutate().request(withJwt(exchange.getRequest(), cached.jwt(), token)).build());
+        }
+
         // Convert opaque to JWT
         log.info("[OpaqueWebFilter] 🔄 Converting opaque -> jwt for token={}",
                 token.substring(0, Math.min(8, token.length())));
@@ -72,13 +86,7 @@ public class OpaqueToJwtWebFilter implements WebFilter {
                     }
 
                     // Replace Authorization header with JWT
-                    ServerHttpRequest mutated = exchange.getRequest().mutate()
-                            .headers(h -> {
-                                h.set("Authorization", "Bearer " + jwt);
-                                h.set("X-Token-Source", "opaque");
-                                h.set("X-Original-Opaque", token);
-                            })
-                            .build();
+                    ServerHttpRequest mutated = withJwt(exchange.getRequest(), jwt, token);
 
                     log.info("[OpaqueWebFilter] 🧩 Replaced Authorization header with JWT");
                     return chain.filter(exchange.mutate().request(mutated).build());
@@ -90,4 +98,14 @@ public class OpaqueToJwtWebFilter implements WebFilter {
                     return chain.filter(exchange);
                 });
     }
-}
\ No newline at end of file
+
+    private static ServerHttpRequest withJwt(ServerHttpRequest request, String jwt, String opaque) {
+        return request.mutate()
+                .headers(h -> {
+                    h.set("Authorization", "Bearer " + jwt);
+                    h.set("X-Token-Source", "opaque");
+                    h.set("X-Original-Opaque", opaque);
+                })
+                .build();
+    }
+}
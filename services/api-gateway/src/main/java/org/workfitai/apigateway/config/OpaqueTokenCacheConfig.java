@@ -0,0 +1,26 @@
+package org.workfitai.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Opaque Token Near-Cache Configuration Properties
+ *
+ * In-process cache of opaque → (JWT, verified authentication) so hot users
+ * skip both the Redis lookup and the RSA signature check.
+ * Entries never outlive the JWT "exp"; revocations are broadcast to all
+ * gateway nodes over the Redis pub/sub channel.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.opaque-token.near-cache")
+@Data
+public class OpaqueTokenCacheConfig {
+
+    private boolean enabled = true;
+    private long maxSize = 50_000;
+    private Duration maxTtl = Duration.ofMinutes(5);
+    private String revocationChannel = "opaque:revoked";
+}
@@ -4,6 +4,7 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,6 +15,7 @@ import java.util.List;
  * - Global rate limits (per IP address)
  * - Per-user rate limits (for authenticated requests)
  * - Endpoint-specific rate limits
+ * - Optional local token leases (each node pre-claims small batches from Redis)
  */
 @Configuration
 @ConfigurationProperties(prefix = "app.rate-limit")
@@ -23,6 +25,7 @@ public class RateLimitConfig {
     private GlobalConfig global = new GlobalConfig();
     private PerUserConfig perUser = new PerUserConfig();
     private List<EndpointConfig> endpoints = new ArrayList<>();
+    private LeaseConfig lease = new LeaseConfig();
 
     @Data
     public static class GlobalConfig {
@@ -38,6 +41,30 @@ public class RateLimitConfig {
         private int burstCapacity = 100;
     }
 
+    /**
+     * Local token-lease mode: tokens are claimed from the shared Redis bucket in
+     * batches and served from memory until used or {@code ttl} elapses; unused
+     * tokens are given back when the lease expires.
+     *
+     * Accuracy trade-off: every replica may hold one lease per key, so a key can
+     * be under-admitted by up to {@code replicas} leases while they sit unused
+     * (never over-admitted). The lease is therefore capped at
+     * {@code max-fraction} of the bucket capacity split across
+     * {@code replicas}; limits too small for a lease of 2 tokens skip leasing
+     * and consume from Redis per request.
+     */
+    @Data
+    public static class LeaseConfig {
+        private boolean enabled = false;
+        private int size = 20;
+        private Duration ttl = Duration.ofSeconds(1);
+        private long maxKeys = 100_000;
+        /** Gateway replicas sharing the Redis buckets */
+        private int replicas = 1;
+        /** Share of a bucket's capacity all replicas' leases may hold together */
+        private double maxFraction = 0.1;
+    }
+
     @Data
     public static class EndpointConfig {
         private String path;
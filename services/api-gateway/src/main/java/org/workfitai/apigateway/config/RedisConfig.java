@@ -3,7 +3,10 @@ package org.workfitai.apigateway.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 @Configuration
 public class RedisConfig {
@@ -11,4 +14,14 @@ public class RedisConfig {
   public ReactiveStringRedisTemplate reactiveStringRedisTemplate(ReactiveRedisConnectionFactory cf) {
     return new ReactiveStringRedisTemplate(cf);
   }
+
+  /** String keys, raw byte[] values (compressed response cache payloads) */
+  @Bean
+  public ReactiveRedisTemplate<String, byte[]> reactiveBytesRedisTemplate(ReactiveRedisConnectionFactory cf) {
+    RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+        .<String, byte[]>newSerializationContext(RedisSerializer.string())
+        .value(RedisSerializer.byteArray())
+        .build();
+    return new ReactiveRedisTemplate<>(cf, context);
+  }
 }
@@ -0,0 +1,79 @@
+package org.workfitai.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response Cache Configuration Properties
+ *
+ * - patterns: PathPattern (e.g. /job/public/**) + TTL of cacheable GET routes
+ * - skip-paths: path prefixes that are never cached (user-specific data)
+ * - l1-max-size: byte budget of the in-process tier in front of Redis
+ * - entries are invalidated per tag (first path segment, e.g. "job", plus an
+ *   optional per-pattern tag such as "job:{id}") by bumping a generation counter,
+ *   announced to every node on invalidation-channel
+ * - job-events: tags driven by job.created/updated/deleted instead of gateway mutations
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.cache")
+@Data
+public class ResponseCacheConfig {
+
+    private boolean enabled = false;
+    private List<PatternConfig> patterns = new ArrayList<>();
+    private List<String> skipPaths = new ArrayList<>();
+
+    /** In-memory L1 budget (weighted by stored payload bytes) */
+    private DataSize l1MaxSize = DataSize.ofMegabytes(64);
+
+    /** Responses larger than this are served but never cached */
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+    /** Payloads at least this large are stored gzip-compressed */
+    private DataSize compressionThreshold = DataSize.ofKilobytes(1);
+
+    /** How long a node trusts its local copy of a tag generation without pub/sub */
+    private Duration generationRefresh = Duration.ofSeconds(10);
+
+    /** Max time a coalesced request waits for the in-flight leader */
+    private Duration coalesceTimeout = Duration.ofSeconds(5);
+
+    private String invalidationChannel = "cache:invalidate";
+
+    /** Lifetime of generation counters; never shorter than the longest pattern TTL */
+    private Duration generationTtl = Duration.ofDays(1);
+
+    private EventInvalidation jobEvents = new EventInvalidation();
+
+    @Data
+    public static class PatternConfig {
+        private String path;
+        private Integer ttlMinutes;
+        private Integer ttlSeconds;
+        /** Extra invalidation tag, may reference URI variables of path (e.g. job:{id}) */
+        private String tag;
+
+        public Duration getTtl() {
+            if (ttlSeconds != null) return Duration.ofSeconds(ttlSeconds);
+            if (ttlMinutes != null) return Duration.ofMinutes(ttlMinutes);
+            return Duration.ofMinutes(5);
+        }
+    }
+
+    @Data
+    public static class EventInvalidation {
+        private boolean enabled = false;
+        /** Base tag the events belong to; listing tag = {tag}:listing, detail tag = {tag}:{jobId} */
+        private String tag = "job";
+        private String groupId = "api-gateway-cache";
+        /** PathPatterns whose mutations are covered by events (no gateway-side invalidation) */
+        private List<String> coveredPaths = new ArrayList<>();
+    }
+}
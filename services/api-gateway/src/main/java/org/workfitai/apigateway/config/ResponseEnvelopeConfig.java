@@ -0,0 +1,44 @@
+package org.workfitai.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response Envelope Configuration Properties
+ *
+ * Controls how ResponseSourceGlobalFilter injects "source" / wraps bodies:
+ * - STREAMING: prefix/suffix buffers around the untouched downstream body
+ * - BUFFERED: legacy mode, aggregate + parse + re-serialize every body
+ *
+ * Token-issuing routes (token-issuing-paths) carry JWTs and are still
+ * aggregated (up to max-token-scan-bytes) so tokens can be opaque-minted.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.response-envelope")
+@Data
+public class ResponseEnvelopeConfig {
+
+    private Mode mode = Mode.STREAMING;
+
+    /** Bytes inspected at the head of the body to detect an existing envelope */
+    private int sniffBytes = 512;
+
+    /** Upper bound for aggregating token-bearing responses; larger bodies stream */
+    private int maxTokenScanBytes = 256 * 1024;
+
+    /** Exact request paths whose responses may contain JWTs to be minted */
+    private List<String> tokenIssuingPaths = new ArrayList<>(List.of(
+            "/auth/login",
+            "/auth/verify-2fa-login",
+            "/auth/refresh",
+            "/auth/oauth/exchange"));
+
+    public enum Mode {
+        STREAMING,
+        BUFFERED
+    }
+}
@@ -21,15 +21,14 @@ import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
-import org.workfitai.apigateway.service.IOpaqueTokenService;
+import org.workfitai.apigateway.service.TokenMintingStage;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Configuration
 @RequiredArgsConstructor
@@ -37,22 +36,31 @@ import java.util.function.Supplier;
 public class ResponseSourceGlobalFilter {
 
   private final ObjectMapper mapper;
-  private final IOpaqueTokenService opaqueTokenService;
+  private final TokenMintingStage tokenMintingStage;
+  private final ResponseEnvelopeConfig envelopeConfig;
+  private final RoutePolicyIndex routePolicyIndex;
 
   @Bean
   public GlobalFilter responseSourceFilter() {
     // order = -2 (trước NettyWriteResponseFilter -1)
-    return new DecoratingResponseFilter(mapper, opaqueTokenService);
+    return new DecoratingResponseFilter(mapper, tokenMintingStage, envelopeConfig, routePolicyIndex);
   }
 
   static final class DecoratingResponseFilter implements GlobalFilter, Ordered {
 
+    private static final byte[] ENVELOPE_SUFFIX = "}".getBytes(StandardCharsets.UTF_8);
+
     private final ObjectMapper mapper;
-    private final IOpaqueTokenService opaqueTokenService;
+    private final TokenMintingStage tokenMintingStage;
+    private final ResponseEnvelopeConfig config;
+    private final RoutePolicyIndex routePolicyIndex;
 
-    DecoratingResponseFilter(ObjectMapper mapper, IOpaqueTokenService svc) {
+    DecoratingResponseFilter(ObjectMapper mapper, TokenMintingStage stage, ResponseEnvelopeConfig config,
+                             RoutePolicyIndex routePolicyIndex) {
       this.mapper = mapper;
-      this.opaqueTokenService = svc;
+      this.tokenMintingStage = stage;
+      this.config = config;
+      this.routePolicyIndex = routePolicyIndex;
     }
 
     @Override
@@ -80,171 +88,156 @@ public class ResponseSourceGlobalFilter {
       ServerHttpResponse original = exchange.getResponse();
       DataBufferFactory bufferFactory = original.bufferFactory();
 
+      boolean tokenRoute = routePolicyIndex.policyOf(exchange).tokenMinting();
+
       ServerHttpResponseDecorator decorated = new ServerHttpResponseDecorator(original) {
 
         @Override
         public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
           // ✅ luôn convert sang Flux để hỗ trợ cả Mono<DataBuffer>
-          Flux<? extends DataBuffer> fluxBody = Flux.from(body);
-
-          return super.writeWith(
-              fluxBody.collectList()
-                  .flatMap(list -> {
-                    byte[] content = merge(list);
-
-                    MediaType ct = getHeaders().getContentType();
-                    log.debug("[ResponseSourceFilter] routeId={}, source={}, Content-Type={}", finalRouteId, finalSource, ct);
-
-                    // Nếu header thể hiện rõ là binary/file → pass-through
-                    if (ct != null) {
-                      String cts = ct.toString().toLowerCase();
-                      if (cts.contains("pdf") || cts.contains("octet-stream") ||
-                          cts.startsWith("image/") || cts.startsWith("video/")) {
-                        return Mono.just(bufferFactory.wrap(content));
-                      }
-                    }
-
-                    // Cứ thử parse JSON (kể cả khi CT null). Parse fail → trả nguyên
-                    JsonNode parsed;
-                    try {
-                      parsed = mapper.readTree(content);
-                    } catch (Exception e) {
-                      log.debug("[ResponseSourceFilter] routeId={} parse fail: {}", finalRouteId, e.getMessage());
-                      return Mono.just(bufferFactory.wrap(content));
-                    }
-
-                    int httpStatus = (getStatusCode() != null) ? getStatusCode().value() : 200;
+          Flux<DataBuffer> fluxBody = Flux.from(body).map(b -> (DataBuffer) b);
 
-                    Mono<JsonNode> processed;
-                    if (parsed.has("status") && parsed.has("message")) {
-                      // ĐÃ là ResponseData → chỉ thêm "source" + opaque hóa (deep)
-                      ((ObjectNode) parsed).put("source", finalSource);
-                      processed = opaqueTokensIfPresentDeep(parsed);
-                    } else {
-                      // KHÔNG phải ResponseData → wrap lại + opaque hóa (deep)
-                      ObjectNode wrapper = mapper.createObjectNode();
-                      wrapper.put("status", httpStatus);
-                      wrapper.put("message", httpStatus < 400 ? "Success" : "Error");
-                      wrapper.set("data", parsed);
-                      wrapper.put("source", finalSource);
-                      wrapper.put("timestamp", LocalDateTime.now().toString());
-                      processed = opaqueTokensIfPresentDeep(wrapper);
-                    }
-
-                    return processed.map(n -> {
-                      try {
-                        byte[] bytes = mapper.writeValueAsBytes(n);
-                        getHeaders().setContentType(MediaType.APPLICATION_JSON);
-                        getHeaders().remove("Content-Length");
-                        return bufferFactory.wrap(bytes);
-                      } catch (Exception e) {
-                        log.debug("[ResponseSourceFilter] writeValueAsBytes fail: {}", e.getMessage());
-                        return bufferFactory.wrap(content);
-                      }
-                    });
-                  })
-                  .flux()
-          );
-        }
+          MediaType ct = getHeaders().getContentType();
+          log.debug("[ResponseSourceFilter] routeId={}, source={}, Content-Type={}, tokenRoute={}",
+              finalRouteId, finalSource, ct, tokenRoute);
 
-        @Override
-        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
-          // một số handler ghi theo luồng này → hợp nhất rồi tái dùng writeWith
-          return writeWith(Flux.from(body).flatMapSequential(p -> p));
-        }
+          // Nếu header thể hiện rõ là binary/file → pass-through, không đụng tới body
+          if (isBinary(ct)) {
+            return super.writeWith(fluxBody);
+          }
 
-        /** Opaque-hoá token theo kiểu đệ quy: bắt hầu hết key phổ biến & biến thể */
-        private Mono<JsonNode> opaqueTokensIfPresentDeep(JsonNode root) {
-          ObjectNode target = root.isObject() ? (ObjectNode) root : mapper.createObjectNode().put("status", 200).put("message", "Success");
-          if (!root.isObject()) {
-            target.set("data", root);
-            target.put("timestamp", LocalDateTime.now().toString());
+          if (config.getMode() == ResponseEnvelopeConfig.Mode.BUFFERED) {
+            return super.writeWith(fluxBody.collectList()
+                .flatMap(list -> envelopeBuffered(merge(list), tokenRoute))
+                .flux());
           }
 
-          // container: ưu tiên data nếu có
-          ObjectNode container = target;
-          if (target.has("data") && target.get("data").isObject()) {
-            container = (ObjectNode) target.get("data");
+          if (tokenRoute) {
+            return super.writeWith(boundedTokenPass(fluxBody, isJson(ct)));
           }
+          return super.writeWith(streamingEnvelope(fluxBody, config.getSniffBytes(), isJson(ct)));
+        }
+
+        /**
+         * Streaming: chỉ gom đủ sniffBytes đầu để nhận dạng, sau đó phát
+         * prefix/suffix bao quanh chính các DataBuffer của downstream.
+         */
+        private Flux<DataBuffer> streamingEnvelope(Flux<DataBuffer> fluxBody, int sniffBytes, boolean jsonDeclared) {
+          return headOf(fluxBody, sniffBytes)
+              .switchOnFirst((signal, chunks) -> {
+                if (!signal.hasValue()) {
+                  return chunks.concatMapIterable(l -> l);
+                }
+                List<DataBuffer> head = signal.get();
+                JsonEnvelopeSniffer.Result sniff = JsonEnvelopeSniffer.sniff(head, sniffBytes, jsonDeclared);
+                Flux<DataBuffer> rest = chunks.concatMapIterable(l -> l);
+
+                switch (sniff.shape()) {
+                  case ENVELOPE -> {
+                    // ĐÃ là ResponseData → chèn "source" ngay sau dấu "{", bỏ "source" cũ nếu có
+                    prepareRewrittenHeaders();
+                    EnvelopeSourceSplicer splicer = new EnvelopeSourceSplicer(jsonString(finalSource));
+                    return rest.map(b -> splicer.apply(b, bufferFactory));
+                  }
+                  case WRAP -> {
+                    // KHÔNG phải ResponseData → wrap: data là phần body gốc, giữ nguyên byte
+                    int httpStatus = (getStatusCode() != null) ? getStatusCode().value() : 200;
+                    prepareRewrittenHeaders();
+                    byte[] prefix = ("{\"status\":" + httpStatus
+                        + ",\"message\":\"" + (httpStatus < 400 ? "Success" : "Error") + "\""
+                        + ",\"source\":" + jsonString(finalSource)
+                        + ",\"timestamp\":\"" + LocalDateTime.now() + "\""
+                        + ",\"data\":").getBytes(StandardCharsets.UTF_8);
+                    return Flux.concat(
+                        Mono.fromSupplier(() -> bufferFactory.wrap(prefix)),
+                        rest,
+                        Mono.fromSupplier(() -> bufferFactory.wrap(ENVELOPE_SUFFIX)));
+                  }
+                  case FULL_PARSE -> {
+                    // phần đầu không đủ để kết luận → parse toàn bộ như BUFFERED
+                    return rest.collectList()
+                        .flatMap(list -> envelopeBuffered(merge(list), false))
+                        .flux();
+                  }
+                  default -> {
+                    return rest;
+                  }
+                }
+              });
+        }
 
-          List<Supplier<Mono<Boolean>>> jobs = new ArrayList<>();
-          traverseAndCollectMintJobs(container, jobs);
+        /**
+         * Token-issuing routes: gom tối đa maxTokenScanBytes rồi chạy minting stage.
+         * Body vượt giới hạn thì không thể là response token → streaming.
+         */
+        private Flux<DataBuffer> boundedTokenPass(Flux<DataBuffer> fluxBody, boolean jsonDeclared) {
+          int limit = config.getMaxTokenScanBytes();
+          AtomicLong total = new AtomicLong();
+          return fluxBody
+              .bufferUntil(b -> total.addAndGet(b.readableByteCount()) > limit)
+              .switchOnFirst((signal, chunks) -> {
+                if (signal.hasValue() && total.get() <= limit) {
+                  // predicate chưa từng bật → chunk đầu tiên chính là toàn bộ body
+                  return chunks.concatMap(list -> envelopeBuffered(merge(list), true));
+                }
+                log.debug("[ResponseSourceFilter] routeId={} body > {} bytes, streaming without token pass",
+                    finalRouteId, limit);
+                return streamingEnvelope(chunks.concatMapIterable(l -> l), config.getSniffBytes(), jsonDeclared);
+              });
+        }
 
-          if (jobs.isEmpty()) {
-            return Mono.just(target);
+        /** Buffered path: parse toàn bộ body thành tree, thêm source/wrap, mint nếu là token route */
+        private Mono<DataBuffer> envelopeBuffered(byte[] content, boolean mintTokens) {
+          // Cứ thử parse JSON (kể cả khi CT null). Parse fail → trả nguyên
+          JsonNode parsed;
+          try {
+            parsed = mapper.readTree(content);
+          } catch (Exception e) {
+            log.debug("[ResponseSourceFilter] routeId={} parse fail: {}", finalRouteId, e.getMessage());
+            return Mono.just(bufferFactory.wrap(content));
           }
 
-          Mono<Boolean> chain = Mono.just(false);
-          for (Supplier<Mono<Boolean>> job : jobs) {
-            chain = chain.flatMap(changedSoFar -> job.get().map(changedThis -> changedSoFar || changedThis));
+          int httpStatus = (getStatusCode() != null) ? getStatusCode().value() : 200;
+
+          ObjectNode envelope;
+          if (parsed.has("status") && parsed.has("message")) {
+            // ĐÃ là ResponseData → chỉ thêm "source"
+            envelope = (ObjectNode) parsed;
+            envelope.put("source", finalSource);
+          } else {
+            // KHÔNG phải ResponseData → wrap lại
+            envelope = mapper.createObjectNode();
+            envelope.put("status", httpStatus);
+            envelope.put("message", httpStatus < 400 ? "Success" : "Error");
+            envelope.set("data", parsed);
+            envelope.put("source", finalSource);
+            envelope.put("timestamp", LocalDateTime.now().toString());
           }
 
-          ObjectNode finalTarget = target;
-          ObjectNode finalContainer = container;
-
-          return chain.map(anyChanged -> {
-            if (anyChanged) {
-              if (finalContainer.has("tokenType")) finalContainer.put("tokenType", "Opaque");
-              else finalTarget.put("tokenType", "Opaque");
+          // chỉ token-issuing routes mới phải duyệt tìm JWT
+          Mono<JsonNode> processed = mintTokens ? tokenMintingStage.mint(envelope) : Mono.just(envelope);
+
+          return processed.map(n -> {
+            try {
+              byte[] bytes = mapper.writeValueAsBytes(n);
+              prepareRewrittenHeaders();
+              return bufferFactory.wrap(bytes);
+            } catch (Exception e) {
+              log.debug("[ResponseSourceFilter] writeValueAsBytes fail: {}", e.getMessage());
+              return bufferFactory.wrap(content);
             }
-            return (JsonNode) finalTarget;
           });
         }
 
-        /** duyệt đệ quy, gom các mint-job cho những field có thể là token */
-        private void traverseAndCollectMintJobs(JsonNode node, List<Supplier<Mono<Boolean>>> jobs) {
-          if (node == null) return;
-
-          if (node.isObject()) {
-            var fields = node.fields();
-            while (fields.hasNext()) {
-              var e = fields.next();
-              String key = e.getKey();
-              JsonNode child = e.getValue();
-
-              if (looksLikeTokenKey(key) && child.isTextual() && looksLikeJwt(child.asText())) {
-                String kind = key.toLowerCase().contains("refresh") ? "refresh" : "access";
-                jobs.add(() -> mintAndReplace((ObjectNode) node, key, child.asText(), kind));
-              } else {
-                traverseAndCollectMintJobs(child, jobs);
-              }
-            }
-          } else if (node.isArray()) {
-            for (int i = 0; i < node.size(); i++) {
-              traverseAndCollectMintJobs(node.get(i), jobs);
-            }
-          }
-        }
-
-        /** thực hiện mint và replace, trả true nếu có thay đổi */
-        private Mono<Boolean> mintAndReplace(ObjectNode obj, String key, String jwt, String kind) {
-          return opaqueTokenService.mint(jwt, kind)
-              .map(opaque -> {
-                if (opaque != null && !opaque.isEmpty()) {
-                  obj.put(key, opaque);
-                  log.debug("[opaque] replaced key='{}' kind={} → opaque", key, kind);
-                  return true;
-                }
-                return false;
-              })
-              .defaultIfEmpty(false);
+        private void prepareRewrittenHeaders() {
+          getHeaders().setContentType(MediaType.APPLICATION_JSON);
+          getHeaders().remove("Content-Length");
         }
 
-        private boolean looksLikeTokenKey(String key) {
-          String k = key.toLowerCase();
-          return k.equals("accesstoken") || k.equals("refreshtoken") || k.equals("idtoken")
-              || k.equals("access_token") || k.equals("refresh_token") || k.equals("id_token")
-              || k.equals("token") || k.equals("jwt") || k.equals("bearertoken") || k.equals("bearer_token")
-              || (k.contains("access") && k.contains("token"))
-              || (k.contains("refresh") && k.contains("token"))
-              || (k.contains("id") && k.contains("token"))
-              || k.equals("authorization");
-        }
-
-        private boolean looksLikeJwt(String s) {
-          if (s == null) return false;
-          int dots = (int) s.chars().filter(ch -> ch == '.').count();
-          return dots == 2 && s.length() > 20; // hình dạng "header.payload.sig"
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+          // một số handler ghi theo luồng này → hợp nhất rồi tái dùng writeWith
+          return writeWith(Flux.from(body).flatMapSequential(p -> p));
         }
 
         private byte[] merge(List<? extends DataBuffer> list) {
@@ -264,6 +257,32 @@ public class ResponseSourceGlobalFilter {
       return chain.filter(exchange.mutate().response(decorated).build());
     }
 
+    /** Flux các nhóm buffer: nhóm đầu có ít nhất headBytes (hoặc toàn bộ body nếu ngắn hơn) */
+    private static Flux<List<DataBuffer>> headOf(Flux<DataBuffer> body, int headBytes) {
+      AtomicLong seen = new AtomicLong();
+      return body.bufferUntil(b -> seen.addAndGet(b.readableByteCount()) >= headBytes);
+    }
+
+    private static boolean isBinary(MediaType ct) {
+      if (ct == null) return false;
+      String cts = ct.toString().toLowerCase();
+      return cts.contains("pdf") || cts.contains("octet-stream") ||
+          cts.startsWith("image/") || cts.startsWith("video/");
+    }
+
+    private static boolean isJson(MediaType ct) {
+      return ct != null && (MediaType.APPLICATION_JSON.isCompatibleWith(ct)
+          || (ct.getSubtype() != null && ct.getSubtype().endsWith("+json")));
+    }
+
+    private String jsonString(String value) {
+      try {
+        return mapper.writeValueAsString(value);
+      } catch (Exception e) {
+        return "\"unknown\"";
+      }
+    }
+
     // giữ lại util cũ nếu bạn còn dùng chỗ khác
     @SuppressWarnings("unused")
     private static boolean looksLikeJson(byte[] body) {
@@ -0,0 +1,40 @@
+package org.workfitai.apigateway.config;
+
+import org.workfitai.apigateway.service.RateLimitEngine;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Immutable per-route policy resolved once per request by {@link RoutePolicyIndex}
+ * and shared by all gateway filters through the {@link #ATTR} exchange attribute.
+ *
+ * @param cacheTtl          TTL for cacheable GET responses, null = not cacheable
+ * @param cacheTags         tags whose generations version the cache key (empty if not cacheable)
+ * @param invalidationTag   tag bumped after a successful mutation on this path, null = none
+ * @param rateLimit         bucket configuration, null = exempt from rate limiting
+ * @param tokenMinting      response may carry JWTs that must be opaque-minted
+ * @param protectedRoute    requires a Bearer Authorization header
+ * @param validationExempt  skip transport-level request validation
+ * @param logoutRevoke      revoke opaque tokens after a successful response
+ */
+public record RoutePolicy(
+    Duration cacheTtl,
+    List<String> cacheTags,
+    String invalidationTag,
+    RateLimitEngine.CompiledLimit rateLimit,
+    boolean tokenMinting,
+    boolean protectedRoute,
+    boolean validationExempt,
+    boolean logoutRevoke) {
+
+  public static final String ATTR = "ROUTE_POLICY";
+
+  public boolean cacheable() {
+    return cacheTtl != null;
+  }
+
+  public boolean rateLimited() {
+    return rateLimit != null;
+  }
+}
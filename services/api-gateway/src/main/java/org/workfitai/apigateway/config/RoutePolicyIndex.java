@@ -0,0 +1,192 @@
+package org.workfitai.apigateway.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.workfitai.apigateway.service.RateLimitEngine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Route-policy index built once at startup.
+ *
+ * Gathers every path rule the gateway filters used to evaluate ad-hoc
+ * (cache patterns, rate-limit endpoints, token-issuing paths, public/protected
+ * prefixes, logout paths) and resolves a request path to an immutable
+ * {@link RoutePolicy}. Resolved policies are memoized per path (bounded) and
+ * stored on the exchange so each filter reads the same object.
+ *
+ * Cache patterns (app.cache.patterns) are {@link PathPattern}s. The other
+ * rules keep the prefix / contains / exact semantics the filters had, so a
+ * path gets the same decision as before: they run once per distinct path.
+ */
+@Component
+@Slf4j
+public class RoutePolicyIndex {
+
+  private static final PathPatternParser PARSER = new PathPatternParser();
+
+  // Transport validation / auth header rules (trước đây nằm trong RequestValidationFilter)
+  private static final List<String> VALIDATION_EXEMPT_PREFIXES = List.of("/actuator", "/fallback");
+  private static final List<String> RATE_LIMIT_EXEMPT_PREFIXES = List.of("/actuator", "/health");
+  // gateway map /auth/** → auth service; AntPathMatcher cũ chỉ khớp đúng path này
+  private static final String LOGOUT_PATH = "/auth/logout";
+
+  private record CacheRule(PathPattern pattern, Duration ttl, String tag) {
+  }
+
+  private final List<CacheRule> cacheRules;
+  private final List<String> cacheSkipPrefixes;
+  private final Set<String> baseTags;
+  private final List<PathPattern> eventCoveredPaths;
+  private final List<RateLimitEngine.CompiledLimit> rateLimitRules;
+  private final RateLimitEngine.CompiledLimit defaultRateLimit;
+  private final Set<String> tokenIssuing;
+  private final Cache<String, RoutePolicy> resolved;
+
+  public RoutePolicyIndex(ResponseCacheConfig cacheConfig,
+                          ResponseEnvelopeConfig envelopeConfig,
+                          RateLimitEngine rateLimitEngine) {
+    this.cacheRules = cacheConfig.getPatterns().stream()
+        .map(p -> new CacheRule(PARSER.parse(p.getPath()), p.getTtl(), p.getTag()))
+        .toList();
+    this.cacheSkipPrefixes = List.copyOf(cacheConfig.getSkipPaths());
+    // tag = segment đầu của pattern ("/job/public/**" → "job"); mutation trên /job/** sẽ invalidate tag này
+    this.baseTags = cacheConfig.getPatterns().stream()
+        .map(p -> firstSegment(p.getPath()))
+        .filter(Objects::nonNull)
+        .filter(tag -> !tag.contains("*") && !tag.contains("{"))
+        .collect(Collectors.toUnmodifiableSet());
+    // mutation đã có Kafka event tương ứng (JobCacheInvalidationConsumer) → không invalidate theo path
+    this.eventCoveredPaths = cacheConfig.getJobEvents().isEnabled()
+        ? cacheConfig.getJobEvents().getCoveredPaths().stream().map(PARSER::parse).toList()
+        : List.of();
+    this.rateLimitRules = List.copyOf(rateLimitEngine.endpointLimits());
+    this.defaultRateLimit = rateLimitEngine.defaultLimit();
+    this.tokenIssuing = envelopeConfig.getTokenIssuingPaths().stream()
+        .map(RoutePolicyIndex::trimTrailingSlash)
+        .collect(Collectors.toUnmodifiableSet());
+    this.resolved = Caffeine.newBuilder().maximumSize(10_000).build();
+
+    log.info("🗺️ Route policy index: {} cache rules (tags {}), {} rate-limit rules, token-issuing paths {}",
+        cacheRules.size(), baseTags, rateLimitRules.size(), envelopeConfig.getTokenIssuingPaths());
+  }
+
+  /** Policy của request hiện tại; resolve 1 lần rồi gắn vào exchange attribute */
+  public RoutePolicy policyOf(ServerWebExchange exchange) {
+    RoutePolicy policy = exchange.getAttribute(RoutePolicy.ATTR);
+    if (policy == null) {
+      policy = resolve(exchange.getRequest().getPath().value());
+      exchange.getAttributes().put(RoutePolicy.ATTR, policy);
+    }
+    return policy;
+  }
+
+  public RoutePolicy resolve(String path) {
+    return resolved.get(path, this::compute);
+  }
+
+  private RoutePolicy compute(String path) {
+    PathContainer container = PathContainer.parsePath(path);
+
+    String segment = firstSegment(path);
+    String baseTag = segment != null && baseTags.contains(segment) ? segment : null;
+
+    Duration cacheTtl = null;
+    List<String> cacheTags = List.of();
+    CacheRule cacheRule = startsWithAny(path, cacheSkipPrefixes) ? null : firstCacheRule(container);
+    if (cacheRule != null) {
+      cacheTtl = cacheRule.ttl();
+      cacheTags = cacheTagsOf(cacheRule, container, baseTag);
+    }
+    RateLimitEngine.CompiledLimit rateLimit = startsWithAny(path, RATE_LIMIT_EXEMPT_PREFIXES)
+        ? null
+        : firstRateLimit(path);
+
+    return new RoutePolicy(
+        cacheTtl,
+        cacheTags,
+        baseTag != null && !anyMatch(eventCoveredPaths, container) ? baseTag : null,
+        rateLimit,
+        tokenIssuing.contains(trimTrailingSlash(path)),
+        isProtected(path),
+        startsWithAny(path, VALIDATION_EXEMPT_PREFIXES),
+        LOGOUT_PATH.equals(path));
+  }
+
+  /** "/job/public/..." hay "/api/job/public/..." đều public, "/auth" (không có "/") thì không */
+  private static boolean isProtected(String path) {
+    return !path.startsWith("/auth/")
+        && !path.startsWith("/actuator")
+        && !path.contains("/public/");
+  }
+
+  /** Endpoint limit đầu tiên khớp prefix thô ("/application" cũng khớp "/applications"), ngược lại là global */
+  private RateLimitEngine.CompiledLimit firstRateLimit(String path) {
+    for (RateLimitEngine.CompiledLimit limit : rateLimitRules) {
+      if (path.startsWith(limit.pathPrefix())) return limit;
+    }
+    return defaultRateLimit;
+  }
+
+  private CacheRule firstCacheRule(PathContainer path) {
+    for (CacheRule rule : cacheRules) {
+      if (rule.pattern().matches(path)) return rule;
+    }
+    return null;
+  }
+
+  /** [base tag, tag của pattern với URI variables đã thế vào] */
+  private static List<String> cacheTagsOf(CacheRule rule, PathContainer path, String baseTag) {
+    List<String> tags = new ArrayList<>(2);
+    if (baseTag != null) tags.add(baseTag);
+    if (rule.tag() != null) {
+      String tag = rule.tag();
+      PathPattern.PathMatchInfo info = rule.pattern().matchAndExtract(path);
+      if (info != null) {
+        for (Map.Entry<String, String> var : info.getUriVariables().entrySet()) {
+          tag = tag.replace("{" + var.getKey() + "}", var.getValue());
+        }
+      }
+      tags.add(tag);
+    }
+    return List.copyOf(tags);
+  }
+
+  private static boolean anyMatch(List<PathPattern> patterns, PathContainer path) {
+    for (PathPattern p : patterns) {
+      if (p.matches(path)) return true;
+    }
+    return false;
+  }
+
+  private static boolean startsWithAny(String path, List<String> prefixes) {
+    for (String prefix : prefixes) {
+      if (path.startsWith(prefix)) return true;
+    }
+    return false;
+  }
+
+  private static String firstSegment(String path) {
+    if (path == null) return null;
+    int start = path.startsWith("/") ? 1 : 0;
+    int end = path.indexOf('/', start);
+    String segment = end < 0 ? path.substring(start) : path.substring(start, end);
+    return segment.isEmpty() ? null : segment;
+  }
+
+  private static String trimTrailingSlash(String path) {
+    return (path.length() > 1 && path.endsWith("/")) ? path.substring(0, path.length() - 1) : path;
+  }
+}
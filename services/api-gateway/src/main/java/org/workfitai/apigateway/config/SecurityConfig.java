@@ -1,5 +1,6 @@
 package org.workfitai.apigateway.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
@@ -7,23 +8,28 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtReactiveAuthenticationManager;
 import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverter;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.web.server.util.matcher.PathPatternParserServerWebExchangeMatcher;
 import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.workfitai.apigateway.security.CachingReactiveJwtDecoder;
+import org.workfitai.apigateway.security.NearCacheJwtAuthentication;
+import org.workfitai.apigateway.security.OpaqueTokenNearCache;
 import org.workfitai.apigateway.security.PublicKeyProvider;
 import org.workfitai.apigateway.security.PublicPathsAuthenticationEntryPoint;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.security.interfaces.RSAPublicKey;
 import java.util.Collection;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -39,6 +45,7 @@ public class SecurityConfig {
         private final PublicKeyProvider publicKeyProvider;
         private final CorsConfigurationSource corsConfigurationSource;
         private final PublicPathsAuthenticationEntryPoint publicPathsEntryPoint;
+        private final OpaqueTokenNearCache opaqueTokenNearCache;
 
         /*
          * =========================================================
@@ -60,7 +67,7 @@ public class SecurityConfig {
          */
         @Bean
         @Order(0)
-        public SecurityWebFilterChain apiSecurityChain(ServerHttpSecurity http) {
+        public SecurityWebFilterChain apiSecurityChain(ServerHttpSecurity http, ReactiveJwtDecoder jwtDecoder) {
                 return http
                                 .cors(cors -> cors.configurationSource(corsConfigurationSource)) // ✅ Enable CORS with
                                                                                                  // custom config
@@ -111,28 +118,47 @@ public class SecurityConfig {
                                                                 err) -> Mono.fromRunnable(() -> swe.getResponse()
                                                                                 .setStatusCode(HttpStatus.FORBIDDEN))))
                                 .oauth2ResourceServer(oauth2 -> oauth2
+                                                .bearerTokenConverter(NearCacheJwtAuthentication.converter())
                                                 .jwt(jwt -> jwt
-                                                                .jwtDecoder(jwtDecoder())
-                                                                .jwtAuthenticationConverter(
-                                                                                jwtAuthenticationConverter())))
+                                                                .authenticationManager(jwtAuthenticationManager(jwtDecoder))))
                                 .build();
         }
 
         /*
          * =========================================================
-         * 3️⃣ JWT DECODER
+         * 3️⃣ JWT AUTHENTICATION (near-cache → decoder)
+         * =========================================================
+         */
+        private ReactiveAuthenticationManager jwtAuthenticationManager(ReactiveJwtDecoder jwtDecoder) {
+                JwtReactiveAuthenticationManager verifying = new JwtReactiveAuthenticationManager(jwtDecoder);
+                verifying.setJwtAuthenticationConverter(jwtAuthenticationConverter());
+                return NearCacheJwtAuthentication.authenticationManager(verifying, opaqueTokenNearCache);
+        }
+
+        /*
+         * =========================================================
+         * 4️⃣ JWT DECODER (verified-token cache → kid lookup in JWK Set)
          * =========================================================
          */
         @Bean
-        public ReactiveJwtDecoder jwtDecoder() {
-                RSAPublicKey key = publicKeyProvider.getPublicKey();
-                log.info("🔐 [Gateway] Building JWT decoder with RSA public key");
-                return NimbusReactiveJwtDecoder.withPublicKey(key).build();
+        public ReactiveJwtDecoder jwtDecoder(JwtKeyConfig jwtKeyConfig, MeterRegistry meterRegistry) {
+                NimbusReactiveJwtDecoder verifying = NimbusReactiveJwtDecoder
+                                .withJwkSource(signedJwt -> publicKeyProvider
+                                                .keysFor(signedJwt.getHeader().getKeyID())
+                                                .flatMapMany(Flux::fromIterable))
+                                .jwsAlgorithm(SignatureAlgorithm.RS256)
+                                .build();
+                log.info("🔐 [Gateway] Building JWT decoder with auth-service JWK Set (verified cache: {})",
+                                jwtKeyConfig.getVerifiedCache().isEnabled());
+                if (!jwtKeyConfig.getVerifiedCache().isEnabled()) {
+                        return verifying;
+                }
+                return new CachingReactiveJwtDecoder(verifying, jwtKeyConfig.getVerifiedCache(), meterRegistry);
         }
 
         /*
          * =========================================================
-         * 4️⃣ JWT → AUTHORITIES CONVERTER
+         * 5️⃣ JWT → AUTHORITIES CONVERTER
          * =========================================================
          */
         @Bean
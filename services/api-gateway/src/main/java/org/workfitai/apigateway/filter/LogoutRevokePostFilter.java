@@ -9,9 +9,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpStatus;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
+import org.workfitai.apigateway.config.RoutePolicyIndex;
 import org.workfitai.apigateway.service.IOpaqueTokenService;
 import reactor.core.publisher.Mono;
 
@@ -20,27 +20,21 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class LogoutRevokePostFilter {
 
-  private static final AntPathMatcher PM = new AntPathMatcher();
-
-  // chỉnh pattern tuỳ route của bạn; theo log trước đó, gateway map /auth/** → auth service
-  private static final String[] LOGOUT_PATTERNS = {
-      "/auth/logout",
-      "**/auth/logout",   // nới lỏng nếu có tiền tố serviceId
-      "*/logout"          // fallback nới lỏng
-  };
-
   private final IOpaqueTokenService opaqueTokenService;
+  private final RoutePolicyIndex routePolicyIndex;
 
   @Bean
   public GlobalFilter logoutRevokeFilter() {
-    return new LogoutRevokeFilterImpl(opaqueTokenService);
+    return new LogoutRevokeFilterImpl(opaqueTokenService, routePolicyIndex);
   }
 
   static final class LogoutRevokeFilterImpl implements GlobalFilter, Ordered {
     private final IOpaqueTokenService service;
+    private final RoutePolicyIndex routePolicyIndex;
 
-    LogoutRevokeFilterImpl(IOpaqueTokenService service) {
+    LogoutRevokeFilterImpl(IOpaqueTokenService service, RoutePolicyIndex routePolicyIndex) {
       this.service = service;
+      this.routePolicyIndex = routePolicyIndex;
     }
 
     @Override
@@ -51,16 +45,8 @@ public class LogoutRevokePostFilter {
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-      String path = exchange.getRequest().getPath().value();
-
-      boolean isLogout = false;
-      for (String p : LOGOUT_PATTERNS) {
-        if (PM.match(p, path)) {
-          isLogout = true;
-          break;
-        }
-      }
-      if (!isLogout) {
+      // logout patterns được compile sẵn trong RoutePolicyIndex
+      if (!routePolicyIndex.policyOf(exchange).logoutRevoke()) {
         return chain.filter(exchange);
       }
 
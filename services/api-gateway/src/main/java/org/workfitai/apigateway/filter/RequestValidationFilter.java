@@ -1,5 +1,6 @@
 package org.workfitai.apigateway.filter;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
@@ -12,6 +13,8 @@ import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
+import org.workfitai.apigateway.config.RoutePolicy;
+import org.workfitai.apigateway.config.RoutePolicyIndex;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
@@ -32,11 +35,14 @@ import java.util.Map;
  * diverse endpoint requirements (JSON, multipart, form-urlencoded, etc.)
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class RequestValidationFilter implements GlobalFilter, Ordered {
 
     private static final long MAX_REQUEST_SIZE = 10 * 1024 * 1024; // 10MB
 
+    private final RoutePolicyIndex routePolicyIndex;
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
@@ -48,8 +54,10 @@ public class RequestValidationFilter implements GlobalFilter, Ordered {
             return chain.filter(exchange);
         }
 
+        RoutePolicy policy = routePolicyIndex.policyOf(exchange);
+
         // Skip validation for actuator/public endpoints
-        if (path.startsWith("/actuator") || path.startsWith("/fallback")) {
+        if (policy.validationExempt()) {
             return chain.filter(exchange);
         }
 
@@ -65,7 +73,7 @@ public class RequestValidationFilter implements GlobalFilter, Ordered {
         // Each service validates its own accepted content types and returns appropriate errors
 
         // Validate required headers for authenticated endpoints
-        if (isProtectedPath(path)) {
+        if (policy.protectedRoute()) {
             String authorization = request.getHeaders().getFirst("Authorization");
             if (authorization == null || !authorization.startsWith("Bearer ")) {
                 log.warn("❌ Request rejected - Missing or invalid Authorization header for {}", path);
@@ -79,12 +87,6 @@ public class RequestValidationFilter implements GlobalFilter, Ordered {
         return chain.filter(exchange);
     }
 
-    private boolean isProtectedPath(String path) {
-        return !path.startsWith("/auth/") &&
-                !path.startsWith("/actuator") &&
-                !path.contains("/public/");
-    }
-
     private Mono<Void> rejectRequest(ServerWebExchange exchange, String message, HttpStatus status) {
         ServerHttpResponse response = exchange.getResponse();
         response.setStatusCode(status);
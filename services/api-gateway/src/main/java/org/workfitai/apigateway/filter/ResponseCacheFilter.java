@@ -2,224 +2,300 @@ package org.workfitai.apigateway.filter;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
-import org.springframework.cloud.gateway.filter.factory.rewrite.ModifyResponseBodyGatewayFilterFactory;
 import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
+import org.workfitai.apigateway.config.ResponseCacheConfig;
+import org.workfitai.apigateway.config.RoutePolicy;
+import org.workfitai.apigateway.config.RoutePolicyIndex;
+import org.workfitai.apigateway.service.CachedResponse;
+import org.workfitai.apigateway.service.ResponseCacheService;
+import org.workfitai.apigateway.service.ResponseCacheService.Result;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Response Caching Filter (Phase 3)
- * 
+ *
  * Caches GET responses for read-heavy endpoints to reduce backend load.
- * Uses Redis for distributed caching with configurable TTL per endpoint.
- * 
+ * Two tiers: byte-bounded in-memory L1 in front of Redis L2 (ResponseCacheService).
+ *
  * Features:
- * - Cache only successful GET requests (200 OK)
- * - Skip cache for authenticated requests (user-specific data)
- * - Configurable cache patterns and TTL
- * - Cache invalidation on PUT/POST/DELETE to same resource
+ * - Cache only successful GET responses (200 OK, no Set-Cookie / no-store / private)
+ * - Cacheable routes, TTLs and skip paths come from app.cache (RoutePolicyIndex)
+ * - Stores the final enveloped body, gzip-compressed; served as-is to gzip clients
+ * - Strong ETag + If-None-Match → 304 Not Modified
+ * - Request coalescing: concurrent misses for the same key share one backend call
+ * - Invalidation by tag generation after a successful PUT/POST/PATCH/DELETE,
+ *   or from job.* Kafka events for event-driven tags (JobCacheInvalidationConsumer)
  */
 @Component
 @ConditionalOnProperty(
         prefix = "app.cache",
         name = "enabled",
         havingValue = "true",
-        matchIfMissing = false  // Default: disabled
+        matchIfMissing = false
 )
 @Slf4j
 @RequiredArgsConstructor
 public class ResponseCacheFilter implements GlobalFilter, Ordered {
 
-    private final ReactiveRedisTemplate<String, String> redisTemplate;
-    private final ModifyResponseBodyGatewayFilterFactory modifyResponseBodyFilter;
+    private static final String CACHE_STATUS_HEADER = "X-Cache-Status";
+    private static final String CACHE_LAYER_HEADER = "X-Cache-Layer";
 
-    // Cacheable endpoints (GET only)
-    private static final List<CachePattern> CACHE_PATTERNS = List.of(
-            new CachePattern(".*/job/public/.*", Duration.ofMinutes(5)), // Public job listings
-            new CachePattern(".*/cv/public/.*", Duration.ofMinutes(10)), // Public CV templates
-            new CachePattern("/actuator/health.*", Duration.ofSeconds(30)) // Health checks (exact path)
-    );
+    private final ResponseCacheService cacheService;
+    private final ResponseCacheConfig cacheConfig;
+    // Cache patterns / skip paths (app.cache.*) được compile sẵn trong RoutePolicyIndex
+    private final RoutePolicyIndex routePolicyIndex;
 
-    // Skip caching for these paths (user-specific or mutable)
-    private static final List<String> SKIP_CACHE_PATHS = List.of(
-            "/user/profile",
-            "/application/",
-            "/auth/",
-            "/notification/");
+    // key → leader đang gọi backend; các request trùng key chờ kết quả của leader
+    private final ConcurrentMap<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
-        String path = request.getPath().value();
         HttpMethod method = request.getMethod();
+        RoutePolicy policy = routePolicyIndex.policyOf(exchange);
 
-        // Only cache GET requests
         if (method != HttpMethod.GET) {
-            // Invalidate cache on mutation
-            if (method == HttpMethod.PUT || method == HttpMethod.POST || method == HttpMethod.DELETE) {
-                return invalidateCache(path).then(chain.filter(exchange));
+            // Invalidate sau khi mutation thành công: GET song song vẫn giữ generation cũ
+            if (isMutation(method) && policy.invalidationTag() != null) {
+                return chain.filter(exchange)
+                        .then(Mono.defer(() -> invalidateAfter(exchange, policy.invalidationTag())));
             }
             return chain.filter(exchange);
         }
 
-        // Skip non-cacheable paths
-        if (shouldSkipCache(path)) {
+        if (!policy.cacheable()) {
             return chain.filter(exchange);
         }
 
-        // Find matching cache pattern
-        CachePattern pattern = findCachePattern(path);
-        if (pattern == null) {
-            return chain.filter(exchange);
+        return cacheService.version(policy.cacheTags())
+                .onErrorResume(err -> {
+                    log.warn("⚠️ Response cache unavailable ({}), bypassing", err.getMessage());
+                    return Mono.just("");
+                })
+                .flatMap(version -> {
+                    if (version.isEmpty()) {
+                        cacheService.record(Result.BYPASS);
+                        return chain.filter(exchange);
+                    }
+                    String cacheKey = cacheService.key(policy.cacheTags(), version, pathAndQuery(request));
+                    return lookup(exchange, chain, cacheKey, policy.cacheTtl());
+                });
+    }
+
+    private Mono<Void> lookup(ServerWebExchange exchange, GatewayFilterChain chain, String cacheKey, Duration ttl) {
+        CachedResponse local = cacheService.getLocal(cacheKey);
+        if (local != null) {
+            cacheService.record(Result.L1_HIT);
+            return serve(exchange, local, "L1");
         }
 
-        // Generate cache key
-        String cacheKey = generateCacheKey(request);
+        Sinks.One<CachedResponse> leader = Sinks.one();
+        Sinks.One<CachedResponse> existing = inFlight.putIfAbsent(cacheKey, leader);
+        if (existing != null) {
+            // Follower: leader không cache được / lỗi / quá hạn chờ → tự gọi backend
+            return existing.asMono()
+                    .timeout(cacheConfig.getCoalesceTimeout())
+                    .onErrorResume(err -> Mono.empty())
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(shared -> {
+                        if (shared.isPresent()) {
+                            cacheService.record(Result.COALESCED);
+                            return serve(exchange, shared.get(), "COALESCED");
+                        }
+                        return fetch(exchange, chain, cacheKey, ttl, null);
+                    });
+        }
 
-        // Try to get from cache
-        return redisTemplate.opsForValue().get(cacheKey)
-                .flatMap(cachedResponse -> {
-                    log.info("🎯 Cache HIT for {}", cacheKey);
+        return cacheService.getRemote(cacheKey)
+                .onErrorResume(err -> {
+                    log.warn("⚠️ L2 cache read failed for {}: {}", cacheKey, err.getMessage());
+                    return Mono.empty();
+                })
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(remote -> {
+                    if (remote.isPresent()) {
+                        leader.tryEmitValue(remote.get());
+                        cacheService.record(Result.L2_HIT);
+                        return serve(exchange, remote.get(), "L2");
+                    }
+                    cacheService.record(Result.MISS);
+                    log.debug("⏳ Cache MISS for {} - proceeding to backend", cacheKey);
+                    return fetch(exchange, chain, cacheKey, ttl, leader);
+                })
+                .doFinally(signal -> {
+                    leader.tryEmitEmpty();
+                    inFlight.remove(cacheKey, leader);
+                });
+    }
 
-                    // Return cached response
-                    ServerHttpResponse response = exchange.getResponse();
-                    response.setStatusCode(HttpStatus.OK);
-                    response.getHeaders().add("X-Cache-Status", "HIT");
-                    response.getHeaders().add("Content-Type", "application/json");
+    /** Gọi backend, capture body cuối cùng (đã envelope) để lưu cache */
+    private Mono<Void> fetch(ServerWebExchange exchange, GatewayFilterChain chain, String cacheKey, Duration ttl,
+                             Sinks.One<CachedResponse> leader) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse original = exchange.getResponse();
 
-                    DataBuffer buffer = response.bufferFactory()
-                            .wrap(cachedResponse.getBytes(StandardCharsets.UTF_8));
-                    return response.writeWith(Flux.just(buffer));
-                })
-                .switchIfEmpty(Mono.defer(() -> {
-                    log.info("⏳ Cache MISS for {} - proceeding to backend", cacheKey);
+        ServerHttpResponseDecorator capture = new ServerHttpResponseDecorator(original) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpHeaders headers = getHeaders();
+                headers.set(CACHE_STATUS_HEADER, "MISS");
+                if (!storable(getStatusCode(), headers)) {
+                    if (leader != null) leader.tryEmitEmpty();
+                    return super.writeWith(body);
+                }
 
-                    // Add MISS header before response is committed
-                    exchange.getResponse().beforeCommit(() -> {
-                        exchange.getResponse().getHeaders().add("X-Cache-Status", "MISS");
-                        return Mono.empty();
-                    });
+                return DataBufferUtils.join(body)
+                        .defaultIfEmpty(bufferFactory().allocateBuffer(0))
+                        .flatMap(joined -> {
+                            byte[] bytes = new byte[joined.readableByteCount()];
+                            joined.read(bytes);
+                            DataBufferUtils.release(joined);
 
-                    // Cache the response body using ModifyResponseBodyGatewayFilterFactory
-                    Duration ttl = pattern.ttl;
-                    ModifyResponseBodyGatewayFilterFactory.Config config = new ModifyResponseBodyGatewayFilterFactory.Config()
-                            .setRewriteFunction(String.class, String.class, (webExchange, body) -> {
-                                // Only cache successful responses
-                                if (webExchange.getResponse().getStatusCode() == HttpStatus.OK && body != null) {
-                                    return redisTemplate.opsForValue()
-                                            .set(cacheKey, body, ttl)
-                                            .doOnSuccess(
-                                                    v -> log.info("💾 Cached response for {} (TTL: {})", cacheKey, ttl))
-                                            .thenReturn(body);
-                                }
-                                return Mono.just(body);
-                            });
-
-                    return modifyResponseBodyFilter.apply(config).filter(exchange, chain);
-                }));
-    }
+                            if (bytes.length > cacheConfig.getMaxEntrySize().toBytes()) {
+                                if (leader != null) leader.tryEmitEmpty();
+                                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                            }
 
-    private Mono<Boolean> invalidateCache(String path) {
-        String pattern = "cache:response:" + path.replaceAll("/[^/]+$", "/*");
-        return redisTemplate.keys(pattern)
-                .flatMap(redisTemplate::delete)
-                .reduce(0L, Long::sum)
-                .doOnNext(deleted -> {
-                    if (deleted > 0) {
-                        log.info("🗑️ Invalidated {} cache entries for {}", deleted, path);
-                    }
-                })
-                .map(deleted -> deleted > 0)
-                .defaultIfEmpty(false);
-    }
+                            CachedResponse entry = CachedResponse.create(bytes,
+                                    headers.getFirst(HttpHeaders.CONTENT_TYPE), ttl,
+                                    cacheConfig.getCompressionThreshold().toBytes());
+                            if (leader != null) leader.tryEmitValue(entry);
 
-    private String generateCacheKey(ServerHttpRequest request) {
-        String path = request.getPath().value();
-        String query = request.getURI().getQuery();
+                            Mono<Void> store = cacheService.put(cacheKey, entry)
+                                    .doOnSuccess(v -> log.debug("💾 Cached response for {} (TTL: {}, {} bytes{})",
+                                            cacheKey, ttl, entry.payload().length, entry.gzipped() ? ", gzip" : ""))
+                                    .onErrorResume(err -> {
+                                        log.warn("⚠️ L2 cache write failed for {}: {}", cacheKey, err.getMessage());
+                                        return Mono.empty();
+                                    })
+                                    .then();
 
-        return "cache:response:" + path + (query != null ? "?" + query : "");
-    }
+                            headers.setETag(entry.etag());
+                            if (notModified(request, entry)) {
+                                cacheService.record(Result.NOT_MODIFIED);
+                                setStatusCode(HttpStatus.NOT_MODIFIED);
+                                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                                return setComplete().and(store);
+                            }
+                            headers.setContentLength(bytes.length);
+                            return super.writeWith(Mono.just(bufferFactory().wrap(bytes))).and(store);
+                        });
+            }
 
-    private boolean shouldSkipCache(String path) {
-        return SKIP_CACHE_PATHS.stream().anyMatch(path::startsWith);
-    }
+            @Override
+            public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                return writeWith(Flux.from(body).flatMapSequential(p -> p));
+            }
+        };
 
-    private CachePattern findCachePattern(String path) {
-        return CACHE_PATTERNS.stream()
-                .filter(p -> Pattern.matches(p.pattern, path))
-                .findFirst()
-                .orElse(null);
+        return chain.filter(exchange.mutate().response(capture).build());
     }
 
-    @Override
-    public int getOrder() {
-        return -5; // Run after rate limiting but before routing
-    }
+    private Mono<Void> serve(ServerWebExchange exchange, CachedResponse entry, String layer) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+        headers.set(CACHE_LAYER_HEADER, layer);
+        headers.setETag(entry.etag());
 
-    private static class CachePattern {
-        final String pattern;
-        final Duration ttl;
+        if (notModified(request, entry)) {
+            cacheService.record(Result.NOT_MODIFIED);
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
 
-        CachePattern(String pattern, Duration ttl) {
-            this.pattern = pattern;
-            this.ttl = ttl;
+        response.setStatusCode(HttpStatus.OK);
+        if (entry.contentType() != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, entry.contentType());
+        }
+        byte[] payload;
+        if (entry.gzipped()) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
         }
+        if (entry.gzipped() && acceptsGzip(request)) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            payload = entry.payload();
+        } else {
+            payload = entry.body();
+        }
+        headers.setContentLength(payload.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(payload)));
     }
 
-    /**
-     * Decorator to capture response body for caching
-     */
-    private static class ResponseBodyCaptureDecorator
-            extends org.springframework.http.server.reactive.ServerHttpResponseDecorator {
-        private String body;
-        private HttpStatus statusCode;
-
-        public ResponseBodyCaptureDecorator(ServerHttpResponse delegate) {
-            super(delegate);
+    private Mono<Void> invalidateAfter(ServerWebExchange exchange, String tag) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status == null || !status.is2xxSuccessful()) {
+            return Mono.empty();
         }
+        return cacheService.invalidate(tag)
+                .onErrorResume(err -> {
+                    log.error("❌ Failed to invalidate response cache tag '{}': {}", tag, err.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
 
-        @Override
-        public Mono<Void> writeWith(org.reactivestreams.Publisher<? extends DataBuffer> body) {
-            return Flux.from(body)
-                    .reduce(new StringBuilder(), (sb, buffer) -> {
-                        byte[] bytes = new byte[buffer.readableByteCount()];
-                        buffer.read(bytes);
-                        sb.append(new String(bytes, StandardCharsets.UTF_8));
-                        return sb;
-                    })
-                    .flatMap(sb -> {
-                        this.body = sb.toString();
-                        this.statusCode = (HttpStatus) getDelegate().getStatusCode();
-
-                        // Write original response
-                        DataBuffer buffer = getDelegate().bufferFactory()
-                                .wrap(this.body.getBytes(StandardCharsets.UTF_8));
-                        return getDelegate().writeWith(Flux.just(buffer));
-                    });
+    private static boolean storable(HttpStatusCode status, HttpHeaders headers) {
+        if (status == null || status.value() != HttpStatus.OK.value()) return false;
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING) || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
         }
+        String cacheControl = headers.getCacheControl();
+        return cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private"));
+    }
 
-        public String getBody() {
-            return body;
+    private static boolean notModified(ServerHttpRequest request, CachedResponse entry) {
+        for (String tag : request.getHeaders().getIfNoneMatch()) {
+            String candidate = tag.startsWith("W/") ? tag.substring(2) : tag;
+            if ("*".equals(candidate) || entry.etag().equals(candidate)) return true;
         }
+        return false;
+    }
 
-        public HttpStatus getStatusCode() {
-            return statusCode;
+    private static boolean acceptsGzip(ServerHttpRequest request) {
+        for (String value : request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            if (value.toLowerCase().contains("gzip")) return true;
         }
+        return false;
+    }
+
+    private static boolean isMutation(HttpMethod method) {
+        return method == HttpMethod.PUT || method == HttpMethod.POST
+                || method == HttpMethod.PATCH || method == HttpMethod.DELETE;
+    }
+
+    private static String pathAndQuery(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return request.getPath().value() + (query != null ? "?" + query : "");
+    }
+
+    @Override
+    public int getOrder() {
+        return -5; // Run after rate limiting but before routing
     }
 }
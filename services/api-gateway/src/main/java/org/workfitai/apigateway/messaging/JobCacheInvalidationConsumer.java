@@ -0,0 +1,66 @@
+package org.workfitai.apigateway.messaging;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+import org.workfitai.apigateway.config.ResponseCacheConfig;
+import org.workfitai.apigateway.model.dto.kafka.JobCacheEvent;
+import org.workfitai.apigateway.service.ResponseCacheService;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Invalidates cached public job responses from job-service domain events.
+ *
+ * - job.created → listing tag ({tag}:listing)
+ * - job.updated / job.deleted → listing tag + detail tag of that job ({tag}:{jobId})
+ *
+ * Detail pages of other jobs stay cached, so /job/public/** can run long TTLs.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.cache", name = {"enabled", "job-events.enabled"}, havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class JobCacheInvalidationConsumer {
+
+  private static final Duration REDIS_TIMEOUT = Duration.ofSeconds(5);
+
+  private final ResponseCacheService cacheService;
+  private final ResponseCacheConfig cacheConfig;
+
+  @KafkaListener(
+      topics = {
+          "${app.kafka.topics.job-created:job.created}",
+          "${app.kafka.topics.job-updated:job.updated}",
+          "${app.kafka.topics.job-deleted:job.deleted}"},
+      groupId = "${app.cache.job-events.group-id:api-gateway-cache}",
+      containerFactory = "jobCacheEventListenerContainerFactory")
+  public void onJobEvent(@Payload JobCacheEvent event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+    List<String> tags = tagsOf(event);
+    if (tags.isEmpty()) {
+      log.warn("[JobCache] ignoring event without jobId from {}", topic);
+      return;
+    }
+    // Listener thread của Kafka (không phải event loop) → block được; lỗi sẽ được retry
+    cacheService.invalidateAll(tags).block(REDIS_TIMEOUT);
+    log.debug("[JobCache] {} {} → invalidated {}", topic, event.getJobId(), tags);
+  }
+
+  private List<String> tagsOf(JobCacheEvent event) {
+    String base = cacheConfig.getJobEvents().getTag();
+    String listing = base + ":listing";
+    if ("JOB_CREATED".equals(event.getEventType())) {
+      return List.of(listing);
+    }
+    if (event.getJobId() == null) {
+      return List.of();
+    }
+    return List.of(listing, base + ":" + event.getJobId());
+  }
+}
@@ -0,0 +1,20 @@
+package org.workfitai.apigateway.model.dto.kafka;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Subset of job-service's JobCreated/JobUpdated/JobDeletedEvent needed for
+ * response cache invalidation (payload data is ignored)
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class JobCacheEvent {
+
+  private String eventType; // JOB_CREATED, JOB_UPDATED, JOB_DELETED
+  private UUID jobId;
+}
@@ -0,0 +1,88 @@
+package org.workfitai.apigateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.workfitai.apigateway.config.JwtKeyConfig;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Verified-token cache in front of the signature-checking decoder.
+ *
+ * - Key: SHA-256 of the raw token (the token itself is never stored as key)
+ * - Value: the decoded, already-validated {@link Jwt}
+ * - Entries expire at min(JWT exp, app.jwt.verified-cache.max-ttl)
+ * - Metrics: cache.* {cache="verified-jwt-cache"}
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+  private final ReactiveJwtDecoder delegate;
+  private final Cache<String, Jwt> verified;
+  private final Duration maxTtl;
+
+  public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, JwtKeyConfig.VerifiedCache config,
+                                   MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.maxTtl = config.getMaxTtl();
+    this.verified = Caffeine.newBuilder()
+        .maximumSize(config.getMaxSize())
+        .expireAfter(new Expiry<String, Jwt>() {
+          @Override
+          public long expireAfterCreate(String key, Jwt value, long currentTime) {
+            return ttlOf(value).toNanos();
+          }
+
+          @Override
+          public long expireAfterUpdate(String key, Jwt value, long currentTime, long currentDuration) {
+            return ttlOf(value).toNanos();
+          }
+
+          @Override
+          public long expireAfterRead(String key, Jwt value, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, verified, "verified-jwt-cache");
+  }
+
+  @Override
+  public Mono<Jwt> decode(String token) throws JwtException {
+    String key = hash(token);
+    Jwt cached = verified.getIfPresent(key);
+    if (cached != null) {
+      return Mono.just(cached);
+    }
+    return delegate.decode(token).doOnNext(jwt -> verified.put(key, jwt));
+  }
+
+  private Duration ttlOf(Jwt jwt) {
+    Instant exp = jwt.getExpiresAt();
+    if (exp == null) return maxTtl;
+    Duration remain = Duration.between(Instant.now(), exp);
+    if (remain.isNegative()) return Duration.ZERO;
+    return remain.compareTo(maxTtl) < 0 ? remain : maxTtl;
+  }
+
+  private static String hash(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package org.workfitai.apigateway.security;
+
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.web.server.authentication.ServerBearerTokenAuthenticationConverter;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.web.server.ServerWebExchange;
+import org.workfitai.apigateway.filter.OpaqueToJwtPreFilter;
+import reactor.core.publisher.Mono;
+
+/**
+ * Glue between OpaqueToJwtWebFilter's near-cache and the resource server.
+ *
+ * - converter(): reuses the cached authentication when the opaque token was a
+ *   near-cache hit, otherwise extracts the bearer token and remembers the opaque
+ *   it came from (as token details)
+ * - authenticationManager(): passes cached authentications through untouched,
+ *   verifies everything else with the delegate and populates the near-cache
+ */
+public final class NearCacheJwtAuthentication {
+
+  private NearCacheJwtAuthentication() {
+  }
+
+  public static ServerAuthenticationConverter converter() {
+    ServerBearerTokenAuthenticationConverter delegate = new ServerBearerTokenAuthenticationConverter();
+    return exchange -> {
+      Authentication cached = exchange.getAttribute(OpaqueTokenNearCache.ATTR_CACHED_AUTHENTICATION);
+      if (cached != null) {
+        return Mono.just(cached);
+      }
+      return delegate.convert(exchange).doOnNext(auth -> rememberOpaque(exchange, auth));
+    };
+  }
+
+  public static ReactiveAuthenticationManager authenticationManager(ReactiveAuthenticationManager delegate,
+                                                                    OpaqueTokenNearCache nearCache) {
+    return authentication -> {
+      if (authentication instanceof JwtAuthenticationToken jwtAuth && jwtAuth.isAuthenticated()) {
+        // near-cache hit: chữ ký đã verify ở lần đầu
+        return Mono.just(jwtAuth);
+      }
+      Object opaque = authentication.getDetails();
+      return delegate.authenticate(authentication)
+          .doOnNext(result -> {
+            if (opaque instanceof String o && result instanceof JwtAuthenticationToken verified) {
+              nearCache.put(o, verified.getToken().getTokenValue(), verified);
+            }
+          });
+    };
+  }
+
+  private static void rememberOpaque(ServerWebExchange exchange, Authentication auth) {
+    String opaque = exchange.getAttribute(OpaqueToJwtPreFilter.ATTR_OPAQUE_USED);
+    if (opaque != null && auth instanceof BearerTokenAuthenticationToken bearer) {
+      bearer.setDetails(opaque);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package org.workfitai.apigateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.workfitai.apigateway.config.OpaqueTokenCacheConfig;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounded in-process near-cache: opaque token → (JWT, verified authentication).
+ *
+ * - TTL of each entry is capped at the JWT "exp" (and app.opaque-token.near-cache.max-ttl)
+ * - Revocations are published on a Redis channel; every gateway node drops the entry
+ * - Hit/miss/eviction metrics: cache.gets / cache.evictions / cache.size {cache="opaque-token-near-cache"}
+ */
+@Component
+@Slf4j
+public class OpaqueTokenNearCache {
+
+  /** Exchange attribute holding the cached, already-verified authentication */
+  public static final String ATTR_CACHED_AUTHENTICATION = "OPAQUE_CACHED_AUTHENTICATION";
+
+  public record Entry(String jwt, JwtAuthenticationToken authentication) {
+  }
+
+  private final ReactiveStringRedisTemplate redis;
+  private final OpaqueTokenCacheConfig config;
+  private final Cache<String, Entry> cache;
+  private Disposable revocationSubscription;
+
+  public OpaqueTokenNearCache(ReactiveStringRedisTemplate redis,
+                              OpaqueTokenCacheConfig config,
+                              MeterRegistry meterRegistry) {
+    this.redis = redis;
+    this.config = config;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(config.getMaxSize())
+        .expireAfter(new Expiry<String, Entry>() {
+          @Override
+          public long expireAfterCreate(String key, Entry value, long currentTime) {
+            return ttlOf(value).toNanos();
+          }
+
+          @Override
+          public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+            return ttlOf(value).toNanos();
+          }
+
+          @Override
+          public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "opaque-token-near-cache");
+  }
+
+  @PostConstruct
+  void subscribeRevocations() {
+    if (!config.isEnabled()) return;
+    revocationSubscription = redis.listenToChannel(config.getRevocationChannel())
+        .map(ReactiveSubscription.Message::getMessage)
+        .doOnNext(opaque -> {
+          cache.invalidate(opaque);
+          log.debug("[NearCache] revoked opaque={} (broadcast)", shortOf(opaque));
+        })
+        .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+        .subscribe(
+            v -> {
+            },
+            err -> log.error("[NearCache] revocation listener stopped: {}", err.getMessage()));
+    log.info("🧊 Opaque token near-cache enabled (maxSize={}, maxTtl={}, channel={})",
+        config.getMaxSize(), config.getMaxTtl(), config.getRevocationChannel());
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (revocationSubscription != null) revocationSubscription.dispose();
+  }
+
+  public Entry get(String opaque) {
+    if (!config.isEnabled()) return null;
+    return cache.getIfPresent(opaque);
+  }
+
+  public void put(String opaque, String jwt, JwtAuthenticationToken authentication) {
+    if (!config.isEnabled()) return;
+    cache.put(opaque, new Entry(jwt, authentication));
+  }
+
+  /** Xoá local ngay, rồi broadcast cho các node gateway khác qua pub/sub */
+  public Mono<Long> broadcastRevocation(String opaque) {
+    cache.invalidate(opaque);
+    if (!config.isEnabled()) return Mono.just(0L);
+    return redis.convertAndSend(config.getRevocationChannel(), opaque)
+        .doOnError(err -> log.error("[NearCache] failed to broadcast revocation: {}", err.getMessage()))
+        .onErrorReturn(0L);
+  }
+
+  private Duration ttlOf(Entry entry) {
+    Duration max = config.getMaxTtl();
+    Instant exp = entry.authentication().getToken().getExpiresAt();
+    if (exp == null) return max;
+    Duration remain = Duration.between(Instant.now(), exp);
+    if (remain.isNegative()) return Duration.ZERO;
+    return remain.compareTo(max) < 0 ? remain : max;
+  }
+
+  private static String shortOf(String opaque) {
+    return opaque.substring(0, Math.min(8, opaque.length()));
+  }
+}
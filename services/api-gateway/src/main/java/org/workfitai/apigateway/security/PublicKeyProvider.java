@@ -1,53 +1,152 @@
 package org.workfitai.apigateway.security;
 
-import lombok.RequiredArgsConstructor;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.workfitai.apigateway.client.AuthWebClient;
+import org.workfitai.apigateway.config.JwtKeyConfig;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.security.KeyFactory;
-import java.security.interfaces.RSAPublicKey;
-import java.security.spec.X509EncodedKeySpec;
-import java.util.Base64;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * JWT signing key set fetched from auth-service (JWK Set, "kid" lookup).
+ *
+ * - Non-blocking: keys are fetched with WebClient, never with block()
+ * - Background refresh every app.jwt.refresh-interval
+ * - Unknown kid → on-demand refresh, coalesced and rate-limited by
+ *   app.jwt.min-refresh-interval (garbage kids cannot hammer auth-service)
+ * - Rotated-out keys are kept for app.jwt.retention
+ */
 @Slf4j
-@RequiredArgsConstructor
 @Service
 public class PublicKeyProvider {
 
+  private record KnownKey(RSAKey key, Instant lastPublished) {
+  }
+
   private final AuthWebClient authWebClient;
-  private volatile RSAPublicKey cachedKey; // thread-safe
-
-  // ❌ Không fetch ngay startup nữa — tránh Gateway fail nếu Auth chưa ready
-  // ✅ Lazy fetch lần đầu tiên khi cần dùng
-  public RSAPublicKey getPublicKey() {
-    if (cachedKey == null) {
-      synchronized (this) {
-        if (cachedKey == null) {
-          try {
-            log.warn("⚠️ Public key not cached — fetching from Auth Service...");
-            cachedKey = fetchPublicKey();
-            log.info("✅ Successfully fetched and cached public key.");
-          } catch (Exception e) {
-            log.error("❌ Failed to fetch public key from Auth Service: {}", e.getMessage());
-            throw new IllegalStateException("Could not fetch public key from Auth Service", e);
-          }
+  private final JwtKeyConfig config;
+  private final Counter refreshSuccess;
+  private final Counter refreshFailure;
+
+  // snapshot bất biến, thay thế nguyên khối sau mỗi lần refresh
+  private volatile Map<String, KnownKey> keys = Map.of();
+  private volatile Instant lastAttempt = Instant.EPOCH;
+  private final AtomicReference<Mono<Map<String, KnownKey>>> inFlight = new AtomicReference<>();
+  private Disposable backgroundRefresh;
+
+  public PublicKeyProvider(AuthWebClient authWebClient, JwtKeyConfig config, MeterRegistry meterRegistry) {
+    this.authWebClient = authWebClient;
+    this.config = config;
+    this.refreshSuccess = Counter.builder("gateway.jwt.keys.refresh").tag("outcome", "success")
+        .register(meterRegistry);
+    this.refreshFailure = Counter.builder("gateway.jwt.keys.refresh").tag("outcome", "error")
+        .register(meterRegistry);
+    Gauge.builder("gateway.jwt.keys", this, p -> p.keys.size())
+        .description("Signing keys currently trusted by the gateway")
+        .register(meterRegistry);
+  }
+
+  // ✅ Không block startup — Gateway vẫn lên được nếu Auth chưa ready; request đầu tiên sẽ refresh on-demand
+  @PostConstruct
+  void startBackgroundRefresh() {
+    backgroundRefresh = Flux.interval(Duration.ZERO, config.getRefreshInterval())
+        .onBackpressureDrop()
+        .concatMap(tick -> refresh().onErrorResume(err -> Mono.empty()))
+        .subscribe();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (backgroundRefresh != null) backgroundRefresh.dispose();
+  }
+
+  /**
+   * Candidate keys for a token: the key with that kid, or every known key
+   * when the token has no kid (tokens issued before kid headers existed).
+   */
+  public Mono<List<JWK>> keysFor(String kid) {
+    List<JWK> found = select(keys, kid);
+    if (!found.isEmpty()) {
+      return Mono.just(found);
+    }
+    return refreshOnDemand().map(current -> select(current, kid));
+  }
+
+  private Mono<Map<String, KnownKey>> refreshOnDemand() {
+    if (Instant.now().isBefore(lastAttempt.plus(config.getMinRefreshInterval()))) {
+      return Mono.just(keys);
+    }
+    return refresh().onErrorResume(err -> Mono.just(keys));
+  }
+
+  /** Một refresh chạy tại một thời điểm; các caller đồng thời dùng chung kết quả */
+  private Mono<Map<String, KnownKey>> refresh() {
+    for (;;) {
+      Mono<Map<String, KnownKey>> current = inFlight.get();
+      if (current != null) return current;
+
+      Mono<Map<String, KnownKey>> created = Mono.defer(() -> {
+            lastAttempt = Instant.now();
+            return authWebClient.getKeySet();
+          })
+          .map(this::merge)
+          .doOnNext(merged -> refreshSuccess.increment())
+          .doOnError(err -> {
+            refreshFailure.increment();
+            log.error("❌ Failed to refresh signing keys from Auth Service: {}", err.getMessage());
+          })
+          .doFinally(signal -> inFlight.set(null))
+          .cache();
+      if (inFlight.compareAndSet(null, created)) return created;
+    }
+  }
+
+  private Map<String, KnownKey> merge(JWKSet fetched) {
+    Instant now = Instant.now();
+    Map<String, KnownKey> merged = new HashMap<>();
+    // giữ key đã bị rotate ra cho tới hết retention
+    keys.forEach((kid, known) -> {
+      if (known.lastPublished().plus(config.getRetention()).isAfter(now)) {
+        merged.put(kid, known);
+      }
+    });
+    for (JWK jwk : fetched.getKeys()) {
+      if (jwk instanceof RSAKey rsa && rsa.getKeyID() != null) {
+        KnownKey previous = merged.put(rsa.getKeyID(), new KnownKey(rsa, now));
+        if (previous == null) {
+          log.info("🔑 Trusting JWT signing key kid={}", rsa.getKeyID());
         }
       }
     }
-    return cachedKey;
+    Map<String, KnownKey> snapshot = Map.copyOf(merged);
+    keys = snapshot;
+    return snapshot;
   }
 
-  private RSAPublicKey fetchPublicKey() throws Exception {
-    Map<String, String> response = authWebClient.getPublicKey();
-    if (response == null || !response.containsKey("publicKey")) {
-      throw new IllegalStateException("Auth Service returned invalid public key response");
+  private static List<JWK> select(Map<String, KnownKey> keys, String kid) {
+    if (kid != null) {
+      KnownKey known = keys.get(kid);
+      return known != null ? List.of(known.key()) : List.of();
     }
-
-    String encoded = response.get("publicKey");
-    byte[] decoded = Base64.getDecoder().decode(encoded);
-    X509EncodedKeySpec keySpec = new X509EncodedKeySpec(decoded);
-    return (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(keySpec);
+    List<JWK> all = new ArrayList<>(keys.size());
+    keys.values().forEach(known -> all.add(known.key()));
+    return all;
   }
 }
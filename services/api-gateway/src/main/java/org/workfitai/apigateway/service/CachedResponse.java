@@ -0,0 +1,113 @@
+package org.workfitai.apigateway.service;
+
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cached GET response as stored in both cache tiers.
+ *
+ * The payload is the final (enveloped) body, gzip-compressed when large enough,
+ * so a hit can be written to gzip-capable clients without re-encoding.
+ *
+ * @param contentType     response Content-Type, may be null
+ * @param etag            strong ETag (quoted) computed over the uncompressed body
+ * @param gzipped         whether {@code payload} is gzip-compressed
+ * @param payload         stored bytes
+ * @param expiresAtMillis absolute expiry (epoch millis)
+ */
+public record CachedResponse(String contentType, String etag, boolean gzipped, byte[] payload,
+                             long expiresAtMillis) {
+
+  private static final byte FORMAT_VERSION = 1;
+  // record header + key overhead ước lượng cho weigher của L1
+  private static final int ENTRY_OVERHEAD = 128;
+
+  public static CachedResponse create(byte[] body, String contentType, Duration ttl, long compressionThreshold) {
+    String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+    if (body.length >= compressionThreshold) {
+      byte[] compressed = gzip(body);
+      if (compressed.length < body.length) {
+        return new CachedResponse(contentType, etag, true, compressed, expiresAt);
+      }
+    }
+    return new CachedResponse(contentType, etag, false, body, expiresAt);
+  }
+
+  /** Uncompressed body */
+  public byte[] body() {
+    return gzipped ? gunzip(payload) : payload;
+  }
+
+  public Duration remainingTtl() {
+    return Duration.ofMillis(Math.max(0, expiresAtMillis - System.currentTimeMillis()));
+  }
+
+  public boolean expired() {
+    return System.currentTimeMillis() >= expiresAtMillis;
+  }
+
+  public int weight() {
+    return payload.length + ENTRY_OVERHEAD;
+  }
+
+  public byte[] encode() {
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length + ENTRY_OVERHEAD);
+      DataOutputStream data = new DataOutputStream(out);
+      data.writeByte(FORMAT_VERSION);
+      data.writeBoolean(gzipped);
+      data.writeLong(expiresAtMillis);
+      data.writeUTF(contentType != null ? contentType : "");
+      data.writeUTF(etag);
+      data.write(payload);
+      data.flush();
+      return out.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** null nếu payload không đọc được hoặc khác format version (coi như miss) */
+  public static CachedResponse decode(byte[] raw) {
+    try {
+      DataInputStream data = new DataInputStream(new ByteArrayInputStream(raw));
+      if (data.readByte() != FORMAT_VERSION) return null;
+      boolean gzipped = data.readBoolean();
+      long expiresAt = data.readLong();
+      String contentType = data.readUTF();
+      String etag = data.readUTF();
+      byte[] payload = data.readAllBytes();
+      return new CachedResponse(contentType.isEmpty() ? null : contentType, etag, gzipped, payload, expiresAt);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static byte[] gzip(byte[] body) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+    try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+      gz.write(body);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] gunzip(byte[] compressed) {
+    try (GZIPInputStream gz = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      return gz.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -2,10 +2,17 @@ package org.workfitai.apigateway.service;
 
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface IOpaqueTokenService {
   Mono<String> mint(String jwt, String kind);             // kind: "access" | "refresh"
 
+  Mono<List<String>> mintAll(List<MintRequest> requests); // 1 round trip pipelined, giữ thứ tự
+
   Mono<String> toJwt(String opaque);                      // lookup bất kỳ (access/refresh)
 
   Mono<Long> revokeAll(String opaque);
+
+  record MintRequest(String jwt, String kind) {
+  }
 }
@@ -0,0 +1,293 @@
+package org.workfitai.apigateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Service;
+import org.workfitai.apigateway.config.RateLimitConfig;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Reactive rate-limiting engine on top of Bucket4j's async Lettuce proxy manager.
+ *
+ * - Bucket configurations are compiled once from {@link RateLimitConfig} and
+ *   attached to routes by RoutePolicyIndex
+ * - One non-blocking Redis CAS per decision (tryConsumeAndReturnRemaining)
+ * - Optional lease mode: tokens are claimed from Redis in batches and served
+ *   from memory; concurrent refills for the same key are coalesced. Lease size
+ *   is capped per limit (see {@link RateLimitConfig.LeaseConfig}) and unused
+ *   tokens are given back when a lease expires
+ */
+@Service
+@Slf4j
+public class RateLimitEngine {
+
+    public record Decision(boolean allowed, long remaining, long retryAfterSeconds) {
+        /** Redis/Bucket4j lỗi → cho qua (fail-open), không gắn header remaining */
+        public static final Decision FAIL_OPEN = new Decision(true, -1, 0);
+    }
+
+    /** leaseSize = 0: limit quá nhỏ để lease → consume trực tiếp từ Redis */
+    public record CompiledLimit(String pathPrefix, BucketConfiguration configuration, int leaseSize) {
+    }
+
+    private final RateLimitConfig config;
+    private final LettuceConnectionFactory redisConnectionFactory;
+    private final List<CompiledLimit> endpointLimits;
+    private final CompiledLimit defaultLimit;
+    private final Cache<String, TokenLease> leases;
+    private final long leaseTtlNanos;
+
+    private volatile AsyncProxyManager<String> proxyManager;
+    private RedisClient redisClient;
+    private StatefulRedisConnection<String, byte[]> connection;
+
+    public RateLimitEngine(RateLimitConfig config, LettuceConnectionFactory redisConnectionFactory) {
+        this.config = config;
+        this.redisConnectionFactory = redisConnectionFactory;
+        this.endpointLimits = config.getEndpoints().stream()
+                .map(e -> compile(e.getPath(), e.getBurstCapacity(), e.getRequestsPerMinute(), Duration.ofMinutes(1)))
+                .toList();
+        this.defaultLimit = config.getGlobal().isEnabled()
+                ? compile("/", config.getGlobal().getBurstCapacity(),
+                        config.getGlobal().getRequestsPerSecond(), Duration.ofSeconds(1))
+                // Default fallback (should not happen if config is correct)
+                : compile("/", 100, 100, Duration.ofSeconds(1));
+        this.leaseTtlNanos = config.getLease().getTtl().toNanos();
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(config.getLease().getMaxKeys())
+                .expireAfterAccess(config.getLease().getTtl().multipliedBy(2))
+                // key nhàn rỗi bị evict → trả lại token chưa dùng
+                .removalListener((String bucketKey, TokenLease lease, RemovalCause cause) -> {
+                    if (bucketKey != null && lease != null && cause.wasEvicted()) {
+                        giveBack(bucketKey, lease.limit(), lease.drain());
+                    }
+                })
+                .build();
+        log.info("📊 Rate limits compiled: {} endpoint rules, lease mode={}", endpointLimits.size(),
+                config.getLease().isEnabled() ? "on (size=" + config.getLease().getSize() + ")" : "off");
+    }
+
+    /** Endpoint-specific limits theo thứ tự khai báo (RoutePolicyIndex khớp prefix) */
+    public List<CompiledLimit> endpointLimits() {
+        return endpointLimits;
+    }
+
+    /** Global limit cho các path không khớp endpoint nào */
+    public CompiledLimit defaultLimit() {
+        return defaultLimit;
+    }
+
+    public Mono<Decision> tryConsume(String bucketKey, CompiledLimit limit) {
+        if (config.getLease().isEnabled() && limit.leaseSize() > 0) {
+            return consumeLeased(bucketKey, limit, true);
+        }
+        return Mono.defer(() -> Mono.fromFuture(bucket(bucketKey, limit).tryConsumeAndReturnRemaining(1)))
+                .map(probe -> probe.isConsumed()
+                        ? new Decision(true, probe.getRemainingTokens(), 0)
+                        : new Decision(false, 0, retryAfterSeconds(probe.getNanosToWaitForRefill())));
+    }
+
+    private Mono<Decision> consumeLeased(String bucketKey, CompiledLimit limit, boolean mayRetry) {
+        TokenLease lease = leases.get(bucketKey, k -> new TokenLease(limit));
+        if (lease.tryTake()) {
+            return Mono.just(new Decision(true, lease.remaining(), 0));
+        }
+        int leaseSize = limit.leaseSize();
+        // suppressCancel: future refill được chia sẻ giữa các request đang chờ
+        return Mono.defer(() -> Mono.fromFuture(
+                        lease.refill(() -> bucket(bucketKey, limit).tryConsumeAsMuchAsPossible(leaseSize),
+                                unused -> giveBack(bucketKey, limit, unused), leaseTtlNanos),
+                        true))
+                .flatMap(granted -> {
+                    if (lease.tryTake()) {
+                        return Mono.just(new Decision(true, lease.remaining(), 0));
+                    }
+                    // lease đầy đủ nhưng đã bị các request khác dùng hết → thử claim thêm 1 lần
+                    if (granted >= leaseSize && mayRetry) {
+                        return consumeLeased(bucketKey, limit, false);
+                    }
+                    return Mono.just(new Decision(false, 0, retryAfterSeconds(leaseTtlNanos)));
+                });
+    }
+
+    /** Trả token của lease đã hết hạn về bucket chung (fire-and-forget) */
+    private void giveBack(String bucketKey, CompiledLimit limit, long unused) {
+        if (unused <= 0) return;
+        try {
+            bucket(bucketKey, limit).addTokens(unused).whenComplete((v, err) -> {
+                if (err != null) {
+                    log.debug("Could not give back {} leased tokens for {}: {}", unused, bucketKey, err.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.debug("Could not give back {} leased tokens for {}: {}", unused, bucketKey, e.getMessage());
+        }
+    }
+
+    private AsyncBucketProxy bucket(String bucketKey, CompiledLimit limit) {
+        return getProxyManager().builder().build(bucketKey, limit.configuration());
+    }
+
+    private AsyncProxyManager<String> getProxyManager() {
+        AsyncProxyManager<String> pm = proxyManager;
+        if (pm == null) {
+            synchronized (this) {
+                pm = proxyManager;
+                if (pm == null) {
+                    String redisUri = String.format("redis://%s:%d",
+                            Objects.requireNonNull(redisConnectionFactory.getHostName()),
+                            redisConnectionFactory.getPort());
+
+                    log.info("🔧 Initializing Bucket4j async ProxyManager with Redis: {}", redisUri);
+
+                    redisClient = RedisClient.create(redisUri);
+                    connection = redisClient.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+                    pm = LettuceBasedProxyManager.builderFor(connection)
+                            .withExpirationStrategy(ExpirationAfterWriteStrategy
+                                    .basedOnTimeForRefillingBucketUpToMax(Duration.ofSeconds(10)))
+                            .build()
+                            .asAsync();
+                    proxyManager = pm;
+                }
+            }
+        }
+        return pm;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (connection != null) connection.close();
+        if (redisClient != null) redisClient.shutdown();
+    }
+
+    private CompiledLimit compile(String pathPrefix, int capacity, int refillTokens, Duration period) {
+        return new CompiledLimit(pathPrefix, bucketConfig(capacity, refillTokens, period),
+                leaseSize(capacity, config.getLease()));
+    }
+
+    /**
+     * Lease per key and replica: the configured size, capped so that all
+     * replicas together hold at most max-fraction of the capacity; below 2
+     * tokens a lease saves nothing and the limit is consumed directly.
+     */
+    static int leaseSize(int capacity, RateLimitConfig.LeaseConfig lease) {
+        int cap = (int) Math.floor(capacity * lease.getMaxFraction() / Math.max(1, lease.getReplicas()));
+        int size = Math.min(lease.getSize(), cap);
+        return size >= 2 ? size : 0;
+    }
+
+    private static BucketConfiguration bucketConfig(int capacity, int refillTokens, Duration period) {
+        Bandwidth limit = Bandwidth.builder()
+                .capacity(capacity)
+                .refillGreedy(refillTokens, period)
+                .build();
+        return BucketConfiguration.builder().addLimit(limit).build();
+    }
+
+    private static long retryAfterSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    /** Token đã claim từ Redis, phục vụ tại chỗ cho tới khi hết hoặc hết hạn */
+    static final class TokenLease {
+        private final CompiledLimit limit;
+        private final AtomicLong tokens = new AtomicLong();
+        private final AtomicReference<CompletableFuture<Long>> inFlight = new AtomicReference<>();
+        private volatile long expiresAt = System.nanoTime();
+
+        TokenLease(CompiledLimit limit) {
+            this.limit = limit;
+        }
+
+        CompiledLimit limit() {
+            return limit;
+        }
+
+        boolean tryTake() {
+            if (expired()) return false;
+            for (;;) {
+                long t = tokens.get();
+                if (t <= 0) return false;
+                if (tokens.compareAndSet(t, t - 1)) return true;
+            }
+        }
+
+        long remaining() {
+            return Math.max(0, tokens.get());
+        }
+
+        boolean expired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+
+        /** Lấy hết token còn lại (lease hết hạn hoặc bị evict) */
+        long drain() {
+            return Math.max(0, tokens.getAndSet(0));
+        }
+
+        /**
+         * Chỉ 1 claim chạy cùng lúc cho mỗi key; các request khác chờ chung future.
+         * Token còn dư của lease đã hết hạn được trả lại trước khi claim mới.
+         */
+        CompletableFuture<Long> refill(Supplier<CompletableFuture<Long>> claim, LongConsumer giveBack,
+                long ttlNanos) {
+            for (;;) {
+                CompletableFuture<Long> current = inFlight.get();
+                if (current != null) return current;
+
+                CompletableFuture<Long> created = new CompletableFuture<>();
+                if (!inFlight.compareAndSet(null, created)) continue;
+
+                // tokens chỉ được set lại bởi claim đang giữ inFlight → drain ở đây không tranh chấp
+                long unused = expired() ? drain() : 0;
+                if (unused > 0) {
+                    giveBack.accept(unused);
+                }
+
+                CompletableFuture<Long> source;
+                try {
+                    source = claim.get();
+                } catch (RuntimeException e) {
+                    inFlight.set(null);
+                    created.completeExceptionally(e);
+                    return created;
+                }
+                source.whenComplete((granted, err) -> {
+                    if (err == null) {
+                        tokens.set(granted);
+                        expiresAt = System.nanoTime() + ttlNanos;
+                    }
+                    inFlight.set(null);
+                    if (err != null) created.completeExceptionally(err);
+                    else created.complete(granted);
+                });
+                return created;
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.workfitai.apigateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.workfitai.apigateway.config.ResponseCacheConfig;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Two-tier response cache backing ResponseCacheFilter.
+ *
+ * - L1: in-process Caffeine cache, bounded by payload bytes (app.cache.l1-max-size)
+ * - L2: Redis, binary {@link CachedResponse} payloads with native TTL
+ * - Invalidation: every key embeds the generations of its tags
+ *   (cache:response:{tag}:{gen.gen}:{path}); invalidating a tag is one INCR plus a
+ *   pub/sub broadcast, old entries simply age out — no KEYS/SCAN
+ * - Metrics: gateway.response.cache{result=...} and cache.* {cache="response-cache-l1"}
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.cache", name = "enabled", havingValue = "true")
+@Slf4j
+public class ResponseCacheService {
+
+  public enum Result {
+    L1_HIT, L2_HIT, MISS, COALESCED, NOT_MODIFIED, BYPASS
+  }
+
+  private static final String KEY_PREFIX = "cache:response:";
+  private static final String GENERATION_PREFIX = "cache:gen:";
+  // pattern có wildcard ở segment đầu → không có tag, chỉ hết hạn theo TTL
+  private static final String UNTAGGED = "-";
+
+  private final ReactiveRedisTemplate<String, byte[]> bytesRedis;
+  private final ReactiveStringRedisTemplate redis;
+  private final ResponseCacheConfig config;
+  private final Cache<String, CachedResponse> l1;
+  private final Cache<String, Long> generations;
+  private final Map<Result, Counter> counters = new EnumMap<>(Result.class);
+  private final Duration generationTtl;
+  private Disposable invalidationSubscription;
+
+  public ResponseCacheService(ReactiveRedisTemplate<String, byte[]> bytesRedis,
+                              ReactiveStringRedisTemplate redis,
+                              ResponseCacheConfig config,
+                              MeterRegistry meterRegistry) {
+    this.bytesRedis = bytesRedis;
+    this.redis = redis;
+    this.config = config;
+    this.l1 = Caffeine.newBuilder()
+        .maximumWeight(config.getL1MaxSize().toBytes())
+        .weigher((String key, CachedResponse value) -> value.weight() + key.length())
+        .expireAfter(new Expiry<String, CachedResponse>() {
+          @Override
+          public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.remainingTtl().toNanos();
+          }
+
+          @Override
+          public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.remainingTtl().toNanos();
+          }
+
+          @Override
+          public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build();
+    // counter hết hạn → quay về 0; an toàn vì mọi entry cũ đã hết TTL trước đó
+    Duration longestTtl = config.getPatterns().stream()
+        .map(ResponseCacheConfig.PatternConfig::getTtl)
+        .max(Duration::compareTo)
+        .orElse(Duration.ZERO);
+    this.generationTtl = longestTtl.compareTo(config.getGenerationTtl()) > 0
+        ? longestTtl.multipliedBy(2)
+        : config.getGenerationTtl();
+    this.generations = Caffeine.newBuilder()
+        .expireAfterWrite(config.getGenerationRefresh())
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, l1, "response-cache-l1");
+    for (Result result : Result.values()) {
+      counters.put(result, Counter.builder("gateway.response.cache")
+          .description("Response cache lookups by outcome")
+          .tag("result", result.name().toLowerCase())
+          .register(meterRegistry));
+    }
+  }
+
+  @PostConstruct
+  void subscribeInvalidations() {
+    invalidationSubscription = redis.listenToChannel(config.getInvalidationChannel())
+        .map(ReactiveSubscription.Message::getMessage)
+        .doOnNext(this::applyBroadcast)
+        .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+        .subscribe(
+            v -> {
+            },
+            err -> log.error("[ResponseCache] invalidation listener stopped: {}", err.getMessage()));
+    log.info("📦 Response cache enabled (L1 {}, max entry {}, channel={})",
+        config.getL1MaxSize(), config.getMaxEntrySize(), config.getInvalidationChannel());
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (invalidationSubscription != null) invalidationSubscription.dispose();
+  }
+
+  /**
+   * Generation hiện tại của tag; đọc Redis tối đa 1 lần mỗi generation-refresh.
+   * Giá trị Redis là chuẩn: thay thế bản local kể cả khi nhỏ hơn (counter bị reset/flush).
+   */
+  public Mono<Long> generation(String tag) {
+    if (tag == null) return Mono.just(0L);
+    Long local = generations.getIfPresent(tag);
+    if (local != null) return Mono.just(local);
+    return redis.opsForValue().get(GENERATION_PREFIX + tag)
+        .map(Long::parseLong)
+        .defaultIfEmpty(0L)
+        .doOnNext(gen -> generations.put(tag, gen));
+  }
+
+  /** Version của key = generation của từng tag, nối bằng "." (đọc local nếu có đủ) */
+  public Mono<String> version(List<String> tags) {
+    if (tags.isEmpty()) return Mono.just("0");
+    StringBuilder local = new StringBuilder();
+    for (String tag : tags) {
+      Long gen = generations.getIfPresent(tag);
+      if (gen == null) {
+        return Flux.fromIterable(tags)
+            .concatMap(this::generation)
+            .map(String::valueOf)
+            .collect(Collectors.joining("."));
+      }
+      if (!local.isEmpty()) local.append('.');
+      local.append(gen);
+    }
+    return Mono.just(local.toString());
+  }
+
+  public String key(List<String> tags, String version, String pathAndQuery) {
+    return KEY_PREFIX + (tags.isEmpty() ? UNTAGGED : tags.get(0)) + ":" + version + ":" + pathAndQuery;
+  }
+
+  public CachedResponse getLocal(String key) {
+    return l1.getIfPresent(key);
+  }
+
+  /** L2 lookup; hit được đưa lên L1 */
+  public Mono<CachedResponse> getRemote(String key) {
+    return bytesRedis.opsForValue().get(key)
+        .mapNotNull(CachedResponse::decode)
+        .filter(entry -> !entry.expired())
+        .doOnNext(entry -> l1.put(key, entry));
+  }
+
+  public Mono<Boolean> put(String key, CachedResponse entry) {
+    l1.put(key, entry);
+    return bytesRedis.opsForValue().set(key, entry.encode(), entry.remainingTtl());
+  }
+
+  /** Bump generation của tag: mọi key cũ của tag trở nên unreachable trên mọi node */
+  public Mono<Long> invalidate(String tag) {
+    String key = GENERATION_PREFIX + tag;
+    return redis.opsForValue().increment(key)
+        .flatMap(gen -> redis.expire(key, generationTtl).thenReturn(gen))
+        .flatMap(gen -> {
+          generations.put(tag, gen);
+          log.info("🗑️ Response cache tag '{}' invalidated (generation {})", tag, gen);
+          return redis.convertAndSend(config.getInvalidationChannel(), tag + ":" + gen).thenReturn(gen);
+        });
+  }
+
+  public Mono<Void> invalidateAll(List<String> tags) {
+    return Flux.fromIterable(tags).flatMap(this::invalidate).then();
+  }
+
+  public void record(Result result) {
+    counters.get(result).increment();
+  }
+
+  /**
+   * Generation mới hơn → áp dụng ngay. Nhỏ hơn bản local: hoặc tin đến trễ, hoặc
+   * counter đã bị reset → bỏ bản local, lần đọc sau lấy giá trị chuẩn từ Redis.
+   */
+  void applyBroadcast(String message) {
+    int sep = message.lastIndexOf(':');
+    if (sep <= 0) return;
+    try {
+      long gen = Long.parseLong(message.substring(sep + 1));
+      generations.asMap().compute(message.substring(0, sep),
+          (tag, local) -> (local == null || gen >= local) ? gen : null);
+    } catch (NumberFormatException e) {
+      log.warn("[ResponseCache] ignoring malformed invalidation message '{}'", message);
+    }
+  }
+}
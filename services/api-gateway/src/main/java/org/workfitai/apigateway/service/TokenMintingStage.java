@@ -0,0 +1,129 @@
+package org.workfitai.apigateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route-aware opaque token minting.
+ *
+ * Only responses of token-issuing routes (login, 2FA login, refresh, OAuth
+ * exchange - see app.response-envelope.token-issuing-paths, resolved into
+ * RoutePolicy.tokenMinting) are inspected.
+ * All JWT-looking token fields found in the body are minted with a single
+ * pipelined Redis round trip via {@link IOpaqueTokenService#mintAll}.
+ *
+ * Metrics: gateway.token.mint (timer, tag outcome = success | error)
+ */
+@Service
+@Slf4j
+public class TokenMintingStage {
+
+  private final IOpaqueTokenService opaqueTokenService;
+  private final Timer mintSuccess;
+  private final Timer mintError;
+
+  public TokenMintingStage(IOpaqueTokenService opaqueTokenService, MeterRegistry meterRegistry) {
+    this.opaqueTokenService = opaqueTokenService;
+    this.mintSuccess = Timer.builder("gateway.token.mint")
+        .description("Latency of minting opaque tokens for a token-issuing response")
+        .tag("outcome", "success")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+    this.mintError = Timer.builder("gateway.token.mint")
+        .description("Latency of minting opaque tokens for a token-issuing response")
+        .tag("outcome", "error")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Thay các JWT trong envelope bằng opaque token (in-place). Trả về chính
+   * envelope; nếu mint lỗi thì lỗi được propagate để không lộ JWT ra client.
+   */
+  public Mono<JsonNode> mint(ObjectNode envelope) {
+    // container: ưu tiên data nếu có
+    ObjectNode container = envelope;
+    if (envelope.has("data") && envelope.get("data").isObject()) {
+      container = (ObjectNode) envelope.get("data");
+    }
+
+    List<TokenField> fields = new ArrayList<>(2);
+    collectTokenFields(container, fields);
+    if (fields.isEmpty()) {
+      return Mono.just(envelope);
+    }
+
+    List<IOpaqueTokenService.MintRequest> requests = fields.stream()
+        .map(f -> new IOpaqueTokenService.MintRequest(f.jwt(), f.kind()))
+        .toList();
+
+    ObjectNode finalContainer = container;
+    long start = System.nanoTime();
+    return opaqueTokenService.mintAll(requests)
+        .map(opaques -> {
+          for (int i = 0; i < fields.size(); i++) {
+            TokenField f = fields.get(i);
+            f.owner().put(f.key(), opaques.get(i));
+            log.debug("[opaque] replaced key='{}' kind={} → opaque", f.key(), f.kind());
+          }
+          if (finalContainer.has("tokenType")) finalContainer.put("tokenType", "Opaque");
+          else envelope.put("tokenType", "Opaque");
+          return (JsonNode) envelope;
+        })
+        .doOnSuccess(n -> mintSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+        .doOnError(e -> mintError.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+  }
+
+  /** duyệt đệ quy (body auth nhỏ), gom các field có thể là token */
+  private void collectTokenFields(JsonNode node, List<TokenField> out) {
+    if (node == null) return;
+
+    if (node.isObject()) {
+      var it = node.fields();
+      while (it.hasNext()) {
+        var e = it.next();
+        String key = e.getKey();
+        JsonNode child = e.getValue();
+
+        if (looksLikeTokenKey(key) && child.isTextual() && looksLikeJwt(child.asText())) {
+          String kind = key.toLowerCase().contains("refresh") ? "refresh" : "access";
+          out.add(new TokenField((ObjectNode) node, key, child.asText(), kind));
+        } else {
+          collectTokenFields(child, out);
+        }
+      }
+    } else if (node.isArray()) {
+      for (int i = 0; i < node.size(); i++) {
+        collectTokenFields(node.get(i), out);
+      }
+    }
+  }
+
+  private static boolean looksLikeTokenKey(String key) {
+    String k = key.toLowerCase();
+    return k.equals("accesstoken") || k.equals("refreshtoken") || k.equals("idtoken")
+        || k.equals("access_token") || k.equals("refresh_token") || k.equals("id_token")
+        || k.equals("token") || k.equals("jwt") || k.equals("bearertoken") || k.equals("bearer_token")
+        || (k.contains("access") && k.contains("token"))
+        || (k.contains("refresh") && k.contains("token"))
+        || (k.contains("id") && k.contains("token"))
+        || k.equals("authorization");
+  }
+
+  private static boolean looksLikeJwt(String s) {
+    if (s == null) return false;
+    int dots = (int) s.chars().filter(ch -> ch == '.').count();
+    return dots == 2 && s.length() > 20; // hình dạng "header.payload.sig"
+  }
+
+  private record TokenField(ObjectNode owner, String key, String jwt, String kind) {
+  }
+}
@@ -5,14 +5,22 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReactiveStringCommands;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Service;
+import org.workfitai.apigateway.security.OpaqueTokenNearCache;
 import org.workfitai.apigateway.service.IOpaqueTokenService;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -22,6 +30,7 @@ import java.util.UUID;
 public class RedisOpaqueTokenService implements IOpaqueTokenService {
 
   private final ReactiveStringRedisTemplate redis;
+  private final OpaqueTokenNearCache nearCache;
   private final ObjectMapper mapper = new ObjectMapper();
 
   @Override
@@ -37,6 +46,32 @@ public class RedisOpaqueTokenService implements IOpaqueTokenService {
         .thenReturn(opaque);
   }
 
+  @Override
+  public Mono<List<String>> mintAll(List<MintRequest> requests) {
+    if (requests.isEmpty()) return Mono.just(List.of());
+
+    List<String> opaques = new ArrayList<>(requests.size());
+    List<ReactiveStringCommands.SetCommand> commands = new ArrayList<>(requests.size());
+    for (MintRequest req : requests) {
+      String opaque = UUID.randomUUID().toString().replace("-", "");
+      Duration ttl = ttlFromJwt(req.jwt()).orElse(Duration.ofMinutes(15));
+      opaques.add(opaque);
+      commands.add(ReactiveStringCommands.SetCommand.set(bytes(key(req.kind(), opaque)))
+          .value(bytes(req.jwt()))
+          .expiring(Expiration.from(ttl)));
+    }
+
+    // gửi tất cả SET trên cùng 1 publisher → Lettuce pipeline trong 1 round trip
+    return redis.execute(conn -> conn.stringCommands().set(Flux.fromIterable(commands)))
+        .filter(res -> !Boolean.TRUE.equals(res.getOutput()))
+        .next()
+        .flatMap(failed -> Mono.<List<String>>error(
+            new IllegalStateException("Failed to store opaque token batch")))
+        .switchIfEmpty(Mono.fromSupplier(() -> List.copyOf(opaques)))
+        .doOnSuccess(result -> log.info("[RedisOpaque] stored {} opaque tokens in one batch", result.size()))
+        .doOnError(err -> log.error("[RedisOpaque] failed to store batch of {} -> {}", requests.size(), err.getMessage()));
+  }
+
   @Override
   public Mono<String> toJwt(String opaque) {
     // thử cả 2 loại
@@ -46,7 +81,13 @@ public class RedisOpaqueTokenService implements IOpaqueTokenService {
 
   @Override
   public Mono<Long> revokeAll(String opaque) {
-    return redis.delete(key("access", opaque), key("refresh", opaque));
+    // xoá trong Redis trước, sau đó invalidate near-cache trên mọi node gateway
+    return redis.delete(key("access", opaque), key("refresh", opaque))
+        .flatMap(deleted -> nearCache.broadcastRevocation(opaque).thenReturn(deleted));
+  }
+
+  private static ByteBuffer bytes(String value) {
+    return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
   }
 
   private static String key(String kind, String opaque) {
@@ -0,0 +1,77 @@
+package org.workfitai.apigateway.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DisplayName("EnvelopeSourceSplicer Unit Tests")
+class EnvelopeSourceSplicerTest {
+
+  private static final DefaultDataBufferFactory FACTORY = DefaultDataBufferFactory.sharedInstance;
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @Test
+  @DisplayName("Source is inserted after the opening brace")
+  void insertsSource() {
+    assertThat(splice(" {\"status\":200,\"message\":\"ok\"}", 0))
+        .isEqualTo(" {\"source\":\"job\",\"status\":200,\"message\":\"ok\"}");
+    assertThat(splice("{}", 0)).isEqualTo("{\"source\":\"job\"}");
+  }
+
+  @Test
+  @DisplayName("A downstream top-level source is dropped, wherever it is")
+  void dropsExistingSource() throws Exception {
+    String[] bodies = {
+        "{\"source\":\"svc\",\"status\":200,\"message\":\"ok\"}",
+        "{\"status\":200,\"source\":{\"a\":[1,\"}\"]},\"message\":\"ok\"}",
+        "{\"status\":200,\"message\":\"ok\",\"source\":\"s,\\\"}\"}",
+        "{ \"status\" : 200 , \"source\" : null , \"message\" : \"ok\" }"
+    };
+    for (String body : bodies) {
+      for (int split = 0; split < body.length(); split++) {
+        JsonNode node = MAPPER.readTree(splice(body, split));
+        assertThat(node.get("source").asText()).as("%s split at %d", body, split).isEqualTo("job");
+        assertThat(node.get("status").asInt()).isEqualTo(200);
+        assertThat(node.size()).isEqualTo(3);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Nested source keys and look-alike keys are kept")
+  void keepsOtherKeys() throws Exception {
+    String body = "{\"status\":200,\"sourceId\":1,\"sour\":2,\"message\":\"ok\","
+        + "\"data\":{\"source\":\"nested\"},\"sou\\\"rce\":3}";
+    for (int split = 0; split < body.length(); split++) {
+      JsonNode node = MAPPER.readTree(splice(body, split));
+      assertThat(node.get("source").asText()).isEqualTo("job");
+      assertThat(node.get("sourceId").asInt()).isEqualTo(1);
+      assertThat(node.get("sour").asInt()).isEqualTo(2);
+      assertThat(node.get("sou\"rce").asInt()).isEqualTo(3);
+      assertThat(node.at("/data/source").asText()).isEqualTo("nested");
+    }
+  }
+
+  /** Splices the body delivered as two buffers split at the given offset */
+  private static String splice(String body, int split) {
+    EnvelopeSourceSplicer splicer = new EnvelopeSourceSplicer("\"job\"");
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    StringBuilder out = new StringBuilder();
+    out.append(read(splicer.apply(FACTORY.wrap(Arrays.copyOfRange(bytes, 0, split)), FACTORY)));
+    out.append(read(splicer.apply(FACTORY.wrap(Arrays.copyOfRange(bytes, split, bytes.length)), FACTORY)));
+    return out.toString();
+  }
+
+  private static String read(DataBuffer buffer) {
+    return buffer.toString(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,106 @@
+package org.workfitai.apigateway.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.workfitai.apigateway.config.JsonEnvelopeSniffer.Shape;
+
+@DisplayName("JsonEnvelopeSniffer Unit Tests")
+class JsonEnvelopeSnifferTest {
+
+  private static final DefaultDataBufferFactory FACTORY = DefaultDataBufferFactory.sharedInstance;
+
+  @Test
+  @DisplayName("Envelope with status and message is detected, wherever the keys are")
+  void detectsEnvelope() {
+    assertThat(shape("{\"status\":200,\"message\":\"ok\",\"data\":{\"status\":1}}", 512, true))
+        .isEqualTo(Shape.ENVELOPE);
+    assertThat(shape("  {\"data\":[1,2],\"message\":\"ok\",\"status\":200}", 512, true))
+        .isEqualTo(Shape.ENVELOPE);
+  }
+
+  @Test
+  @DisplayName("Other JSON objects and arrays are wrapped; nested keys do not count")
+  void wrapsOtherJson() {
+    assertThat(shape("{\"id\":1,\"data\":{\"status\":1,\"message\":\"x\"}}", 512, true)).isEqualTo(Shape.WRAP);
+    assertThat(shape("[{\"a\":true},null,-1.5e3]", 512, true)).isEqualTo(Shape.WRAP);
+    assertThat(shape("{}", 512, false)).isEqualTo(Shape.WRAP);
+  }
+
+  @Test
+  @DisplayName("A body starting with '{' that is not JSON passes through")
+  void passesThroughInvalidJson() {
+    assertThat(shape("{{ template }}", 512, false)).isEqualTo(Shape.PASS_THROUGH);
+    assertThat(shape("{status: 200}", 512, true)).isEqualTo(Shape.PASS_THROUGH);
+    assertThat(shape("{\"a\":tru}", 512, true)).isEqualTo(Shape.PASS_THROUGH);
+    assertThat(shape("{\"a\":01}", 512, true)).isEqualTo(Shape.PASS_THROUGH);
+    assertThat(shape("{\"a\":1} trailing", 512, true)).isEqualTo(Shape.PASS_THROUGH);
+    assertThat(shape("{\"a\":1]", 512, true)).isEqualTo(Shape.PASS_THROUGH);
+    assertThat(shape("{\"a\":\"line\nbreak\"}", 512, true)).isEqualTo(Shape.PASS_THROUGH);
+    assertThat(shape("<html><body>{}</body></html>", 512, false)).isEqualTo(Shape.PASS_THROUGH);
+  }
+
+  @Test
+  @DisplayName("A body that ends before the value closes passes through")
+  void passesThroughTruncatedBody() {
+    assertThat(shape("{\"status\":200,\"message\":", 512, true)).isEqualTo(Shape.PASS_THROUGH);
+  }
+
+  @Test
+  @DisplayName("Past the scan window: trust a JSON header, otherwise parse fully")
+  void decidesPastTheWindow() {
+    String body = "{\"status\":200,\"message\":\"ok\",\"data\":\"" + "x".repeat(1000) + "\"}";
+    String other = "{\"items\":\"" + "x".repeat(1000) + "\"}";
+
+    assertThat(shape(body, 64, true)).isEqualTo(Shape.ENVELOPE);
+    assertThat(shape(other, 64, true)).isEqualTo(Shape.WRAP);
+    assertThat(shape(body, 64, false)).isEqualTo(Shape.FULL_PARSE);
+    assertThat(shape(body, 16, true)).isEqualTo(Shape.ENVELOPE);
+  }
+
+  @Test
+  @DisplayName("Scalars are parsed fully, as in BUFFERED mode")
+  void parsesScalarsFully() {
+    assertThat(shape("\"text\"", 512, true)).isEqualTo(Shape.FULL_PARSE);
+    assertThat(shape("42", 512, false)).isEqualTo(Shape.FULL_PARSE);
+  }
+
+  @Test
+  @DisplayName("Keys and escapes split across buffers are handled")
+  void scansAcrossBuffers() {
+    String body = "{\"sta\\\"x\":1,\"status\":200,\"message\":\"a\\\"}\"}";
+    for (int split = 1; split < body.length(); split++) {
+      List<DataBuffer> buffers = List.of(buffer(body.substring(0, split)), buffer(body.substring(split)));
+      assertThat(JsonEnvelopeSniffer.sniff(buffers, 512, true).shape()).as("split at %d", split)
+          .isEqualTo(Shape.ENVELOPE);
+    }
+  }
+
+  @Test
+  @DisplayName("Result points at the first non-whitespace byte")
+  void pointsAtBodyStart() {
+    List<DataBuffer> buffers = Arrays.asList(buffer("  \n"), buffer(" [1]"));
+
+    JsonEnvelopeSniffer.Result result = JsonEnvelopeSniffer.sniff(buffers, 512, true);
+
+    assertThat(result.bufferIndex()).isEqualTo(1);
+    assertThat(result.offset()).isEqualTo(1);
+    assertThat(JsonEnvelopeSniffer.sniff(List.of(buffer("   ")), 512, true).shape())
+        .isEqualTo(Shape.PASS_THROUGH);
+  }
+
+  private static Shape shape(String body, int limit, boolean jsonDeclared) {
+    return JsonEnvelopeSniffer.sniff(List.of(buffer(body)), limit, jsonDeclared).shape();
+  }
+
+  private static DataBuffer buffer(String content) {
+    return FACTORY.wrap(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
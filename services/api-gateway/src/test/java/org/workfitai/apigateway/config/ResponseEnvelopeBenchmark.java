@@ -0,0 +1,129 @@
+package org.workfitai.apigateway.config;
+
+import static org.mockito.Mockito.mock;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.workfitai.apigateway.service.IOpaqueTokenService;
+import org.workfitai.apigateway.service.TokenMintingStage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+
+/**
+ * JMH: a ResponseData body of a public job listing going through the
+ * response-source filter (decorated response, envelope rewrite, write),
+ * BUFFERED (aggregate, parse, re-serialize; the legacy path) vs STREAMING
+ * (head sniff + source splice on the downstream buffers). The downstream
+ * writes the body in 8 KB chunks, like the Netty client.
+ *
+ * Reports the latency distribution (SampleTime, p50/p99) and, through the
+ * GC profiler ({@code -prof gc}), bytes allocated per response.
+ *
+ * Run with {@code mvn test -Pperf -Dtest=ResponseEnvelopeBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseEnvelopeBenchmark {
+
+  private static final DefaultDataBufferFactory FACTORY = DefaultDataBufferFactory.sharedInstance;
+  private static final int CHUNK_BYTES = 8 * 1024;
+
+  /** Body size in bytes: 10 KB, 1 MB, 10 MB */
+  @Param({ "10240", "1048576", "10485760" })
+  public int bodyBytes;
+
+  @Param({ "BUFFERED", "STREAMING" })
+  public ResponseEnvelopeConfig.Mode mode;
+
+  private byte[] body;
+  private ResponseSourceGlobalFilter.DecoratingResponseFilter filter;
+
+  @Setup
+  public void setUp() {
+    StringBuilder json = new StringBuilder("{\"status\":200,\"message\":\"Success\",\"data\":[");
+    for (int i = 0; json.length() < bodyBytes - 64; i++) {
+      if (i > 0) json.append(',');
+      json.append("{\"id\":\"").append(i).append("\",\"title\":\"Senior Java Engineer ").append(i)
+          .append("\",\"company\":\"WorkFitAI\",\"location\":\"Ho Chi Minh City\",\"salaryMin\":1500,")
+          .append("\"salaryMax\":3000,\"tags\":[\"java\",\"spring\",\"kafka\"],\"remote\":true}");
+    }
+    json.append("],\"timestamp\":\"2026-01-01T00:00:00\"}");
+    body = json.toString().getBytes(StandardCharsets.UTF_8);
+
+    ResponseEnvelopeConfig config = new ResponseEnvelopeConfig();
+    config.setMode(mode);
+    TokenMintingStage tokenMintingStage =
+        new TokenMintingStage(mock(IOpaqueTokenService.class), new SimpleMeterRegistry());
+    filter = new ResponseSourceGlobalFilter.DecoratingResponseFilter(new ObjectMapper(), tokenMintingStage, config,
+        RoutePolicyIndexTest.applicationYmlIndex());
+  }
+
+  @Benchmark
+  public long envelope() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/job/public/jobs"));
+    AtomicLong written = new AtomicLong();
+    // Sink thay cho Netty: đếm byte rồi release, không giữ body lại
+    exchange.getResponse().setWriteHandler(out -> out
+        .doOnNext(buffer -> {
+          written.addAndGet(buffer.readableByteCount());
+          DataBufferUtils.release(buffer);
+        })
+        .then());
+
+    GatewayFilterChain downstream = ex -> {
+      ex.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+      return ex.getResponse().writeWith(Flux.range(0, (body.length + CHUNK_BYTES - 1) / CHUNK_BYTES)
+          .map(i -> FACTORY.wrap(ByteBuffer.wrap(body, i * CHUNK_BYTES,
+              Math.min(CHUNK_BYTES, body.length - i * CHUNK_BYTES)).slice())));
+    };
+    filter.filter(exchange, downstream).block();
+    if (written.get() <= body.length) {
+      throw new IllegalStateException("source was not added: " + written.get() + " bytes");
+    }
+    return written.get();
+  }
+
+  @Test
+  @Tag("perf")
+  @DisplayName("JMH: BUFFERED vs STREAMING envelope rewrite through the filter")
+  void runBenchmarks() throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ResponseEnvelopeBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+}
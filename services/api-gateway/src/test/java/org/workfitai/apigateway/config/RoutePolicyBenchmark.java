@@ -0,0 +1,114 @@
+package org.workfitai.apigateway.config;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * JMH: route decisions for one request, the per-filter matching the gateway
+ * did before (regex cache patterns, AntPathMatcher logout, startsWith loops
+ * for protection, validation, rate limits and skip paths, set lookup for
+ * token minting) vs one memoized {@link RoutePolicyIndex#resolve}.
+ *
+ * Run with {@code mvn test -Pperf -Dtest=RoutePolicyBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutePolicyBenchmark {
+
+  private static final String[] PATHS = {
+      "/job/public/jobs",
+      "/job/public/jobs/3f2b8c1e-5d4a-4b6c-9e7f-0a1b2c3d4e5f",
+      "/job/hr/jobs",
+      "/auth/login",
+      "/auth/logout",
+      "/application/my-applications",
+      "/cv/public/templates",
+      "/user/profile",
+      "/notification/unread",
+      "/actuator/health"
+  };
+
+  // Luật cũ, đúng như trong các filter trước RoutePolicyIndex
+  private static final List<Pattern> CACHE_PATTERNS = List.of(
+      Pattern.compile(".*/job/public/.*"), Pattern.compile(".*/cv/public/.*"), Pattern.compile("/actuator/health.*"));
+  private static final List<String> SKIP_CACHE_PATHS = List.of("/user/profile", "/application/", "/auth/",
+      "/notification/");
+  private static final String[] LOGOUT_PATTERNS = { "/auth/logout", "**/auth/logout", "*/logout" };
+  private static final List<String> RATE_LIMIT_PREFIXES = List.of("/auth/login", "/auth/register", "/cv/upload",
+      "/application");
+  private static final List<String> TOKEN_ISSUING = List.of("/auth/login", "/auth/verify-2fa-login",
+      "/auth/refresh", "/auth/oauth/exchange");
+
+  private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+  private RoutePolicyIndex index;
+  private int n;
+
+  @Setup
+  public void setUp() {
+    index = RoutePolicyIndexTest.applicationYmlIndex();
+  }
+
+  @Benchmark
+  public void perFilterMatching(Blackhole bh) {
+    String path = PATHS[n++ % PATHS.length];
+    // ResponseCacheFilter
+    bh.consume(!SKIP_CACHE_PATHS.stream().anyMatch(path::startsWith)
+        && CACHE_PATTERNS.stream().anyMatch(p -> p.matcher(path).matches()));
+    // RateLimitFilter
+    if (!path.startsWith("/actuator") && !path.startsWith("/health")) {
+      bh.consume(RATE_LIMIT_PREFIXES.stream().filter(path::startsWith).findFirst().orElse("/"));
+    }
+    // RequestValidationFilter
+    bh.consume(path.startsWith("/actuator") || path.startsWith("/fallback"));
+    bh.consume(!path.startsWith("/auth/") && !path.startsWith("/actuator") && !path.contains("/public/"));
+    // ResponseSourceGlobalFilter
+    bh.consume(TOKEN_ISSUING.contains(path));
+    // LogoutRevokePostFilter
+    boolean logout = false;
+    for (String pattern : LOGOUT_PATTERNS) {
+      if (antPathMatcher.match(pattern, path)) {
+        logout = true;
+        break;
+      }
+    }
+    bh.consume(logout);
+  }
+
+  @Benchmark
+  public RoutePolicy routePolicyIndex() {
+    return index.resolve(PATHS[n++ % PATHS.length]);
+  }
+
+  @Test
+  @Tag("perf")
+  @DisplayName("JMH: per-filter path matching vs RoutePolicyIndex")
+  void runBenchmarks() throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(RoutePolicyBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
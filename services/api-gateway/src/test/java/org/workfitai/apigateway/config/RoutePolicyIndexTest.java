@@ -0,0 +1,145 @@
+package org.workfitai.apigateway.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.workfitai.apigateway.service.RateLimitEngine;
+
+@DisplayName("RoutePolicyIndex Unit Tests")
+class RoutePolicyIndexTest {
+
+  private static final String JOB_ID = "3f2b8c1e-5d4a-4b6c-9e7f-0a1b2c3d4e5f";
+
+  private RoutePolicyIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = applicationYmlIndex();
+  }
+
+  /** Same rules as application.yml (cache, rate-limit endpoints, token-issuing paths) */
+  static RoutePolicyIndex applicationYmlIndex() {
+    ResponseCacheConfig cache = new ResponseCacheConfig();
+    cache.setPatterns(List.of(
+        cachePattern("/job/public/jobs/{id:[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}}", 60,
+            "job:{id}"),
+        cachePattern("/job/public/**", 30, "job:listing"),
+        cachePattern("/cv/public/**", 10, null)));
+    cache.setSkipPaths(List.of("/user/profile", "/application/", "/auth/", "/notification/"));
+    cache.getJobEvents().setEnabled(true);
+    cache.getJobEvents().setCoveredPaths(List.of("/job/hr/jobs", "/job/admin/jobs/**"));
+
+    RateLimitConfig rateLimit = new RateLimitConfig();
+    rateLimit.setEndpoints(List.of(
+        endpoint("/auth/login", 5000),
+        endpoint("/auth/register", 3000),
+        endpoint("/cv/upload", 1000),
+        endpoint("/application", 2000)));
+
+    return new RoutePolicyIndex(cache, new ResponseEnvelopeConfig(), new RateLimitEngine(rateLimit, null));
+  }
+
+  @Test
+  @DisplayName("Protected routes keep the old rule: not /auth/*, not /actuator*, no /public/ anywhere")
+  void protectedRoutes() {
+    assertThat(index.resolve("/job/hr/jobs").protectedRoute()).isTrue();
+    assertThat(index.resolve("/auth/login").protectedRoute()).isFalse();
+    assertThat(index.resolve("/auth").protectedRoute()).isTrue();
+    assertThat(index.resolve("/actuator/health").protectedRoute()).isFalse();
+    assertThat(index.resolve("/actuatorx").protectedRoute()).isFalse();
+    assertThat(index.resolve("/public/banner").protectedRoute()).isFalse();
+    assertThat(index.resolve("/job/public/jobs").protectedRoute()).isFalse();
+    assertThat(index.resolve("/api/v1/job/public/jobs").protectedRoute()).isFalse();
+    assertThat(index.resolve("/job/publicity").protectedRoute()).isTrue();
+  }
+
+  @Test
+  @DisplayName("Only /auth/logout revokes; logout paths of other services do not")
+  void logoutOnlyOnAuth() {
+    assertThat(index.resolve("/auth/logout").logoutRevoke()).isTrue();
+    assertThat(index.resolve("/job/logout").logoutRevoke()).isFalse();
+    assertThat(index.resolve("/user/logout").logoutRevoke()).isFalse();
+    assertThat(index.resolve("/api/auth/logout").logoutRevoke()).isFalse();
+    assertThat(index.resolve("/auth/logout/").logoutRevoke()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Endpoint limits match by raw prefix; actuator and health are exempt")
+  void rateLimitPrefixes() {
+    assertThat(index.resolve("/application").rateLimit().pathPrefix()).isEqualTo("/application");
+    assertThat(index.resolve("/application/123").rateLimit().pathPrefix()).isEqualTo("/application");
+    assertThat(index.resolve("/applications/me").rateLimit().pathPrefix()).isEqualTo("/application");
+    assertThat(index.resolve("/auth/login").rateLimit().pathPrefix()).isEqualTo("/auth/login");
+    assertThat(index.resolve("/job/public/jobs").rateLimit().pathPrefix()).isEqualTo("/");
+
+    assertThat(index.resolve("/actuator/health").rateLimited()).isFalse();
+    assertThat(index.resolve("/health").rateLimited()).isFalse();
+    assertThat(index.resolve("/healthz").rateLimited()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Validation exemption and token minting keep their prefix / exact-path rules")
+  void validationAndTokenMinting() {
+    assertThat(index.resolve("/actuator/info").validationExempt()).isTrue();
+    assertThat(index.resolve("/fallback/job").validationExempt()).isTrue();
+    assertThat(index.resolve("/job/hr/jobs").validationExempt()).isFalse();
+
+    assertThat(index.resolve("/auth/login").tokenMinting()).isTrue();
+    assertThat(index.resolve("/auth/login/").tokenMinting()).isTrue();
+    assertThat(index.resolve("/auth/refresh").tokenMinting()).isTrue();
+    assertThat(index.resolve("/auth/logout").tokenMinting()).isFalse();
+    assertThat(index.resolve("/auth/login/extra").tokenMinting()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Cache rules: first pattern wins, tags take URI variables, skip paths are raw prefixes")
+  void cacheRules() {
+    RoutePolicy detail = index.resolve("/job/public/jobs/" + JOB_ID);
+    assertThat(detail.cacheTtl()).isEqualTo(Duration.ofMinutes(60));
+    assertThat(detail.cacheTags()).containsExactly("job", "job:" + JOB_ID);
+
+    RoutePolicy listing = index.resolve("/job/public/jobs");
+    assertThat(listing.cacheTtl()).isEqualTo(Duration.ofMinutes(30));
+    assertThat(listing.cacheTags()).containsExactly("job", "job:listing");
+
+    assertThat(index.resolve("/cv/public/templates").cacheTags()).containsExactly("cv");
+    assertThat(index.resolve("/application/public/x").cacheable()).isFalse();
+    assertThat(index.resolve("/job/hr/jobs").cacheable()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Mutations invalidate the base tag unless a job event already covers them")
+  void invalidationTags() {
+    assertThat(index.resolve("/job/hr/jobs").invalidationTag()).isNull();
+    assertThat(index.resolve("/job/admin/jobs/" + JOB_ID).invalidationTag()).isNull();
+    assertThat(index.resolve("/job/hr/companies").invalidationTag()).isEqualTo("job");
+    assertThat(index.resolve("/user/profile").invalidationTag()).isNull();
+  }
+
+  @Test
+  @DisplayName("A path is resolved once and the same policy object is reused")
+  void memoizes() {
+    assertThat(index.resolve("/job/public/jobs")).isSameAs(index.resolve("/job/public/jobs"));
+  }
+
+  private static ResponseCacheConfig.PatternConfig cachePattern(String path, int ttlMinutes, String tag) {
+    ResponseCacheConfig.PatternConfig pattern = new ResponseCacheConfig.PatternConfig();
+    pattern.setPath(path);
+    pattern.setTtlMinutes(ttlMinutes);
+    pattern.setTag(tag);
+    return pattern;
+  }
+
+  private static RateLimitConfig.EndpointConfig endpoint(String path, int requestsPerMinute) {
+    RateLimitConfig.EndpointConfig endpoint = new RateLimitConfig.EndpointConfig();
+    endpoint.setPath(path);
+    endpoint.setRequestsPerMinute(requestsPerMinute);
+    endpoint.setBurstCapacity(requestsPerMinute);
+    return endpoint;
+  }
+}
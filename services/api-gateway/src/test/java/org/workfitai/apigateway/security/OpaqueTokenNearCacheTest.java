@@ -0,0 +1,92 @@
+package org.workfitai.apigateway.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.workfitai.apigateway.config.OpaqueTokenCacheConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+@DisplayName("OpaqueTokenNearCache Unit Tests")
+class OpaqueTokenNearCacheTest {
+
+  private static final String CHANNEL = "opaque:revoked";
+
+  private ReactiveStringRedisTemplate redis;
+  private Sinks.Many<ReactiveSubscription.Message<String, String>> revocations;
+  private OpaqueTokenNearCache nearCache;
+
+  @BeforeEach
+  void setUp() {
+    redis = mock(ReactiveStringRedisTemplate.class);
+    revocations = Sinks.many().multicast().onBackpressureBuffer();
+    doReturn(revocations.asFlux()).when(redis).listenToChannel(CHANNEL);
+    when(redis.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+
+    nearCache = new OpaqueTokenNearCache(redis, new OpaqueTokenCacheConfig(), new SimpleMeterRegistry());
+    nearCache.subscribeRevocations();
+  }
+
+  @AfterEach
+  void tearDown() {
+    nearCache.shutdown();
+  }
+
+  @Test
+  @DisplayName("Revoking on this node drops the entry at once and broadcasts the opaque token")
+  void evictsOnLocalRevocation() {
+    nearCache.put("opaque-1", "jwt-1", authentication(Instant.now().plusSeconds(600)));
+    assertThat(nearCache.get("opaque-1")).isNotNull();
+
+    nearCache.broadcastRevocation("opaque-1").block();
+
+    assertThat(nearCache.get("opaque-1")).isNull();
+    verify(redis).convertAndSend(CHANNEL, "opaque-1");
+  }
+
+  @Test
+  @DisplayName("A revocation broadcast by another node evicts only that token here")
+  void evictsOnRemoteRevocation() {
+    nearCache.put("opaque-1", "jwt-1", authentication(Instant.now().plusSeconds(600)));
+    nearCache.put("opaque-2", "jwt-2", authentication(Instant.now().plusSeconds(600)));
+
+    revocations.tryEmitNext(new ReactiveSubscription.ChannelMessage<>(CHANNEL, "opaque-1"));
+
+    assertThat(nearCache.get("opaque-1")).isNull();
+    assertThat(nearCache.get("opaque-2").jwt()).isEqualTo("jwt-2");
+  }
+
+  @Test
+  @DisplayName("An entry never outlives its JWT exp")
+  void expiresWithJwt() {
+    nearCache.put("expired", "jwt-x", authentication(Instant.now().minusSeconds(1)));
+
+    assertThat(nearCache.get("expired")).isNull();
+  }
+
+  private static JwtAuthenticationToken authentication(Instant expiresAt) {
+    Jwt jwt = Jwt.withTokenValue("jwt")
+        .header("alg", "RS256")
+        .subject("user-1")
+        .issuedAt(expiresAt.minusSeconds(900))
+        .expiresAt(expiresAt)
+        .build();
+    return new JwtAuthenticationToken(jwt);
+  }
+}
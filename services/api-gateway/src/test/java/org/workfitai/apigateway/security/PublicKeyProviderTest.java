@@ -0,0 +1,158 @@
+package org.workfitai.apigateway.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.workfitai.apigateway.client.AuthWebClient;
+import org.workfitai.apigateway.config.JwtKeyConfig;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+@DisplayName("PublicKeyProvider / CachingReactiveJwtDecoder Unit Tests")
+class PublicKeyProviderTest {
+
+  private static RSAKey k1;
+  private static RSAKey k2;
+
+  private AuthWebClient authWebClient;
+  private JwtKeyConfig config;
+  private SimpleMeterRegistry meterRegistry;
+  private PublicKeyProvider provider;
+
+  @BeforeAll
+  static void generateKeys() throws JOSEException {
+    k1 = new RSAKeyGenerator(2048).keyID("k1").generate().toPublicJWK();
+    k2 = new RSAKeyGenerator(2048).keyID("k2").generate().toPublicJWK();
+  }
+
+  @BeforeEach
+  void setUp() {
+    authWebClient = mock(AuthWebClient.class);
+    config = new JwtKeyConfig();
+    meterRegistry = new SimpleMeterRegistry();
+    // không gọi startBackgroundRefresh: chỉ kiểm tra refresh on-demand
+    provider = new PublicKeyProvider(authWebClient, config, meterRegistry);
+  }
+
+  @Test
+  @DisplayName("An unknown kid fetches the JWK Set and finds the key")
+  void refreshesOnUnknownKid() {
+    when(authWebClient.getKeySet()).thenReturn(Mono.just(new JWKSet(k1)));
+
+    assertThat(provider.keysFor("k1").block()).extracting(JWK::getKeyID).containsExactly("k1");
+    assertThat(provider.keysFor("k1").block()).extracting(JWK::getKeyID).containsExactly("k1");
+
+    verify(authWebClient, times(1)).getKeySet();
+    assertThat(meterRegistry.get("gateway.jwt.keys").gauge().value()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Garbage kids refresh at most once per min-refresh-interval")
+  void rateLimitsRefresh() {
+    when(authWebClient.getKeySet()).thenReturn(Mono.just(new JWKSet(k1)));
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(provider.keysFor("garbage-" + i).block()).isEmpty();
+    }
+
+    verify(authWebClient, times(1)).getKeySet();
+    assertThat(meterRegistry.get("gateway.jwt.keys.refresh").tag("outcome", "success").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Concurrent lookups of an unknown kid share one fetch")
+  void coalescesConcurrentRefreshes() {
+    Sinks.One<JWKSet> response = Sinks.one();
+    when(authWebClient.getKeySet()).thenReturn(response.asMono());
+
+    Mono<List<JWK>> first = provider.keysFor("k1");
+    Mono<List<JWK>> second = provider.keysFor("k1");
+    first.subscribe();
+    second.subscribe();
+    response.tryEmitValue(new JWKSet(k1));
+
+    assertThat(second.block()).extracting(JWK::getKeyID).containsExactly("k1");
+    verify(authWebClient, times(1)).getKeySet();
+  }
+
+  @Test
+  @DisplayName("After a rotation the new kid is fetched and the old key is kept for the retention period")
+  void keepsRotatedOutKeys() {
+    config.setMinRefreshInterval(Duration.ZERO);
+    when(authWebClient.getKeySet())
+        .thenReturn(Mono.just(new JWKSet(k1)))
+        .thenReturn(Mono.just(new JWKSet(k2)));
+
+    provider.keysFor("k1").block();
+    assertThat(provider.keysFor("k2").block()).extracting(JWK::getKeyID).containsExactly("k2");
+
+    assertThat(provider.keysFor("k1").block()).extracting(JWK::getKeyID).containsExactly("k1");
+    assertThat(provider.keysFor(null).block()).extracting(JWK::getKeyID).containsExactlyInAnyOrder("k1", "k2");
+    verify(authWebClient, times(2)).getKeySet();
+  }
+
+  @Test
+  @DisplayName("A failed fetch keeps the current keys and is counted")
+  void survivesFetchFailure() {
+    config.setMinRefreshInterval(Duration.ZERO);
+    when(authWebClient.getKeySet())
+        .thenReturn(Mono.just(new JWKSet(k1)))
+        .thenReturn(Mono.error(new IllegalStateException("auth-service down")));
+
+    provider.keysFor("k1").block();
+
+    assertThat(provider.keysFor("k2").block()).isEmpty();
+    assertThat(provider.keysFor("k1").block()).extracting(JWK::getKeyID).containsExactly("k1");
+    assertThat(meterRegistry.get("gateway.jwt.keys.refresh").tag("outcome", "error").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Verified-token cache checks each token's signature once and never past its exp")
+  void cachesVerifiedTokens() {
+    ReactiveJwtDecoder delegate = mock(ReactiveJwtDecoder.class);
+    when(delegate.decode("live")).thenReturn(Mono.just(jwt("live", Instant.now().plusSeconds(600))));
+    when(delegate.decode("expiring")).thenReturn(Mono.just(jwt("expiring", Instant.now().minusSeconds(1))));
+    CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(delegate, config.getVerifiedCache(),
+        meterRegistry);
+
+    decoder.decode("live").block();
+    assertThat(decoder.decode("live").block().getTokenValue()).isEqualTo("live");
+    decoder.decode("expiring").block();
+    decoder.decode("expiring").block();
+
+    verify(delegate, times(1)).decode("live");
+    verify(delegate, times(2)).decode("expiring");
+  }
+
+  private static Jwt jwt(String value, Instant expiresAt) {
+    return Jwt.withTokenValue(value)
+        .header("alg", "RS256")
+        .subject("user-1")
+        .issuedAt(expiresAt.minusSeconds(900))
+        .expiresAt(expiresAt)
+        .build();
+  }
+}
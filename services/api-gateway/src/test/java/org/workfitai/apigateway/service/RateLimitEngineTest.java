@@ -0,0 +1,123 @@
+package org.workfitai.apigateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.workfitai.apigateway.config.RateLimitConfig;
+
+@DisplayName("RateLimitEngine lease Unit Tests")
+class RateLimitEngineTest {
+
+  private static final long TTL_NANOS = Duration.ofMillis(50).toNanos();
+
+  @Test
+  @DisplayName("Lease size is capped by capacity share per replica, small limits skip leasing")
+  void capsLeaseSize() {
+    RateLimitConfig.LeaseConfig lease = new RateLimitConfig.LeaseConfig();
+    lease.setSize(20);
+    lease.setMaxFraction(0.1);
+
+    lease.setReplicas(1);
+    assertThat(RateLimitEngine.leaseSize(1000, lease)).isEqualTo(20);
+    assertThat(RateLimitEngine.leaseSize(200, lease)).isEqualTo(20);
+    lease.setReplicas(4);
+    assertThat(RateLimitEngine.leaseSize(200, lease)).isEqualTo(5);
+    assertThat(RateLimitEngine.leaseSize(60, lease)).isZero();
+    lease.setReplicas(0);
+    assertThat(RateLimitEngine.leaseSize(100, lease)).isEqualTo(10);
+  }
+
+  @Test
+  @DisplayName("Refill grants the claimed tokens until they run out")
+  void servesRefilledTokens() {
+    RateLimitEngine.TokenLease lease = new RateLimitEngine.TokenLease(null);
+    assertThat(lease.tryTake()).isFalse();
+
+    Long granted = lease.refill(() -> CompletableFuture.completedFuture(3L), unused -> { }, TTL_NANOS).join();
+
+    assertThat(granted).isEqualTo(3L);
+    assertThat(lease.tryTake()).isTrue();
+    assertThat(lease.tryTake()).isTrue();
+    assertThat(lease.remaining()).isEqualTo(1);
+    assertThat(lease.tryTake()).isTrue();
+    assertThat(lease.tryTake()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Concurrent refills of one key share a single claim")
+  void coalescesRefills() {
+    RateLimitEngine.TokenLease lease = new RateLimitEngine.TokenLease(null);
+    CompletableFuture<Long> claim = new CompletableFuture<>();
+    AtomicInteger claims = new AtomicInteger();
+
+    CompletableFuture<Long> first = lease.refill(() -> {
+      claims.incrementAndGet();
+      return claim;
+    }, unused -> { }, TTL_NANOS);
+    CompletableFuture<Long> second = lease.refill(() -> {
+      claims.incrementAndGet();
+      return CompletableFuture.completedFuture(99L);
+    }, unused -> { }, TTL_NANOS);
+    claim.complete(5L);
+
+    assertThat(claims).hasValue(1);
+    assertThat(second).isSameAs(first);
+    assertThat(second.join()).isEqualTo(5L);
+    assertThat(lease.remaining()).isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("Expired lease serves nothing and gives its tokens back on the next refill")
+  void givesBackExpiredTokens() throws InterruptedException {
+    RateLimitEngine.TokenLease lease = new RateLimitEngine.TokenLease(null);
+    List<Long> givenBack = new ArrayList<>();
+    lease.refill(() -> CompletableFuture.completedFuture(10L), givenBack::add, TTL_NANOS).join();
+    assertThat(lease.tryTake()).isTrue();
+
+    Thread.sleep(Duration.ofNanos(TTL_NANOS).toMillis() + 20);
+
+    assertThat(lease.expired()).isTrue();
+    assertThat(lease.tryTake()).isFalse();
+
+    lease.refill(() -> CompletableFuture.completedFuture(10L), givenBack::add, TTL_NANOS).join();
+
+    assertThat(givenBack).containsExactly(9L);
+    assertThat(lease.remaining()).isEqualTo(10);
+    assertThat(lease.tryTake()).isTrue();
+  }
+
+  @Test
+  @DisplayName("A live lease that ran out refills without giving anything back")
+  void refillsEmptyLeaseWithoutGiveBack() {
+    RateLimitEngine.TokenLease lease = new RateLimitEngine.TokenLease(null);
+    List<Long> givenBack = new ArrayList<>();
+    lease.refill(() -> CompletableFuture.completedFuture(1L), givenBack::add, Duration.ofMinutes(1).toNanos()).join();
+    assertThat(lease.tryTake()).isTrue();
+
+    lease.refill(() -> CompletableFuture.completedFuture(2L), givenBack::add, Duration.ofMinutes(1).toNanos()).join();
+
+    assertThat(givenBack).isEmpty();
+    assertThat(lease.remaining()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("A failed claim leaves the lease empty and allows a new claim")
+  void recoversFromFailedClaim() {
+    RateLimitEngine.TokenLease lease = new RateLimitEngine.TokenLease(null);
+
+    CompletableFuture<Long> failed = lease.refill(
+        () -> CompletableFuture.failedFuture(new IllegalStateException("redis down")), unused -> { }, TTL_NANOS);
+
+    assertThat(failed).isCompletedExceptionally();
+    assertThat(lease.tryTake()).isFalse();
+    assertThat(lease.refill(() -> CompletableFuture.completedFuture(2L), unused -> { }, TTL_NANOS).join())
+        .isEqualTo(2L);
+  }
+}
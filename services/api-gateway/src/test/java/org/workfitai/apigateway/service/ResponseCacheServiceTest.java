@@ -0,0 +1,111 @@
+package org.workfitai.apigateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.workfitai.apigateway.config.ResponseCacheConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+@DisplayName("ResponseCacheService generation Unit Tests")
+class ResponseCacheServiceTest {
+
+  private ReactiveStringRedisTemplate redis;
+  private ReactiveValueOperations<String, String> values;
+  private ResponseCacheService service;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    redis = mock(ReactiveStringRedisTemplate.class);
+    values = mock(ReactiveValueOperations.class);
+    when(redis.opsForValue()).thenReturn(values);
+    when(redis.expire(anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+    when(redis.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+    service = new ResponseCacheService(mock(ReactiveRedisTemplate.class), redis, new ResponseCacheConfig(),
+        new SimpleMeterRegistry());
+  }
+
+  @Test
+  @DisplayName("Generation is read from Redis once, then served locally")
+  void readsGenerationOnce() {
+    when(values.get("cache:gen:job")).thenReturn(Mono.just("4"));
+
+    assertThat(service.generation("job").block()).isEqualTo(4L);
+    assertThat(service.generation("job").block()).isEqualTo(4L);
+    assertThat(service.generation(null).block()).isZero();
+
+    verify(values, times(1)).get("cache:gen:job");
+  }
+
+  @Test
+  @DisplayName("Missing counter means generation 0")
+  void defaultsToZero() {
+    when(values.get("cache:gen:cv")).thenReturn(Mono.empty());
+
+    assertThat(service.generation("cv").block()).isZero();
+  }
+
+  @Test
+  @DisplayName("Invalidate bumps the counter, applies it locally and broadcasts it")
+  void invalidateBumpsGeneration() {
+    when(values.get("cache:gen:job")).thenReturn(Mono.just("4"));
+    when(values.increment("cache:gen:job")).thenReturn(Mono.just(5L));
+    String before = service.version(List.of("job")).block();
+
+    assertThat(service.invalidate("job").block()).isEqualTo(5L);
+
+    assertThat(before).isEqualTo("4");
+    assertThat(service.version(List.of("job")).block()).isEqualTo("5");
+    assertThat(service.key(List.of("job"), "5", "/job/public/jobs"))
+        .isEqualTo("cache:response:job:5:/job/public/jobs");
+    verify(redis).convertAndSend(eq("cache:invalidate"), eq("job:5"));
+  }
+
+  @Test
+  @DisplayName("A lower counter after a Redis reset replaces the local generation")
+  void acceptsLowerGenerationAfterReset() {
+    when(values.increment("cache:gen:job")).thenReturn(Mono.just(7L), Mono.just(1L));
+
+    service.invalidate("job").block();
+    service.invalidate("job").block();
+
+    assertThat(service.generation("job").block()).isEqualTo(1L);
+  }
+
+  @Test
+  @DisplayName("Broadcasts: newer generations apply, older ones force a re-read from Redis")
+  void appliesBroadcasts() {
+    when(values.get("cache:gen:job")).thenReturn(Mono.just("3"), Mono.just("1"));
+    service.generation("job").block();
+
+    service.applyBroadcast("job:6");
+    assertThat(service.generation("job").block()).isEqualTo(6L);
+
+    service.applyBroadcast("job:2");
+    assertThat(service.generation("job").block()).isEqualTo(1L);
+
+    service.applyBroadcast("job:12:3");
+    assertThat(service.version(List.of("job", "job:12")).block()).isEqualTo("1.3");
+
+    service.applyBroadcast("malformed");
+    service.applyBroadcast("job:x");
+    assertThat(service.generation("job").block()).isEqualTo(1L);
+  }
+}
@@ -0,0 +1,111 @@
+package org.workfitai.apigateway.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReactiveStringCommands;
+import org.springframework.data.redis.core.ReactiveRedisCallback;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.workfitai.apigateway.security.OpaqueTokenNearCache;
+import org.workfitai.apigateway.service.IOpaqueTokenService;
+
+import reactor.core.publisher.Flux;
+
+@DisplayName("RedisOpaqueTokenService mintAll Unit Tests")
+class RedisOpaqueTokenServiceTest {
+
+  private ReactiveStringRedisTemplate redis;
+  private ReactiveStringCommands stringCommands;
+  private RedisOpaqueTokenService service;
+  private final List<ReactiveStringCommands.SetCommand> sent = new ArrayList<>();
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    redis = mock(ReactiveStringRedisTemplate.class);
+    stringCommands = mock(ReactiveStringCommands.class);
+    ReactiveRedisConnection connection = mock(ReactiveRedisConnection.class);
+    when(connection.stringCommands()).thenReturn(stringCommands);
+    when(redis.execute(any(ReactiveRedisCallback.class))).thenAnswer(invocation ->
+        Flux.from(invocation.<ReactiveRedisCallback<?>>getArgument(0).doInRedis(connection)));
+    service = new RedisOpaqueTokenService(redis, mock(OpaqueTokenNearCache.class));
+  }
+
+  @Test
+  @DisplayName("Several tokens of one body are stored with one pipelined SET batch, opaques in request order")
+  @SuppressWarnings("unchecked")
+  void mintsBatchInOneRoundTrip() {
+    replySet(true);
+    String access = jwt(Instant.now().plusSeconds(900));
+    String refresh = jwt(Instant.now().plusSeconds(7 * 24 * 3600));
+
+    List<String> opaques = service.mintAll(List.of(
+        new IOpaqueTokenService.MintRequest(access, "access"),
+        new IOpaqueTokenService.MintRequest(refresh, "refresh"))).block();
+
+    verify(redis, times(1)).execute(any(ReactiveRedisCallback.class));
+    assertThat(opaques).hasSize(2).doesNotHaveDuplicates();
+    assertThat(sent).extracting(command -> utf8(command.getKey().duplicate()))
+        .containsExactly("opaque:access:" + opaques.get(0), "opaque:refresh:" + opaques.get(1));
+    assertThat(sent).extracting(command -> utf8(command.getValue().duplicate()))
+        .containsExactly(access, refresh);
+    // TTL theo exp của từng JWT
+    assertThat(sent.get(0).getExpiration().getExpirationTimeInSeconds()).isBetween(890L, 900L);
+    assertThat(sent.get(1).getExpiration().getExpirationTimeInSeconds()).isGreaterThan(6 * 24 * 3600L);
+  }
+
+  @Test
+  @DisplayName("A SET that is not acknowledged fails the whole batch")
+  void failsBatchOnRejectedSet() {
+    replySet(false);
+
+    assertThatThrownBy(() -> service.mintAll(List.of(
+        new IOpaqueTokenService.MintRequest(jwt(Instant.now().plusSeconds(60)), "access"))).block())
+        .hasMessageContaining("opaque token batch");
+  }
+
+  @Test
+  @DisplayName("An empty batch touches no Redis")
+  @SuppressWarnings("unchecked")
+  void emptyBatch() {
+    assertThat(service.mintAll(List.of()).block()).isEmpty();
+    verify(redis, never()).execute(any(ReactiveRedisCallback.class));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void replySet(boolean ok) {
+    when(stringCommands.set(any(Publisher.class))).thenAnswer(invocation ->
+        Flux.from(invocation.<Publisher<ReactiveStringCommands.SetCommand>>getArgument(0))
+            .doOnNext(sent::add)
+            .map(command -> new ReactiveRedisConnection.BooleanResponse<>(command, ok)));
+  }
+
+  private static String jwt(Instant exp) {
+    Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    return encoder.encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+        + encoder.encodeToString(("{\"exp\":" + exp.getEpochSecond() + "}").getBytes(StandardCharsets.UTF_8))
+        + ".signature";
+  }
+
+  private static String utf8(ByteBuffer buffer) {
+    return StandardCharsets.UTF_8.decode(buffer).toString();
+  }
+}
@@ -6,13 +6,18 @@ import java.util.Map;
 
 import org.springframework.stereotype.Component;
 import org.workfitai.applicationservice.client.JobServiceClient;
+import org.workfitai.applicationservice.config.SagaConfig;
 import org.workfitai.applicationservice.dto.JobInfo;
 import org.workfitai.applicationservice.dto.response.RestResponse;
 import org.workfitai.applicationservice.exception.NotFoundException;
 import org.workfitai.applicationservice.port.outbound.JobServicePort;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import feign.FeignException;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -20,16 +25,36 @@ import lombok.extern.slf4j.Slf4j;
  * Part of Hexagonal Architecture - infrastructure adapter.
  *
  * Uses Feign client for HTTP calls to job-service.
+ *
+ * Published jobs are kept in a short-TTL snapshot cache (app.saga.job-cache-ttl):
+ * - Validation and snapshot share one remote call per job
+ * - Concurrent applies to the same job coalesce into a single load
+ * - Not-found / not-published results are never cached
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JobServiceAdapter implements JobServicePort {
 
     private final JobServiceClient jobServiceClient;
+    private final Cache<String, JobInfo> jobCache;
+
+    public JobServiceAdapter(JobServiceClient jobServiceClient, SagaConfig sagaConfig, MeterRegistry meterRegistry) {
+        this.jobServiceClient = jobServiceClient;
+        this.jobCache = Caffeine.newBuilder()
+                .expireAfterWrite(sagaConfig.getJobCacheTtl())
+                .maximumSize(sagaConfig.getJobCacheMaxSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, jobCache, "job_snapshot");
+    }
 
     @Override
     public JobInfo validateAndGetJob(String jobId) {
+        // Loader ném exception → không cache, caller nhận nguyên exception
+        return jobCache.get(jobId, this::fetchJob);
+    }
+
+    private JobInfo fetchJob(String jobId) {
         log.info("Validating and fetching job from job-service: {}", jobId);
 
         try {
@@ -125,25 +150,13 @@ public class JobServiceAdapter implements JobServicePort {
         log.info("Checking if job exists: {}", jobId);
 
         try {
-            RestResponse<Map<String, Object>> response = jobServiceClient.getJobById(jobId);
-
-            if (response == null || response.getData() == null) {
-                return false;
-            }
-
-            // Check if job is in PUBLISHED status
-            Map<String, Object> jobData = response.getData();
-            String status = (String) jobData.get("status");
-            boolean isPublished = "PUBLISHED".equals(status);
-
-            log.info("Job {} exists and is published: {}", jobId, isPublished);
-            return isPublished;
-
-        } catch (FeignException.NotFound e) {
-            log.debug("Job not found: {}", jobId);
+            validateAndGetJob(jobId);
+            return true;
+        } catch (NotFoundException e) {
+            log.debug("Job not found or not published: {}", jobId);
             return false;
-        } catch (FeignException e) {
-            log.error("Error checking job existence for {}: {} - {}", jobId, e.status(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Error checking job existence for {}: {}", jobId, e.getMessage());
             return false;
         }
     }
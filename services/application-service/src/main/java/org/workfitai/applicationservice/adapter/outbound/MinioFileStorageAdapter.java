@@ -1,14 +1,24 @@
 package org.workfitai.applicationservice.adapter.outbound;
 
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 import org.workfitai.applicationservice.config.MinioConfig;
 import org.workfitai.applicationservice.dto.FileUploadResult;
 import org.workfitai.applicationservice.exception.FileStorageException;
 import org.workfitai.applicationservice.port.outbound.FileStoragePort;
+import org.workfitai.applicationservice.port.outbound.StreamingUpload;
 
 import io.minio.BucketExistsArgs;
 import io.minio.MakeBucketArgs;
@@ -32,8 +42,14 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class MinioFileStorageAdapter implements FileStoragePort {
 
+    // part tối thiểu của S3 multipart là 5MB
+    private static final long UPLOAD_PART_SIZE = 10L * 1024 * 1024;
+    private static final int UPLOAD_PIPE_BUFFER = 256 * 1024;
+
     private final MinioClient minioClient;
     private final MinioConfig minioConfig;
+    // 1 thread/upload: thread ghi (export worker) và thread đọc pipe không bao giờ chờ cùng 1 pool
+    private final SimpleAsyncTaskExecutor uploadThreads = new SimpleAsyncTaskExecutor("minio-upload-");
 
     @PostConstruct
     public void init() {
@@ -136,6 +152,153 @@ public class MinioFileStorageAdapter implements FileStoragePort {
         }
     }
 
+    @Override
+    public StreamingUpload openStreamingUpload(String objectKey, String contentType) {
+        try {
+            PipedInputStream pipe = new PipedInputStream(UPLOAD_PIPE_BUFFER);
+            PipedUpload upload = new PipedUpload(objectKey, new PipedOutputStream(pipe));
+            AbortableInputStream source = new AbortableInputStream(pipe, upload);
+
+            log.info("Starting streaming upload to MinIO: bucket={}, key={}", minioConfig.getBucket(), objectKey);
+            // size = -1 → SDK tự chia part (multipart upload), chỉ buffer 1 part trong bộ nhớ
+            upload.result = CompletableFuture.runAsync(() -> {
+                try (source) {
+                    minioClient.putObject(
+                            PutObjectArgs.builder()
+                                    .bucket(minioConfig.getBucket())
+                                    .object(objectKey)
+                                    .stream(source, -1, UPLOAD_PART_SIZE)
+                                    .contentType(contentType)
+                                    .build());
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, uploadThreads);
+            return upload;
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to open upload: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void deleteObject(String objectKey) {
+        try {
+            minioClient.removeObject(
+                    RemoveObjectArgs.builder()
+                            .bucket(minioConfig.getBucket())
+                            .object(objectKey)
+                            .build());
+            log.info("Object deleted successfully: {}", objectKey);
+        } catch (Exception e) {
+            log.error("Failed to delete object from MinIO: {}", e.getMessage(), e);
+            throw new FileStorageException("Failed to delete object: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writer side of a streaming upload: the caller writes into a pipe that the
+     * upload thread drains into MinIO.
+     */
+    private static final class PipedUpload implements StreamingUpload {
+
+        private final String objectKey;
+        private final PipedOutputStream sink;
+        private final OutputStream counting;
+        private volatile boolean aborted;
+        private long bytesWritten;
+        private CompletableFuture<Void> result;
+
+        private PipedUpload(String objectKey, PipedOutputStream sink) {
+            this.objectKey = objectKey;
+            this.sink = sink;
+            this.counting = new FilterOutputStream(sink) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    bytesWritten += len;
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    bytesWritten++;
+                }
+
+                @Override
+                public void close() {
+                    // đóng qua complete()/abort()
+                }
+            };
+        }
+
+        @Override
+        public OutputStream stream() {
+            return counting;
+        }
+
+        @Override
+        public long complete() {
+            try {
+                sink.close();
+                result.join();
+                log.info("Streaming upload completed: key={}, size={} bytes", objectKey, bytesWritten);
+                return bytesWritten;
+            } catch (IOException | CompletionException e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                log.error("Streaming upload failed: key={}, error={}", objectKey, cause.getMessage());
+                throw new FileStorageException("Failed to upload file: " + cause.getMessage(), cause);
+            }
+        }
+
+        @Override
+        public void abort() {
+            aborted = true;
+            try {
+                sink.close(); // đánh thức upload thread đang chờ dữ liệu
+            } catch (IOException ignored) {
+                // pipe đã đóng
+            }
+            if (result != null) {
+                result.exceptionally(e -> null).join();
+            }
+            log.warn("Streaming upload aborted: key={}", objectKey);
+        }
+    }
+
+    /**
+     * Fails the MinIO read once the upload is aborted, so the SDK abandons the
+     * multipart upload instead of storing a truncated object.
+     */
+    private static final class AbortableInputStream extends FilterInputStream {
+
+        private final PipedUpload upload;
+
+        private AbortableInputStream(InputStream in, PipedUpload upload) {
+            super(in);
+            this.upload = upload;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            checkAborted();
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            checkAborted();
+            return read;
+        }
+
+        private void checkAborted() throws IOException {
+            if (upload.aborted) {
+                throw new IOException("Upload aborted");
+            }
+        }
+    }
+
     private void validateFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new FileStorageException("File is empty or null");
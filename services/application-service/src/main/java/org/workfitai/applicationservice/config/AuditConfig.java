@@ -0,0 +1,43 @@
+package org.workfitai.applicationservice.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Audit log pipeline configuration.
+ *
+ * Properties are loaded from application.yml under 'app.audit' prefix:
+ * - app.audit.queue-capacity: Audit records buffered in memory before the
+ *   overflow policy applies
+ * - app.audit.batch-size: Max records per insertMany
+ * - app.audit.flush-interval: Max time a record waits for its batch to fill
+ * - app.audit.overflow-policy: What to do when the buffer is full
+ *   (BLOCK, DROP, CALLER_RUNS)
+ * - app.audit.offer-timeout: How long BLOCK waits for space before dropping
+ * - app.audit.shutdown-timeout: Max time spent flushing the buffer on shutdown
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.audit")
+@Data
+public class AuditConfig {
+
+    public enum OverflowPolicy {
+        /** Wait up to offer-timeout for space, then drop the record. */
+        BLOCK,
+        /** Drop the record immediately. */
+        DROP,
+        /** Insert the record in the caller's thread. */
+        CALLER_RUNS
+    }
+
+    private int queueCapacity = 10_000;
+    private int batchSize = 500;
+    private Duration flushInterval = Duration.ofSeconds(1);
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private Duration offerTimeout = Duration.ofMillis(50);
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
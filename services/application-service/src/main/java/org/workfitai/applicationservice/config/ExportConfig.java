@@ -0,0 +1,35 @@
+package org.workfitai.applicationservice.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Asynchronous export configuration.
+ *
+ * Properties are loaded from application.yml under 'app.export' prefix:
+ * - app.export.workers: Exports running concurrently per instance
+ * - app.export.queue-capacity: Exports waiting for a worker before new requests are rejected
+ * - app.export.fetch-size: MongoDB cursor batch size
+ * - app.export.progress-interval: Rows between progress updates
+ * - app.export.object-prefix: Object key prefix in the MinIO bucket
+ * - app.export.retention: How long export files stay downloadable
+ * - app.export.stale-after: PROCESSING jobs without a heartbeat for this long are failed
+ *   (the instance running them stopped); must exceed the time between progress updates
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.export")
+@Data
+public class ExportConfig {
+
+    private int workers = 2;
+    private int queueCapacity = 20;
+    private int fetchSize = 1000;
+    private int progressInterval = 5000;
+    private String objectPrefix = "exports";
+    private Duration retention = Duration.ofDays(7);
+    private Duration staleAfter = Duration.ofMinutes(30);
+}
@@ -0,0 +1,47 @@
+package org.workfitai.applicationservice.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+import lombok.Data;
+
+/**
+ * Transactional outbox configuration.
+ *
+ * Properties are loaded from application.yml under 'app.outbox' prefix:
+ * - app.outbox.poll-interval: Delay between relay passes
+ * - app.outbox.batch-size: Records sent to Kafka per pass
+ * - app.outbox.lease: How long the relay lock is held; another instance takes
+ *   over once it lapses
+ * - app.outbox.max-attempts: Send attempts before a record is marked FAILED
+ * - app.outbox.retry-backoff: Base delay before retrying a failed send (doubles per attempt)
+ * - app.outbox.send-timeout: Max wait for a batch to be acknowledged (above the
+ *   producer's 30s delivery timeout, so a timed-out record was really not sent)
+ * - app.outbox.transactional: Register a MongoTransactionManager so the
+ *   outbox insert commits atomically with the Application write (replica set only)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.outbox")
+@Data
+public class OutboxConfig {
+
+    private Duration pollInterval = Duration.ofMillis(500);
+    private int batchSize = 200;
+    private Duration lease = Duration.ofSeconds(60);
+    private int maxAttempts = 10;
+    private Duration retryBackoff = Duration.ofSeconds(1);
+    private Duration sendTimeout = Duration.ofSeconds(35);
+    private boolean transactional = false;
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.outbox", name = "transactional", havingValue = "true")
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+}
@@ -0,0 +1,50 @@
+package org.workfitai.applicationservice.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.workfitai.applicationservice.service.ratelimit.LocalRateLimiter;
+import org.workfitai.applicationservice.service.ratelimit.RateLimiter;
+import org.workfitai.applicationservice.service.ratelimit.RedisRateLimiter;
+
+import lombok.Data;
+
+/**
+ * Rate limiter configuration.
+ *
+ * Properties are loaded from application.yml under 'app.rate-limit' prefix:
+ * - app.rate-limit.backend: local (per instance, default) or redis (shared
+ *   by all replicas; needs spring.data.redis.*)
+ * - app.rate-limit.key-prefix: Prefix of the Redis keys
+ * - app.rate-limit.eviction-interval: How often empty in-memory windows are dropped
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Data
+public class RateLimitConfig {
+
+    public enum Backend {
+        LOCAL, REDIS
+    }
+
+    private Backend backend = Backend.LOCAL;
+    private String keyPrefix = "ratelimit:";
+    private Duration evictionInterval = Duration.ofMinutes(5);
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.rate-limit", name = "backend", havingValue = "redis")
+    public RateLimiter redisRateLimiter(StringRedisTemplate redisTemplate) {
+        return new RedisRateLimiter(redisTemplate, keyPrefix, new LocalRateLimiter());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(RateLimiter.class)
+    public RateLimiter localRateLimiter() {
+        return new LocalRateLimiter();
+    }
+}
@@ -0,0 +1,29 @@
+package org.workfitai.applicationservice.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Apply saga configuration.
+ *
+ * Properties are loaded from application.yml under 'app.saga' prefix:
+ * - app.saga.job-cache-ttl: How long a fetched job snapshot is reused (0 disables the cache)
+ * - app.saga.job-cache-max-size: Max job snapshots kept in memory
+ * - app.saga.upload-workers: Threads uploading CVs concurrently with job validation
+ * - app.saga.upload-queue-capacity: Uploads waiting for a worker; beyond this the
+ *   request thread uploads itself
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.saga")
+@Data
+public class SagaConfig {
+
+    private Duration jobCacheTtl = Duration.ofSeconds(30);
+    private long jobCacheMaxSize = 10_000;
+    private int uploadWorkers = 16;
+    private int uploadQueueCapacity = 100;
+}
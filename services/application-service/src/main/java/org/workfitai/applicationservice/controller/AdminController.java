@@ -17,7 +17,10 @@ import org.workfitai.applicationservice.dto.request.AdminOverrideRequest;
 import org.workfitai.applicationservice.dto.response.*;
 import org.workfitai.applicationservice.model.AuditLog;
 import org.workfitai.applicationservice.service.*;
+import org.workfitai.applicationservice.service.ratelimit.RateLimitDecision;
+import org.workfitai.applicationservice.service.stats.ApplicationStatsProjector;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 
@@ -36,6 +39,7 @@ public class AdminController {
     private final AuditLogService auditLogService;
     private final ExportService exportService;
     private final RateLimitService rateLimitService;
+    private final ApplicationStatsProjector applicationStatsProjector;
 
     /**
      * 1. Get all applications (no company filter)
@@ -121,7 +125,8 @@ public class AdminController {
 
     /**
      * 3. Full data export (admin-only, includes deleted)
-     * POST /api/v1/applications/admin/export
+     * POST /api/v1/applications/admin/export?format=csv&compress=true
+     * Runs asynchronously; returns the export job (202)
      * Rate limit: 5 exports per day per admin
      */
     @PostMapping("/export")
@@ -130,6 +135,8 @@ public class AdminController {
             @RequestParam(defaultValue = "false") boolean includeDeleted,
             @RequestParam(required = false) Instant fromDate,
             @RequestParam(required = false) Instant toDate,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean compress,
             @RequestBody(required = false) List<String> columns
     ) {
         // Get current user
@@ -137,10 +144,10 @@ public class AdminController {
         String username = auth != null ? auth.getName() : "unknown";
 
         // Check rate limit: 5 exports per 24 hours
-        if (!rateLimitService.isAllowed("admin-export", username, 5, 24)) {
-            int remaining = rateLimitService.getRemainingRequests("admin-export", username, 5, 24);
-            long resetSeconds = rateLimitService.getResetTimeSeconds("admin-export", username, 24);
-            long resetHours = resetSeconds / 3600;
+        RateLimitDecision rateLimit = rateLimitService.tryAcquire("admin-export", username, 5, Duration.ofHours(24));
+        if (!rateLimit.allowed()) {
+            int remaining = rateLimit.remaining();
+            long resetHours = rateLimit.resetAfter().toHours();
 
             log.warn("ADMIN: Export rate limit exceeded for user={}, remaining={}, resetIn={}h",
                 username, remaining, resetHours);
@@ -166,13 +173,13 @@ public class AdminController {
         }
 
         ExportResponse export = exportService.exportAllApplications(
-                includeDeleted, fromDate, toDate, columns
+                includeDeleted, fromDate, toDate, columns, format, compress, username
         );
 
-        return ResponseEntity.ok(
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(
                 new RestResponse<>(
-                        200,
-                        "Export generated successfully",
+                        202,
+                        "Export started",
                         export
                 )
         );
@@ -198,6 +205,26 @@ public class AdminController {
         );
     }
 
+    /**
+     * 4b. Rebuild the statistics read model from the applications collection
+     * POST /api/v1/applications/admin/stats/rebuild
+     */
+    @PostMapping("/stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RestResponse<Long>> rebuildStats() {
+        log.warn("ADMIN: Rebuilding application statistics read model");
+
+        long applications = applicationStatsProjector.rebuild();
+
+        return ResponseEntity.ok(
+                new RestResponse<>(
+                        200,
+                        "Statistics rebuilt from " + applications + " applications",
+                        applications
+                )
+        );
+    }
+
     /**
      * 5. Manually create application (bypass Saga)
      * POST /api/v1/applications/admin/create
@@ -35,6 +35,7 @@ import org.workfitai.applicationservice.dto.request.UpdateDraftRequest;
 import org.workfitai.applicationservice.dto.request.UpdateNoteRequest;
 import org.workfitai.applicationservice.dto.response.ApiError;
 import org.workfitai.applicationservice.dto.response.ApplicationResponse;
+import org.workfitai.applicationservice.dto.response.ApplicationSearchResponse;
 import org.workfitai.applicationservice.dto.response.BulkUpdateResult;
 import org.workfitai.applicationservice.dto.response.DashboardStatsResponse;
 import org.workfitai.applicationservice.dto.response.ExportResponse;
@@ -65,6 +66,7 @@ import org.workfitai.applicationservice.service.IDraftApplicationService;
 import org.workfitai.applicationservice.service.JobStatsService;
 import org.workfitai.applicationservice.service.ManagerStatsService;
 import org.workfitai.applicationservice.service.MinioPreSignedUrlService;
+import org.workfitai.applicationservice.util.ListingPage;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -145,17 +147,18 @@ public class ApplicationController {
                         @RequestParam(required = false) @Parameter(description = Messages.Api.PARAM_STATUS) ApplicationStatus status,
                         @RequestParam(defaultValue = "0") @Parameter(description = Messages.Api.PARAM_PAGE) int page,
                         @RequestParam(defaultValue = "10") @Parameter(description = Messages.Api.PARAM_SIZE) int size,
+                        @RequestParam(required = false) @Parameter(description = "Keyset cursor (meta.nextCursor of the previous page); page is ignored when set") String cursor,
+                        @RequestParam(required = false) @Parameter(description = "Compute totalElements (default: true in page mode, false with cursor)") Boolean withTotal,
                         Authentication authentication) {
 
                 String username = applicationSecurity.getCurrentUsername(authentication);
-                size = Math.min(size, 100);
-                Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+                ListingPage listingPage = ListingPage.of(page, size, cursor, withTotal);
 
                 ResultPaginationDTO<ApplicationResponse> result;
                 if (status != null) {
-                        result = applicationService.getMyApplicationsByStatus(username, status, pageable);
+                        result = applicationService.getMyApplicationsByStatus(username, status, listingPage);
                 } else {
-                        result = applicationService.getMyApplications(username, pageable);
+                        result = applicationService.getMyApplications(username, listingPage);
                 }
 
                 return ResponseEntity.ok(RestResponse.success(result));
@@ -184,16 +187,17 @@ public class ApplicationController {
                         @PathVariable @Parameter(description = Messages.Api.PARAM_JOB_ID) String jobId,
                         @RequestParam(required = false) @Parameter(description = Messages.Api.PARAM_STATUS) ApplicationStatus status,
                         @RequestParam(defaultValue = "0") @Parameter(description = Messages.Api.PARAM_PAGE) int page,
-                        @RequestParam(defaultValue = "10") @Parameter(description = Messages.Api.PARAM_SIZE) int size) {
+                        @RequestParam(defaultValue = "10") @Parameter(description = Messages.Api.PARAM_SIZE) int size,
+                        @RequestParam(required = false) @Parameter(description = "Keyset cursor (meta.nextCursor of the previous page); page is ignored when set") String cursor,
+                        @RequestParam(required = false) @Parameter(description = "Compute totalElements (default: true in page mode, false with cursor)") Boolean withTotal) {
 
-                size = Math.min(size, 100);
-                Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+                ListingPage listingPage = ListingPage.of(page, size, cursor, withTotal);
 
                 ResultPaginationDTO<ApplicationResponse> result;
                 if (status != null) {
-                        result = applicationService.getApplicationsByJobAndStatus(jobId, status, pageable);
+                        result = applicationService.getApplicationsByJobAndStatus(jobId, status, listingPage);
                 } else {
-                        result = applicationService.getApplicationsByJob(jobId, pageable);
+                        result = applicationService.getApplicationsByJob(jobId, listingPage);
                 }
 
                 return ResponseEntity.ok(RestResponse.success(result));
@@ -549,36 +553,48 @@ public class ApplicationController {
 
         @GetMapping("/search")
         @PreAuthorize("hasAuthority('application:review')")
-        @Operation(summary = "Advanced application search", description = "Search applications with multiple filters: date range, job IDs, status, text search")
+        @Operation(summary = "Advanced application search", description = "Full-text search over candidate, job title, cover letter and notes with date range, job IDs and status filters. Results, totals and facets are limited to the caller's company (admins search every company). Returns status/job facets; supports page numbers or keyset cursor and an estimated count mode")
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "Search results retrieved"),
-                        @ApiResponse(responseCode = "403", description = "Access denied")
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+                        @ApiResponse(responseCode = "403", description = "Access denied - no company in token")
         })
-        public ResponseEntity<RestResponse<ResultPaginationDTO<ApplicationResponse>>> searchApplications(
+        public ResponseEntity<RestResponse<ApplicationSearchResponse>> searchApplications(
                         @RequestParam(required = false) @Parameter(description = "Job IDs to filter (comma-separated)") List<String> jobIds,
                         @RequestParam(required = false) @Parameter(description = "Application status") ApplicationStatus status,
                         @RequestParam(required = false) @Parameter(description = "From date (ISO-8601)") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant fromDate,
                         @RequestParam(required = false) @Parameter(description = "To date (ISO-8601)") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant toDate,
-                        @RequestParam(required = false) @Parameter(description = "Text search in cover letter") String searchText,
-                        @RequestParam(defaultValue = "0") @Parameter(description = "Page number") int page,
+                        @RequestParam(required = false) @Parameter(description = "Full-text query (candidate, job title, cover letter, notes)") String searchText,
+                        @RequestParam(defaultValue = "0") @Parameter(description = "Page number (ignored when cursor is set)") int page,
                         @RequestParam(defaultValue = "20") @Parameter(description = "Page size") int size,
+                        @RequestParam(required = false) @Parameter(description = "Keyset cursor (meta.nextCursor of the previous page)") String cursor,
+                        @RequestParam(defaultValue = "EXACT") @Parameter(description = "EXACT or ESTIMATED (capped) total count") ApplicationSearchService.CountMode countMode,
                         Authentication authentication) {
 
-                log.info("Searching applications: jobIds={}, status={}, fromDate={}, toDate={}",
-                                jobIds, status, fromDate, toDate);
+                // HR chỉ thấy ứng tuyển của công ty mình; ADMIN tìm trên toàn hệ thống
+                String companyId = null;
+                if (!applicationSecurity.isAdmin(authentication)) {
+                        companyId = applicationSecurity.getCurrentCompanyId(authentication);
+                        if (companyId == null) {
+                                throw new ForbiddenException(Messages.Error.ACCESS_DENIED);
+                        }
+                }
+
+                log.info("Searching applications: companyId={}, jobIds={}, status={}, fromDate={}, toDate={}",
+                                companyId, jobIds, status, fromDate, toDate);
 
                 size = Math.min(size, 100);
                 Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
 
-                ResultPaginationDTO<ApplicationResponse> result = applicationSearchService.search(
-                                jobIds, status, fromDate, toDate, searchText, pageable);
+                ApplicationSearchResponse result = applicationSearchService.search(
+                                companyId, jobIds, status, fromDate, toDate, searchText, cursor, countMode, pageable);
 
                 return ResponseEntity.ok(RestResponse.success(result));
         }
 
         @PutMapping("/bulk/status")
         @PreAuthorize("hasAuthority('application:update')")
-        @Operation(summary = "Bulk update application status", description = "Update status of multiple applications (max 100) in a single transaction. All-or-nothing behavior.")
+        @Operation(summary = "Bulk update application status", description = "Update status of multiple applications (max 5000) with one bulk write. All-or-nothing validation.")
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "Bulk update completed"),
                         @ApiResponse(responseCode = "400", description = "Validation failed or partial failure"),
@@ -627,29 +643,15 @@ public class ApplicationController {
                         @RequestParam(required = false) @Parameter(description = "Filter by assigned HR") String assignedTo,
                         @RequestParam(defaultValue = "0") @Parameter(description = "Page number") int page,
                         @RequestParam(defaultValue = "20") @Parameter(description = "Page size") int size,
+                        @RequestParam(required = false) @Parameter(description = "Keyset cursor (meta.nextCursor of the previous page); page is ignored when set") String cursor,
+                        @RequestParam(required = false) @Parameter(description = "Compute totalElements (default: true in page mode, false with cursor)") Boolean withTotal,
                         Authentication authentication) {
 
                 log.info("Fetching company applications: companyId={}, status={}, assignedTo={}", companyId, status,
                                 assignedTo);
 
-                size = Math.min(size, 100);
-                Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-
-                ResultPaginationDTO<ApplicationResponse> result;
-
-                if (assignedTo != null && status != null) {
-                        // Filter by both assigned HR and status (not directly supported - use company +
-                        // assignedTo then filter)
-                        result = companyApplicationService.getCompanyApplicationsByAssignedHR(companyId, assignedTo,
-                                        pageable);
-                } else if (assignedTo != null) {
-                        result = companyApplicationService.getCompanyApplicationsByAssignedHR(companyId, assignedTo,
-                                        pageable);
-                } else if (status != null) {
-                        result = companyApplicationService.getCompanyApplicationsByStatus(companyId, status, pageable);
-                } else {
-                        result = companyApplicationService.getCompanyApplications(companyId, pageable);
-                }
+                ResultPaginationDTO<ApplicationResponse> result = companyApplicationService.getCompanyApplications(
+                                companyId, status, assignedTo, ListingPage.of(page, size, cursor, withTotal));
 
                 return ResponseEntity.ok(RestResponse.success(result));
         }
@@ -710,6 +712,8 @@ public class ApplicationController {
                         @RequestParam(required = false) @Parameter(description = "To date (ISO-8601)") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant toDate,
                         @RequestParam(defaultValue = "0") @Parameter(description = "Page number") int page,
                         @RequestParam(defaultValue = "20") @Parameter(description = "Page size") int size,
+                        @RequestParam(required = false) @Parameter(description = "Keyset cursor (meta.nextCursor of the previous page); page is ignored when set") String cursor,
+                        @RequestParam(required = false) @Parameter(description = "Compute totalElements (default: true in page mode, false with cursor)") Boolean withTotal,
                         Authentication authentication) {
 
                 log.info("Fetching assigned applications: hrUsername={}, status={}, fromDate={}, toDate={}",
@@ -719,11 +723,9 @@ public class ApplicationController {
                         hrUsername = applicationSecurity.getCurrentUsername(authentication);
                 }
 
-                size = Math.min(size, 100);
-                Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-
                 ResultPaginationDTO<ApplicationResponse> result = companyApplicationService
-                                .getAssignedApplicationsWithFilters(hrUsername, status, fromDate, toDate, pageable);
+                                .getAssignedApplicationsWithFilters(hrUsername, status, fromDate, toDate,
+                                                ListingPage.of(page, size, cursor, withTotal));
 
                 return ResponseEntity.ok(RestResponse.success(result));
         }
@@ -753,11 +755,12 @@ public class ApplicationController {
 
         @PostMapping("/export")
         @PreAuthorize("@applicationSecurity.canExport(#request.companyId, authentication)")
-        @Operation(summary = "Export applications to CSV", description = "Export filtered applications to CSV format (Excel support in Phase 4). Max 10,000 rows.")
+        @Operation(summary = "Export applications to CSV/Excel", description = "Start an asynchronous export of filtered applications (csv, csv.gz or xlsx). Poll GET /export/{exportId} for the download URL.")
         @ApiResponses({
-                        @ApiResponse(responseCode = "200", description = "Export generated successfully"),
-                        @ApiResponse(responseCode = "400", description = "Validation failed or too many rows"),
-                        @ApiResponse(responseCode = "403", description = "Access denied - not authorized to export")
+                        @ApiResponse(responseCode = "202", description = "Export started"),
+                        @ApiResponse(responseCode = "400", description = "Validation failed"),
+                        @ApiResponse(responseCode = "403", description = "Access denied - not authorized to export"),
+                        @ApiResponse(responseCode = "429", description = "Too many exports in progress")
         })
         public ResponseEntity<RestResponse<ExportResponse>> exportApplications(
                         @Valid @RequestBody ExportRequest request,
@@ -767,7 +770,25 @@ public class ApplicationController {
                 log.info("Exporting applications: companyId={}, format={}, user={}", request.getCompanyId(),
                                 request.getFormat(), username);
 
-                ExportResponse response = exportService.exportApplications(request);
+                ExportResponse response = exportService.exportApplications(request, username);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(RestResponse.success(response));
+        }
+
+        @GetMapping("/export/{exportId}")
+        @PreAuthorize("hasAuthority('application:export') or hasRole('ADMIN')")
+        @Operation(summary = "Get export status", description = "Export progress; includes a pre-signed download URL once COMPLETED. Only the requester or an admin can access an export.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Export status retrieved"),
+                        @ApiResponse(responseCode = "403", description = "Access denied - not your export"),
+                        @ApiResponse(responseCode = "404", description = "Export not found or expired")
+        })
+        public ResponseEntity<RestResponse<ExportResponse>> getExport(
+                        @PathVariable @Parameter(description = "Export ID") String exportId,
+                        Authentication authentication) {
+
+                String username = applicationSecurity.getCurrentUsername(authentication);
+                ExportResponse response = exportService.getExport(exportId, username,
+                                applicationSecurity.isAdmin(authentication));
                 return ResponseEntity.ok(RestResponse.success(response));
         }
 
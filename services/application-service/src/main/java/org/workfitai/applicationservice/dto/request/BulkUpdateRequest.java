@@ -22,10 +22,10 @@ import lombok.NoArgsConstructor;
 public class BulkUpdateRequest {
 
     /**
-     * List of application IDs to update (max 100).
+     * List of application IDs to update (max 5000).
      */
     @NotEmpty(message = "Application IDs list cannot be empty")
-    @Size(max = 100, message = "Cannot update more than 100 applications at once")
+    @Size(max = 5000, message = "Cannot update more than 5000 applications at once")
     private List<String> applicationIds;
 
     /**
@@ -20,11 +20,9 @@ import lombok.NoArgsConstructor;
  * Supports:
  * - Filtering by company, status, date range
  * - Column selection
- * - Format selection (CSV only for Phase 3)
+ * - Format selection (csv, xlsx) and optional gzip for CSV
  *
- * Limits:
- * - Max 10,000 rows per export
- * - Synchronous processing only (Phase 3)
+ * Exports run asynchronously: the response carries an exportId to poll.
  */
 @Data
 @NoArgsConstructor
@@ -33,9 +31,7 @@ import lombok.NoArgsConstructor;
 public class ExportRequest {
 
     /**
-     * Export format.
-     * Phase 3: CSV only.
-     * Phase 4/5: Excel (xlsx) support.
+     * Export format: csv or xlsx.
      */
     @NotBlank(message = "Export format is required")
     @Pattern(regexp = "csv|xlsx", message = "Format must be csv or xlsx")
@@ -76,4 +72,9 @@ public class ExportRequest {
      * Valid values: username, email, jobTitle, status, appliedAt, assignedTo, etc.
      */
     private List<String> columns;
+
+    /**
+     * Gzip-compress the file (.csv.gz). Ignored for xlsx.
+     */
+    private boolean compress;
 }
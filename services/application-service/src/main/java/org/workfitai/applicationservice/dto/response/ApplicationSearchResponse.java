@@ -0,0 +1,68 @@
+package org.workfitai.applicationservice.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for application search: one page of results plus facet
+ * counts, computed in a single aggregation.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Application search results with status/job facets")
+public class ApplicationSearchResponse {
+
+    /**
+     * Applications in the current page.
+     */
+    @Schema(description = "List of items in the current page")
+    private List<ApplicationResponse> items;
+
+    /**
+     * Pagination metadata (includes nextCursor for keyset pagination).
+     */
+    @Schema(description = "Pagination metadata")
+    private ResultPaginationDTO.Meta meta;
+
+    /**
+     * Facet counts. Each facet ignores its own filter so the client can show
+     * how many results picking another value would give.
+     */
+    @Schema(description = "Facet counts")
+    private Facets facets;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Facets {
+
+        /**
+         * Matching applications per status (status filter not applied).
+         */
+        private Map<String, Long> byStatus;
+
+        /**
+         * Top jobs by matching applications (job filter not applied).
+         */
+        private List<JobFacet> byJob;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class JobFacet {
+        private String jobId;
+        private String jobTitle;
+        private long count;
+    }
+}
@@ -2,6 +2,8 @@ package org.workfitai.applicationservice.dto.response;
 
 import java.time.Instant;
 
+import org.workfitai.applicationservice.model.enums.ExportStatus;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,14 +12,11 @@ import lombok.NoArgsConstructor;
 /**
  * Response DTO for export operations.
  *
- * Phase 3: Simplified synchronous export
- * - Contains direct download URL
- * - No export status tracking
- *
- * Phase 4/5: Async export with status tracking
+ * Async export with status tracking:
  * - exportId for polling status
  * - status: PROCESSING, COMPLETED, FAILED
- * - downloadUrl populated when COMPLETED
+ * - rowCount/totalRows report progress while PROCESSING
+ * - downloadUrl (MinIO pre-signed URL) populated when COMPLETED
  */
 @Data
 @NoArgsConstructor
@@ -26,40 +25,52 @@ import lombok.NoArgsConstructor;
 public class ExportResponse {
 
     /**
-     * Export ID (for async processing in future phases).
-     * Phase 3: Can be null (synchronous export).
+     * Export ID, used to poll GET /export/{exportId}.
      */
     private String exportId;
 
+    /**
+     * PROCESSING, COMPLETED or FAILED.
+     */
+    private ExportStatus status;
+
     /**
      * Export format (csv, xlsx).
      */
     private String format;
 
     /**
-     * Number of rows exported.
+     * Number of rows exported so far.
      */
     private Long rowCount;
 
+    /**
+     * Number of rows matched by the filters (0 until counted).
+     */
+    private Long totalRows;
+
     /**
      * File size in bytes.
      */
     private Long fileSize;
 
     /**
-     * Download URL for the exported file.
-     * Phase 3: Direct file download (no MinIO pre-signed URL).
-     * Phase 4/5: MinIO pre-signed URL with expiration.
+     * MinIO pre-signed download URL, only when COMPLETED.
      */
     private String downloadUrl;
 
     /**
-     * When the export was generated.
+     * When the export finished (null while PROCESSING).
      */
     private Instant generatedAt;
 
     /**
-     * Expiration time for download URL (Phase 4/5).
+     * Failure reason when FAILED.
+     */
+    private String error;
+
+    /**
+     * Expiration time for download URL.
      */
     private Instant expiresAt;
 }
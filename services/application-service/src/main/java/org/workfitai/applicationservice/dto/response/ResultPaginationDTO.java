@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Generic DTO for paginated query results.
@@ -61,15 +62,15 @@ public class ResultPaginationDTO<T> {
         private int size;
 
         /**
-         * Total number of items across all pages.
+         * Total number of items across all pages (-1 when not computed).
          */
-        @Schema(description = "Total number of items", example = "150")
+        @Schema(description = "Total number of items (-1 when not requested)", example = "150")
         private long totalElements;
 
         /**
-         * Total number of pages available.
+         * Total number of pages available (-1 when not computed).
          */
-        @Schema(description = "Total number of pages", example = "8")
+        @Schema(description = "Total number of pages (-1 when not requested)", example = "8")
         private int totalPages;
 
         /**
@@ -95,6 +96,19 @@ public class ResultPaginationDTO<T> {
          */
         @Schema(description = "Are there previous pages?", example = "false")
         private boolean hasPrevious;
+
+        /**
+         * Keyset cursor for the next page (null on the last page or when the
+         * endpoint only supports page numbers). Pass it back as ?cursor=.
+         */
+        @Schema(description = "Cursor for the next page (keyset pagination)", example = "MTcxMDAwMDAwMDAwMDo2NWYx")
+        private String nextCursor;
+
+        /**
+         * Whether totalElements is a lower bound rather than an exact count.
+         */
+        @Schema(description = "Is totalElements an estimate (lower bound)?", example = "false")
+        private boolean totalEstimated;
     }
 
     /**
@@ -128,4 +142,14 @@ public class ResultPaginationDTO<T> {
                         .build())
                 .build();
     }
+
+    /**
+     * Same page with each item converted, e.g. entity to response DTO.
+     */
+    public <R> ResultPaginationDTO<R> map(Function<? super T, ? extends R> mapper) {
+        return ResultPaginationDTO.<R>builder()
+                .items(items.stream().<R>map(mapper).toList())
+                .meta(meta)
+                .build();
+    }
 }
@@ -1,11 +1,11 @@
 package org.workfitai.applicationservice.messaging;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.workfitai.applicationservice.dto.kafka.ApplicationCreatedEvent;
 import org.workfitai.applicationservice.dto.kafka.ApplicationStatusChangedEvent;
@@ -21,16 +21,16 @@ import lombok.extern.slf4j.Slf4j;
  * Kafka producer for publishing application events.
  * Implements EventPublisherPort for Hexagonal Architecture.
  *
- * Pattern: Fire-and-Forget
- * Events are published asynchronously. Failures are logged but don't
- * affect the main application flow.
+ * Pattern: Transactional Outbox
+ * Events are written to the outbox in the caller's unit of work and sent
+ * to Kafka by OutboxRelay. A failed outbox insert fails the caller.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ApplicationEventProducer implements EventPublisherPort {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
 
     @Value("${app.kafka.topics.application-events:application-events}")
     private String applicationEventsTopic;
@@ -50,13 +50,9 @@ public class ApplicationEventProducer implements EventPublisherPort {
         log.info("Publishing APPLICATION_CREATED event: applicationId={}, jobId={}",
                 applicationId, event.getData().getJobId());
 
-        try {
-            kafkaTemplate.send(applicationEventsTopic, applicationId, event);
-            log.debug("APPLICATION_CREATED event published to topic '{}' with key '{}'",
-                    applicationEventsTopic, applicationId);
-        } catch (Exception e) {
-            log.error("Failed to publish APPLICATION_CREATED event (non-critical): {}", e.getMessage());
-        }
+        outboxWriter.enqueue(applicationEventsTopic, applicationId, "APPLICATION_CREATED", event);
+        log.debug("APPLICATION_CREATED event queued for topic '{}' with key '{}'",
+                applicationEventsTopic, applicationId);
     }
 
     @Override
@@ -65,13 +61,18 @@ public class ApplicationEventProducer implements EventPublisherPort {
         log.info("Publishing STATUS_CHANGED event: applicationId={}, {} → {}",
                 applicationId, event.getData().getPreviousStatus(), event.getData().getNewStatus());
 
-        try {
-            kafkaTemplate.send(applicationStatusTopic, applicationId, event);
-            log.debug("STATUS_CHANGED event published to topic '{}' with key '{}'",
-                    applicationStatusTopic, applicationId);
-        } catch (Exception e) {
-            log.error("Failed to publish STATUS_CHANGED event (non-critical): {}", e.getMessage());
-        }
+        outboxWriter.enqueue(applicationStatusTopic, applicationId, "STATUS_CHANGED", event);
+        log.debug("STATUS_CHANGED event queued for topic '{}' with key '{}'",
+                applicationStatusTopic, applicationId);
+    }
+
+    @Override
+    public void publishStatusChangedBatch(List<ApplicationStatusChangedEvent> events) {
+        log.info("Publishing {} STATUS_CHANGED events", events.size());
+
+        outboxWriter.enqueueAll(applicationStatusTopic, "STATUS_CHANGED", events,
+                event -> event.getData().getApplicationId());
+        log.debug("{} STATUS_CHANGED events queued for topic '{}'", events.size(), applicationStatusTopic);
     }
 
     @Override
@@ -80,13 +81,9 @@ public class ApplicationEventProducer implements EventPublisherPort {
         log.info("Publishing APPLICATION_WITHDRAWN event: applicationId={}, username={}",
                 applicationId, event.getData().getUsername());
 
-        try {
-            kafkaTemplate.send(applicationEventsTopic, applicationId, event);
-            log.debug("APPLICATION_WITHDRAWN event published to topic '{}' with key '{}'",
-                    applicationEventsTopic, applicationId);
-        } catch (Exception e) {
-            log.error("Failed to publish APPLICATION_WITHDRAWN event (non-critical): {}", e.getMessage());
-        }
+        outboxWriter.enqueue(applicationEventsTopic, applicationId, "APPLICATION_WITHDRAWN", event);
+        log.debug("APPLICATION_WITHDRAWN event queued for topic '{}' with key '{}'",
+                applicationEventsTopic, applicationId);
     }
 
     // Legacy methods for backward compatibility (delegate to port methods)
@@ -109,13 +106,9 @@ public class ApplicationEventProducer implements EventPublisherPort {
         log.info("Publishing JOB_STATS_UPDATE event: jobId={}, totalApplications={}",
                 jobId, event.getTotalApplications());
 
-        try {
-            kafkaTemplate.send(jobStatsUpdateTopic, jobId, event);
-            log.debug("JOB_STATS_UPDATE event published to topic '{}' with key '{}'",
-                    jobStatsUpdateTopic, jobId);
-        } catch (Exception e) {
-            log.error("Failed to publish JOB_STATS_UPDATE event (non-critical): {}", e.getMessage());
-        }
+        outboxWriter.enqueue(jobStatsUpdateTopic, jobId, "JOB_STATS_UPDATE", event);
+        log.debug("JOB_STATS_UPDATE event queued for topic '{}' with key '{}'",
+                jobStatsUpdateTopic, jobId);
     }
 
     @Override
@@ -123,39 +116,35 @@ public class ApplicationEventProducer implements EventPublisherPort {
             String jobTitle, String companyName, java.time.Instant appliedAt) {
         log.info("Publishing candidate notification: applicationId={}, email={}", applicationId, candidateEmail);
 
-        try {
-            Map<String, Object> metadata = new java.util.HashMap<>();
-            metadata.put("candidateName", candidateName);
-            metadata.put("jobTitle", jobTitle);
-            metadata.put("companyName", companyName);
-            metadata.put("applicationId", applicationId);
-            metadata.put("appliedAt", appliedAt.toString());
-
-            NotificationEvent event = NotificationEvent.builder()
-                    .eventId(UUID.randomUUID().toString())
-                    .eventType("APPLICATION_SUBMITTED")
-                    .timestamp(Instant.now())
-                    .recipientEmail(candidateEmail)
-                    .recipientUserId(candidateName) // candidate username - notification-service will fetch email
-                    .recipientRole("CANDIDATE")
-                    .subject("Application Submitted: " + jobTitle)
-                    .content("Your application for " + jobTitle + " at " + companyName
-                            + " has been successfully submitted.")
-                    .templateType("APPLICATION_CONFIRMATION")
-                    .notificationType("application_submitted") // Set type for UI display
-                    .sendEmail(true)
-                    .createInAppNotification(true)
-                    .referenceId(applicationId)
-                    .referenceType("APPLICATION")
-                    .sourceService("application-service")
-                    .metadata(metadata)
-                    .build();
-
-            kafkaTemplate.send(notificationEventsTopic, applicationId + "-candidate", event);
-            log.debug("Candidate notification published to topic '{}'", notificationEventsTopic);
-        } catch (Exception e) {
-            log.error("Failed to publish candidate notification (non-critical): {}", e.getMessage());
-        }
+        Map<String, Object> metadata = new java.util.HashMap<>();
+        metadata.put("candidateName", candidateName);
+        metadata.put("jobTitle", jobTitle);
+        metadata.put("companyName", companyName);
+        metadata.put("applicationId", applicationId);
+        metadata.put("appliedAt", appliedAt.toString());
+
+        NotificationEvent event = NotificationEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType("APPLICATION_SUBMITTED")
+                .timestamp(Instant.now())
+                .recipientEmail(candidateEmail)
+                .recipientUserId(candidateName) // candidate username - notification-service will fetch email
+                .recipientRole("CANDIDATE")
+                .subject("Application Submitted: " + jobTitle)
+                .content("Your application for " + jobTitle + " at " + companyName
+                        + " has been successfully submitted.")
+                .templateType("APPLICATION_CONFIRMATION")
+                .notificationType("application_submitted") // Set type for UI display
+                .sendEmail(true)
+                .createInAppNotification(true)
+                .referenceId(applicationId)
+                .referenceType("APPLICATION")
+                .sourceService("application-service")
+                .metadata(metadata)
+                .build();
+
+        outboxWriter.enqueue(notificationEventsTopic, applicationId + "-candidate", event.getEventType(), event);
+        log.debug("Candidate notification queued for topic '{}'", notificationEventsTopic);
     }
 
     @Override
@@ -163,39 +152,35 @@ public class ApplicationEventProducer implements EventPublisherPort {
             String candidateName, String jobTitle, String companyName, java.time.Instant appliedAt) {
         log.info("Publishing HR notification: applicationId={}, hrUsername={}", applicationId, hrName);
 
-        try {
-            Map<String, Object> metadata = new java.util.HashMap<>();
-            metadata.put("hrName", hrName);
-            metadata.put("candidateName", candidateName);
-            metadata.put("jobTitle", jobTitle);
-            metadata.put("companyName", companyName);
-            metadata.put("applicationId", applicationId);
-            metadata.put("appliedAt", appliedAt.toString());
-
-            NotificationEvent event = NotificationEvent.builder()
-                    .eventId(UUID.randomUUID().toString())
-                    .eventType("NEW_APPLICATION")
-                    .timestamp(Instant.now())
-                    .recipientEmail(hrEmail.isEmpty() ? null : hrEmail) // null if empty - notification-service will
-                                                                        // lookup
-                    .recipientUserId(hrName) // HR username - notification-service will fetch email
-                    .recipientRole("HR")
-                    .subject("New Application: " + jobTitle)
-                    .content(candidateName + " has applied for " + jobTitle + " position.")
-                    .templateType("NEW_APPLICATION_HR")
-                    .notificationType("new_applicant") // Set type for UI display
-                    .sendEmail(true)
-                    .createInAppNotification(true)
-                    .referenceId(applicationId)
-                    .referenceType("APPLICATION")
-                    .sourceService("application-service")
-                    .metadata(metadata)
-                    .build();
-
-            kafkaTemplate.send(notificationEventsTopic, applicationId + "-hr", event);
-            log.debug("HR notification published to topic '{}'", notificationEventsTopic);
-        } catch (Exception e) {
-            log.error("Failed to publish HR notification (non-critical): {}", e.getMessage());
-        }
+        Map<String, Object> metadata = new java.util.HashMap<>();
+        metadata.put("hrName", hrName);
+        metadata.put("candidateName", candidateName);
+        metadata.put("jobTitle", jobTitle);
+        metadata.put("companyName", companyName);
+        metadata.put("applicationId", applicationId);
+        metadata.put("appliedAt", appliedAt.toString());
+
+        NotificationEvent event = NotificationEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType("NEW_APPLICATION")
+                .timestamp(Instant.now())
+                .recipientEmail(hrEmail.isEmpty() ? null : hrEmail) // null if empty - notification-service will
+                                                                    // lookup
+                .recipientUserId(hrName) // HR username - notification-service will fetch email
+                .recipientRole("HR")
+                .subject("New Application: " + jobTitle)
+                .content(candidateName + " has applied for " + jobTitle + " position.")
+                .templateType("NEW_APPLICATION_HR")
+                .notificationType("new_applicant") // Set type for UI display
+                .sendEmail(true)
+                .createInAppNotification(true)
+                .referenceId(applicationId)
+                .referenceType("APPLICATION")
+                .sourceService("application-service")
+                .metadata(metadata)
+                .build();
+
+        outboxWriter.enqueue(notificationEventsTopic, applicationId + "-hr", event.getEventType(), event);
+        log.debug("HR notification queued for topic '{}'", notificationEventsTopic);
     }
 }
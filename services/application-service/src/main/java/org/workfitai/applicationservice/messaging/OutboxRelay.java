@@ -0,0 +1,247 @@
+package org.workfitai.applicationservice.messaging;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.workfitai.applicationservice.config.OutboxConfig;
+import org.workfitai.applicationservice.model.OutboxEvent;
+import org.workfitai.applicationservice.model.enums.OutboxStatus;
+import org.workfitai.applicationservice.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Relays transactional outbox records to Kafka.
+ *
+ * - One instance at a time holds a lease in 'outbox_relay_lock' and relays;
+ *   the others take over when it lapses (app.outbox.lease)
+ * - Each pass takes up to app.outbox.batch-size due records (not backing
+ *   off) oldest first, sends them through the idempotent outbox producer,
+ *   then marks the acknowledged ones PUBLISHED
+ * - Per-key ordering: a pass sends at most one record per key, and a record
+ *   waiting for a retry holds back every later record with the same key
+ * - Failed sends back off exponentially; after app.outbox.max-attempts the
+ *   record is marked FAILED
+ *
+ * Delivery is at-least-once: consumers dedupe on eventId.
+ *
+ * Metrics: outbox.depth, outbox.oldest.age (seconds), outbox.relay.lag,
+ * outbox.published, outbox.send.failures, outbox.dead
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final String LOCK_COLLECTION = "outbox_relay_lock";
+    private static final String LOCK_ID = "outbox-relay";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, String> outboxKafkaTemplate;
+    private final OutboxConfig outboxConfig;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+    private final Timer relayLag;
+    private final Counter published;
+    private final Counter sendFailures;
+    private final Counter dead;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+            MongoTemplate mongoTemplate,
+            @Qualifier("outboxKafkaTemplate") KafkaTemplate<String, String> outboxKafkaTemplate,
+            OutboxConfig outboxConfig,
+            MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.outboxKafkaTemplate = outboxKafkaTemplate;
+        this.outboxConfig = outboxConfig;
+
+        Gauge.builder("outbox.depth", depth, AtomicLong::get)
+                .description("Outbox records waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("outbox.oldest.age", oldestAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest pending outbox record")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.relayLag = Timer.builder("outbox.relay.lag")
+                .description("Time from outbox insert to Kafka acknowledgement")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.published = meterRegistry.counter("outbox.published");
+        this.sendFailures = meterRegistry.counter("outbox.send.failures");
+        this.dead = meterRegistry.counter("outbox.dead");
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:500ms}")
+    public void relay() {
+        try {
+            int sent;
+            do {
+                if (!acquireLease()) {
+                    break;
+                }
+                sent = relayBatch();
+            } while (sent > 0 && !Thread.currentThread().isInterrupted());
+        } catch (Exception e) {
+            log.warn("Outbox relay pass failed: {}", e.getMessage());
+        } finally {
+            refreshGauges();
+        }
+    }
+
+    @PreDestroy
+    void releaseLease() {
+        try {
+            mongoTemplate.updateFirst(new Query(where("_id").is(LOCK_ID).and("owner").is(instanceId)),
+                    new Update().set("expiresAt", Instant.EPOCH), LOCK_COLLECTION);
+        } catch (Exception e) {
+            log.debug("Could not release outbox relay lease: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Send one batch.
+     *
+     * @return number of records handed to the producer
+     */
+    int relayBatch() {
+        Instant now = Instant.now();
+        List<OutboxEvent> batch = outboxEventRepository.findDue(
+                OutboxStatus.PENDING, now, PageRequest.of(0, outboxConfig.getBatchSize()));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Key có bản ghi cũ hơn đang chờ retry → giữ lại các bản ghi sau cùng key
+        Set<String> heldKeys = new HashSet<>();
+        for (OutboxEvent backingOff : outboxEventRepository.findBackingOff(OutboxStatus.PENDING, now)) {
+            heldKeys.add(key(backingOff));
+        }
+
+        Map<OutboxEvent, CompletableFuture<SendResult<String, String>>> sends = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            // Mỗi key chỉ gửi bản ghi đầu tiên: bản sau chỉ đi khi bản trước đã được ack
+            if (heldKeys.add(key(event))) {
+                sends.put(event, outboxKafkaTemplate.send(event.getTopic(), event.getMessageKey(),
+                        event.getPayload()));
+            }
+        }
+        if (sends.isEmpty()) {
+            return 0;
+        }
+        outboxKafkaTemplate.flush();
+
+        long deadline = System.nanoTime() + outboxConfig.getSendTimeout().toNanos();
+        List<String> acknowledged = new ArrayList<>();
+        for (Map.Entry<OutboxEvent, CompletableFuture<SendResult<String, String>>> send : sends.entrySet()) {
+            OutboxEvent event = send.getKey();
+            try {
+                send.getValue().get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                acknowledged.add(event.getId());
+                relayLag.record(Duration.between(event.getCreatedAt(), Instant.now()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                markFailed(event, cause);
+            }
+        }
+
+        if (!acknowledged.isEmpty()) {
+            mongoTemplate.updateMulti(new Query(where("_id").in(acknowledged)),
+                    new Update().set("status", OutboxStatus.PUBLISHED).set("publishedAt", Instant.now()),
+                    OutboxEvent.class);
+            published.increment(acknowledged.size());
+        }
+
+        log.debug("Outbox relay pass: sent={}, acknowledged={}", sends.size(), acknowledged.size());
+        return sends.size();
+    }
+
+    private static String key(OutboxEvent event) {
+        return event.getTopic() + "/" + event.getMessageKey();
+    }
+
+    private void markFailed(OutboxEvent event, Throwable cause) {
+        sendFailures.increment();
+        int attempts = event.getAttempts() + 1;
+        String error = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+
+        Update update = new Update().set("attempts", attempts).set("lastError", error);
+        if (attempts >= outboxConfig.getMaxAttempts()) {
+            update.set("status", OutboxStatus.FAILED);
+            dead.increment();
+            log.error("Outbox record {} ({} → {}) failed after {} attempts, giving up: {}",
+                    event.getId(), event.getEventType(), event.getTopic(), attempts, error);
+        } else {
+            Duration backoff = outboxConfig.getRetryBackoff().multipliedBy(1L << Math.min(attempts - 1, 10));
+            update.set("nextAttemptAt", Instant.now().plus(backoff));
+            log.warn("Outbox record {} ({} → {}) send failed (attempt {}), retrying in {}: {}",
+                    event.getId(), event.getEventType(), event.getTopic(), attempts, backoff, error);
+        }
+        mongoTemplate.updateFirst(new Query(where("_id").is(event.getId())), update, OutboxEvent.class);
+    }
+
+    /**
+     * Take or extend the relay lease; false if another instance holds it.
+     */
+    private boolean acquireLease() {
+        Instant now = Instant.now();
+        Query query = new Query(where("_id").is(LOCK_ID)
+                .orOperator(where("expiresAt").lt(now), where("owner").is(instanceId)));
+        Update update = new Update()
+                .set("owner", instanceId)
+                .set("expiresAt", now.plus(outboxConfig.getLease()));
+        try {
+            mongoTemplate.upsert(query, update, LOCK_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Lock đang thuộc instance khác
+            return false;
+        }
+    }
+
+    private void refreshGauges() {
+        try {
+            depth.set(outboxEventRepository.countByStatus(OutboxStatus.PENDING));
+            OutboxEvent oldest = outboxEventRepository.findFirstByStatusOrderByCreatedAtAsc(OutboxStatus.PENDING);
+            oldestAgeSeconds.set(oldest == null ? 0
+                    : Math.max(Duration.between(oldest.getCreatedAt(), Instant.now()).toSeconds(), 0));
+        } catch (Exception e) {
+            log.debug("Could not refresh outbox gauges: {}", e.getMessage());
+        }
+    }
+}
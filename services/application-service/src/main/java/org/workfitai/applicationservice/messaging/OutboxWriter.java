@@ -0,0 +1,79 @@
+package org.workfitai.applicationservice.messaging;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.stereotype.Component;
+import org.workfitai.applicationservice.model.OutboxEvent;
+import org.workfitai.applicationservice.model.enums.OutboxStatus;
+import org.workfitai.applicationservice.repository.OutboxEventRepository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes Kafka events to the transactional outbox.
+ *
+ * Called on the request thread inside the caller's unit of work, so the
+ * only cost is one local insert. Failures propagate: an event that cannot
+ * be recorded must fail (and roll back) the business change with it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxWriter {
+
+    // Cùng ObjectMapper mặc định của JsonSerializer → payload giống hệt khi gửi trực tiếp
+    private static final ObjectMapper MAPPER = JacksonUtils.enhancedObjectMapper();
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    public void enqueue(String topic, String key, String eventType, Object event) {
+        OutboxEvent saved = outboxEventRepository.insert(toRecord(topic, key, eventType, event, Instant.now()));
+
+        log.debug("{} event queued in outbox: id={}, topic={}, key={}", eventType, saved.getId(), topic, key);
+    }
+
+    /**
+     * Queue many events of one type with a single insertMany. The relay
+     * sends them to Kafka in the same batched pass.
+     */
+    public <T> void enqueueAll(String topic, String eventType, List<T> events, Function<T, String> key) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<OutboxEvent> records = new ArrayList<>(events.size());
+        for (T event : events) {
+            records.add(toRecord(topic, key.apply(event), eventType, event, now));
+        }
+        outboxEventRepository.insert(records);
+
+        log.debug("{} {} events queued in outbox: topic={}", records.size(), eventType, topic);
+    }
+
+    private static OutboxEvent toRecord(String topic, String key, String eventType, Object event, Instant now) {
+        String payload;
+        try {
+            payload = MAPPER.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + eventType + " event: " + e.getMessage(), e);
+        }
+
+        return OutboxEvent.builder()
+                .topic(topic)
+                .messageKey(key)
+                .eventType(eventType)
+                .payload(payload)
+                .status(OutboxStatus.PENDING)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build();
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.workfitai.applicationservice.constants.Messages;
 import org.workfitai.applicationservice.model.enums.ApplicationStatus;
@@ -41,8 +42,13 @@ import lombok.NoArgsConstructor;
  * - Compound unique index on (username, jobId) to prevent duplicate
  * applications
  * - Individual indexes on username and jobId for efficient queries
+ * - Listing indexes ending in (createdAt desc, _id desc) so page and
+ * keyset (cursor) listings walk the index without an in-memory sort
+ * - Text index over username, email, job title, cover letter and note
+ * content for search (language "none": no stemming, names and
+ * Vietnamese text are matched as written)
  */
-@Document(collection = "applications")
+@Document(collection = "applications", language = "none")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -50,10 +56,15 @@ import lombok.NoArgsConstructor;
 @CompoundIndexes({
         @CompoundIndex(name = "unique_user_job", def = "{'username': 1, 'jobId': 1, 'deletedAt': 1}", unique = true),
         @CompoundIndex(name = "username_isDraft", def = "{'username': 1, 'isDraft': 1}"),
-        @CompoundIndex(name = "company_status", def = "{'companyId': 1, 'status': 1, 'deletedAt': 1}"),
-        @CompoundIndex(name = "company_assigned", def = "{'companyId': 1, 'assignedTo': 1, 'deletedAt': 1}"),
-        @CompoundIndex(name = "assigned_draft_deleted", def = "{'assignedTo': 1, 'isDraft': 1, 'deletedAt': 1}"),
-        @CompoundIndex(name = "assigned_status_draft_deleted", def = "{'assignedTo': 1, 'status': 1, 'isDraft': 1, 'deletedAt': 1}")
+        // Listing indexes: equality filters, then the (createdAt, _id) sort key
+        @CompoundIndex(name = "username_deleted_created", def = "{'username': 1, 'deletedAt': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "job_deleted_created", def = "{'jobId': 1, 'deletedAt': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "job_status_deleted_created", def = "{'jobId': 1, 'status': 1, 'deletedAt': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "company_deleted_created", def = "{'companyId': 1, 'deletedAt': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "company_status_deleted_created", def = "{'companyId': 1, 'status': 1, 'deletedAt': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "company_assigned_deleted_created", def = "{'companyId': 1, 'assignedTo': 1, 'deletedAt': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "assigned_draft_deleted_created", def = "{'assignedTo': 1, 'isDraft': 1, 'deletedAt': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "assigned_status_draft_deleted_created", def = "{'assignedTo': 1, 'status': 1, 'isDraft': 1, 'deletedAt': 1, 'createdAt': -1, '_id': -1}")
 })
 public class Application {
 
@@ -72,6 +83,7 @@ public class Application {
     @NotBlank(message = Messages.Validation.USERNAME_REQUIRED)
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
     @Indexed
+    @TextIndexed(weight = 3)
     private String username;
 
     /**
@@ -81,6 +93,7 @@ public class Application {
     @NotBlank(message = "Email is required")
     @Email(message = "Invalid email format")
     @Indexed
+    @TextIndexed(weight = 3)
     private String email;
 
     /**
@@ -226,6 +239,7 @@ public class Application {
      * Explains motivation and fit for the position.
      */
     @Size(max = 5000, message = "Cover letter cannot exceed 5000 characters")
+    @TextIndexed
     private String coverLetter;
 
     // ==================== Audit Fields ====================
@@ -258,6 +272,7 @@ public class Application {
     @Builder
     public static class JobSnapshot {
         private String postId;
+        @TextIndexed(weight = 2)
         private String title;
         private String shortDescription;
         private String description;
@@ -361,6 +376,7 @@ public class Application {
          */
         @NotBlank
         @Size(max = 2000)
+        @TextIndexed
         private String content;
 
         /**
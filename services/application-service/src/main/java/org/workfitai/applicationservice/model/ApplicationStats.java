@@ -0,0 +1,124 @@
+package org.workfitai.applicationservice.model;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pre-aggregated application counters for one scope (read model).
+ *
+ * Scopes (id):
+ * - GLOBAL  "global"
+ * - COMPANY "company:{companyId}"
+ * - JOB     "job:{jobId}"
+ * - HR      "hr:{companyId}:{username}" (applications assigned to the HR user)
+ *
+ * Maintained incrementally by ApplicationStatsProjector on every application
+ * write; dashboards read a handful of these documents instead of scanning
+ * the applications collection.
+ */
+@Document(collection = "application_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@CompoundIndexes({
+        @CompoundIndex(name = "scope_active", def = "{'scope': 1, 'active': -1}"),
+        @CompoundIndex(name = "scope_company_active", def = "{'scope': 1, 'companyId': 1, 'active': -1}")
+})
+public class ApplicationStats {
+
+    public static final String GLOBAL = "global";
+
+    public enum Scope {
+        GLOBAL, COMPANY, JOB, HR
+    }
+
+    @Id
+    private String id;
+
+    private Scope scope;
+
+    private String companyId;
+
+    private String jobId;
+
+    /**
+     * Latest job title seen (JOB scope).
+     */
+    private String jobTitle;
+
+    private String hrUsername;
+
+    /**
+     * Applications not soft-deleted (drafts included).
+     */
+    private long active;
+
+    /**
+     * Soft-deleted applications.
+     */
+    private long deleted;
+
+    private long drafts;
+
+    /**
+     * Active applications by status name.
+     */
+    @Builder.Default
+    private Map<String, Long> byStatus = new HashMap<>();
+
+    /**
+     * Active applications by creation day (UTC, yyyy-MM-dd).
+     */
+    @Builder.Default
+    private Map<String, Long> daily = new HashMap<>();
+
+    /**
+     * Active applications that left APPLIED, and the summed time it took.
+     */
+    private long reviewedCount;
+
+    private long reviewMsTotal;
+
+    /**
+     * HIRED applications, and the summed submit → hire time.
+     */
+    private long hireCount;
+
+    private long hireMsTotal;
+
+    /**
+     * Jobs with at least one active application (COMPANY and GLOBAL scopes).
+     */
+    private long activeJobs;
+
+    /**
+     * Companies with at least one active application (GLOBAL scope).
+     */
+    private long companies;
+
+    private Instant updatedAt;
+
+    public long statusCount(String status) {
+        return byStatus == null ? 0 : byStatus.getOrDefault(status, 0L);
+    }
+
+    public double avgReviewDays() {
+        return reviewedCount > 0 ? reviewMsTotal / (double) reviewedCount / 86_400_000.0 : 0.0;
+    }
+
+    public double avgHireDays() {
+        return hireCount > 0 ? hireMsTotal / (double) hireCount / 86_400_000.0 : 0.0;
+    }
+}
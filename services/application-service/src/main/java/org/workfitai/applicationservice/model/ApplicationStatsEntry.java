@@ -0,0 +1,58 @@
+package org.workfitai.applicationservice.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What one application currently contributes to the stats read model.
+ *
+ * Swapped atomically on every write so ApplicationStatsProjector can apply
+ * the difference between the previous and the new contribution.
+ */
+@Document(collection = "application_stats_entries")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationStatsEntry {
+
+    /**
+     * Application ID.
+     */
+    @Id
+    private String id;
+
+    private String companyId;
+
+    private String jobId;
+
+    private String jobTitle;
+
+    private String assignedTo;
+
+    private String status;
+
+    private boolean deleted;
+
+    private boolean draft;
+
+    /**
+     * Creation day (UTC, yyyy-MM-dd).
+     */
+    private String day;
+
+    /**
+     * Submit → first move out of APPLIED, if reviewed.
+     */
+    private Long reviewMs;
+
+    /**
+     * Submit → last update, if HIRED.
+     */
+    private Long hireMs;
+}
@@ -0,0 +1,97 @@
+package org.workfitai.applicationservice.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.workfitai.applicationservice.model.enums.ExportStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Asynchronous export job (CSV/XLSX streamed to MinIO).
+ *
+ * Tracks progress while rows are streamed and the object key once the
+ * file is uploaded. Jobs and their files are removed after
+ * app.export.retention by ExportService.
+ */
+@Document(collection = "export_jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@CompoundIndex(name = "requested_by_created_at", def = "{'requestedBy': 1, 'createdAt': -1}")
+@CompoundIndex(name = "status_heartbeat_at", def = "{'status': 1, 'heartbeatAt': 1}")
+public class ExportJob {
+
+    @Id
+    private String id;
+
+    /**
+     * csv or xlsx.
+     */
+    private String format;
+
+    /**
+     * Whether the CSV file is gzip-compressed (.csv.gz).
+     */
+    private boolean compressed;
+
+    /**
+     * Company scope; null for admin platform-wide exports.
+     */
+    private String companyId;
+
+    /**
+     * Username of the requester (only they, or an admin, can download).
+     */
+    private String requestedBy;
+
+    private ExportStatus status;
+
+    /**
+     * Rows matched by the filters when the job started (progress denominator).
+     */
+    private long totalRows;
+
+    /**
+     * Rows written so far.
+     */
+    private long processedRows;
+
+    /**
+     * Object key in MinIO once COMPLETED.
+     */
+    private String objectKey;
+
+    private String fileName;
+
+    private Long fileSize;
+
+    /**
+     * Failure reason when FAILED.
+     */
+    private String error;
+
+    private Instant createdAt;
+
+    /**
+     * Last sign of life from the worker running the job (start and every
+     * progress update). PROCESSING jobs with an old heartbeat are failed by
+     * ExportService's staleness sweep.
+     */
+    private Instant heartbeatAt;
+
+    private Instant completedAt;
+
+    /**
+     * After this instant the job and its file are deleted.
+     */
+    @Indexed
+    private Instant expiresAt;
+}
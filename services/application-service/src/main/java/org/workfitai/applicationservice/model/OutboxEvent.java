@@ -0,0 +1,67 @@
+package org.workfitai.applicationservice.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.workfitai.applicationservice.model.enums.OutboxStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Transactional outbox record for a Kafka event.
+ *
+ * Inserted in the same unit of work as the Application change that caused
+ * it; OutboxRelay publishes pending records in createdAt order (per key)
+ * and marks them PUBLISHED. Published records expire via a TTL index.
+ */
+@Document(collection = "outbox_events")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@CompoundIndex(name = "status_created_at", def = "{'status': 1, 'createdAt': 1}")
+@CompoundIndex(name = "status_next_attempt_created_at", def = "{'status': 1, 'nextAttemptAt': 1, 'createdAt': 1}")
+public class OutboxEvent {
+
+    @Id
+    private String id;
+
+    private String topic;
+
+    /**
+     * Kafka record key; records with the same key are relayed in order.
+     */
+    private String messageKey;
+
+    private String eventType;
+
+    /**
+     * Event serialized exactly as the Kafka JsonSerializer would write it.
+     */
+    private String payload;
+
+    private OutboxStatus status;
+
+    private int attempts;
+
+    private String lastError;
+
+    private Instant createdAt;
+
+    /**
+     * Earliest instant the relay may (re)try this record.
+     */
+    private Instant nextAttemptAt;
+
+    /**
+     * Set when Kafka acknowledged the record; drives the TTL cleanup.
+     */
+    @Indexed(name = "published_at_ttl", expireAfter = "3d")
+    private Instant publishedAt;
+}
@@ -0,0 +1,27 @@
+package org.workfitai.applicationservice.model.enums;
+
+/**
+ * Lifecycle of an asynchronous export job.
+ *
+ * Flow: PROCESSING → COMPLETED
+ *                  ↘ FAILED
+ */
+public enum ExportStatus {
+
+    /**
+     * Rows are being streamed from MongoDB into object storage.
+     */
+    PROCESSING,
+
+    /**
+     * File uploaded; a pre-signed download URL can be issued.
+     */
+    COMPLETED,
+
+    /**
+     * Export aborted (query, storage, rejected by the executor, or the
+     * instance running it stopped and the job went stale).
+     * The partial upload is discarded.
+     */
+    FAILED
+}
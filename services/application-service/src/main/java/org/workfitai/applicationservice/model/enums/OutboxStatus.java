@@ -0,0 +1,25 @@
+package org.workfitai.applicationservice.model.enums;
+
+/**
+ * Delivery state of a transactional outbox record.
+ *
+ * Flow: PENDING → PUBLISHED
+ *               ↘ FAILED (after app.outbox.max-attempts)
+ */
+public enum OutboxStatus {
+
+    /**
+     * Written with the business change; waiting for the relay.
+     */
+    PENDING,
+
+    /**
+     * Acknowledged by Kafka. Removed by the TTL index after 3 days.
+     */
+    PUBLISHED,
+
+    /**
+     * Gave up after repeated send failures. Kept for inspection / manual replay.
+     */
+    FAILED
+}
@@ -1,5 +1,7 @@
 package org.workfitai.applicationservice.port.outbound;
 
+import java.util.List;
+
 import org.workfitai.applicationservice.dto.kafka.ApplicationCreatedEvent;
 import org.workfitai.applicationservice.dto.kafka.ApplicationStatusChangedEvent;
 import org.workfitai.applicationservice.dto.kafka.ApplicationWithdrawnEvent;
@@ -10,11 +12,12 @@ import org.workfitai.applicationservice.dto.kafka.JobStatsUpdateEvent;
  * Part of Hexagonal Architecture - defines interface for infrastructure
  * adapter.
  * 
- * Implementation: ApplicationEventProducer (publishes to Kafka or logs if
- * disabled)
+ * Implementation: ApplicationEventProducer (writes to the transactional
+ * outbox, relayed to Kafka by OutboxRelay)
  * 
- * Pattern: Fire-and-Forget
- * Events are published asynchronously without waiting for acknowledgment.
+ * Pattern: Transactional Outbox
+ * Call inside the unit of work that changes the application; the event is
+ * stored with it and delivered at-least-once. Failures propagate.
  * Consumers (job-service, notification-service) handle events independently.
  */
 public interface EventPublisherPort {
@@ -36,6 +39,14 @@ public interface EventPublisherPort {
      */
     void publishStatusChanged(ApplicationStatusChangedEvent event);
 
+    /**
+     * Publish many status changed events at once (bulk status update).
+     * Consumers: notification-service
+     *
+     * @param events The status changed events, one per application
+     */
+    void publishStatusChangedBatch(List<ApplicationStatusChangedEvent> events);
+
     /**
      * Publish event when an application is withdrawn.
      * Consumers: job-service (update application count), notification-service
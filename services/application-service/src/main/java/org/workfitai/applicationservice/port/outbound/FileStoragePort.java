@@ -38,4 +38,22 @@ public interface FileStoragePort {
      * @return true if file exists, false otherwise
      */
     boolean fileExists(String fileUrl);
+
+    /**
+     * Start a streaming (multipart) upload of unknown size.
+     * Used for generated files such as exports.
+     *
+     * @param objectKey   Object key inside the bucket (e.g., exports/2024/01/abc.csv)
+     * @param contentType MIME type stored with the object
+     * @return handle to write the content and complete or abort the upload
+     */
+    StreamingUpload openStreamingUpload(String objectKey, String contentType);
+
+    /**
+     * Delete an object by its key.
+     *
+     * @param objectKey Object key inside the bucket
+     * @throws FileStorageException if deletion fails
+     */
+    void deleteObject(String objectKey);
 }
@@ -0,0 +1,31 @@
+package org.workfitai.applicationservice.port.outbound;
+
+import java.io.OutputStream;
+
+/**
+ * An upload in progress, opened by {@link FileStoragePort#openStreamingUpload}.
+ *
+ * Bytes written to {@link #stream()} are uploaded while they are produced
+ * (multipart upload), so the caller never holds the whole file in memory.
+ * Exactly one of {@link #complete()} or {@link #abort()} must be called.
+ */
+public interface StreamingUpload {
+
+    /**
+     * Stream to write the object content to. Do not close it directly.
+     */
+    OutputStream stream();
+
+    /**
+     * Finish the upload and wait until the object is stored.
+     *
+     * @return object size in bytes
+     * @throws org.workfitai.applicationservice.exception.FileStorageException if the upload failed
+     */
+    long complete();
+
+    /**
+     * Discard the upload; no object is created.
+     */
+    void abort();
+}
@@ -0,0 +1,104 @@
+package org.workfitai.applicationservice.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.workfitai.applicationservice.model.Application;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Request-scoped identity map for applications.
+ *
+ * A protected call looks up the same application several times: the
+ * @PreAuthorize check in ApplicationSecurity, then the service method, and
+ * sometimes the controller. Within one HTTP request each application is
+ * read from MongoDB at most once per shape:
+ * - {@link #findActive(String)}: full document, for the service layer
+ * - {@link #findAccess(String)}: narrow projection with only the fields
+ * authorization compares; answered from the full document when it is
+ * already loaded
+ *
+ * Service code saves the instance returned by findActive, so the cached
+ * copy always reflects writes made in the same request.
+ *
+ * Outside an HTTP request (Kafka consumers, schedulers, @Async tasks)
+ * nothing is cached and every call reads MongoDB.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationIdentityMap {
+
+    private static final String FULL_ATTRIBUTE = ApplicationIdentityMap.class.getName() + ".full";
+    private static final String ACCESS_ATTRIBUTE = ApplicationIdentityMap.class.getName() + ".access";
+
+    private final ApplicationRepository applicationRepository;
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Full active (non-deleted) application.
+     */
+    public Optional<Application> findActive(String id) {
+        Map<String, Optional<Application>> cache = cache(FULL_ATTRIBUTE);
+        if (cache == null) {
+            return applicationRepository.findByIdAndDeletedAtIsNull(id);
+        }
+        Optional<Application> application = cache.computeIfAbsent(id,
+                key -> applicationRepository.findByIdAndDeletedAtIsNull(key));
+        // Bị withdraw / xoá mềm trong cùng request → coi như không còn
+        return application.filter(app -> app.getDeletedAt() == null);
+    }
+
+    /**
+     * Authorization view of an application, including soft-deleted ones.
+     *
+     * Only id, username, companyId, assignedTo, isDraft, deletedAt and the
+     * id/author of each note are populated; never hand it to code that
+     * saves or maps the whole document.
+     */
+    public Optional<Application> findAccess(String id) {
+        Map<String, Optional<Application>> full = cache(FULL_ATTRIBUTE);
+        if (full != null) {
+            Optional<Application> loaded = full.get(id);
+            if (loaded != null && loaded.isPresent()) {
+                return loaded;
+            }
+        }
+
+        Map<String, Optional<Application>> cache = cache(ACCESS_ATTRIBUTE);
+        if (cache == null) {
+            return loadAccess(id);
+        }
+        return cache.computeIfAbsent(id, this::loadAccess);
+    }
+
+    private Optional<Application> loadAccess(String id) {
+        Query query = query(where("_id").is(id));
+        query.fields().include("username", "companyId", "assignedTo", "isDraft", "deletedAt",
+                "notes.id", "notes.author");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Application.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Optional<Application>> cache(String attribute) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object cache = attributes.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST);
+        if (cache == null) {
+            cache = new HashMap<String, Optional<Application>>();
+            attributes.setAttribute(attribute, cache, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<String, Optional<Application>>) cache;
+    }
+}
@@ -0,0 +1,71 @@
+package org.workfitai.applicationservice.repository;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.workfitai.applicationservice.dto.response.ResultPaginationDTO;
+import org.workfitai.applicationservice.model.Application;
+import org.workfitai.applicationservice.util.KeysetCursor;
+import org.workfitai.applicationservice.util.ListingPage;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs application listings in page or keyset mode.
+ *
+ * Results are ordered by (createdAt desc, _id desc), which the
+ * *_created compound indexes on Application serve directly for each
+ * listing filter. One extra document is fetched to know whether a next
+ * page exists, so the count query only runs when the caller asks for the
+ * total (see {@link ListingPage}).
+ *
+ * Meta.totalElements / totalPages are -1 when the total was not computed.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationListingQuery {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ResultPaginationDTO<Application> find(Criteria filter, ListingPage page) {
+        Query query = Query.query(filter);
+        if (page.keyset()) {
+            query.addCriteria(page.cursor().after());
+        } else if (page.offset() > 0) {
+            query.skip(page.offset());
+        }
+        query.with(KeysetCursor.SORT).limit(page.size() + 1);
+
+        List<Application> applications = mongoTemplate.find(query, Application.class);
+        boolean hasNext = applications.size() > page.size();
+        if (hasNext) {
+            applications = applications.subList(0, page.size());
+        }
+
+        long total = -1;
+        int totalPages = -1;
+        if (page.withTotal()) {
+            total = mongoTemplate.count(Query.query(filter), Application.class);
+            totalPages = (int) Math.ceil((double) total / page.size());
+        }
+
+        return ResultPaginationDTO.<Application>builder()
+                .items(applications)
+                .meta(ResultPaginationDTO.Meta.builder()
+                        .page(page.page())
+                        .size(page.size())
+                        .totalElements(total)
+                        .totalPages(totalPages)
+                        .first(!page.keyset() && page.page() == 0)
+                        .last(!hasNext)
+                        .hasNext(hasNext)
+                        .hasPrevious(page.keyset() || page.page() > 0)
+                        .nextCursor(hasNext ? KeysetCursor.of(applications.get(applications.size() - 1)).encode()
+                                : null)
+                        .build())
+                .build();
+    }
+}
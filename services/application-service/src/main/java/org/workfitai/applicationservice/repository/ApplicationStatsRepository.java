@@ -0,0 +1,25 @@
+package org.workfitai.applicationservice.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+import org.workfitai.applicationservice.model.ApplicationStats;
+import org.workfitai.applicationservice.model.ApplicationStats.Scope;
+
+/**
+ * Repository for the pre-aggregated application stats read model.
+ */
+@Repository
+public interface ApplicationStatsRepository extends MongoRepository<ApplicationStats, String> {
+
+    /**
+     * Largest scopes first (e.g. top jobs, top companies).
+     */
+    List<ApplicationStats> findByScopeAndActiveGreaterThanOrderByActiveDesc(Scope scope, long active,
+            Pageable pageable);
+
+    List<ApplicationStats> findByScopeAndCompanyIdAndActiveGreaterThanOrderByActiveDesc(Scope scope,
+            String companyId, long active, Pageable pageable);
+}
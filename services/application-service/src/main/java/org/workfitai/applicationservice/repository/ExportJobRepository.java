@@ -0,0 +1,20 @@
+package org.workfitai.applicationservice.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+import org.workfitai.applicationservice.model.ExportJob;
+
+/**
+ * Repository for asynchronous export jobs.
+ */
+@Repository
+public interface ExportJobRepository extends MongoRepository<ExportJob, String> {
+
+    /**
+     * Jobs whose retention has elapsed (file + record to be deleted).
+     */
+    List<ExportJob> findTop100ByExpiresAtBefore(Instant now);
+}
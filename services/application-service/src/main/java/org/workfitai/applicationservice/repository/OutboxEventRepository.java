@@ -0,0 +1,40 @@
+package org.workfitai.applicationservice.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.workfitai.applicationservice.model.OutboxEvent;
+import org.workfitai.applicationservice.model.enums.OutboxStatus;
+
+/**
+ * Repository for transactional outbox records.
+ */
+@Repository
+public interface OutboxEventRepository extends MongoRepository<OutboxEvent, String> {
+
+    /**
+     * Next relay batch, oldest first: pending records that are not backing
+     * off (index status_next_attempt_created_at).
+     */
+    @Query(value = "{ 'status': ?0, '$or': [ { 'nextAttemptAt': null }, { 'nextAttemptAt': { '$lte': ?1 } } ] }",
+            sort = "{ 'createdAt': 1 }")
+    List<OutboxEvent> findDue(OutboxStatus status, Instant now, Pageable pageable);
+
+    /**
+     * Pending records still backing off (topic and key only): each one holds
+     * back the later records of its key.
+     */
+    @Query(value = "{ 'status': ?0, 'nextAttemptAt': { '$gt': ?1 } }", fields = "{ 'topic': 1, 'messageKey': 1 }")
+    List<OutboxEvent> findBackingOff(OutboxStatus status, Instant now);
+
+    long countByStatus(OutboxStatus status);
+
+    /**
+     * Oldest record still waiting (relay lag).
+     */
+    OutboxEvent findFirstByStatusOrderByCreatedAtAsc(OutboxStatus status);
+}
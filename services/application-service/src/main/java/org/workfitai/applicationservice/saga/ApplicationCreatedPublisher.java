@@ -0,0 +1,159 @@
+package org.workfitai.applicationservice.saga;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.workfitai.applicationservice.client.UserServiceClient;
+import org.workfitai.applicationservice.dto.JobInfo;
+import org.workfitai.applicationservice.dto.kafka.ApplicationCreatedEvent;
+import org.workfitai.applicationservice.dto.kafka.JobStatsUpdateEvent;
+import org.workfitai.applicationservice.model.Application;
+import org.workfitai.applicationservice.port.outbound.EventPublisherPort;
+import org.workfitai.applicationservice.repository.ApplicationRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Event stage of the apply saga.
+ *
+ * - {@link #enqueueCreated}: APPLICATION_CREATED, queued in the outbox in the
+ *   same unit of work as the Application save
+ * - {@link #publish}: runs on the async executor after commit, so the job
+ *   stats count and the user-service lookup for notifications don't add to
+ *   apply latency:
+ *   - JOB_STATS_UPDATE event (total applications for the job)
+ *   - Candidate / HR notification events
+ *
+ * Failures in {@link #publish} are logged and never affect the saved application.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ApplicationCreatedPublisher {
+
+    private final EventPublisherPort eventPublisher;
+    private final ApplicationRepository applicationRepository;
+    private final UserServiceClient userServiceClient;
+
+    /**
+     * Queue APPLICATION_CREATED in the outbox. Called inside the saga's unit of
+     * work; a failure fails the saga.
+     */
+    public void enqueueCreated(Application app, JobInfo jobInfo) {
+        ApplicationCreatedEvent event = ApplicationCreatedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType("APPLICATION_CREATED")
+                .timestamp(Instant.now())
+                .data(ApplicationCreatedEvent.ApplicationData.builder()
+                        .applicationId(app.getId())
+                        .username(app.getUsername())
+                        .jobId(app.getJobId())
+                        .cvFileUrl(app.getCvFileUrl())
+                        .status(app.getStatus())
+                        .jobTitle(app.getJobSnapshot().getTitle())
+                        .companyName(app.getJobSnapshot().getCompanyName())
+                        .appliedAt(Instant.now())
+                        .hrUsername(jobInfo.getCreatedBy())
+                        .candidateName(app.getUsername()) // Will be enhanced by notification-service
+                        .build())
+                .build();
+
+        eventPublisher.publishApplicationCreated(event);
+        log.debug("Application created event queued");
+    }
+
+    @Async
+    public void publish(Application app, JobInfo jobInfo) {
+        try {
+            // Publish JOB_STATS_UPDATE event for job-service
+            long totalApplications = applicationRepository.countByJobId(app.getJobId());
+            JobStatsUpdateEvent statsEvent = JobStatsUpdateEvent.builder()
+                    .eventId(UUID.randomUUID().toString())
+                    .jobId(UUID.fromString(app.getJobId()))
+                    .totalApplications((int) totalApplications)
+                    .timestamp(Instant.now())
+                    .operation("INCREMENT")
+                    .build();
+
+            eventPublisher.publishJobStatsUpdate(statsEvent);
+            log.debug("Job stats update event published: jobId={}, totalApplications={}",
+                    app.getJobId(), totalApplications);
+
+            // Fetch user details and publish notification events
+            String hrUsername = jobInfo.getCreatedBy();
+
+            // Prepare list of usernames to fetch (always include candidate)
+            List<String> usernamesToFetch = new ArrayList<>();
+            usernamesToFetch.add(app.getUsername()); // Always fetch candidate
+
+            if (hrUsername != null && !hrUsername.isEmpty() && !hrUsername.equals("system")) {
+                usernamesToFetch.add(hrUsername); // Add HR if valid
+            }
+
+            log.info("Fetching user details from user-service for: {}", usernamesToFetch);
+
+            var usersResponse = userServiceClient.getUsersByUsernames(usernamesToFetch);
+
+            if (usersResponse == null || usersResponse.getData() == null) {
+                log.warn("Failed to fetch user details from user-service: response is null");
+            } else {
+                log.debug("Fetched {} users from user-service", usersResponse.getData().size());
+
+                // Extract candidate info (REQUIRED)
+                var candidateInfo = usersResponse.getData().stream()
+                        .filter(u -> app.getUsername().equals(u.username()))
+                        .findFirst()
+                        .orElse(null);
+
+                if (candidateInfo == null) {
+                    log.error("Failed to fetch candidate info for username: {}", app.getUsername());
+                } else {
+                    // ALWAYS publish candidate notification
+                    eventPublisher.publishCandidateNotification(
+                            app.getId(),
+                            candidateInfo.email(),
+                            candidateInfo.username(), // Pass username for recipientUserId
+                            app.getJobSnapshot().getTitle(),
+                            app.getJobSnapshot().getCompanyName(),
+                            app.getCreatedAt());
+                    log.info("Candidate notification published: email={}, username={}",
+                            candidateInfo.email(), candidateInfo.username());
+
+                    // Publish HR notification ONLY if HR username is valid
+                    if (hrUsername != null && !hrUsername.isEmpty() && !hrUsername.equals("system")) {
+                        var hrInfo = usersResponse.getData().stream()
+                                .filter(u -> hrUsername.equals(u.username()))
+                                .findFirst()
+                                .orElse(null);
+
+                        if (hrInfo != null) {
+                            eventPublisher.publishHrNotification(
+                                    app.getId(),
+                                    hrInfo.email(),
+                                    hrInfo.username(), // Pass username for recipientUserId
+                                    candidateInfo.fullName(),
+                                    app.getJobSnapshot().getTitle(),
+                                    app.getJobSnapshot().getCompanyName(),
+                                    app.getCreatedAt());
+                            log.info("HR notification published: email={}, username={}",
+                                    hrInfo.email(), hrInfo.username());
+                        } else {
+                            log.warn("Failed to fetch HR info for username: {}", hrUsername);
+                        }
+                    } else {
+                        log.info("Skipping HR notification (no valid HR username)");
+                    }
+                }
+            }
+
+        } catch (Exception e) {
+            // Fire-and-forget: log but don't fail the saga
+            log.warn("Failed to publish events (non-critical): {}", e.getMessage());
+        }
+    }
+}
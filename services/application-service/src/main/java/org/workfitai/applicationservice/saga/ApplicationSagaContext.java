@@ -1,5 +1,7 @@
 package org.workfitai.applicationservice.saga;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.workfitai.applicationservice.dto.FileUploadResult;
 import org.workfitai.applicationservice.dto.JobInfo;
 import org.workfitai.applicationservice.model.Application;
@@ -28,6 +30,8 @@ public class ApplicationSagaContext {
     // Saga step results (accumulated as saga progresses)
     private JobInfo jobInfo;
     private FileUploadResult fileUploadResult;
+    // CV upload running concurrently with FETCH_JOB_INFO (compensation waits for it)
+    private CompletableFuture<FileUploadResult> pendingUpload;
     private Application savedApplication;
 
     // Tracking
@@ -39,10 +43,10 @@ public class ApplicationSagaContext {
      * Saga steps in execution order.
      */
     public enum SagaStep {
-        VALIDATE, // Run validation pipeline
-        FETCH_JOB_INFO, // Get job details for snapshot
-        UPLOAD_CV, // Upload CV to MinIO
+        VALIDATE, // Run local validators
+        FETCH_JOB_INFO, // Validate job + get details for snapshot (cached)
+        UPLOAD_CV, // Upload CV to MinIO (started concurrently with FETCH_JOB_INFO)
         SAVE_APPLICATION, // Persist to MongoDB
-        PUBLISH_EVENTS // Fire Kafka events
+        PUBLISH_EVENTS // Fire Kafka events after commit (async)
     }
 }
@@ -1,52 +1,58 @@
 package org.workfitai.applicationservice.saga;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
 
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
-import org.workfitai.applicationservice.client.UserServiceClient;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.workfitai.applicationservice.config.SagaConfig;
 import org.workfitai.applicationservice.dto.FileUploadResult;
 import org.workfitai.applicationservice.dto.JobInfo;
-import org.workfitai.applicationservice.dto.kafka.ApplicationCreatedEvent;
-import org.workfitai.applicationservice.dto.kafka.JobStatsUpdateEvent;
 import org.workfitai.applicationservice.dto.request.CreateApplicationRequest;
 import org.workfitai.applicationservice.dto.response.ApplicationResponse;
 import org.workfitai.applicationservice.mapper.ApplicationMapper;
 import org.workfitai.applicationservice.model.Application;
 import org.workfitai.applicationservice.model.enums.ApplicationStatus;
-import org.workfitai.applicationservice.port.outbound.EventPublisherPort;
 import org.workfitai.applicationservice.port.outbound.FileStoragePort;
 import org.workfitai.applicationservice.port.outbound.JobServicePort;
 import org.workfitai.applicationservice.repository.ApplicationRepository;
 import org.workfitai.applicationservice.saga.ApplicationSagaContext.SagaStep;
 import org.workfitai.applicationservice.validation.ValidationPipeline;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Saga Orchestrator for application creation workflow.
  * 
- * Orchestration Pattern: Sequential saga with compensation on failure.
+ * Orchestration Pattern: Saga with compensation on failure; remote steps
+ * that don't depend on each other run concurrently.
  * 
  * Saga Steps:
- * 1. VALIDATE - Run validation pipeline (duplicate check, file validation, job
- * validation)
- * 2. FETCH_JOB_INFO - Get job details from job-service for snapshot
- * 3. UPLOAD_CV - Upload CV PDF to MinIO
- * 4. SAVE_APPLICATION - Persist application to MongoDB
- * 5. PUBLISH_EVENTS - Fire Kafka events (fire-and-forget)
+ * 1. VALIDATE - Run local validators (duplicate check, file validation)
+ * 2. FETCH_JOB_INFO - Validate job + get details for snapshot in ONE call
+ * (short-TTL job snapshot cache in JobServiceAdapter)
+ * 3. UPLOAD_CV - Upload CV PDF to MinIO, started before step 2 and awaited
+ * after it
+ * 4. SAVE_APPLICATION - Persist application to MongoDB and queue
+ * APPLICATION_CREATED in the outbox (same unit of work)
+ * 5. PUBLISH_EVENTS - After commit, hand off to ApplicationCreatedPublisher
+ * (async: job stats count, user-service lookup, notifications)
  * 
  * Compensation:
- * - If step 4 fails after step 3: Delete uploaded file from MinIO
- * - If step 5 fails: Log warning (events are fire-and-forget, don't rollback
+ * - If step 2 or 4 fails: wait for the upload, then delete the file from MinIO;
+ * without a Mongo transaction, also delete an application saved before the
+ * outbox insert failed
+ * - If step 5 fails: Log warning (fan-out is fire-and-forget, don't rollback
  * application)
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ApplicationSagaOrchestrator {
 
@@ -54,9 +60,40 @@ public class ApplicationSagaOrchestrator {
     private final JobServicePort jobServicePort;
     private final FileStoragePort fileStoragePort;
     private final ApplicationRepository applicationRepository;
-    private final EventPublisherPort eventPublisher;
     private final ApplicationMapper applicationMapper;
-    private final UserServiceClient userServiceClient;
+    private final ApplicationCreatedPublisher createdPublisher;
+
+    // Executor riêng (không phải bean) để không thay thế applicationTaskExecutor của @Async
+    private final ThreadPoolTaskExecutor uploadExecutor;
+
+    public ApplicationSagaOrchestrator(ValidationPipeline validationPipeline,
+            JobServicePort jobServicePort,
+            FileStoragePort fileStoragePort,
+            ApplicationRepository applicationRepository,
+            ApplicationMapper applicationMapper,
+            ApplicationCreatedPublisher createdPublisher,
+            SagaConfig sagaConfig) {
+        this.validationPipeline = validationPipeline;
+        this.jobServicePort = jobServicePort;
+        this.fileStoragePort = fileStoragePort;
+        this.applicationRepository = applicationRepository;
+        this.applicationMapper = applicationMapper;
+        this.createdPublisher = createdPublisher;
+
+        this.uploadExecutor = new ThreadPoolTaskExecutor();
+        uploadExecutor.setCorePoolSize(sagaConfig.getUploadWorkers());
+        uploadExecutor.setMaxPoolSize(sagaConfig.getUploadWorkers());
+        uploadExecutor.setQueueCapacity(sagaConfig.getUploadQueueCapacity());
+        uploadExecutor.setThreadNamePrefix("cv-upload-");
+        // Quá tải → request thread tự upload (tuần tự như cũ) thay vì từ chối
+        uploadExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        uploadExecutor.initialize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        uploadExecutor.shutdown();
+    }
 
     /**
      * Execute the full saga for creating an application.
@@ -79,19 +116,22 @@ public class ApplicationSagaOrchestrator {
                 .build();
 
         try {
-            // Step 1: Validate
+            // Step 1: Validate (local only)
             executeValidationStep(context, request);
 
-            // Step 2: Fetch job info for snapshot
+            // Step 3 starts first: upload CV while job-service is being called
+            startUploadCvStep(context, request);
+
+            // Step 2: Validate job + fetch info for snapshot
             executeFetchJobInfoStep(context);
 
-            // Step 3: Upload CV to MinIO
-            executeUploadCvStep(context, request);
+            // Step 3: Wait for the CV upload
+            awaitUploadCvStep(context);
 
             // Step 4: Save application to MongoDB
             executeSaveApplicationStep(context);
 
-            // Step 5: Publish events (fire-and-forget)
+            // Step 5: Publish events after commit (async, fire-and-forget)
             executePublishEventsStep(context);
 
             context.setCompleted(true);
@@ -111,7 +151,7 @@ public class ApplicationSagaOrchestrator {
         context.setCurrentStep(SagaStep.VALIDATE);
         log.debug("Saga Step 1: VALIDATE");
 
-        validationPipeline.validate(request, context.getUsername());
+        validationPipeline.validateLocal(request, context.getUsername());
     }
 
     private void executeFetchJobInfoStep(ApplicationSagaContext context) {
@@ -124,17 +164,21 @@ public class ApplicationSagaOrchestrator {
         log.debug("Job info fetched: title={}, company={}", jobInfo.getTitle(), jobInfo.getCompanyName());
     }
 
-    private void executeUploadCvStep(ApplicationSagaContext context, CreateApplicationRequest request) {
-        context.setCurrentStep(SagaStep.UPLOAD_CV);
-        log.debug("Saga Step 3: UPLOAD_CV");
+    private void startUploadCvStep(ApplicationSagaContext context, CreateApplicationRequest request) {
+        log.debug("Saga Step 3: UPLOAD_CV (started)");
 
         // Use a temp folder initially, will be renamed after we have applicationId
         String tempFolder = "temp-" + UUID.randomUUID().toString().substring(0, 8);
 
-        FileUploadResult result = fileStoragePort.uploadFile(
-                request.getCvPdfFile(),
-                context.getUsername(),
-                tempFolder);
+        context.setPendingUpload(CompletableFuture.supplyAsync(
+                () -> fileStoragePort.uploadFile(request.getCvPdfFile(), context.getUsername(), tempFolder),
+                uploadExecutor));
+    }
+
+    private void awaitUploadCvStep(ApplicationSagaContext context) {
+        context.setCurrentStep(SagaStep.UPLOAD_CV);
+
+        FileUploadResult result = join(context.getPendingUpload());
         context.setFileUploadResult(result);
 
         log.debug("CV uploaded: url={}", result.getFileUrl());
@@ -203,123 +247,36 @@ public class ApplicationSagaOrchestrator {
         Application saved = applicationRepository.save(application);
         context.setSavedApplication(saved);
 
+        // Outbox insert: committed together with the application
+        createdPublisher.enqueueCreated(saved, jobInfo);
+
         log.debug("Application saved: id={}", saved.getId());
     }
 
     private void executePublishEventsStep(ApplicationSagaContext context) {
         context.setCurrentStep(SagaStep.PUBLISH_EVENTS);
-        log.debug("Saga Step 5: PUBLISH_EVENTS (fire-and-forget)");
+        log.debug("Saga Step 5: PUBLISH_EVENTS (after commit, async)");
 
         Application app = context.getSavedApplication();
-
-        try {
-            // Publish APPLICATION_CREATED event for notifications
-            JobInfo jobInfo = context.getJobInfo();
-            ApplicationCreatedEvent event = ApplicationCreatedEvent.builder()
-                    .eventId(UUID.randomUUID().toString())
-                    .eventType("APPLICATION_CREATED")
-                    .timestamp(Instant.now())
-                    .data(ApplicationCreatedEvent.ApplicationData.builder()
-                            .applicationId(app.getId())
-                            .username(app.getUsername())
-                            .jobId(app.getJobId())
-                            .cvFileUrl(app.getCvFileUrl())
-                            .status(app.getStatus())
-                            .jobTitle(app.getJobSnapshot().getTitle())
-                            .companyName(app.getJobSnapshot().getCompanyName())
-                            .appliedAt(Instant.now())
-                            .hrUsername(jobInfo.getCreatedBy())
-                            .candidateName(app.getUsername()) // Will be enhanced by notification-service
-                            .build())
-                    .build();
-
-            eventPublisher.publishApplicationCreated(event);
-            log.debug("Application created event published");
-
-            // Publish JOB_STATS_UPDATE event for job-service
-            long totalApplications = applicationRepository.countByJobId(app.getJobId());
-            JobStatsUpdateEvent statsEvent = JobStatsUpdateEvent.builder()
-                    .eventId(UUID.randomUUID().toString())
-                    .jobId(UUID.fromString(app.getJobId()))
-                    .totalApplications((int) totalApplications)
-                    .timestamp(Instant.now())
-                    .operation("INCREMENT")
-                    .build();
-
-            eventPublisher.publishJobStatsUpdate(statsEvent);
-            log.debug("Job stats update event published: jobId={}, totalApplications={}",
-                    app.getJobId(), totalApplications);
-
-            // Fetch user details and publish notification events
-            String hrUsername = jobInfo.getCreatedBy();
-
-            // Prepare list of usernames to fetch (always include candidate)
-            List<String> usernamesToFetch = new ArrayList<>();
-            usernamesToFetch.add(app.getUsername()); // Always fetch candidate
-
-            if (hrUsername != null && !hrUsername.isEmpty() && !hrUsername.equals("system")) {
-                usernamesToFetch.add(hrUsername); // Add HR if valid
+        JobInfo jobInfo = context.getJobInfo();
+        Runnable publish = () -> {
+            try {
+                createdPublisher.publish(app, jobInfo);
+            } catch (Exception e) {
+                // Fire-and-forget: log but don't fail the saga
+                log.warn("Failed to publish events (non-critical): {}", e.getMessage());
             }
+        };
 
-            log.info("Fetching user details from user-service for: {}", usernamesToFetch);
-
-            var usersResponse = userServiceClient.getUsersByUsernames(usernamesToFetch);
-
-            if (usersResponse == null || usersResponse.getData() == null) {
-                log.warn("Failed to fetch user details from user-service: response is null");
-            } else {
-                log.debug("Fetched {} users from user-service", usersResponse.getData().size());
-
-                // Extract candidate info (REQUIRED)
-                var candidateInfo = usersResponse.getData().stream()
-                        .filter(u -> app.getUsername().equals(u.username()))
-                        .findFirst()
-                        .orElse(null);
-
-                if (candidateInfo == null) {
-                    log.error("Failed to fetch candidate info for username: {}", app.getUsername());
-                } else {
-                    // ALWAYS publish candidate notification
-                    eventPublisher.publishCandidateNotification(
-                            app.getId(),
-                            candidateInfo.email(),
-                            candidateInfo.username(), // Pass username for recipientUserId
-                            app.getJobSnapshot().getTitle(),
-                            app.getJobSnapshot().getCompanyName(),
-                            app.getCreatedAt());
-                    log.info("Candidate notification published: email={}, username={}",
-                            candidateInfo.email(), candidateInfo.username());
-
-                    // Publish HR notification ONLY if HR username is valid
-                    if (hrUsername != null && !hrUsername.isEmpty() && !hrUsername.equals("system")) {
-                        var hrInfo = usersResponse.getData().stream()
-                                .filter(u -> hrUsername.equals(u.username()))
-                                .findFirst()
-                                .orElse(null);
-
-                        if (hrInfo != null) {
-                            eventPublisher.publishHrNotification(
-                                    app.getId(),
-                                    hrInfo.email(),
-                                    hrInfo.username(), // Pass username for recipientUserId
-                                    candidateInfo.fullName(),
-                                    app.getJobSnapshot().getTitle(),
-                                    app.getJobSnapshot().getCompanyName(),
-                                    app.getCreatedAt());
-                            log.info("HR notification published: email={}, username={}",
-                                    hrInfo.email(), hrInfo.username());
-                        } else {
-                            log.warn("Failed to fetch HR info for username: {}", hrUsername);
-                        }
-                    } else {
-                        log.info("Skipping HR notification (no valid HR username)");
-                    }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
                 }
-            }
-
-        } catch (Exception e) {
-            // Fire-and-forget: log but don't fail the saga
-            log.warn("Failed to publish events (non-critical): {}", e.getMessage());
+            });
+        } else {
+            publish.run();
         }
     }
 
@@ -329,6 +286,15 @@ public class ApplicationSagaOrchestrator {
     private void compensate(ApplicationSagaContext context) {
         log.info("Running saga compensation from step: {}", context.getCurrentStep());
 
+        // Upload may still be in flight (job validation failed first) → wait for it
+        if (context.getFileUploadResult() == null && context.getPendingUpload() != null) {
+            try {
+                context.setFileUploadResult(join(context.getPendingUpload()));
+            } catch (Exception e) {
+                log.debug("Compensation: CV upload did not complete, nothing to delete");
+            }
+        }
+
         // If we uploaded a file, delete it
         if (context.getFileUploadResult() != null) {
             try {
@@ -339,7 +305,31 @@ public class ApplicationSagaOrchestrator {
             }
         }
 
-        // Note: If application was saved, MongoDB transaction will rollback
-        // Note: Kafka events are fire-and-forget, no compensation needed
+        // With a MongoDB transaction the save rolls back; without one, remove it here
+        if (context.getSavedApplication() != null && !context.isCompleted()
+                && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            try {
+                log.info("Compensation: Deleting saved application {}", context.getSavedApplication().getId());
+                applicationRepository.delete(context.getSavedApplication());
+            } catch (Exception e) {
+                log.error("Compensation failed - could not delete application: {}", e.getMessage());
+            }
+        }
+
+        // Note: Post-commit fan-out is fire-and-forget, no compensation needed
+    }
+
+    /**
+     * Wait for an async step, rethrowing its original exception.
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 }
@@ -1,12 +1,14 @@
 package org.workfitai.applicationservice.security;
 
+import java.util.Optional;
+
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
 import org.workfitai.applicationservice.exception.ForbiddenException;
 import org.workfitai.applicationservice.exception.NotFoundException;
 import org.workfitai.applicationservice.model.Application;
-import org.workfitai.applicationservice.repository.ApplicationRepository;
+import org.workfitai.applicationservice.repository.ApplicationIdentityMap;
 import org.workfitai.applicationservice.service.UserCompanyService;
 
 import lombok.RequiredArgsConstructor;
@@ -34,6 +36,10 @@ import lombok.extern.slf4j.Slf4j;
  * "companyId": "company-uuid" // OPTIONAL: Company ID (null for CANDIDATE)
  * }
  *
+ * Application lookups go through ApplicationIdentityMap: a narrow field
+ * projection, read once per request and answered from the full document
+ * when the service layer has already loaded it.
+ *
  * SpEL Usage Example:
  * @PreAuthorize("@applicationSecurity.isOwner(#id, authentication)")
  * @PreAuthorize("hasAuthority('application:create')")
@@ -43,7 +49,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ApplicationSecurity {
 
-    private final ApplicationRepository applicationRepository;
+    private final ApplicationIdentityMap applicationIdentityMap;
     // NOTE: UserCompanyService kept for backward compatibility but not actively used
     // since we now extract companyId from JWT claims directly
     private final UserCompanyService userCompanyService;
@@ -111,8 +117,8 @@ public class ApplicationSecurity {
     public boolean isOwner(String applicationId, Authentication authentication) {
         String username = getCurrentUsername(authentication);
 
-        return applicationRepository.findById(applicationId)
-                .map(app -> app.getUsername().equals(username))
+        return applicationIdentityMap.findAccess(applicationId)
+                .map(app -> username.equals(app.getUsername()))
                 .orElse(false);
     }
 
@@ -127,10 +133,10 @@ public class ApplicationSecurity {
     public void requireOwnership(String applicationId, Authentication authentication) {
         String username = getCurrentUsername(authentication);
 
-        Application application = applicationRepository.findById(applicationId)
+        Application application = applicationIdentityMap.findAccess(applicationId)
                 .orElseThrow(() -> new NotFoundException("Application not found"));
 
-        if (!application.getUsername().equals(username)) {
+        if (!username.equals(application.getUsername())) {
             log.warn("User {} attempted to access application {} owned by {}",
                     username, applicationId, application.getUsername());
             throw new ForbiddenException("You don't have access to this application");
@@ -234,8 +240,8 @@ public class ApplicationSecurity {
     public boolean canEditDraft(String applicationId, Authentication authentication) {
         String username = getCurrentUsername(authentication);
 
-        return applicationRepository.findByIdAndDeletedAtIsNull(applicationId)
-                .map(app -> app.getUsername().equals(username) && app.isDraft())
+        return findActiveAccess(applicationId)
+                .map(app -> username.equals(app.getUsername()) && app.isDraft())
                 .orElse(false);
     }
 
@@ -255,11 +261,12 @@ public class ApplicationSecurity {
     public boolean isNoteAuthor(String applicationId, String noteId, Authentication authentication) {
         String username = getCurrentUsername(authentication);
 
-        return applicationRepository.findByIdAndDeletedAtIsNull(applicationId)
+        return findActiveAccess(applicationId)
+                .filter(app -> app.getNotes() != null)
                 .map(app -> app.getNotes().stream()
-                        .filter(note -> note.getId().equals(noteId))
+                        .filter(note -> noteId.equals(note.getId()))
                         .findFirst()
-                        .map(note -> note.getAuthor().equals(username))
+                        .map(note -> username.equals(note.getAuthor()))
                         .orElse(false))
                 .orElse(false);
     }
@@ -344,7 +351,7 @@ public class ApplicationSecurity {
         }
 
         // Check if application exists and belongs to same company
-        return applicationRepository.findByIdAndDeletedAtIsNull(applicationId)
+        return findActiveAccess(applicationId)
                 .map(app -> {
                     // Cannot assign drafts
                     if (app.isDraft()) {
@@ -372,4 +379,9 @@ public class ApplicationSecurity {
         return (hasPermission(authentication, "application:export") || isAdmin(authentication))
                 && isSameCompany(companyId, authentication);
     }
+
+    private Optional<Application> findActiveAccess(String applicationId) {
+        return applicationIdentityMap.findAccess(applicationId)
+                .filter(app -> app.getDeletedAt() == null);
+    }
 }
@@ -13,6 +13,7 @@ import org.workfitai.applicationservice.dto.response.NoteResponse;
 import org.workfitai.applicationservice.exception.ForbiddenException;
 import org.workfitai.applicationservice.exception.NotFoundException;
 import org.workfitai.applicationservice.model.Application;
+import org.workfitai.applicationservice.repository.ApplicationIdentityMap;
 import org.workfitai.applicationservice.repository.ApplicationRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -36,6 +37,7 @@ import lombok.extern.slf4j.Slf4j;
 public class ApplicationNoteService {
 
     private final ApplicationRepository applicationRepository;
+    private final ApplicationIdentityMap applicationIdentityMap;
 
     /**
      * Add a new note to an application.
@@ -49,7 +51,7 @@ public class ApplicationNoteService {
     public NoteResponse addNote(String applicationId, CreateNoteRequest request, String author) {
         log.info("Adding note to application: id={}, author={}", applicationId, author);
 
-        Application application = applicationRepository.findByIdAndDeletedAtIsNull(applicationId)
+        Application application = applicationIdentityMap.findActive(applicationId)
                 .orElseThrow(() -> new NotFoundException("Application not found"));
 
         Application.Note note = Application.Note.builder()
@@ -80,7 +82,7 @@ public class ApplicationNoteService {
     public NoteResponse updateNote(String applicationId, String noteId, UpdateNoteRequest request, String username) {
         log.info("Updating note: appId={}, noteId={}, user={}", applicationId, noteId, username);
 
-        Application application = applicationRepository.findByIdAndDeletedAtIsNull(applicationId)
+        Application application = applicationIdentityMap.findActive(applicationId)
                 .orElseThrow(() -> new NotFoundException("Application not found"));
 
         Application.Note note = application.getNotes().stream()
@@ -119,7 +121,7 @@ public class ApplicationNoteService {
     public void deleteNote(String applicationId, String noteId, String username) {
         log.info("Deleting note: appId={}, noteId={}, user={}", applicationId, noteId, username);
 
-        Application application = applicationRepository.findByIdAndDeletedAtIsNull(applicationId)
+        Application application = applicationIdentityMap.findActive(applicationId)
                 .orElseThrow(() -> new NotFoundException("Application not found"));
 
         Application.Note note = application.getNotes().stream()
@@ -147,7 +149,7 @@ public class ApplicationNoteService {
     public List<NoteResponse> getAllNotes(String applicationId) {
         log.debug("Fetching all notes for application: id={}", applicationId);
 
-        Application application = applicationRepository.findByIdAndDeletedAtIsNull(applicationId)
+        Application application = applicationIdentityMap.findActive(applicationId)
                 .orElseThrow(() -> new NotFoundException("Application not found"));
 
         return application.getNotes().stream()
@@ -164,7 +166,7 @@ public class ApplicationNoteService {
     public List<NoteResponse> getPublicNotes(String applicationId) {
         log.debug("Fetching public notes for application: id={}", applicationId);
 
-        Application application = applicationRepository.findByIdAndDeletedAtIsNull(applicationId)
+        Application application = applicationIdentityMap.findActive(applicationId)
                 .orElseThrow(() -> new NotFoundException("Application not found"));
 
         return application.getNotes().stream()
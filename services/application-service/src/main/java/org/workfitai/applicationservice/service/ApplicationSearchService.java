@@ -1,22 +1,41 @@
 package org.workfitai.applicationservice.service;
 
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.count;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.facet;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.limit;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.skip;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.sort;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Objects;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.bson.Document;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
 import org.springframework.data.mongodb.core.query.Criteria;
-import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.workfitai.applicationservice.dto.response.ApplicationResponse;
+import org.workfitai.applicationservice.dto.response.ApplicationSearchResponse;
 import org.workfitai.applicationservice.dto.response.ResultPaginationDTO;
 import org.workfitai.applicationservice.mapper.ApplicationMapper;
 import org.workfitai.applicationservice.model.Application;
 import org.workfitai.applicationservice.model.enums.ApplicationStatus;
+import org.workfitai.applicationservice.util.KeysetCursor;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,14 +44,21 @@ import lombok.extern.slf4j.Slf4j;
  * Service for advanced application search with dynamic filters.
  *
  * Supports:
+ * - Company scoping (HR callers see only their company; results, totals and
+ * facets alike)
  * - Date range filtering (fromDate, toDate)
  * - Multiple job IDs
- * - Text search in cover letter
+ * - Full-text search (text index over candidate username/email, job title,
+ * cover letter and note content)
  * - Status filtering
- * - Pagination with sorting
+ * - Status / job facets
+ * - Page-number or keyset (cursor) pagination
+ * - Exact or estimated (capped) total count
  *
- * Uses MongoDB Criteria API for building dynamic queries.
- * Performance optimized with compound indexes on (jobId, status, createdAt).
+ * Results are read by their own match → sort → limit pipeline, so the
+ * (company_)*_deleted_created indexes serve both the filters and the
+ * (createdAt desc, _id desc) order. Facets and total come from a second, $facet-only
+ * aggregation where each facet applies its own filters.
  */
 @Service
 @RequiredArgsConstructor
@@ -40,120 +66,236 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional(readOnly = true)
 public class ApplicationSearchService {
 
+    /**
+     * How the total number of matches is computed.
+     */
+    public enum CountMode {
+        /** Count every match. */
+        EXACT,
+        /** Stop counting at {@link #ESTIMATED_COUNT_LIMIT}; totalEstimated is set when reached. */
+        ESTIMATED
+    }
+
+    static final int ESTIMATED_COUNT_LIMIT = 10_000;
+
+    private static final int JOB_FACET_LIMIT = 20;
+
     private final MongoTemplate mongoTemplate;
     private final ApplicationMapper applicationMapper;
 
     /**
      * Search applications with multiple filters.
      *
+     * @param companyId  Company to search in; null searches every company
+     *                   (admin only)
      * @param jobIds     List of job IDs to filter (optional)
      * @param status     Application status to filter (optional)
      * @param fromDate   Start date for createdAt filter (optional)
      * @param toDate     End date for createdAt filter (optional)
-     * @param searchText Text to search in cover letter (optional)
+     * @param searchText Full-text query (optional)
+     * @param cursor     Keyset cursor from the previous page; page number is
+     *                   ignored when present (optional)
+     * @param countMode  Exact or estimated total
      * @param pageable   Pagination parameters
-     * @return Paginated search results
+     * @return Page of results with facets
      */
-    public ResultPaginationDTO<ApplicationResponse> search(
+    public ApplicationSearchResponse search(
+            String companyId,
             List<String> jobIds,
             ApplicationStatus status,
             Instant fromDate,
             Instant toDate,
             String searchText,
+            String cursor,
+            CountMode countMode,
             Pageable pageable) {
 
-        log.info("Searching applications: jobIds={}, status={}, fromDate={}, toDate={}, searchText={}",
-                 jobIds, status, fromDate, toDate, searchText != null ? "***" : null);
+        log.info("Searching applications: companyId={}, jobIds={}, status={}, fromDate={}, toDate={}, "
+                 + "searchText={}, cursor={}", companyId, jobIds, status, fromDate, toDate,
+                 searchText != null ? "***" : null, cursor != null);
 
-        Criteria criteria = buildSearchCriteria(jobIds, status, fromDate, toDate, searchText);
-        Query query = Query.query(criteria).with(pageable);
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+        int size = pageable.getPageSize();
 
-        // Get total count for pagination
-        long totalCount = mongoTemplate.count(Query.query(criteria), Application.class);
+        Criteria baseCriteria = buildSearchCriteria(companyId, fromDate, toDate);
+        Criteria jobFilter = jobIds != null && !jobIds.isEmpty() ? where("jobId").in(jobIds) : null;
+        Criteria statusFilter = status != null ? where("status").is(status) : null;
 
-        // Get paginated results
-        List<Application> applications = mongoTemplate.find(query, Application.class);
+        List<Application> applications = findItems(searchText, baseCriteria, jobFilter, statusFilter, after,
+                pageable);
+        boolean hasNext = applications.size() > size;
+        if (hasNext) {
+            applications = applications.subList(0, size);
+        }
+
+        Document result = countFacets(searchText, baseCriteria, jobFilter, statusFilter, countMode);
+        List<Document> totals = result.getList("total", Document.class, List.of());
+        long total = totals.isEmpty() ? 0 : ((Number) totals.get(0).get("total")).longValue();
+        boolean totalEstimated = countMode == CountMode.ESTIMATED && total >= ESTIMATED_COUNT_LIMIT;
 
-        // Map to response DTOs
         List<ApplicationResponse> responses = applications.stream()
                 .map(applicationMapper::toResponse)
                 .toList();
 
-        Page<ApplicationResponse> page = new PageImpl<>(
-            responses,
-            pageable,
-            totalCount
-        );
-
-        log.info("Search completed: found {} results", totalCount);
-
-        return ResultPaginationDTO.of(
-            page.getContent(),
-            page.getNumber(),
-            page.getSize(),
-            page.getTotalElements(),
-            page.getTotalPages()
-        );
+        int page = after != null ? 0 : pageable.getPageNumber();
+        int totalPages = size > 0 ? (int) Math.ceil((double) total / size) : 0;
+
+        log.info("Search completed: total={}{}, returned={}", total, totalEstimated ? "+" : "", responses.size());
+
+        return ApplicationSearchResponse.builder()
+                .items(responses)
+                .meta(ResultPaginationDTO.Meta.builder()
+                        .page(page)
+                        .size(size)
+                        .totalElements(total)
+                        .totalPages(totalPages)
+                        .first(after == null && page == 0)
+                        .last(!hasNext)
+                        .hasNext(hasNext)
+                        .hasPrevious(after != null || page > 0)
+                        .nextCursor(hasNext ? KeysetCursor.of(applications.get(applications.size() - 1)).encode()
+                                : null)
+                        .totalEstimated(totalEstimated)
+                        .build())
+                .facets(ApplicationSearchResponse.Facets.builder()
+                        .byStatus(toStatusFacet(result.getList("byStatus", Document.class, List.of())))
+                        .byJob(toJobFacet(result.getList("byJob", Document.class, List.of())))
+                        .build())
+                .build();
     }
 
     /**
-     * Build dynamic search criteria based on provided filters.
+     * Filters shared by results and facets.
      *
-     * @param jobIds     Job IDs filter
-     * @param status     Status filter
-     * @param fromDate   From date filter
-     * @param toDate     To date filter
-     * @param searchText Text search filter
+     * @param companyId Company filter (null for all companies)
+     * @param fromDate From date filter
+     * @param toDate   To date filter
      * @return Combined criteria
      */
-    private Criteria buildSearchCriteria(
-            List<String> jobIds,
-            ApplicationStatus status,
-            Instant fromDate,
-            Instant toDate,
-            String searchText) {
-
+    private Criteria buildSearchCriteria(String companyId, Instant fromDate, Instant toDate) {
         Criteria criteria = new Criteria();
 
+        // Company isolation: every facet sees the same scope as the results
+        if (companyId != null) {
+            criteria.and("companyId").is(companyId);
+        }
+
         // Exclude soft-deleted applications
         criteria.and("deletedAt").isNull();
 
-        // Filter by job IDs
-        if (jobIds != null && !jobIds.isEmpty()) {
-            criteria.and("jobId").in(jobIds);
+        // Filter by date range
+        if (fromDate != null && toDate != null) {
+            criteria.and("createdAt").gte(fromDate).lte(toDate);
+        } else if (fromDate != null) {
+            criteria.and("createdAt").gte(fromDate);
+        } else if (toDate != null) {
+            criteria.and("createdAt").lte(toDate);
         }
 
-        // Filter by status
-        if (status != null) {
-            criteria.and("status").is(status);
-        }
+        return criteria;
+    }
 
-        // Filter by date range
-        if (fromDate != null) {
-            criteria.and("createdAt").gte(fromDate);
+    /**
+     * Page of results: every filter and the cursor in one leading $match,
+     * then sort and limit (one extra row to detect a next page).
+     */
+    private List<Application> findItems(
+            String searchText,
+            Criteria baseCriteria,
+            Criteria jobFilter,
+            Criteria statusFilter,
+            KeysetCursor after,
+            Pageable pageable) {
+
+        List<AggregationOperation> stages = textStage(searchText);
+        stages.add(match(allOf(baseCriteria, jobFilter, statusFilter, after != null ? after.after() : null)));
+        stages.add(sort(KeysetCursor.SORT));
+        if (after == null && pageable.getOffset() > 0) {
+            stages.add(skip(pageable.getOffset()));
         }
-        if (toDate != null) {
-            criteria.and("createdAt").lte(toDate);
+        // Lấy dư 1 bản ghi để biết còn trang sau
+        stages.add(limit(pageable.getPageSize() + 1L));
+
+        return mongoTemplate.aggregate(newAggregation(Application.class, stages), Application.class)
+                .getMappedResults();
+    }
+
+    /**
+     * Facet counts and total in one $facet stage; each facet ignores its own
+     * filter and applies the others.
+     */
+    private Document countFacets(
+            String searchText,
+            Criteria baseCriteria,
+            Criteria jobFilter,
+            Criteria statusFilter,
+            CountMode countMode) {
+
+        List<AggregationOperation> total = new ArrayList<>();
+        total.add(match(allOf(jobFilter, statusFilter)));
+        if (countMode == CountMode.ESTIMATED) {
+            total.add(limit(ESTIMATED_COUNT_LIMIT));
         }
+        total.add(count().as("total"));
+
+        FacetOperation facets = facet(match(allOf(jobFilter)),
+                        group("status").count().as("count"))
+                .as("byStatus")
+                .and(match(allOf(statusFilter)),
+                        group("jobId").count().as("count").first("jobSnapshot.title").as("jobTitle"),
+                        sort(Sort.by(Sort.Direction.DESC, "count")),
+                        limit(JOB_FACET_LIMIT))
+                .as("byJob")
+                .and(total.toArray(AggregationOperation[]::new)).as("total");
 
-        // Text search in cover letter (case-insensitive regex)
+        List<AggregationOperation> stages = textStage(searchText);
+        stages.add(match(baseCriteria));
+        stages.add(facets);
+
+        TypedAggregation<Application> aggregation = newAggregation(Application.class, stages);
+        Document result = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+        return result != null ? result : new Document();
+    }
+
+    private static List<AggregationOperation> textStage(String searchText) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        // $text phải là stage $match đầu tiên
         if (searchText != null && !searchText.trim().isEmpty()) {
-            // Escape special regex characters to prevent injection
-            String escapedText = escapeRegex(searchText.trim());
-            criteria.and("coverLetter").regex(escapedText, "i");
+            stages.add(match(TextCriteria.forDefaultLanguage().matching(searchText.trim())));
         }
-
-        return criteria;
+        return stages;
     }
 
     /**
-     * Escape special regex characters to prevent NoSQL injection.
-     *
-     * @param text Raw search text
-     * @return Escaped text safe for regex
+     * AND of the non-null criteria; matches everything when none is given.
      */
-    private String escapeRegex(String text) {
-        // Escape MongoDB regex special characters
-        return text.replaceAll("([.?*+^$\\[\\]\\\\(){}|])", "\\\\$1");
+    private static Criteria allOf(Criteria... criteria) {
+        List<Criteria> present = Arrays.stream(criteria).filter(Objects::nonNull).toList();
+        if (present.isEmpty()) {
+            return new Criteria();
+        }
+        return present.size() == 1 ? present.get(0) : new Criteria().andOperator(present);
+    }
+
+    private static Map<String, Long> toStatusFacet(List<Document> buckets) {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            for (Document bucket : buckets) {
+                if (status.name().equals(bucket.get("_id"))) {
+                    byStatus.put(status.name(), ((Number) bucket.get("count")).longValue());
+                }
+            }
+        }
+        return byStatus;
+    }
+
+    private static List<ApplicationSearchResponse.JobFacet> toJobFacet(List<Document> buckets) {
+        return buckets.stream()
+                .map(bucket -> ApplicationSearchResponse.JobFacet.builder()
+                        .jobId((String) bucket.get("_id"))
+                        .jobTitle(bucket.getString("jobTitle"))
+                        .count(((Number) bucket.get("count")).longValue())
+                        .build())
+                .toList();
     }
 }
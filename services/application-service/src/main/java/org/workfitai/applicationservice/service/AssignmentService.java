@@ -9,6 +9,7 @@ import org.workfitai.applicationservice.exception.BadRequestException;
 import org.workfitai.applicationservice.exception.NotFoundException;
 import org.workfitai.applicationservice.mapper.ApplicationMapper;
 import org.workfitai.applicationservice.model.Application;
+import org.workfitai.applicationservice.repository.ApplicationIdentityMap;
 import org.workfitai.applicationservice.repository.ApplicationRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -33,6 +34,7 @@ import lombok.extern.slf4j.Slf4j;
 public class AssignmentService {
 
     private final ApplicationRepository applicationRepository;
+    private final ApplicationIdentityMap applicationIdentityMap;
     private final ApplicationMapper applicationMapper;
 
     /**
@@ -52,7 +54,7 @@ public class AssignmentService {
         log.info("Assigning application {} to HR: {}, by: {}", applicationId, assignedTo, assignedBy);
 
         // Fetch application
-        Application application = applicationRepository.findByIdAndDeletedAtIsNull(applicationId)
+        Application application = applicationIdentityMap.findActive(applicationId)
                 .orElseThrow(() -> new NotFoundException("Application not found: " + applicationId));
 
         // Validation: Cannot assign draft applications
@@ -95,7 +97,7 @@ public class AssignmentService {
         log.info("Unassigning application: {}, by: {}", applicationId, unassignedBy);
 
         // Fetch application
-        Application application = applicationRepository.findByIdAndDeletedAtIsNull(applicationId)
+        Application application = applicationIdentityMap.findActive(applicationId)
                 .orElseThrow(() -> new NotFoundException("Application not found: " + applicationId));
 
         // Check if currently assigned
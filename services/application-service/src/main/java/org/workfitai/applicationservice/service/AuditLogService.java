@@ -4,10 +4,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.workfitai.applicationservice.model.AuditLog;
 import org.workfitai.applicationservice.repository.AuditLogRepository;
+import org.workfitai.applicationservice.service.audit.AuditLogBuffer;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -15,7 +15,7 @@ import java.util.Map;
 
 /**
  * Service for managing audit logs
- * Provides async logging to avoid blocking main operations
+ * Writes go through AuditLogBuffer (batched, off the caller's thread)
  */
 @Service
 @RequiredArgsConstructor
@@ -23,12 +23,12 @@ import java.util.Map;
 public class AuditLogService {
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogBuffer auditLogBuffer;
 
     /**
      * Log an action asynchronously
-     * Non-blocking operation to avoid impacting main flow
+     * Only queues the record; AuditLogBuffer inserts it with the next batch
      */
-    @Async
     public void logAction(
         String entityType,
         String entityId,
@@ -51,10 +51,10 @@ public class AuditLogService {
                 .containsPII(true) // Applications contain PII
                 .build();
 
-            auditLogRepository.save(auditLog);
-
-            log.debug("Audit log created: {} - {} by {}",
-                entityType, action, performedBy);
+            if (auditLogBuffer.enqueue(auditLog)) {
+                log.debug("Audit log queued: {} - {} by {}",
+                    entityType, action, performedBy);
+            }
         } catch (Exception e) {
             // Never fail main operation due to audit logging issues
             log.error("Failed to create audit log: {} - {} by {}",
@@ -1,23 +1,37 @@
 package org.workfitai.applicationservice.service;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.workfitai.applicationservice.dto.kafka.ApplicationStatusChangedEvent;
 import org.workfitai.applicationservice.dto.request.BulkUpdateRequest;
 import org.workfitai.applicationservice.dto.response.BulkUpdateResult;
 import org.workfitai.applicationservice.exception.BadRequestException;
-import org.workfitai.applicationservice.exception.NotFoundException;
 import org.workfitai.applicationservice.model.Application;
 import org.workfitai.applicationservice.model.enums.ApplicationStatus;
 import org.workfitai.applicationservice.port.outbound.EventPublisherPort;
-import org.workfitai.applicationservice.repository.ApplicationRepository;
+import org.workfitai.applicationservice.service.stats.ApplicationStatsProjector;
 import org.workfitai.applicationservice.validation.StatusTransitionValidator;
 
+import com.mongodb.bulk.BulkWriteResult;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -26,14 +40,22 @@ import lombok.extern.slf4j.Slf4j;
  *
  * Supports:
  * - Bulk status updates with transaction support
- * - All-or-nothing behavior (rollback on any failure)
- * - Kafka event publishing for each successful update
+ * - All-or-nothing validation (nothing is written if any application fails)
+ * - Kafka events for all updates, queued in the outbox in one insert
  * - Detailed result tracking
  *
+ * Pipeline (constant number of round trips, whatever the batch size):
+ * 1. One $in query with a projection loads every target application
+ * 2. Status transitions are validated in memory
+ * 3. One unordered bulkWrite sets the status and $pushes to statusHistory;
+ * each update is guarded by the status it was validated against
+ * 4. Events are queued with one outbox insert, stats projected in one pass
+ *
  * Business Rules:
- * - Maximum 100 applications per bulk operation
+ * - Maximum 5000 applications per bulk operation
  * - All status transitions must be valid
- * - Transaction rolls back if any application fails
+ * - An application changed concurrently between read and write is skipped
+ * and reported as failed
  *
  * Security:
  * - Only users with application:update permission can use
@@ -44,11 +66,14 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class BulkOperationService {
 
-    private final ApplicationRepository applicationRepository;
+    private final MongoTemplate mongoTemplate;
     private final StatusTransitionValidator statusTransitionValidator;
     private final EventPublisherPort eventPublisher;
+    private final ApplicationStatsProjector statsProjector;
 
-    private static final int MAX_BULK_SIZE = 100;
+    private static final int MAX_BULK_SIZE = 5000;
+
+    private static final String DEFAULT_REASON = "Bulk status update";
 
     /**
      * Update status of multiple applications in a single transaction.
@@ -69,120 +94,164 @@ public class BulkOperationService {
                     "Cannot update more than " + MAX_BULK_SIZE + " applications at once");
         }
 
-        List<BulkUpdateResult.ApplicationUpdateResult> results = new ArrayList<>();
-        int successCount = 0;
-        int failureCount = 0;
+        ApplicationStatus newStatus = request.getStatus();
+        Set<String> applicationIds = new LinkedHashSet<>(request.getApplicationIds());
+
+        // 1. Load all targets in one query
+        Map<String, Application> applications = loadApplications(applicationIds);
 
-        // Process each application
-        for (String applicationId : request.getApplicationIds()) {
+        // 2. Validate everything before writing anything (all-or-nothing)
+        for (String applicationId : applicationIds) {
+            Application application = applications.get(applicationId);
+            if (application == null) {
+                throw new BadRequestException(
+                        "Bulk update failed for application " + applicationId
+                                + ": Application not found: " + applicationId);
+            }
             try {
-                updateSingleApplication(applicationId, request.getStatus(), request.getReason(), updatedBy);
-                results.add(BulkUpdateResult.ApplicationUpdateResult.builder()
-                        .applicationId(applicationId)
-                        .success(true)
-                        .build());
-                successCount++;
-            } catch (Exception e) {
-                log.error("Failed to update application {}: {}", applicationId, e.getMessage());
-                results.add(BulkUpdateResult.ApplicationUpdateResult.builder()
-                        .applicationId(applicationId)
-                        .success(false)
-                        .errorMessage(e.getMessage())
-                        .build());
-                failureCount++;
-
-                // Rollback entire transaction on any failure (all-or-nothing)
+                statusTransitionValidator.validateTransition(application.getStatus(), newStatus);
+            } catch (IllegalArgumentException e) {
                 throw new BadRequestException(
                         "Bulk update failed for application " + applicationId + ": " + e.getMessage());
             }
         }
 
-        log.info("Bulk update completed: success={}, failure={}", successCount, failureCount);
+        // 3. Apply all changes with one bulkWrite
+        // Mongo lưu millis → cắt cho khớp khi so sánh updatedAt
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        String reason = request.getReason() != null ? request.getReason() : DEFAULT_REASON;
+        Map<String, ApplicationStatus> previousStatuses = new HashMap<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Application.class);
+        for (Application application : applications.values()) {
+            ApplicationStatus previousStatus = application.getStatus();
+            previousStatuses.put(application.getId(), previousStatus);
+
+            Application.StatusChange statusChange = Application.StatusChange.builder()
+                    .previousStatus(previousStatus)
+                    .newStatus(newStatus)
+                    .changedBy(updatedBy)
+                    .changedAt(now)
+                    .reason(reason)
+                    .build();
+
+            // Chỉ ghi khi status vẫn là status đã validate (optimistic guard)
+            bulk.updateOne(
+                    query(where("_id").is(application.getId())
+                            .and("status").is(previousStatus)
+                            .and("deletedAt").isNull()),
+                    new Update()
+                            .set("status", newStatus)
+                            .set("updatedAt", now)
+                            .set("updatedBy", updatedBy)
+                            .push("statusHistory", statusChange));
+
+            application.setStatus(newStatus);
+            application.setUpdatedAt(now);
+            application.setUpdatedBy(updatedBy);
+            if (application.getStatusHistory() == null) {
+                application.setStatusHistory(new ArrayList<>());
+            }
+            application.getStatusHistory().add(statusChange);
+        }
+        BulkWriteResult writeResult = bulk.execute();
+
+        Set<String> conflicted = writeResult.getMatchedCount() < applications.size()
+                ? findConflicts(applications.keySet(), newStatus, updatedBy, now)
+                : Set.of();
+        if (!conflicted.isEmpty()) {
+            log.warn("Bulk update skipped {} applications changed concurrently", conflicted.size());
+        }
+
+        List<Application> updated = applications.values().stream()
+                .filter(application -> !conflicted.contains(application.getId()))
+                .toList();
+
+        // 4. Queue all events in one outbox insert (same unit of work)
+        List<ApplicationStatusChangedEvent> events = new ArrayList<>(updated.size());
+        for (Application application : updated) {
+            events.add(buildStatusChangedEvent(application, previousStatuses.get(application.getId()),
+                    updatedBy, now));
+        }
+        eventPublisher.publishStatusChangedBatch(events);
+
+        // bulkWrite không phát Mongo events → cập nhật stats read model trực tiếp
+        try {
+            statsProjector.onSavedAll(updated);
+        } catch (Exception e) {
+            log.warn("Failed to update application stats after bulk update: {}", e.getMessage());
+        }
+
+        List<BulkUpdateResult.ApplicationUpdateResult> results = new ArrayList<>(applicationIds.size());
+        for (String applicationId : applicationIds) {
+            boolean success = !conflicted.contains(applicationId);
+            results.add(BulkUpdateResult.ApplicationUpdateResult.builder()
+                    .applicationId(applicationId)
+                    .success(success)
+                    .errorMessage(success ? null : "Application was modified concurrently")
+                    .build());
+        }
+
+        log.info("Bulk update completed: success={}, failure={}", updated.size(), conflicted.size());
 
         return BulkUpdateResult.builder()
-                .successCount(successCount)
-                .failureCount(failureCount)
+                .successCount(updated.size())
+                .failureCount(conflicted.size())
                 .results(results)
                 .build();
     }
 
     /**
-     * Update a single application's status within the bulk operation.
-     *
-     * @param applicationId Application to update
-     * @param newStatus     New status
-     * @param reason        Optional reason for change
-     * @param updatedBy     Username performing update
-     * @throws NotFoundException   if application not found
-     * @throws BadRequestException if status transition is invalid
+     * Load the target applications with the fields needed for validation,
+     * events and stats.
      */
-    private void updateSingleApplication(
-            String applicationId,
-            ApplicationStatus newStatus,
-            String reason,
-            String updatedBy) {
-
-        Application application = applicationRepository.findByIdAndDeletedAtIsNull(applicationId)
-                .orElseThrow(() -> new NotFoundException("Application not found: " + applicationId));
-
-        ApplicationStatus previousStatus = application.getStatus();
-
-        // Validate status transition
-        statusTransitionValidator.validateTransition(previousStatus, newStatus);
-
-        // Update status
-        application.setStatus(newStatus);
-
-        // Add to status history
-        Application.StatusChange statusChange = Application.StatusChange.builder()
-                .previousStatus(previousStatus)
-                .newStatus(newStatus)
-                .changedBy(updatedBy)
-                .changedAt(Instant.now())
-                .reason(reason != null ? reason : "Bulk status update")
-                .build();
-        application.getStatusHistory().add(statusChange);
-
-        // Save application
-        applicationRepository.save(application);
-
-        // Publish Kafka event (fire-and-forget)
-        publishStatusChangedEvent(application, previousStatus, updatedBy);
+    private Map<String, Application> loadApplications(Set<String> applicationIds) {
+        Query query = query(where("_id").in(applicationIds).and("deletedAt").isNull());
+        query.fields().include("username", "jobId", "companyId", "jobSnapshot.title", "assignedTo", "status",
+                "statusHistory", "isDraft", "submittedAt", "createdAt", "updatedAt", "deletedAt");
 
-        log.debug("Application {} updated: {} -> {}", applicationId, previousStatus, newStatus);
+        Map<String, Application> applications = new HashMap<>();
+        for (Application application : mongoTemplate.find(query, Application.class)) {
+            applications.put(application.getId(), application);
+        }
+        return applications;
     }
 
     /**
-     * Publish status changed event to Kafka.
-     *
-     * @param application    Updated application
-     * @param previousStatus Previous status
-     * @param updatedBy      Username who made the change
+     * Applications whose guarded update did not match: someone else changed
+     * their status (or deleted them) between the read and the bulkWrite.
      */
-    private void publishStatusChangedEvent(
+    private Set<String> findConflicts(Set<String> applicationIds, ApplicationStatus newStatus, String updatedBy,
+            Instant now) {
+        Query query = query(where("_id").in(applicationIds)
+                .and("status").is(newStatus)
+                .and("updatedBy").is(updatedBy)
+                .and("updatedAt").is(now));
+        query.fields().include("_id");
+
+        Set<String> conflicted = new HashSet<>(applicationIds);
+        mongoTemplate.find(query, Application.class).forEach(application -> conflicted.remove(application.getId()));
+        return conflicted;
+    }
+
+    private ApplicationStatusChangedEvent buildStatusChangedEvent(
             Application application,
             ApplicationStatus previousStatus,
-            String updatedBy) {
+            String updatedBy,
+            Instant changedAt) {
 
-        try {
-            eventPublisher.publishStatusChanged(
-                    ApplicationStatusChangedEvent.builder()
-                            .eventId(UUID.randomUUID().toString())
-                            .eventType("STATUS_CHANGED")
-                            .timestamp(Instant.now())
-                            .data(ApplicationStatusChangedEvent.StatusChangeData.builder()
-                                    .applicationId(application.getId())
-                                    .username(application.getUsername())
-                                    .jobId(application.getJobId())
-                                    .previousStatus(previousStatus)
-                                    .newStatus(application.getStatus())
-                                    .changedBy(updatedBy)
-                                    .changedAt(Instant.now())
-                                    .build())
-                            .build());
-        } catch (Exception e) {
-            // Fire-and-forget: log but don't fail the operation
-            log.warn("Failed to publish status changed event for {}: {}", application.getId(), e.getMessage());
-        }
+        return ApplicationStatusChangedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType("STATUS_CHANGED")
+                .timestamp(Instant.now())
+                .data(ApplicationStatusChangedEvent.StatusChangeData.builder()
+                        .applicationId(application.getId())
+                        .username(application.getUsername())
+                        .jobId(application.getJobId())
+                        .previousStatus(previousStatus)
+                        .newStatus(application.getStatus())
+                        .changedBy(updatedBy)
+                        .changedAt(changedAt)
+                        .build())
+                .build();
     }
 }
@@ -1,84 +1,144 @@
 package org.workfitai.applicationservice.service;
 
-import java.io.StringWriter;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.workfitai.applicationservice.config.ExportConfig;
 import org.workfitai.applicationservice.dto.request.ExportRequest;
 import org.workfitai.applicationservice.dto.response.ExportResponse;
 import org.workfitai.applicationservice.exception.BadRequestException;
+import org.workfitai.applicationservice.exception.ForbiddenException;
+import org.workfitai.applicationservice.exception.NotFoundException;
 import org.workfitai.applicationservice.model.Application;
-import org.workfitai.applicationservice.repository.ApplicationRepository;
-
-import lombok.RequiredArgsConstructor;
+import org.workfitai.applicationservice.model.ExportJob;
+import org.workfitai.applicationservice.model.enums.ExportStatus;
+import org.workfitai.applicationservice.port.outbound.FileStoragePort;
+import org.workfitai.applicationservice.port.outbound.StreamingUpload;
+import org.workfitai.applicationservice.repository.ExportJobRepository;
+import org.workfitai.applicationservice.service.export.CsvRowWriter;
+import org.workfitai.applicationservice.service.export.ExportRowWriter;
+import org.workfitai.applicationservice.service.export.XlsxRowWriter;
+
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Service for exporting applications to CSV/Excel.
  *
- * Phase 3: Simplified implementation
- * - CSV format only (no Excel)
- * - Synchronous processing (no async jobs)
- * - In-memory CSV generation
- * - Direct download (no MinIO pre-signed URLs)
- * - Max 10,000 rows limit
+ * Exports run as asynchronous jobs:
+ * - Request returns immediately with an exportId (status PROCESSING)
+ * - Filters and column projection are pushed down to MongoDB
+ * - Rows are streamed from a cursor straight into a MinIO multipart upload,
+ *   so memory stays constant regardless of export size
+ * - CSV (optionally gzip) or XLSX
+ * - Client polls GET /export/{exportId} and gets a pre-signed URL when COMPLETED
+ * - Files and job records are purged after app.export.retention
+ * - Jobs left PROCESSING by a crashed instance are failed after app.export.stale-after
  *
- * Phase 4/5 Enhancements:
- * - Excel (xlsx) support with Apache POI
- * - Async processing with job queue
- * - MinIO storage with pre-signed URLs
- * - Auto-cleanup after 7 days
+ * Concurrency is bounded by app.export.workers / queue-capacity; when the
+ * queue is full new exports are rejected with 429.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ExportService {
 
-    private final ApplicationRepository applicationRepository;
-
-    private static final int MAX_EXPORT_ROWS = 10000;
     private static final List<String> DEFAULT_COLUMNS = Arrays.asList(
             "id", "username", "email", "jobId", "jobTitle", "status",
             "appliedAt", "assignedTo", "companyId");
 
+    private static final List<String> ADMIN_DEFAULT_COLUMNS = Arrays.asList(
+            "id", "username", "email", "jobId", "jobTitle", "status",
+            "appliedAt", "assignedTo", "companyId", "isDraft",
+            "deletedAt", "deletedBy", "createdAt", "updatedAt");
+
+    private static final DateTimeFormatter KEY_DATE = DateTimeFormatter.ofPattern("yyyy/MM/dd")
+            .withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+
+    private static final String CONTENT_TYPE_CSV = "text/csv";
+    private static final String CONTENT_TYPE_GZIP = "application/gzip";
+    private static final String CONTENT_TYPE_XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private final MongoTemplate mongoTemplate;
+    private final ExportJobRepository exportJobRepository;
+    private final FileStoragePort fileStoragePort;
+    private final MinioPreSignedUrlService preSignedUrlService;
+    private final ExportConfig exportConfig;
+
+    // Executor riêng (không phải bean) để không thay thế applicationTaskExecutor của @Async
+    private final ThreadPoolTaskExecutor executor;
+
+    public ExportService(MongoTemplate mongoTemplate,
+            ExportJobRepository exportJobRepository,
+            FileStoragePort fileStoragePort,
+            MinioPreSignedUrlService preSignedUrlService,
+            ExportConfig exportConfig) {
+        this.mongoTemplate = mongoTemplate;
+        this.exportJobRepository = exportJobRepository;
+        this.fileStoragePort = fileStoragePort;
+        this.preSignedUrlService = preSignedUrlService;
+        this.exportConfig = exportConfig;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(exportConfig.getWorkers());
+        executor.setMaxPoolSize(exportConfig.getWorkers());
+        executor.setQueueCapacity(exportConfig.getQueueCapacity());
+        executor.setThreadNamePrefix("export-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
     /**
-     * Export applications to CSV.
+     * Start a company-scoped export.
      *
-     * @param request Export request with filters
-     * @return Export response with CSV data
+     * @param request     Export request with filters
+     * @param requestedBy Username of the requester
+     * @return Export job in PROCESSING state
      */
-    public ExportResponse exportApplications(ExportRequest request) {
+    public ExportResponse exportApplications(ExportRequest request, String requestedBy) {
         log.info("Exporting applications for company: {}, format: {}", request.getCompanyId(), request.getFormat());
 
-        // Validate format (CSV only for Phase 3)
-        if (!"csv".equalsIgnoreCase(request.getFormat())) {
-            throw new BadRequestException("Only CSV format is supported in Phase 3. Excel support coming in Phase 4.");
+        Criteria criteria = Criteria.where("companyId").is(request.getCompanyId())
+                .and("deletedAt").is(null);
+        if (request.getStatus() != null) {
+            criteria.and("status").is(request.getStatus());
         }
-
-        // Fetch applications based on filters
-        List<Application> applications = fetchApplicationsForExport(request);
-
-        // Validate row count
-        if (applications.size() > MAX_EXPORT_ROWS) {
-            throw new BadRequestException(
-                    String.format("Export exceeds maximum limit of %d rows. Found: %d. Please add more filters.",
-                            MAX_EXPORT_ROWS, applications.size()));
+        if (request.getAssignedTo() != null) {
+            criteria.and("assignedTo").is(request.getAssignedTo());
         }
+        applyDateRange(criteria, request.getFromDate(), request.getToDate());
+
+        List<String> columns = request.getColumns() != null && !request.getColumns().isEmpty()
+                ? request.getColumns()
+                : DEFAULT_COLUMNS;
 
-        // Generate CSV
-        String csvData = generateCSV(applications, request.getColumns());
-
-        // Build response
-        return ExportResponse.builder()
-                .format("csv")
-                .rowCount((long) applications.size())
-                .fileSize((long) csvData.length())
-                .downloadUrl("data:text/csv;charset=utf-8," + csvData) // Inline CSV (Phase 3)
-                .generatedAt(Instant.now())
-                .build();
+        return submit(criteria, columns, request.getFormat(), request.isCompress(),
+                request.getCompanyId(), requestedBy);
     }
 
     /**
@@ -89,166 +149,294 @@ public class ExportService {
      * @param fromDate       Optional start date filter
      * @param toDate         Optional end date filter
      * @param columns        Columns to include
-     * @return Export response with CSV data
+     * @param format         csv or xlsx
+     * @param compress       Gzip the CSV file
+     * @param requestedBy    Admin username
+     * @return Export job in PROCESSING state
      */
     public ExportResponse exportAllApplications(
             boolean includeDeleted,
             Instant fromDate,
             Instant toDate,
-            List<String> columns) {
+            List<String> columns,
+            String format,
+            boolean compress,
+            String requestedBy) {
         log.warn("ADMIN: Full platform export requested, includeDeleted={}", includeDeleted);
 
-        // Fetch ALL applications (no company filter)
-        List<Application> applications;
-
-        if (includeDeleted) {
-            applications = applicationRepository.findAll();
-        } else {
-            applications = applicationRepository.findByDeletedAtIsNull();
+        Criteria criteria = new Criteria();
+        if (!includeDeleted) {
+            criteria.and("deletedAt").is(null);
         }
+        applyDateRange(criteria, fromDate, toDate);
 
-        // Apply date filters
-        if (fromDate != null) {
-            applications = applications.stream()
-                    .filter(app -> app.getCreatedAt().isAfter(fromDate))
-                    .toList();
-        }
+        List<String> adminColumns = columns != null && !columns.isEmpty()
+                ? columns
+                : ADMIN_DEFAULT_COLUMNS;
 
-        if (toDate != null) {
-            applications = applications.stream()
-                    .filter(app -> app.getCreatedAt().isBefore(toDate))
-                    .toList();
-        }
+        return submit(criteria, adminColumns, format, compress, null, requestedBy);
+    }
 
-        log.info("ADMIN: Exporting {} applications", applications.size());
+    /**
+     * Get export status; includes a pre-signed download URL once COMPLETED.
+     *
+     * @param exportId Export job ID
+     * @param username Current user
+     * @param admin    Whether the current user is an admin (can read any export)
+     */
+    public ExportResponse getExport(String exportId, String username, boolean admin) {
+        ExportJob job = exportJobRepository.findById(exportId)
+                .orElseThrow(() -> new NotFoundException("Export not found: " + exportId));
 
-        // Validate row count (higher limit for admin)
-        if (applications.size() > 50000) {
-            throw new BadRequestException(
-                    String.format("Export exceeds maximum limit of 50,000 rows. Found: %d. Please add date filters.",
-                            applications.size()));
+        if (!admin && !job.getRequestedBy().equals(username)) {
+            throw new ForbiddenException("Access denied. You can only access your own exports.");
         }
-
-        // Generate CSV with admin-specific columns
-        List<String> adminColumns = columns != null && !columns.isEmpty()
-                ? columns
-                : getAdminDefaultColumns();
-
-        String csvData = generateCSV(applications, adminColumns);
-
-        // Build response
-        return ExportResponse.builder()
-                .format("csv")
-                .rowCount((long) applications.size())
-                .fileSize((long) csvData.length())
-                .downloadUrl("data:text/csv;charset=utf-8," + csvData)
-                .generatedAt(Instant.now())
-                .build();
+        return toResponse(job);
     }
 
     /**
-     * Get default columns for admin export (includes deleted fields)
+     * Remove expired export files and their job records.
      */
-    private List<String> getAdminDefaultColumns() {
-        return Arrays.asList(
-                "id", "username", "email", "jobId", "jobTitle", "status",
-                "appliedAt", "assignedTo", "companyId", "isDraft",
-                "deletedAt", "deletedBy", "createdAt", "updatedAt");
+    @Scheduled(initialDelayString = "${app.export.cleanup-interval:1h}",
+            fixedDelayString = "${app.export.cleanup-interval:1h}")
+    public void purgeExpiredExports() {
+        List<ExportJob> expired = exportJobRepository.findTop100ByExpiresAtBefore(Instant.now());
+        for (ExportJob job : expired) {
+            try {
+                if (job.getObjectKey() != null) {
+                    fileStoragePort.deleteObject(job.getObjectKey());
+                }
+                exportJobRepository.delete(job);
+            } catch (Exception e) {
+                log.warn("Failed to purge export {}: {}", job.getId(), e.getMessage());
+            }
+        }
+        if (!expired.isEmpty()) {
+            log.info("🧹 Purged {} expired export(s)", expired.size());
+        }
     }
 
     /**
-     * Fetch applications based on export filters.
+     * Fail exports whose worker stopped sending heartbeats.
+     *
+     * A job lives only in the memory of the instance that accepted it, so after a
+     * crash or redeploy it would stay PROCESSING forever. The filters are not
+     * persisted, so the job cannot be requeued; the requester sees FAILED and can
+     * start a new export.
      */
-    private List<Application> fetchApplicationsForExport(ExportRequest request) {
-        // Start with all company applications
-        List<Application> applications = applicationRepository
-                .findByCompanyIdAndDeletedAtIsNull(request.getCompanyId());
-
-        // Apply filters
-        if (request.getStatus() != null) {
-            applications = applications.stream()
-                    .filter(app -> app.getStatus().equals(request.getStatus()))
-                    .toList();
+    @Scheduled(initialDelayString = "${app.export.stale-check-interval:5m}",
+            fixedDelayString = "${app.export.stale-check-interval:5m}")
+    public void failStaleExports() {
+        Instant now = Instant.now();
+        Query stale = Query.query(Criteria.where("status").is(ExportStatus.PROCESSING)
+                .and("heartbeatAt").lt(now.minus(exportConfig.getStaleAfter())));
+        long failed = mongoTemplate.updateMulti(stale,
+                Update.update("status", ExportStatus.FAILED)
+                        .set("error", "Export interrupted, please try again")
+                        .set("completedAt", now),
+                ExportJob.class).getModifiedCount();
+        if (failed > 0) {
+            log.warn("⚠️ Failed {} stale export(s) with no heartbeat for {}", failed, exportConfig.getStaleAfter());
         }
+    }
 
-        if (request.getFromDate() != null) {
-            applications = applications.stream()
-                    .filter(app -> app.getCreatedAt().isAfter(request.getFromDate()))
-                    .toList();
-        }
+    // ==================== Job execution ====================
 
-        if (request.getToDate() != null) {
-            applications = applications.stream()
-                    .filter(app -> app.getCreatedAt().isBefore(request.getToDate()))
-                    .toList();
+    private ExportResponse submit(Criteria criteria, List<String> columns, String format, boolean compress,
+            String companyId, String requestedBy) {
+        String normalizedFormat = format != null ? format.toLowerCase(Locale.ROOT) : "csv";
+        if (!"csv".equals(normalizedFormat) && !"xlsx".equals(normalizedFormat)) {
+            throw new BadRequestException("Format must be csv or xlsx");
         }
+        // gzip chỉ áp dụng cho CSV (xlsx đã là zip)
+        boolean gzip = compress && "csv".equals(normalizedFormat);
+
+        Instant now = Instant.now();
+        String exportId = UUID.randomUUID().toString();
+        String extension = "xlsx".equals(normalizedFormat) ? "xlsx" : gzip ? "csv.gz" : "csv";
+
+        ExportJob job = exportJobRepository.save(ExportJob.builder()
+                .id(exportId)
+                .format(normalizedFormat)
+                .compressed(gzip)
+                .companyId(companyId)
+                .requestedBy(requestedBy)
+                .status(ExportStatus.PROCESSING)
+                .objectKey(exportConfig.getObjectPrefix() + "/" + KEY_DATE.format(now) + "/" + exportId + "." + extension)
+                .fileName("applications-" + (companyId != null ? companyId : "all") + "-"
+                        + FILE_TIMESTAMP.format(now) + "." + extension)
+                .createdAt(now)
+                .heartbeatAt(now)
+                .expiresAt(now.plus(exportConfig.getRetention()))
+                .build());
+
+        Query query = new Query(criteria).cursorBatchSize(exportConfig.getFetchSize());
+        columns.forEach(column -> Arrays.stream(fieldsFor(column)).forEach(query.fields()::include));
 
-        if (request.getAssignedTo() != null) {
-            applications = applications.stream()
-                    .filter(app -> request.getAssignedTo().equals(app.getAssignedTo()))
-                    .toList();
+        try {
+            executor.execute(() -> run(job, query, columns));
+        } catch (TaskRejectedException e) {
+            markFailed(job, "Too many exports in progress");
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many exports in progress. Please try again later.");
         }
 
-        log.info("Filtered {} applications for export", applications.size());
-        return applications;
+        log.info("Export {} queued: format={}, columns={}", exportId, normalizedFormat, columns.size());
+        return toResponse(job);
     }
 
-    /**
-     * Generate CSV from applications.
-     *
-     * Phase 3: Simple CSV generation without external libraries.
-     * Phase 4: Use OpenCSV or Apache Commons CSV for robust CSV generation.
-     */
-    private String generateCSV(List<Application> applications, List<String> requestedColumns) {
-        StringWriter writer = new StringWriter();
-        List<String> columns = requestedColumns != null && !requestedColumns.isEmpty()
-                ? requestedColumns
-                : DEFAULT_COLUMNS;
-
+    private void run(ExportJob job, Query query, List<String> columns) {
+        long startedAt = System.currentTimeMillis();
+        // chờ trong queue quá lâu → sweep đã đánh FAILED, không chạy nữa
+        if (!claim(job.getId())) {
+            log.warn("Export {} went stale while queued, skipping", job.getId());
+            return;
+        }
+        StreamingUpload upload = null;
         try {
-            // Write header
-            writer.write(String.join(",", columns));
-            writer.write("\n");
-
-            // Write rows
-            for (Application app : applications) {
-                List<String> values = new ArrayList<>();
+            long total = mongoTemplate.count(Query.of(query).limit(0).skip(0), Application.class);
+            updateProgress(job.getId(), Update.update("totalRows", total));
+
+            upload = fileStoragePort.openStreamingUpload(job.getObjectKey(), contentType(job));
+            long rows = writeRows(job, query, columns, upload.stream());
+            long fileSize = upload.complete();
+
+            Instant completedAt = Instant.now();
+            updateProgress(job.getId(), Update.update("status", ExportStatus.COMPLETED)
+                    .set("processedRows", rows)
+                    .set("fileSize", fileSize)
+                    .set("completedAt", completedAt)
+                    .set("expiresAt", completedAt.plus(exportConfig.getRetention())));
+
+            log.info("✅ Export {} completed: {} rows, {} bytes in {} ms", job.getId(), rows, fileSize,
+                    System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            log.error("❌ Export {} failed: {}", job.getId(), e.getMessage(), e);
+            if (upload != null) {
+                upload.abort();
+            }
+            markFailed(job, e.getMessage());
+        }
+    }
 
+    private long writeRows(ExportJob job, Query query, List<String> columns, OutputStream out) throws IOException {
+        long rows = 0;
+        try (ExportRowWriter writer = "xlsx".equals(job.getFormat())
+                ? new XlsxRowWriter(out)
+                : new CsvRowWriter(out, job.isCompressed());
+                Stream<Application> cursor = mongoTemplate.stream(query, Application.class)) {
+
+            writer.writeRow(columns);
+            List<String> values = new ArrayList<>(columns.size());
+            for (Application app : (Iterable<Application>) cursor::iterator) {
+                values.clear();
                 for (String column : columns) {
-                    String value = getColumnValue(app, column);
-                    // Escape commas and quotes
-                    value = escapeCSV(value);
-                    values.add(value);
+                    values.add(getColumnValue(app, column));
                 }
+                writer.writeRow(values);
 
-                writer.write(String.join(",", values));
-                writer.write("\n");
+                if (++rows % exportConfig.getProgressInterval() == 0) {
+                    updateProgress(job.getId(), Update.update("processedRows", rows));
+                }
             }
+        }
+        return rows;
+    }
 
-        } catch (Exception e) {
-            log.error("Error generating CSV", e);
-            throw new RuntimeException("Failed to generate CSV", e);
+    private boolean claim(String exportId) {
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(exportId).and("status").is(ExportStatus.PROCESSING)),
+                Update.update("heartbeatAt", Instant.now()), ExportJob.class).getMatchedCount() > 0;
+    }
+
+    private void updateProgress(String exportId, Update update) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(exportId)),
+                update.set("heartbeatAt", Instant.now()), ExportJob.class);
+    }
+
+    private void markFailed(ExportJob job, String error) {
+        updateProgress(job.getId(), Update.update("status", ExportStatus.FAILED)
+                .set("error", error)
+                .set("completedAt", Instant.now()));
+    }
+
+    private ExportResponse toResponse(ExportJob job) {
+        ExportResponse.ExportResponseBuilder response = ExportResponse.builder()
+                .exportId(job.getId())
+                .status(job.getStatus())
+                .format(job.getFormat())
+                .totalRows(job.getTotalRows())
+                .rowCount(job.getProcessedRows())
+                .fileSize(job.getFileSize())
+                .error(job.getError())
+                .generatedAt(job.getCompletedAt());
+
+        if (job.getStatus() == ExportStatus.COMPLETED) {
+            var url = preSignedUrlService.generateDownloadUrl(job.getObjectKey(), job.getFileName(),
+                    job.getFileSize());
+            response.downloadUrl(url.getUrl()).expiresAt(url.getExpiresAt());
         }
+        return response.build();
+    }
 
-        return writer.toString();
+    private static String contentType(ExportJob job) {
+        if ("xlsx".equals(job.getFormat())) {
+            return CONTENT_TYPE_XLSX;
+        }
+        return job.isCompressed() ? CONTENT_TYPE_GZIP : CONTENT_TYPE_CSV;
+    }
+
+    private static void applyDateRange(Criteria criteria, Instant fromDate, Instant toDate) {
+        if (fromDate == null && toDate == null) {
+            return;
+        }
+        Criteria createdAt = criteria.and("createdAt");
+        if (fromDate != null) {
+            createdAt.gt(fromDate);
+        }
+        if (toDate != null) {
+            createdAt.lt(toDate);
+        }
+    }
+
+    /**
+     * MongoDB fields needed to render a column (projection).
+     */
+    private static String[] fieldsFor(String column) {
+        return switch (column.toLowerCase(Locale.ROOT)) {
+            case "id" -> new String[] { "_id" };
+            case "jobid" -> new String[] { "jobId" };
+            case "jobtitle" -> new String[] { "jobSnapshot.title" };
+            case "appliedat" -> new String[] { "submittedAt", "createdAt" };
+            case "companyid" -> new String[] { "companyId" };
+            case "assignedto" -> new String[] { "assignedTo" };
+            case "createdat" -> new String[] { "createdAt" };
+            case "updatedat" -> new String[] { "updatedAt" };
+            case "isdraft" -> new String[] { "isDraft" };
+            case "deletedat" -> new String[] { "deletedAt" };
+            case "deletedby" -> new String[] { "deletedBy" };
+            case "cvfileurl" -> new String[] { "cvFileUrl" };
+            case "username", "email", "status" -> new String[] { column.toLowerCase(Locale.ROOT) };
+            default -> new String[] { "_id" };
+        };
     }
 
     /**
      * Get column value from application.
      */
-    private String getColumnValue(Application app, String column) {
-        return switch (column.toLowerCase()) {
+    private static String getColumnValue(Application app, String column) {
+        return switch (column.toLowerCase(Locale.ROOT)) {
             case "id" -> app.getId();
             case "username" -> app.getUsername();
             case "email" -> app.getEmail();
             case "jobid" -> app.getJobId();
             case "jobtitle" -> app.getJobSnapshot() != null ? app.getJobSnapshot().getTitle() : "";
-            case "status" -> app.getStatus().name();
-            case "appliedat" ->
-                app.getSubmittedAt() != null ? app.getSubmittedAt().toString() : app.getCreatedAt().toString();
+            case "status" -> app.getStatus() != null ? app.getStatus().name() : "";
+            case "appliedat" -> app.getSubmittedAt() != null ? app.getSubmittedAt().toString()
+                    : app.getCreatedAt() != null ? app.getCreatedAt().toString() : "";
             case "assignedto" -> app.getAssignedTo() != null ? app.getAssignedTo() : "";
             case "companyid" -> app.getCompanyId() != null ? app.getCompanyId() : "";
-            case "createdat" -> app.getCreatedAt().toString();
+            case "createdat" -> app.getCreatedAt() != null ? app.getCreatedAt().toString() : "";
             case "updatedat" -> app.getUpdatedAt() != null ? app.getUpdatedAt().toString() : "";
             case "isdraft" -> String.valueOf(app.isDraft());
             case "deletedat" -> app.getDeletedAt() != null ? app.getDeletedAt().toString() : "";
@@ -257,37 +445,4 @@ public class ExportService {
             default -> "";
         };
     }
-
-    /**
-     * Escape CSV special characters and prevent formula injection.
-     *
-     * Formula injection attack prevention: Excel/LibreOffice auto-execute formulas
-     * starting with =, +, -, @, or |. We prefix these with a single quote to
-     * neutralize.
-     *
-     * @param value Raw value
-     * @return Escaped value safe for CSV export
-     */
-    private String escapeCSV(String value) {
-        if (value == null) {
-            return "";
-        }
-
-        // Prevent formula injection - escape formula-starting characters
-        if (value.length() > 0) {
-            char firstChar = value.charAt(0);
-            if (firstChar == '=' || firstChar == '+' || firstChar == '-' ||
-                    firstChar == '@' || firstChar == '|') {
-                value = "'" + value; // Prefix with single quote to neutralize
-            }
-        }
-
-        // If contains comma, quote, or newline, wrap in quotes and escape quotes
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            value = value.replace("\"", "\"\"");
-            return "\"" + value + "\"";
-        }
-
-        return value;
-    }
 }
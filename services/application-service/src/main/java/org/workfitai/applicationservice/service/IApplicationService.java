@@ -2,12 +2,12 @@ package org.workfitai.applicationservice.service;
 
 import java.util.List;
 
-import org.springframework.data.domain.Pageable;
 import org.workfitai.applicationservice.dto.response.ApplicationResponse;
 import org.workfitai.applicationservice.dto.response.NoteResponse;
 import org.workfitai.applicationservice.dto.response.ResultPaginationDTO;
 import org.workfitai.applicationservice.dto.response.StatusChangeResponse;
 import org.workfitai.applicationservice.model.enums.ApplicationStatus;
+import org.workfitai.applicationservice.util.ListingPage;
 
 /**
  * Service interface for Application business operations.
@@ -20,19 +20,19 @@ public interface IApplicationService {
 
         ApplicationResponse getApplicationById(String id);
 
-        ResultPaginationDTO<ApplicationResponse> getMyApplications(String username, Pageable pageable);
+        ResultPaginationDTO<ApplicationResponse> getMyApplications(String username, ListingPage page);
 
         ResultPaginationDTO<ApplicationResponse> getMyApplicationsByStatus(
                         String username,
                         ApplicationStatus status,
-                        Pageable pageable);
+                        ListingPage page);
 
-        ResultPaginationDTO<ApplicationResponse> getApplicationsByJob(String jobId, Pageable pageable);
+        ResultPaginationDTO<ApplicationResponse> getApplicationsByJob(String jobId, ListingPage page);
 
         ResultPaginationDTO<ApplicationResponse> getApplicationsByJobAndStatus(
                         String jobId,
                         ApplicationStatus status,
-                        Pageable pageable);
+                        ListingPage page);
 
         boolean hasUserAppliedToJob(String username, String jobId);
 
@@ -1,22 +1,14 @@
 package org.workfitai.applicationservice.service;
 
-import java.time.Duration;
-import java.time.Instant;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 
-import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.aggregation.Aggregation;
-import org.springframework.data.mongodb.core.aggregation.AggregationResults;
-import org.springframework.data.mongodb.core.aggregation.GroupOperation;
-import org.springframework.data.mongodb.core.aggregation.MatchOperation;
-import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.workfitai.applicationservice.dto.response.JobStatsResponse;
-import org.workfitai.applicationservice.model.Application;
+import org.workfitai.applicationservice.model.ApplicationStats;
 import org.workfitai.applicationservice.model.enums.ApplicationStatus;
+import org.workfitai.applicationservice.repository.ApplicationStatsRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -35,7 +27,8 @@ import lombok.extern.slf4j.Slf4j;
  * - Interview → Offer: (OFFER + HIRED) / INTERVIEW
  * - Offer → Hired: HIRED / OFFER
  *
- * Uses MongoDB aggregation for efficient calculation.
+ * Reads the job's counters from the stats read model (application_stats),
+ * maintained incrementally by ApplicationStatsProjector.
  */
 @Service
 @RequiredArgsConstructor
@@ -43,7 +36,7 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional(readOnly = true)
 public class JobStatsService {
 
-    private final MongoTemplate mongoTemplate;
+    private final ApplicationStatsRepository applicationStatsRepository;
 
     /**
      * Get comprehensive statistics for a specific job.
@@ -54,23 +47,23 @@ public class JobStatsService {
     public JobStatsResponse getJobStats(String jobId) {
         log.info("Calculating statistics for job: {}", jobId);
 
-        Criteria criteria = Criteria.where("jobId").is(jobId)
-                .and("deletedAt").isNull();
+        ApplicationStats stats = applicationStatsRepository.findById("job:" + jobId)
+                .orElseGet(ApplicationStats::new);
 
         // Total applications
-        long totalApplications = mongoTemplate.count(
-            org.springframework.data.mongodb.core.query.Query.query(criteria),
-            Application.class
-        );
+        long totalApplications = stats.getActive();
 
         // Applications by status
-        Map<String, Long> byStatus = getApplicationsByStatus(jobId);
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            byStatus.put(status.name(), stats.statusCount(status.name()));
+        }
 
         // Conversion rates
         JobStatsResponse.ConversionRates conversionRates = calculateConversionRates(byStatus);
 
-        // Average time to review
-        double averageTimeToReviewDays = calculateAverageTimeToReview(jobId);
+        // Average time to review (submission → first move out of APPLIED)
+        double averageTimeToReviewDays = stats.avgReviewDays();
 
         log.info("Job stats calculated: jobId={}, total={}, avgReviewTime={}",
                  jobId, totalApplications, averageTimeToReviewDays);
@@ -83,44 +76,6 @@ public class JobStatsService {
                 .build();
     }
 
-    /**
-     * Get application count by status for a job.
-     *
-     * @param jobId Job ID
-     * @return Map of status to count
-     */
-    private Map<String, Long> getApplicationsByStatus(String jobId) {
-        Criteria criteria = Criteria.where("jobId").is(jobId)
-                .and("deletedAt").isNull();
-
-        MatchOperation matchStage = Aggregation.match(criteria);
-        GroupOperation groupStage = Aggregation.group("status").count().as("count");
-
-        Aggregation aggregation = Aggregation.newAggregation(matchStage, groupStage);
-
-        AggregationResults<StatusCount> results = mongoTemplate.aggregate(
-            aggregation,
-            Application.class,
-            StatusCount.class
-        );
-
-        Map<String, Long> statusMap = new LinkedHashMap<>();
-
-        // Initialize all statuses with 0
-        for (ApplicationStatus status : ApplicationStatus.values()) {
-            statusMap.put(status.name(), 0L);
-        }
-
-        // Fill in actual counts
-        results.getMappedResults().forEach(result -> {
-            if (result.getId() != null) {
-                statusMap.put(result.getId().name(), result.getCount());
-            }
-        });
-
-        return statusMap;
-    }
-
     /**
      * Calculate conversion rates through the hiring funnel.
      *
@@ -158,57 +113,4 @@ public class JobStatsService {
                 .offerToHired(offerToHired)
                 .build();
     }
-
-    /**
-     * Calculate average time from application submission to first status change.
-     *
-     * @param jobId Job ID
-     * @return Average time in days
-     */
-    private double calculateAverageTimeToReview(String jobId) {
-        Criteria criteria = Criteria.where("jobId").is(jobId)
-                .and("deletedAt").isNull()
-                .and("statusHistory").exists(true).ne(null);
-
-        org.springframework.data.mongodb.core.query.Query query =
-            org.springframework.data.mongodb.core.query.Query.query(criteria);
-
-        List<Application> applications = mongoTemplate.find(query, Application.class);
-
-        if (applications.isEmpty()) {
-            return 0.0;
-        }
-
-        double totalDays = 0.0;
-        int count = 0;
-
-        for (Application app : applications) {
-            if (app.getStatusHistory() != null && !app.getStatusHistory().isEmpty()) {
-                // Get first status change (excluding initial APPLIED status)
-                var firstChange = app.getStatusHistory().stream()
-                    .filter(sc -> sc.getPreviousStatus() == ApplicationStatus.APPLIED)
-                    .findFirst();
-
-                if (firstChange.isPresent() && app.getCreatedAt() != null) {
-                    Instant createdAt = app.getCreatedAt();
-                    Instant reviewedAt = firstChange.get().getChangedAt();
-
-                    Duration duration = Duration.between(createdAt, reviewedAt);
-                    double days = duration.toDays() + (duration.toHoursPart() / 24.0);
-                    totalDays += days;
-                    count++;
-                }
-            }
-        }
-
-        return count > 0 ? totalDays / count : 0.0;
-    }
-
-    // Helper class for aggregation results
-
-    @lombok.Data
-    private static class StatusCount {
-        private ApplicationStatus id;
-        private long count;
-    }
 }
@@ -0,0 +1,203 @@
+package org.workfitai.applicationservice.service.audit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import org.workfitai.applicationservice.config.AuditConfig;
+import org.workfitai.applicationservice.model.AuditLog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded in-memory buffer between audit producers and MongoDB.
+ *
+ * Callers enqueue and return; one writer thread drains the buffer and
+ * inserts with insertMany once app.audit.batch-size records are waiting or
+ * the oldest has waited app.audit.flush-interval, whichever comes first.
+ *
+ * When the buffer is full the overflow policy applies (see
+ * {@link AuditConfig.OverflowPolicy}). On shutdown the writer stops taking
+ * new work and flushes what is buffered, within app.audit.shutdown-timeout.
+ *
+ * Records are lost if the process dies before a flush, or when a batch
+ * still fails after one retry; both are counted.
+ *
+ * Metrics: audit.queue.depth, audit.written, audit.dropped{reason},
+ * audit.flush
+ */
+@Component
+@Slf4j
+public class AuditLogBuffer {
+
+    private final MongoTemplate mongoTemplate;
+    private final AuditConfig auditConfig;
+    private final BlockingQueue<AuditLog> queue;
+
+    private final Counter written;
+    private final Counter droppedOverflow;
+    private final Counter droppedWriteFailed;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLogBuffer(MongoTemplate mongoTemplate, AuditConfig auditConfig, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.auditConfig = auditConfig;
+        this.queue = new ArrayBlockingQueue<>(auditConfig.getQueueCapacity());
+
+        Gauge.builder("audit.queue.depth", queue, BlockingQueue::size)
+                .description("Audit records waiting to be written")
+                .register(meterRegistry);
+        this.written = meterRegistry.counter("audit.written");
+        this.droppedOverflow = meterRegistry.counter("audit.dropped", "reason", "overflow");
+        this.droppedWriteFailed = meterRegistry.counter("audit.dropped", "reason", "write_failed");
+        this.flushTimer = Timer.builder("audit.flush")
+                .description("insertMany of one audit batch")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queue a record for writing. Never throws.
+     *
+     * @return false if the record was dropped
+     */
+    public boolean enqueue(AuditLog auditLog) {
+        if (!running) {
+            // Đang shutdown: ghi thẳng để không mất bản ghi
+            write(List.of(auditLog));
+            return true;
+        }
+        if (queue.offer(auditLog)) {
+            return true;
+        }
+
+        switch (auditConfig.getOverflowPolicy()) {
+            case CALLER_RUNS -> {
+                write(List.of(auditLog));
+                return true;
+            }
+            case BLOCK -> {
+                try {
+                    if (queue.offer(auditLog, auditConfig.getOfferTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            case DROP -> {
+            }
+        }
+
+        droppedOverflow.increment();
+        log.warn("Audit buffer full, dropped {} - {} on {}", auditLog.getEntityType(), auditLog.getAction(),
+                auditLog.getEntityId());
+        return false;
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        // Không interrupt: writer đang insert dở thì để insert xong
+        try {
+            writer.join(auditConfig.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Audit writer did not finish within {}, {} records not written",
+                    auditConfig.getShutdownTimeout(), queue.size());
+            return;
+        }
+        // Bản ghi vào queue ngay sau lần drain cuối của writer
+        List<AuditLog> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        write(rest);
+    }
+
+    private void drainLoop() {
+        int batchSize = auditConfig.getBatchSize();
+        long flushNanos = auditConfig.getFlushInterval().toNanos();
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                AuditLog first = queue.poll(flushNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    AuditLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        // Shutdown: flush batch dở dang và mọi thứ còn trong buffer
+        queue.drainTo(batch);
+        Thread.interrupted();
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            write(batch.subList(from, Math.min(batch.size(), from + batchSize)));
+        }
+    }
+
+    private void write(List<AuditLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (int attempt = 1; attempt <= 2; attempt++) {
+            try {
+                flushTimer.record(() -> mongoTemplate.insert(batch, AuditLog.class));
+                written.increment(batch.size());
+                log.debug("Wrote {} audit logs", batch.size());
+                return;
+            } catch (Exception e) {
+                log.warn("Audit batch of {} failed (attempt {}): {}", batch.size(), attempt, e.getMessage());
+            }
+        }
+        droppedWriteFailed.increment(batch.size());
+        log.error("Dropped {} audit logs after write failures", batch.size());
+    }
+}
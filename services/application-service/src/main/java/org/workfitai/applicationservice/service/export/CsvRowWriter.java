@@ -0,0 +1,72 @@
+package org.workfitai.applicationservice.service.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * RFC 4180 CSV writer, optionally gzip-compressed.
+ */
+public class CsvRowWriter implements ExportRowWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+
+    public CsvRowWriter(OutputStream out, boolean gzip) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+        this.writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    @Override
+    public void writeRow(List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(values.get(i)));
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Escape CSV special characters and prevent formula injection.
+     *
+     * Formula injection attack prevention: Excel/LibreOffice auto-execute formulas
+     * starting with =, +, -, @, or |. We prefix these with a single quote to
+     * neutralize.
+     *
+     * @param value Raw value
+     * @return Escaped value safe for CSV export
+     */
+    static String escape(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+
+        // Prevent formula injection - escape formula-starting characters
+        char firstChar = value.charAt(0);
+        if (firstChar == '=' || firstChar == '+' || firstChar == '-' ||
+                firstChar == '@' || firstChar == '|') {
+            value = "'" + value; // Prefix with single quote to neutralize
+        }
+
+        // If contains comma, quote, or newline, wrap in quotes and escape quotes
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            value = value.replace("\"", "\"\"");
+            return "\"" + value + "\"";
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,19 @@
+package org.workfitai.applicationservice.service.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes export rows incrementally to an output stream.
+ *
+ * Implementations never buffer the whole file; {@link #close()} writes the
+ * format trailer (gzip footer, XLSX closing tags) and flushes.
+ */
+public interface ExportRowWriter extends Closeable {
+
+    /**
+     * Write one row (header or data). Null values are written as empty cells.
+     */
+    void writeRow(List<String> values) throws IOException;
+}
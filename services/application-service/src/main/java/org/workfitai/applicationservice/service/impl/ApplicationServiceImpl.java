@@ -1,12 +1,12 @@
 package org.workfitai.applicationservice.service.impl;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.workfitai.applicationservice.constants.Messages;
@@ -22,9 +22,12 @@ import org.workfitai.applicationservice.mapper.ApplicationMapper;
 import org.workfitai.applicationservice.model.Application;
 import org.workfitai.applicationservice.model.enums.ApplicationStatus;
 import org.workfitai.applicationservice.port.outbound.EventPublisherPort;
+import org.workfitai.applicationservice.repository.ApplicationIdentityMap;
+import org.workfitai.applicationservice.repository.ApplicationListingQuery;
 import org.workfitai.applicationservice.repository.ApplicationRepository;
 import org.workfitai.applicationservice.security.ApplicationSecurity;
 import org.workfitai.applicationservice.service.IApplicationService;
+import org.workfitai.applicationservice.util.ListingPage;
 import org.workfitai.applicationservice.validation.StatusTransitionValidator;
 
 import lombok.RequiredArgsConstructor;
@@ -45,6 +48,8 @@ import lombok.extern.slf4j.Slf4j;
 public class ApplicationServiceImpl implements IApplicationService {
 
     private final ApplicationRepository applicationRepository;
+    private final ApplicationIdentityMap applicationIdentityMap;
+    private final ApplicationListingQuery listingQuery;
     private final ApplicationMapper applicationMapper;
     private final EventPublisherPort eventPublisher;
     private final StatusTransitionValidator statusTransitionValidator;
@@ -54,51 +59,50 @@ public class ApplicationServiceImpl implements IApplicationService {
     public ApplicationResponse getApplicationById(String id) {
         log.debug(Messages.Log.FETCHING_APPLICATION, id);
 
-        Application application = applicationRepository.findByIdAndDeletedAtIsNull(id)
+        Application application = applicationIdentityMap.findActive(id)
                 .orElseThrow(() -> new NotFoundException(Messages.Error.APPLICATION_NOT_FOUND));
 
         return applicationMapper.toResponse(application);
     }
 
     @Override
-    public ResultPaginationDTO<ApplicationResponse> getMyApplications(String username, Pageable pageable) {
+    public ResultPaginationDTO<ApplicationResponse> getMyApplications(String username, ListingPage page) {
         log.debug(Messages.Log.FETCHING_USER_APPLICATIONS, username);
 
-        Page<Application> page = applicationRepository.findByUsernameAndDeletedAtIsNull(username, pageable);
-        return buildPaginatedResponse(page);
+        return listingQuery.find(where("username").is(username).and("deletedAt").isNull(), page)
+                .map(applicationMapper::toResponse);
     }
 
     @Override
     public ResultPaginationDTO<ApplicationResponse> getMyApplicationsByStatus(
             String username,
             ApplicationStatus status,
-            Pageable pageable) {
+            ListingPage page) {
 
         log.debug("Fetching applications for user {} with status {}", username, status);
 
-        Page<Application> page = applicationRepository.findByUsernameAndStatusAndDeletedAtIsNull(username, status,
-                pageable);
-        return buildPaginatedResponse(page);
+        return listingQuery.find(where("username").is(username).and("status").is(status).and("deletedAt").isNull(),
+                page).map(applicationMapper::toResponse);
     }
 
     @Override
-    public ResultPaginationDTO<ApplicationResponse> getApplicationsByJob(String jobId, Pageable pageable) {
+    public ResultPaginationDTO<ApplicationResponse> getApplicationsByJob(String jobId, ListingPage page) {
         log.debug("Fetching applications for job: {}", jobId);
 
-        Page<Application> page = applicationRepository.findByJobIdAndDeletedAtIsNull(jobId, pageable);
-        return buildPaginatedResponse(page);
+        return listingQuery.find(where("jobId").is(jobId).and("deletedAt").isNull(), page)
+                .map(applicationMapper::toResponse);
     }
 
     @Override
     public ResultPaginationDTO<ApplicationResponse> getApplicationsByJobAndStatus(
             String jobId,
             ApplicationStatus status,
-            Pageable pageable) {
+            ListingPage page) {
 
         log.debug("Fetching applications for job {} with status {}", jobId, status);
 
-        Page<Application> page = applicationRepository.findByJobIdAndStatusAndDeletedAtIsNull(jobId, status, pageable);
-        return buildPaginatedResponse(page);
+        return listingQuery.find(where("jobId").is(jobId).and("status").is(status).and("deletedAt").isNull(), page)
+                .map(applicationMapper::toResponse);
     }
 
     @Override
@@ -111,7 +115,7 @@ public class ApplicationServiceImpl implements IApplicationService {
     public ApplicationResponse updateStatus(String id, ApplicationStatus newStatus, String updatedBy) {
         log.info(Messages.Log.UPDATING_STATUS, id, newStatus);
 
-        Application application = applicationRepository.findByIdAndDeletedAtIsNull(id)
+        Application application = applicationIdentityMap.findActive(id)
                 .orElseThrow(() -> new NotFoundException(Messages.Error.APPLICATION_NOT_FOUND));
 
         ApplicationStatus previousStatus = application.getStatus();
@@ -141,7 +145,7 @@ public class ApplicationServiceImpl implements IApplicationService {
     public void withdrawApplication(String id, String username) {
         log.info(Messages.Log.WITHDRAWING_APPLICATION, username, id);
 
-        Application application = applicationRepository.findByIdAndDeletedAtIsNull(id)
+        Application application = applicationIdentityMap.findActive(id)
                 .orElseThrow(() -> new NotFoundException(Messages.Error.APPLICATION_NOT_FOUND));
 
         if (!application.getUsername().equals(username)) {
@@ -189,7 +193,7 @@ public class ApplicationServiceImpl implements IApplicationService {
             org.springframework.security.core.Authentication authentication) {
         log.debug("Fetching status history for application: {}", id);
 
-        Application application = applicationRepository.findByIdAndDeletedAtIsNull(id)
+        Application application = applicationIdentityMap.findActive(id)
                 .orElseThrow(() -> new NotFoundException(Messages.Error.APPLICATION_NOT_FOUND));
 
         // Verify user can view this application using ApplicationSecurity helper
@@ -218,7 +222,7 @@ public class ApplicationServiceImpl implements IApplicationService {
             org.springframework.security.core.Authentication authentication) {
         log.debug("Fetching public notes for application: {}", id);
 
-        Application application = applicationRepository.findByIdAndDeletedAtIsNull(id)
+        Application application = applicationIdentityMap.findActive(id)
                 .orElseThrow(() -> new NotFoundException(Messages.Error.APPLICATION_NOT_FOUND));
 
         // Verify user can view this application using ApplicationSecurity helper
@@ -263,59 +267,38 @@ public class ApplicationServiceImpl implements IApplicationService {
 
     private void publishStatusChangedEvent(Application application, ApplicationStatus previousStatus,
             String updatedBy) {
-        try {
-            eventPublisher.publishStatusChanged(
-                    ApplicationStatusChangedEvent.builder()
-                            .eventId(UUID.randomUUID().toString())
-                            .eventType("STATUS_CHANGED")
-                            .timestamp(Instant.now())
-                            .data(ApplicationStatusChangedEvent.StatusChangeData.builder()
-                                    .applicationId(application.getId())
-                                    .username(application.getUsername())
-                                    .jobId(application.getJobId())
-                                    .previousStatus(previousStatus)
-                                    .newStatus(application.getStatus())
-                                    .changedBy(updatedBy)
-                                    .changedAt(Instant.now())
-                                    .build())
-                            .build());
-        } catch (Exception e) {
-            // Fire-and-forget: log but don't fail the operation
-            log.warn("Failed to publish status changed event (non-critical): {}", e.getMessage());
-        }
+        // Outbox insert: part of the status update's unit of work
+        eventPublisher.publishStatusChanged(
+                ApplicationStatusChangedEvent.builder()
+                        .eventId(UUID.randomUUID().toString())
+                        .eventType("STATUS_CHANGED")
+                        .timestamp(Instant.now())
+                        .data(ApplicationStatusChangedEvent.StatusChangeData.builder()
+                                .applicationId(application.getId())
+                                .username(application.getUsername())
+                                .jobId(application.getJobId())
+                                .previousStatus(previousStatus)
+                                .newStatus(application.getStatus())
+                                .changedBy(updatedBy)
+                                .changedAt(Instant.now())
+                                .build())
+                        .build());
     }
 
     private void publishApplicationWithdrawnEvent(String applicationId, String username, String jobId) {
-        try {
-            eventPublisher.publishApplicationWithdrawn(
-                    ApplicationWithdrawnEvent.builder()
-                            .eventId(UUID.randomUUID().toString())
-                            .eventType("APPLICATION_WITHDRAWN")
-                            .timestamp(Instant.now())
-                            .data(ApplicationWithdrawnEvent.WithdrawalData.builder()
-                                    .applicationId(applicationId)
-                                    .username(username)
-                                    .jobId(jobId)
-                                    .withdrawnAt(Instant.now())
-                                    .build())
-                            .build());
-        } catch (Exception e) {
-            // Fire-and-forget: log but don't fail the operation
-            log.warn("Failed to publish application withdrawn event (non-critical): {}", e.getMessage());
-        }
-    }
-
-    private ResultPaginationDTO<ApplicationResponse> buildPaginatedResponse(Page<Application> page) {
-        var responses = page.getContent().stream()
-                .map(applicationMapper::toResponse)
-                .toList();
-
-        return ResultPaginationDTO.of(
-                responses,
-                page.getNumber(),
-                page.getSize(),
-                page.getTotalElements(),
-                page.getTotalPages());
+        // Outbox insert: part of the withdrawal's unit of work
+        eventPublisher.publishApplicationWithdrawn(
+                ApplicationWithdrawnEvent.builder()
+                        .eventId(UUID.randomUUID().toString())
+                        .eventType("APPLICATION_WITHDRAWN")
+                        .timestamp(Instant.now())
+                        .data(ApplicationWithdrawnEvent.WithdrawalData.builder()
+                                .applicationId(applicationId)
+                                .username(username)
+                                .jobId(jobId)
+                                .withdrawnAt(Instant.now())
+                                .build())
+                        .build());
     }
 
 }
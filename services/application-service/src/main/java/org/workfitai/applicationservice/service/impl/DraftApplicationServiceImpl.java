@@ -17,6 +17,7 @@ import org.workfitai.applicationservice.mapper.ApplicationMapper;
 import org.workfitai.applicationservice.model.Application;
 import org.workfitai.applicationservice.model.enums.ApplicationStatus;
 import org.workfitai.applicationservice.port.outbound.FileStoragePort;
+import org.workfitai.applicationservice.repository.ApplicationIdentityMap;
 import org.workfitai.applicationservice.repository.ApplicationRepository;
 import org.workfitai.applicationservice.saga.ApplicationSagaOrchestrator;
 import org.workfitai.applicationservice.service.IDraftApplicationService;
@@ -34,6 +35,7 @@ import lombok.extern.slf4j.Slf4j;
 public class DraftApplicationServiceImpl implements IDraftApplicationService {
 
     private final ApplicationRepository applicationRepository;
+    private final ApplicationIdentityMap applicationIdentityMap;
     private final ApplicationMapper applicationMapper;
     private final FileStoragePort fileStoragePort;
     private final ApplicationSagaOrchestrator sagaOrchestrator;
@@ -103,7 +105,7 @@ public class DraftApplicationServiceImpl implements IDraftApplicationService {
         log.info("Updating draft application: id={}, user={}", id, username);
 
         // Find draft and verify ownership
-        Application draft = applicationRepository.findByIdAndDeletedAtIsNull(id)
+        Application draft = applicationIdentityMap.findActive(id)
                 .orElseThrow(() -> new NotFoundException("Draft application not found"));
 
         // Verify ownership
@@ -162,7 +164,7 @@ public class DraftApplicationServiceImpl implements IDraftApplicationService {
         log.info("Submitting draft application: id={}, user={}", id, username);
 
         // Find draft and verify ownership
-        Application draft = applicationRepository.findByIdAndDeletedAtIsNull(id)
+        Application draft = applicationIdentityMap.findActive(id)
                 .orElseThrow(() -> new NotFoundException("Draft application not found"));
 
         // Verify ownership
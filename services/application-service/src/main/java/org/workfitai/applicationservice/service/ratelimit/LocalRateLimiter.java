@@ -0,0 +1,182 @@
+package org.workfitai.applicationservice.service.ratelimit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory sliding-window limiter.
+ *
+ * Each key keeps the timestamps of its counted requests in a fixed
+ * long[limit] ring buffer: a check drops expired entries from the head and
+ * appends at the tail, so it is O(1) amortized and allocates nothing once
+ * the window exists. Windows left empty are removed by {@link #evictIdle()};
+ * a window is retired under its own lock before removal, so a request racing
+ * with eviction moves to a fresh window instead of being counted on a
+ * discarded one.
+ *
+ * Limits hold per instance only; use RedisRateLimiter for cluster-wide limits.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private final Map<String, Map<String, Window>> windows = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public LocalRateLimiter() {
+        this(Clock.systemUTC());
+    }
+
+    public LocalRateLimiter(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String operation, String key, int limit, Duration window) {
+        while (true) {
+            RateLimitDecision decision = window(operation, key, limit, window).acquire(clock.millis());
+            if (decision != null) {
+                return decision;
+            }
+            // evictIdle() vừa retire window này → lấy window mới
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public int remaining(String operation, String key, int limit, Duration window) {
+        Window existing = existing(operation, key);
+        if (existing == null) {
+            return limit;
+        }
+        return Math.max(0, limit - existing.count(clock.millis()));
+    }
+
+    @Override
+    public Duration resetAfter(String operation, String key, Duration window) {
+        Window existing = existing(operation, key);
+        return existing != null ? existing.resetAfter(clock.millis()) : Duration.ZERO;
+    }
+
+    @Override
+    public void clear(String operation) {
+        windows.remove(operation);
+    }
+
+    @Override
+    public int evictIdle() {
+        long now = clock.millis();
+        int removed = 0;
+        for (Map<String, Window> byKey : windows.values()) {
+            for (Map.Entry<String, Window> entry : byKey.entrySet()) {
+                if (entry.getValue().retireIfIdle(now) && byKey.remove(entry.getKey(), entry.getValue())) {
+                    removed++;
+                }
+            }
+        }
+        // map theo operation giữ lại: số operation cố định, xoá đi sẽ race với computeIfAbsent trong window()
+        return removed;
+    }
+
+    @Override
+    public long trackedKeys() {
+        long keys = 0;
+        for (Map<String, Window> byKey : windows.values()) {
+            keys += byKey.size();
+        }
+        return keys;
+    }
+
+    @Override
+    public String backend() {
+        return "local";
+    }
+
+    private Window window(String operation, String key, int limit, Duration window) {
+        Map<String, Window> byKey = windows.computeIfAbsent(operation, op -> new ConcurrentHashMap<>());
+        Window existing = byKey.get(key);
+        long windowMs = window.toMillis();
+        if (existing != null && existing.matches(limit, windowMs)) {
+            return existing;
+        }
+        // Chưa có hoặc limit/window đổi → tạo window mới
+        Window created = new Window(limit, windowMs);
+        if (existing == null) {
+            Window raced = byKey.putIfAbsent(key, created);
+            return raced != null ? raced : created;
+        }
+        byKey.put(key, created);
+        return created;
+    }
+
+    private Window existing(String operation, String key) {
+        Map<String, Window> byKey = windows.get(operation);
+        return byKey != null ? byKey.get(key) : null;
+    }
+
+    /**
+     * Ring buffer of request timestamps (epoch millis), oldest at head.
+     */
+    private static final class Window {
+        private final long[] slots;
+        private final long windowMs;
+        private int head;
+        private int count;
+        private boolean retired;
+
+        private Window(int limit, long windowMs) {
+            this.slots = new long[Math.max(limit, 0)];
+            this.windowMs = windowMs;
+        }
+
+        boolean matches(int limit, long windowMs) {
+            return slots.length == limit && this.windowMs == windowMs;
+        }
+
+        /**
+         * @return null when the window was retired by evictIdle(); the caller retries on a fresh one
+         */
+        synchronized RateLimitDecision acquire(long now) {
+            if (retired) {
+                return null;
+            }
+            expire(now);
+            if (count == slots.length) {
+                return new RateLimitDecision(false, 0, resetAfterLocked(now));
+            }
+            slots[(head + count) % slots.length] = now;
+            count++;
+            return new RateLimitDecision(true, slots.length - count, resetAfterLocked(now));
+        }
+
+        synchronized int count(long now) {
+            expire(now);
+            return count;
+        }
+
+        synchronized boolean retireIfIdle(long now) {
+            expire(now);
+            if (count == 0) {
+                retired = true;
+            }
+            return retired;
+        }
+
+        synchronized Duration resetAfter(long now) {
+            expire(now);
+            return resetAfterLocked(now);
+        }
+
+        private Duration resetAfterLocked(long now) {
+            return count == 0 ? Duration.ZERO : Duration.ofMillis(Math.max(0, slots[head] + windowMs - now));
+        }
+
+        private void expire(long now) {
+            long windowStart = now - windowMs;
+            while (count > 0 && slots[head] < windowStart) {
+                head = (head + 1) % slots.length;
+                count--;
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.workfitai.applicationservice.service.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a rate limit check.
+ *
+ * @param allowed    Whether the request was admitted (and counted)
+ * @param remaining  Requests still allowed in the current window
+ * @param resetAfter Time until the oldest counted request leaves the window
+ */
+public record RateLimitDecision(boolean allowed, int remaining, Duration resetAfter) {
+}
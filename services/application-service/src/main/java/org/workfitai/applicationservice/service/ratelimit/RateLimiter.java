@@ -0,0 +1,53 @@
+package org.workfitai.applicationservice.service.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Sliding-window rate limiter: at most {@code limit} requests per key in any
+ * {@code window}-long interval.
+ *
+ * Implementations:
+ * - LocalRateLimiter: in-memory, per instance
+ * - RedisRateLimiter: shared by all replicas
+ *
+ * Selected with app.rate-limit.backend (see RateLimitConfig).
+ */
+public interface RateLimiter {
+
+    /**
+     * Count a request if it fits in the window.
+     */
+    RateLimitDecision tryAcquire(String operation, String key, int limit, Duration window);
+
+    /**
+     * Requests still allowed, without counting one.
+     */
+    int remaining(String operation, String key, int limit, Duration window);
+
+    /**
+     * Time until the oldest counted request leaves the window (zero if none).
+     */
+    Duration resetAfter(String operation, String key, Duration window);
+
+    /**
+     * Forget every window of an operation.
+     */
+    void clear(String operation);
+
+    /**
+     * Drop windows with no request left in them.
+     *
+     * @return number of keys removed
+     */
+    int evictIdle();
+
+    /**
+     * Number of keys currently holding a window (metrics).
+     */
+    long trackedKeys();
+
+    /**
+     * Backend name for logs and metric tags.
+     */
+    String backend();
+}
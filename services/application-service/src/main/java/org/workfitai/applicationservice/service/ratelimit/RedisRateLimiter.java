@@ -0,0 +1,179 @@
+package org.workfitai.applicationservice.service.ratelimit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Redis sliding-window limiter shared by all replicas.
+ *
+ * Each key is a sorted set of request timestamps; one Lua script trims
+ * expired entries, counts, adds and sets the TTL atomically, using the Redis
+ * server clock so replicas with drifting clocks agree. A per-operation index
+ * (key → last request) backs the key-cardinality metric and clear().
+ *
+ * Keys: {prefix}{operation}:w:{key} and {prefix}{operation}:keys, with the
+ * operation as hash tag so both live in the same Redis Cluster slot.
+ *
+ * If Redis is unreachable the check falls back to an in-memory limiter
+ * (fail open per instance) instead of rejecting every request.
+ */
+@Slf4j
+@SuppressWarnings("rawtypes")
+public class RedisRateLimiter implements RateLimiter {
+
+    // KEYS[1] window, KEYS[2] index; ARGV[1] limit, ARGV[2] window ms, ARGV[3] request id, ARGV[4] key
+    private static final RedisScript<List> ACQUIRE = new DefaultRedisScript<>("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            local limit = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. (now - window))
+            local count = redis.call('ZCARD', KEYS[1])
+            local allowed = 0
+            if count < limit then
+              redis.call('ZADD', KEYS[1], now, now .. '-' .. ARGV[3])
+              count = count + 1
+              allowed = 1
+            end
+            redis.call('PEXPIRE', KEYS[1], window)
+            redis.call('ZADD', KEYS[2], now, ARGV[4])
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', '(' .. (now - window))
+            redis.call('PEXPIRE', KEYS[2], window)
+            local reset = 0
+            local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+            if oldest[2] then
+              reset = tonumber(oldest[2]) + window - now
+            end
+            return {allowed, math.max(limit - count, 0), reset}
+            """, List.class);
+
+    // KEYS[1] window; ARGV[1] window ms → {count, reset ms}
+    private static final RedisScript<List> PEEK = new DefaultRedisScript<>("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            local window = tonumber(ARGV[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. (now - window))
+            local count = redis.call('ZCARD', KEYS[1])
+            local reset = 0
+            local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+            if oldest[2] then
+              reset = tonumber(oldest[2]) + window - now
+            end
+            return {count, reset}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final RateLimiter fallback;
+    private final Set<String> operations = ConcurrentHashMap.newKeySet();
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate, String keyPrefix, RateLimiter fallback) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String operation, String key, int limit, Duration window) {
+        operations.add(operation);
+        try {
+            List<?> result = redisTemplate.execute(ACQUIRE,
+                    List.of(windowKey(operation, key), indexKey(operation)),
+                    String.valueOf(limit), String.valueOf(window.toMillis()), UUID.randomUUID().toString(), key);
+            return new RateLimitDecision(number(result, 0) == 1, (int) number(result, 1),
+                    Duration.ofMillis(number(result, 2)));
+        } catch (RuntimeException e) {
+            log.warn("Redis rate limiter unavailable, using local limits: {}", e.getMessage());
+            return fallback.tryAcquire(operation, key, limit, window);
+        }
+    }
+
+    @Override
+    public int remaining(String operation, String key, int limit, Duration window) {
+        try {
+            List<?> result = peek(operation, key, window);
+            return (int) Math.max(0, limit - number(result, 0));
+        } catch (RuntimeException e) {
+            return fallback.remaining(operation, key, limit, window);
+        }
+    }
+
+    @Override
+    public Duration resetAfter(String operation, String key, Duration window) {
+        try {
+            return Duration.ofMillis(number(peek(operation, key, window), 1));
+        } catch (RuntimeException e) {
+            return fallback.resetAfter(operation, key, window);
+        }
+    }
+
+    @Override
+    public void clear(String operation) {
+        fallback.clear(operation);
+        try {
+            Set<String> keys = redisTemplate.opsForZSet().range(indexKey(operation), 0, -1);
+            List<String> toDelete = new ArrayList<>();
+            toDelete.add(indexKey(operation));
+            if (keys != null) {
+                keys.forEach(key -> toDelete.add(windowKey(operation, key)));
+            }
+            redisTemplate.delete(toDelete);
+        } catch (RuntimeException e) {
+            // windows vẫn tự hết hạn theo PEXPIRE
+            log.warn("Redis rate limiter unavailable, could not clear {}: {}", operation, e.getMessage());
+        }
+    }
+
+    /**
+     * Redis expires idle windows itself (PEXPIRE); only the fallback needs sweeping.
+     */
+    @Override
+    public int evictIdle() {
+        return fallback.evictIdle();
+    }
+
+    @Override
+    public long trackedKeys() {
+        long keys = 0;
+        try {
+            for (String operation : operations) {
+                Long size = redisTemplate.opsForZSet().zCard(indexKey(operation));
+                keys += size != null ? size : 0;
+            }
+        } catch (RuntimeException e) {
+            return fallback.trackedKeys();
+        }
+        return keys;
+    }
+
+    @Override
+    public String backend() {
+        return "redis";
+    }
+
+    private List<?> peek(String operation, String key, Duration window) {
+        return redisTemplate.execute(PEEK, List.of(windowKey(operation, key)), String.valueOf(window.toMillis()));
+    }
+
+    private String windowKey(String operation, String key) {
+        return keyPrefix + "{" + operation + "}:w:" + key;
+    }
+
+    private String indexKey(String operation) {
+        return keyPrefix + "{" + operation + "}:keys";
+    }
+
+    private static long number(List<?> result, int index) {
+        return ((Number) result.get(index)).longValue();
+    }
+}
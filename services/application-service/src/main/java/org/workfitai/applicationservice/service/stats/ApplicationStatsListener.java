@@ -0,0 +1,50 @@
+package org.workfitai.applicationservice.service.stats;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+import org.workfitai.applicationservice.model.Application;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feeds every Application save / delete into the stats read model.
+ *
+ * Runs in the writing thread (and transaction, when enabled). A projection
+ * failure is logged and never fails the business write; the read model can
+ * be recomputed with ApplicationStatsProjector.rebuild().
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ApplicationStatsListener extends AbstractMongoEventListener<Application> {
+
+    private final ApplicationStatsProjector projector;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Application> event) {
+        try {
+            projector.onSaved(event.getSource());
+        } catch (Exception e) {
+            log.warn("Failed to update application stats for {}: {}", event.getSource().getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Application> event) {
+        Object id = event.getSource().get("_id");
+        if (id == null || id instanceof Document) {
+            // Delete theo điều kiện khác _id → không biết bản ghi nào, cần rebuild
+            log.warn("Application delete by query {} not projected into stats; rebuild required", event.getSource());
+            return;
+        }
+        try {
+            projector.onDeleted(id.toString());
+        } catch (Exception e) {
+            log.warn("Failed to update application stats for deleted {}: {}", id, e.getMessage());
+        }
+    }
+}
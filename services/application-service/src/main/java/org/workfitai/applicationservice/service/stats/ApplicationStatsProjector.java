@@ -0,0 +1,487 @@
+package org.workfitai.applicationservice.service.stats;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.workfitai.applicationservice.exception.ApplicationConflictException;
+import org.workfitai.applicationservice.model.Application;
+import org.workfitai.applicationservice.model.ApplicationStats;
+import org.workfitai.applicationservice.model.ApplicationStats.Scope;
+import org.workfitai.applicationservice.model.ApplicationStatsEntry;
+import org.workfitai.applicationservice.model.enums.ApplicationStatus;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the application stats read model (application_stats).
+ *
+ * On every application write the application's previous contribution
+ * (application_stats_entries) is swapped for the new one and only the
+ * difference is $inc'ed into the GLOBAL, COMPANY, JOB and HR scopes:
+ * create, status change, withdrawal, soft delete, restore, reassignment.
+ *
+ * Distinct counts (jobs / companies with active applications) move when a
+ * JOB or COMPANY scope crosses zero.
+ *
+ * {@link #rebuild()} recomputes everything from the applications collection;
+ * it also runs at startup when the read model is empty. One rebuild runs at
+ * a time across instances, under a lease in 'application_stats_rebuild_lock'.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ApplicationStatsProjector {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final String LOCK_COLLECTION = "application_stats_rebuild_lock";
+    private static final String LOCK_ID = "stats-rebuild";
+    // Gia hạn sau mỗi batch, nên chỉ cần đủ dài cho một batch
+    private static final Duration REBUILD_LEASE = Duration.ofMinutes(5);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * Apply an inserted / updated application.
+     */
+    public void onSaved(Application application) {
+        if (application.getId() == null) {
+            return;
+        }
+        ApplicationStatsEntry next = toEntry(application);
+        ApplicationStatsEntry previous = mongoTemplate.findAndReplace(query(where("_id").is(application.getId())),
+                next, FindAndReplaceOptions.options().upsert());
+        apply(previous, next);
+    }
+
+    /**
+     * Apply a batch of applications written without going through save()
+     * (e.g. a bulkWrite): previous entries are read with one $in query, the
+     * new ones replaced in one bulk write, and the merged deltas $inc'ed once
+     * per scope.
+     */
+    public void onSavedAll(Collection<Application> applications) {
+        Map<String, ApplicationStatsEntry> next = new LinkedHashMap<>();
+        for (Application application : applications) {
+            if (application.getId() != null) {
+                next.put(application.getId(), toEntry(application));
+            }
+        }
+        if (next.isEmpty()) {
+            return;
+        }
+
+        Map<String, ApplicationStatsEntry> previous = new HashMap<>();
+        for (ApplicationStatsEntry entry : mongoTemplate.find(query(where("_id").in(next.keySet())),
+                ApplicationStatsEntry.class)) {
+            previous.put(entry.getId(), entry);
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ApplicationStatsEntry.class);
+        Map<String, ScopeDelta> deltas = new LinkedHashMap<>();
+        for (ApplicationStatsEntry entry : next.values()) {
+            bulk.replaceOne(query(where("_id").is(entry.getId())), entry, FindAndReplaceOptions.options().upsert());
+            ApplicationStatsEntry before = previous.get(entry.getId());
+            if (before != null) {
+                contribute(deltas, before, -1);
+            }
+            contribute(deltas, entry, 1);
+        }
+        bulk.execute();
+        applyDeltas(deltas);
+    }
+
+    /**
+     * Apply a hard-deleted application.
+     */
+    public void onDeleted(String applicationId) {
+        ApplicationStatsEntry previous = mongoTemplate.findAndRemove(query(where("_id").is(applicationId)),
+                ApplicationStatsEntry.class);
+        if (previous != null) {
+            apply(previous, null);
+        }
+    }
+
+    /**
+     * Recompute the read model from scratch by streaming the applications collection.
+     * Entries are upserted, so application writes racing with the rebuild
+     * cannot abort it, but their deltas may be counted twice or missed; run
+     * it when traffic is low.
+     *
+     * @return number of applications projected
+     * @throws ApplicationConflictException if a rebuild is already running on any instance
+     */
+    public long rebuild() {
+        return rebuild(false);
+    }
+
+    private long rebuild(boolean onlyIfEmpty) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new ApplicationConflictException("Statistics rebuild already in progress");
+        }
+        try {
+            if (!acquireLease()) {
+                throw new ApplicationConflictException("Statistics rebuild already in progress");
+            }
+            try {
+                // Instance khác có thể vừa rebuild xong trước khi mình lấy được lease
+                if (onlyIfEmpty && !readModelEmpty()) {
+                    return 0;
+                }
+                return project();
+            } finally {
+                releaseLease();
+            }
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Clears and recomputes both collections; extends the lease after every batch.
+     */
+    private long project() {
+        long startedAt = System.currentTimeMillis();
+        mongoTemplate.remove(new Query(), ApplicationStatsEntry.class);
+        mongoTemplate.remove(new Query(), ApplicationStats.class);
+
+        Map<String, ScopeDelta> totals = new LinkedHashMap<>();
+        List<ApplicationStatsEntry> buffer = new ArrayList<>(REBUILD_BATCH_SIZE);
+        long count = 0;
+
+        Query all = new Query().cursorBatchSize(REBUILD_BATCH_SIZE);
+        all.fields().include("companyId", "jobId", "jobSnapshot.title", "assignedTo", "status", "deletedAt",
+                "isDraft", "submittedAt", "createdAt", "updatedAt", "statusHistory");
+        try (Stream<Application> applications = mongoTemplate.stream(all, Application.class)) {
+            for (Application application : (Iterable<Application>) applications::iterator) {
+                ApplicationStatsEntry entry = toEntry(application);
+                contribute(totals, entry, 1);
+                buffer.add(entry);
+                count++;
+                if (buffer.size() >= REBUILD_BATCH_SIZE) {
+                    upsertEntries(buffer);
+                    if (!acquireLease()) {
+                        throw new ApplicationConflictException("Statistics rebuild lease lost to another instance");
+                    }
+                }
+            }
+        }
+        upsertEntries(buffer);
+
+        // Distinct counts: scope nào có active > 0 thì được đếm một lần
+        List<ScopeDelta> scopes = new ArrayList<>(totals.values());
+        for (ScopeDelta delta : scopes) {
+            if (delta.count("active") > 0) {
+                distinctTransition(totals, delta, 1);
+            }
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ApplicationStats.class);
+        int pending = 0;
+        for (ScopeDelta delta : totals.values()) {
+            bulk.upsert(query(where("_id").is(delta.id)), delta.toUpdate());
+            if (++pending >= REBUILD_BATCH_SIZE) {
+                bulk.execute();
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ApplicationStats.class);
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+        }
+
+        log.info("📊 Application stats rebuilt: applications={}, scopes={}, took={}ms",
+                count, totals.size(), System.currentTimeMillis() - startedAt);
+        return count;
+    }
+
+    /**
+     * Upsert (not insert) so an entry onSaved() wrote meanwhile does not
+     * abort the rebuild with a duplicate key; clears the buffer.
+     */
+    private void upsertEntries(List<ApplicationStatsEntry> buffer) {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ApplicationStatsEntry.class);
+        for (ApplicationStatsEntry entry : buffer) {
+            bulk.replaceOne(query(where("_id").is(entry.getId())), entry, FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+        buffer.clear();
+    }
+
+    /**
+     * First deployment: build the read model if it doesn't exist yet. Only
+     * one instance rebuilds; the others see the lease taken and skip.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        try {
+            if (readModelEmpty() && mongoTemplate.exists(new Query(), Application.class)) {
+                log.info("Application stats read model is empty, rebuilding");
+                rebuild(true);
+            }
+        } catch (ApplicationConflictException e) {
+            log.info("Application stats rebuild already running on another instance");
+        } catch (Exception e) {
+            log.warn("Initial application stats rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean readModelEmpty() {
+        return !mongoTemplate.exists(query(where("_id").is(ApplicationStats.GLOBAL)), ApplicationStats.class);
+    }
+
+    /**
+     * Take or extend the rebuild lease; false if another instance holds it.
+     */
+    private boolean acquireLease() {
+        Instant now = Instant.now();
+        Query query = new Query(where("_id").is(LOCK_ID)
+                .orOperator(where("expiresAt").lt(now), where("owner").is(instanceId)));
+        Update update = new Update()
+                .set("owner", instanceId)
+                .set("expiresAt", now.plus(REBUILD_LEASE));
+        try {
+            mongoTemplate.upsert(query, update, LOCK_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Lock đang thuộc instance khác
+            return false;
+        }
+    }
+
+    private void releaseLease() {
+        try {
+            mongoTemplate.updateFirst(new Query(where("_id").is(LOCK_ID).and("owner").is(instanceId)),
+                    new Update().set("expiresAt", Instant.EPOCH), LOCK_COLLECTION);
+        } catch (Exception e) {
+            log.debug("Could not release stats rebuild lease: {}", e.getMessage());
+        }
+    }
+
+    // ==================== Delta application ====================
+
+    private void apply(ApplicationStatsEntry previous, ApplicationStatsEntry next) {
+        Map<String, ScopeDelta> deltas = new LinkedHashMap<>();
+        if (previous != null) {
+            contribute(deltas, previous, -1);
+        }
+        if (next != null) {
+            contribute(deltas, next, 1);
+        }
+        applyDeltas(deltas);
+    }
+
+    private void applyDeltas(Map<String, ScopeDelta> deltas) {
+        Map<String, ScopeDelta> transitions = new LinkedHashMap<>();
+        for (ScopeDelta delta : deltas.values()) {
+            if (delta.isEmpty()) {
+                continue;
+            }
+            ApplicationStats after = mongoTemplate.findAndModify(query(where("_id").is(delta.id)), delta.toUpdate(),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), ApplicationStats.class);
+
+            long activeDelta = delta.count("active");
+            if (after != null && activeDelta != 0) {
+                long before = after.getActive() - activeDelta;
+                if (before <= 0 && after.getActive() > 0) {
+                    distinctTransition(transitions, delta, 1);
+                } else if (before > 0 && after.getActive() <= 0) {
+                    distinctTransition(transitions, delta, -1);
+                }
+            }
+        }
+
+        for (ScopeDelta delta : transitions.values()) {
+            if (!delta.isEmpty()) {
+                mongoTemplate.upsert(query(where("_id").is(delta.id)), delta.toUpdate(), ApplicationStats.class);
+            }
+        }
+    }
+
+    /**
+     * A JOB or COMPANY scope gained its first / lost its last active application.
+     */
+    private static void distinctTransition(Map<String, ScopeDelta> target, ScopeDelta delta, int sign) {
+        if (delta.scope == Scope.JOB) {
+            scope(target, ApplicationStats.GLOBAL, Scope.GLOBAL).inc("activeJobs", sign);
+            if (delta.companyId != null) {
+                scope(target, "company:" + delta.companyId, Scope.COMPANY)
+                        .meta("companyId", delta.companyId)
+                        .inc("activeJobs", sign);
+            }
+        } else if (delta.scope == Scope.COMPANY) {
+            scope(target, ApplicationStats.GLOBAL, Scope.GLOBAL).inc("companies", sign);
+        }
+    }
+
+    private static void contribute(Map<String, ScopeDelta> deltas, ApplicationStatsEntry entry, int sign) {
+        List<ScopeDelta> scopes = new ArrayList<>(4);
+        scopes.add(scope(deltas, ApplicationStats.GLOBAL, Scope.GLOBAL));
+        if (entry.getCompanyId() != null) {
+            scopes.add(scope(deltas, "company:" + entry.getCompanyId(), Scope.COMPANY)
+                    .meta("companyId", entry.getCompanyId()));
+            if (entry.getAssignedTo() != null) {
+                scopes.add(scope(deltas, "hr:" + entry.getCompanyId() + ":" + entry.getAssignedTo(), Scope.HR)
+                        .meta("companyId", entry.getCompanyId())
+                        .meta("hrUsername", entry.getAssignedTo()));
+            }
+        }
+        if (entry.getJobId() != null) {
+            ScopeDelta job = scope(deltas, "job:" + entry.getJobId(), Scope.JOB)
+                    .meta("jobId", entry.getJobId())
+                    .meta("companyId", entry.getCompanyId());
+            if (sign > 0 && entry.getJobTitle() != null) {
+                job.meta("jobTitle", entry.getJobTitle());
+            }
+            scopes.add(job);
+        }
+
+        for (ScopeDelta delta : scopes) {
+            if (entry.isDeleted()) {
+                delta.inc("deleted", sign);
+            } else {
+                delta.inc("active", sign);
+                if (entry.getStatus() != null) {
+                    delta.inc("byStatus." + entry.getStatus(), sign);
+                }
+                if (entry.getDay() != null) {
+                    delta.inc("daily." + entry.getDay(), sign);
+                }
+                if (entry.getReviewMs() != null) {
+                    delta.inc("reviewedCount", sign);
+                    delta.inc("reviewMsTotal", sign * entry.getReviewMs());
+                }
+                if (entry.getHireMs() != null) {
+                    delta.inc("hireCount", sign);
+                    delta.inc("hireMsTotal", sign * entry.getHireMs());
+                }
+            }
+            if (entry.isDraft()) {
+                delta.inc("drafts", sign);
+            }
+        }
+    }
+
+    private static ScopeDelta scope(Map<String, ScopeDelta> deltas, String id, Scope scope) {
+        return deltas.computeIfAbsent(id, key -> new ScopeDelta(key, scope));
+    }
+
+    static ApplicationStatsEntry toEntry(Application application) {
+        Instant submittedAt = application.getSubmittedAt() != null
+                ? application.getSubmittedAt()
+                : application.getCreatedAt();
+
+        Long reviewMs = null;
+        if (submittedAt != null && application.getStatusHistory() != null) {
+            reviewMs = application.getStatusHistory().stream()
+                    .filter(change -> change.getPreviousStatus() == ApplicationStatus.APPLIED
+                            && change.getChangedAt() != null)
+                    .findFirst()
+                    .map(change -> Math.max(Duration.between(submittedAt, change.getChangedAt()).toMillis(), 0))
+                    .orElse(null);
+        }
+
+        Long hireMs = null;
+        if (application.getStatus() == ApplicationStatus.HIRED && application.getSubmittedAt() != null
+                && application.getUpdatedAt() != null) {
+            hireMs = Math.max(Duration.between(application.getSubmittedAt(), application.getUpdatedAt()).toMillis(), 0);
+        }
+
+        return ApplicationStatsEntry.builder()
+                .id(application.getId())
+                .companyId(application.getCompanyId())
+                .jobId(application.getJobId())
+                .jobTitle(application.getJobSnapshot() != null ? application.getJobSnapshot().getTitle() : null)
+                .assignedTo(application.getAssignedTo())
+                .status(application.getStatus() != null ? application.getStatus().name() : null)
+                .deleted(application.getDeletedAt() != null)
+                .draft(application.isDraft())
+                .day(application.getCreatedAt() != null
+                        ? application.getCreatedAt().atOffset(ZoneOffset.UTC).toLocalDate().toString()
+                        : null)
+                .reviewMs(reviewMs)
+                .hireMs(hireMs)
+                .build();
+    }
+
+    /**
+     * Pending $inc / $set for one scope document.
+     */
+    private static final class ScopeDelta {
+        private final String id;
+        private final Scope scope;
+        private String companyId;
+        private final Map<String, Long> inc = new LinkedHashMap<>();
+        private final Map<String, Object> set = new HashMap<>();
+
+        private ScopeDelta(String id, Scope scope) {
+            this.id = id;
+            this.scope = scope;
+        }
+
+        ScopeDelta inc(String field, long amount) {
+            inc.merge(field, amount, Long::sum);
+            return this;
+        }
+
+        ScopeDelta meta(String field, Object value) {
+            if (value != null) {
+                set.put(field, value);
+                if ("companyId".equals(field)) {
+                    companyId = (String) value;
+                }
+            }
+            return this;
+        }
+
+        long count(String field) {
+            return inc.getOrDefault(field, 0L);
+        }
+
+        boolean isEmpty() {
+            return inc.values().stream().allMatch(value -> value == 0);
+        }
+
+        Update toUpdate() {
+            Update update = new Update();
+            inc.forEach((field, amount) -> {
+                if (amount != 0) {
+                    update.inc(field, amount);
+                }
+            });
+            set.forEach(update::set);
+            update.set("scope", scope);
+            update.set("updatedAt", Instant.now());
+            return update;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.workfitai.applicationservice.util;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.workfitai.applicationservice.exception.BadRequestException;
+import org.workfitai.applicationservice.model.Application;
+
+/**
+ * Keyset pagination cursor for applications ordered by (createdAt desc, _id desc).
+ *
+ * Holds the sort key of the last item of a page; the next page starts
+ * strictly after it, so a deep page costs the same as the first one
+ * (no skip) and rows inserted meanwhile don't shift results.
+ *
+ * Sent to clients as an opaque URL-safe token ("epochMillis:id" in Base64).
+ */
+public record KeysetCursor(Instant createdAt, String id) {
+
+    /**
+     * Sort order the cursor is defined on.
+     */
+    public static final Sort SORT = Sort.by(Sort.Direction.DESC, "createdAt", "_id");
+
+    public static KeysetCursor of(Application application) {
+        return new KeysetCursor(application.getCreatedAt(), application.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt.toEpochMilli() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws BadRequestException if the token was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new KeysetCursor(Instant.ofEpochMilli(Long.parseLong(raw.substring(0, separator))),
+                    raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Items after this cursor in {@link #SORT} order.
+     */
+    public Criteria after() {
+        return new Criteria().orOperator(
+                where("createdAt").lt(createdAt),
+                where("createdAt").is(createdAt).and("_id").lt(id));
+    }
+}
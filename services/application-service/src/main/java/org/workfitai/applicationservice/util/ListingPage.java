@@ -0,0 +1,38 @@
+package org.workfitai.applicationservice.util;
+
+/**
+ * Page request for application listings.
+ *
+ * Two modes:
+ * - page mode (no cursor): page number + size, as before; skip grows with
+ *   the page number
+ * - keyset mode (cursor set): continue after meta.nextCursor of the previous
+ *   page; page number is ignored and deep pages cost the same as the first
+ *
+ * The total (extra count query) is computed on request only; it defaults to
+ * on in page mode for existing clients and off in keyset mode.
+ */
+public record ListingPage(int page, int size, KeysetCursor cursor, boolean withTotal) {
+
+    public static final int MAX_SIZE = 100;
+
+    /**
+     * @param cursor    Opaque cursor from meta.nextCursor (optional)
+     * @param withTotal Whether to count all matches; null = mode default
+     * @throws org.workfitai.applicationservice.exception.BadRequestException if the cursor is invalid
+     */
+    public static ListingPage of(int page, int size, String cursor, Boolean withTotal) {
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+        boolean total = withTotal != null ? withTotal : after == null;
+        return new ListingPage(after != null ? 0 : Math.max(page, 0), Math.max(1, Math.min(size, MAX_SIZE)),
+                after, total);
+    }
+
+    public boolean keyset() {
+        return cursor != null;
+    }
+
+    public long offset() {
+        return (long) page * size;
+    }
+}
@@ -25,4 +25,13 @@ public interface ApplicationValidator {
      * Lower numbers execute first.
      */
     int getOrder();
+
+    /**
+     * Whether this validator calls another service.
+     * Remote validators are skipped by {@link ValidationPipeline#validateLocal}
+     * when the caller performs the remote check itself.
+     */
+    default boolean isRemote() {
+        return false;
+    }
 }
@@ -42,4 +42,9 @@ public class JobValidator implements ApplicationValidator {
     public int getOrder() {
         return 3;
     }
+
+    @Override
+    public boolean isRemote() {
+        return true;
+    }
 }
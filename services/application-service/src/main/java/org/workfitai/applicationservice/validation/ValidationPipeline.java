@@ -55,4 +55,22 @@ public class ValidationPipeline {
 
         log.info("Validation pipeline completed successfully");
     }
+
+    /**
+     * Run only local validators (no calls to other services).
+     * Used by the apply saga, which validates the job while fetching its snapshot.
+     *
+     * @param request  The application request to validate
+     * @param username The authenticated username
+     * @throws RuntimeException if any validation fails
+     */
+    public void validateLocal(CreateApplicationRequest request, String username) {
+        log.debug("Starting local validation for user: {}, job: {}", username, request.getJobId());
+
+        for (ApplicationValidator validator : validators) {
+            if (!validator.isRemote()) {
+                validator.validate(request, username);
+            }
+        }
+    }
 }
@@ -0,0 +1,134 @@
+package org.workfitai.applicationservice.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.workfitai.applicationservice.config.OutboxConfig;
+import org.workfitai.applicationservice.model.OutboxEvent;
+import org.workfitai.applicationservice.model.enums.OutboxStatus;
+import org.workfitai.applicationservice.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("OutboxRelay Unit Tests")
+class OutboxRelayTest {
+
+    private OutboxEventRepository repository;
+    private MongoTemplate mongoTemplate;
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(OutboxEventRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(repository, mongoTemplate, kafkaTemplate, new OutboxConfig(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should send due records and mark them published")
+    void shouldPublishAndMarkAcknowledged() {
+        given(repository.findDue(eq(OutboxStatus.PENDING), any(Instant.class), any(Pageable.class)))
+                .willReturn(List.of(record("1", "app-1", null), record("2", "app-2", null)));
+        given(kafkaTemplate.send(anyString(), anyString(), anyString()))
+                .willReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        assertThat(relay.relayBatch()).isEqualTo(2);
+
+        then(mongoTemplate).should().updateMulti(any(Query.class), any(Update.class), eq(OutboxEvent.class));
+        assertThat(meterRegistry.counter("outbox.published").count()).isEqualTo(2);
+        assertThat(meterRegistry.timer("outbox.relay.lag").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should hold back later records of a key whose older record is backing off")
+    void shouldKeepPerKeyOrder() {
+        Instant later = Instant.now().plusSeconds(30);
+        given(repository.findBackingOff(eq(OutboxStatus.PENDING), any(Instant.class)))
+                .willReturn(List.of(record("1", "app-1", later)));
+        given(repository.findDue(eq(OutboxStatus.PENDING), any(Instant.class), any(Pageable.class)))
+                .willReturn(List.of(record("2", "app-1", null), record("3", "app-2", null)));
+        given(kafkaTemplate.send(anyString(), anyString(), anyString()))
+                .willReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        assertThat(relay.relayBatch()).isEqualTo(1);
+
+        then(kafkaTemplate).should().send("application-events", "app-2", "{}");
+        then(kafkaTemplate).should(never()).send("application-events", "app-1", "{}");
+    }
+
+    @Test
+    @DisplayName("Should send only the first due record of each key per pass")
+    void shouldSendOneRecordPerKey() {
+        given(repository.findDue(eq(OutboxStatus.PENDING), any(Instant.class), any(Pageable.class)))
+                .willReturn(List.of(record("1", "app-1", null), record("2", "app-2", null),
+                        record("3", "app-1", null)));
+        given(kafkaTemplate.send(anyString(), anyString(), anyString()))
+                .willReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        assertThat(relay.relayBatch()).isEqualTo(2);
+
+        ArgumentCaptor<Query> published = ArgumentCaptor.forClass(Query.class);
+        then(mongoTemplate).should().updateMulti(published.capture(), any(Update.class), eq(OutboxEvent.class));
+        assertThat(published.getValue().getQueryObject().get("_id", Document.class).getList("$in", String.class))
+                .containsExactly("1", "2");
+    }
+
+    @Test
+    @DisplayName("Should schedule a retry when Kafka rejects a record")
+    void shouldBackOffOnFailure() {
+        given(repository.findDue(eq(OutboxStatus.PENDING), any(Instant.class), any(Pageable.class)))
+                .willReturn(List.of(record("1", "app-1", null)));
+        given(kafkaTemplate.send(anyString(), anyString(), anyString()))
+                .willReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        relay.relayBatch();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        then(mongoTemplate).should().updateFirst(any(Query.class), update.capture(), eq(OutboxEvent.class));
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("attempts", 1)
+                .containsKey("nextAttemptAt")
+                .doesNotContainKey("status");
+        then(mongoTemplate).should(never()).updateMulti(any(Query.class), any(Update.class), eq(OutboxEvent.class));
+        assertThat(meterRegistry.counter("outbox.send.failures").count()).isEqualTo(1);
+    }
+
+    private static OutboxEvent record(String id, String key, Instant nextAttemptAt) {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("application-events")
+                .messageKey(key)
+                .eventType("APPLICATION_CREATED")
+                .payload("{}")
+                .status(OutboxStatus.PENDING)
+                .createdAt(Instant.now().minusMillis(50))
+                .nextAttemptAt(nextAttemptAt)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package org.workfitai.applicationservice.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.workfitai.applicationservice.model.Application;
+
+@DisplayName("ApplicationIdentityMap Unit Tests")
+class ApplicationIdentityMapTest {
+
+    private static final String APP_ID = "app-123";
+
+    private ApplicationRepository applicationRepository;
+    private MongoTemplate mongoTemplate;
+    private ApplicationIdentityMap identityMap;
+
+    @BeforeEach
+    void setUp() {
+        applicationRepository = mock(ApplicationRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        identityMap = new ApplicationIdentityMap(applicationRepository, mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Should read an application once per request and reuse it for access checks")
+    void shouldReuseDocumentWithinRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Application application = Application.builder().id(APP_ID).username("john.doe").build();
+        given(applicationRepository.findByIdAndDeletedAtIsNull(APP_ID)).willReturn(Optional.of(application));
+
+        assertThat(identityMap.findActive(APP_ID)).containsSame(application);
+        assertThat(identityMap.findActive(APP_ID)).containsSame(application);
+        assertThat(identityMap.findAccess(APP_ID)).containsSame(application);
+
+        then(applicationRepository).should(times(1)).findByIdAndDeletedAtIsNull(APP_ID);
+        then(mongoTemplate).should(never()).findOne(any(Query.class), eq(Application.class));
+    }
+
+    @Test
+    @DisplayName("Should load access checks with a projection once per request")
+    void shouldProjectAccessView() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        given(mongoTemplate.findOne(any(Query.class), eq(Application.class)))
+                .willReturn(Application.builder().id(APP_ID).username("john.doe").build());
+
+        identityMap.findAccess(APP_ID);
+        identityMap.findAccess(APP_ID);
+
+        then(mongoTemplate).should(times(1)).findOne(any(Query.class), eq(Application.class));
+        then(applicationRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("Should not cache outside an HTTP request")
+    void shouldNotCacheWithoutRequest() {
+        given(applicationRepository.findByIdAndDeletedAtIsNull(APP_ID)).willReturn(Optional.empty());
+
+        identityMap.findActive(APP_ID);
+        identityMap.findActive(APP_ID);
+
+        then(applicationRepository).should(times(2)).findByIdAndDeletedAtIsNull(APP_ID);
+    }
+}
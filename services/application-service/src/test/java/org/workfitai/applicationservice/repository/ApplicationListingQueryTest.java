@@ -0,0 +1,140 @@
+package org.workfitai.applicationservice.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.workfitai.applicationservice.dto.response.ResultPaginationDTO;
+import org.workfitai.applicationservice.model.Application;
+import org.workfitai.applicationservice.model.enums.ApplicationStatus;
+import org.workfitai.applicationservice.util.KeysetCursor;
+import org.workfitai.applicationservice.util.ListingPage;
+
+/**
+ * ApplicationListingQuery integration tests using Testcontainers.
+ */
+@DataMongoTest
+@Testcontainers
+@Import(ApplicationListingQuery.class)
+@DisplayName("ApplicationListingQuery Integration Tests")
+class ApplicationListingQueryTest {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+    }
+
+    private static final Criteria COMPANY_FILTER = where("companyId").is("company-1").and("deletedAt").isNull();
+
+    @Autowired
+    private ApplicationListingQuery listingQuery;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Application.class);
+
+        List<Application> applications = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            applications.add(application("company-1", i, null));
+        }
+        for (int i = 0; i < 5; i++) {
+            applications.add(application("company-2", i, null));
+        }
+        applications.add(application("company-1", 100, Instant.now()));
+        // Nhiều bản ghi cùng createdAt → thứ tự phải dựa vào _id
+        mongoTemplate.insertAll(applications);
+    }
+
+    @Test
+    @DisplayName("Cursor pages walk every match once, in (createdAt, _id) order")
+    void cursorWalksAllMatches() {
+        List<String> expected = mongoTemplate.find(Query.query(COMPANY_FILTER).with(KeysetCursor.SORT),
+                Application.class).stream().map(Application::getId).toList();
+
+        List<String> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ResultPaginationDTO<Application> page = listingQuery.find(COMPANY_FILTER,
+                    ListingPage.of(0, 10, cursor, null));
+            page.getItems().forEach(application -> walked.add(application.getId()));
+            cursor = page.getMeta().getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(walked).hasSize(25).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Cursor mode skips the count unless withTotal is set")
+    void lazyTotal() {
+        ResultPaginationDTO<Application> first = listingQuery.find(COMPANY_FILTER, ListingPage.of(0, 10, null, false));
+        String cursor = first.getMeta().getNextCursor();
+
+        ResultPaginationDTO<Application> withoutTotal = listingQuery.find(COMPANY_FILTER,
+                ListingPage.of(0, 10, cursor, null));
+        ResultPaginationDTO<Application> withTotal = listingQuery.find(COMPANY_FILTER,
+                ListingPage.of(0, 10, cursor, true));
+
+        assertThat(first.getMeta().getTotalElements()).isEqualTo(-1);
+        assertThat(withoutTotal.getMeta().getTotalElements()).isEqualTo(-1);
+        assertThat(withoutTotal.getMeta().isHasNext()).isTrue();
+        assertThat(withTotal.getMeta().getTotalElements()).isEqualTo(25);
+        assertThat(withTotal.getMeta().getTotalPages()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Page mode keeps page numbers and totals, and matches cursor results")
+    void pageModeMatchesCursor() {
+        ResultPaginationDTO<Application> first = listingQuery.find(COMPANY_FILTER, ListingPage.of(0, 10, null, null));
+        ResultPaginationDTO<Application> second = listingQuery.find(COMPANY_FILTER, ListingPage.of(1, 10, null, null));
+        ResultPaginationDTO<Application> viaCursor = listingQuery.find(COMPANY_FILTER,
+                ListingPage.of(0, 10, first.getMeta().getNextCursor(), null));
+
+        assertThat(first.getMeta().getTotalElements()).isEqualTo(25);
+        assertThat(first.getMeta().isFirst()).isTrue();
+        assertThat(second.getMeta().getPage()).isEqualTo(1);
+        assertThat(second.getItems()).extracting(Application::getId)
+                .containsExactlyElementsOf(viaCursor.getItems().stream().map(Application::getId).toList());
+    }
+
+    private static Application application(String companyId, int index, Instant deletedAt) {
+        return Application.builder()
+                .username(companyId + "-candidate-" + index)
+                .email("candidate@example.com")
+                .jobId("job-" + (index % 4))
+                .companyId(companyId)
+                .cvFileUrl("http://minio:9000/cvs-files/test/resume.pdf")
+                .cvFileName("resume.pdf")
+                .cvContentType("application/pdf")
+                .cvFileSize(1024L)
+                .jobSnapshot(Application.JobSnapshot.builder().title("Java Dev").build())
+                .status(ApplicationStatus.APPLIED)
+                .deletedAt(deletedAt)
+                .build();
+    }
+}
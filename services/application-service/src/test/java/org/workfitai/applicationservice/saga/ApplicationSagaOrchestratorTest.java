@@ -0,0 +1,350 @@
+package org.workfitai.applicationservice.saga;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import org.workfitai.applicationservice.adapter.outbound.JobServiceAdapter;
+import org.workfitai.applicationservice.client.JobServiceClient;
+import org.workfitai.applicationservice.client.UserServiceClient;
+import org.workfitai.applicationservice.client.UserServiceClient.UserInfo;
+import org.workfitai.applicationservice.config.SagaConfig;
+import org.workfitai.applicationservice.dto.FileUploadResult;
+import org.workfitai.applicationservice.dto.JobInfo;
+import org.workfitai.applicationservice.dto.request.CreateApplicationRequest;
+import org.workfitai.applicationservice.dto.response.RestResponse;
+import org.workfitai.applicationservice.exception.NotFoundException;
+import org.workfitai.applicationservice.mapper.ApplicationMapperImpl;
+import org.workfitai.applicationservice.model.Application;
+import org.workfitai.applicationservice.port.outbound.EventPublisherPort;
+import org.workfitai.applicationservice.port.outbound.FileStoragePort;
+import org.workfitai.applicationservice.port.outbound.StreamingUpload;
+import org.workfitai.applicationservice.repository.ApplicationRepository;
+import org.workfitai.applicationservice.validation.DuplicateApplicationValidator;
+import org.workfitai.applicationservice.validation.FileValidator;
+import org.workfitai.applicationservice.validation.JobValidator;
+import org.workfitai.applicationservice.validation.ValidationPipeline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests and load-test harness for the apply saga.
+ *
+ * job-service, user-service and MinIO are replaced by local stand-ins with
+ * fixed latencies, so the harness measures how the saga composes remote calls.
+ */
+@DisplayName("ApplicationSagaOrchestrator Tests")
+class ApplicationSagaOrchestratorTest {
+
+    private static final long JOB_SERVICE_MS = 20;
+    private static final long USER_SERVICE_MS = 15;
+    private static final long MINIO_UPLOAD_MS = 30;
+    private static final long MONGO_WRITE_MS = 2;
+    private static final long MONGO_COUNT_MS = 5;
+
+    private final AtomicInteger jobCalls = new AtomicInteger();
+    private final AtomicInteger userCalls = new AtomicInteger();
+    private final AtomicInteger deletedFiles = new AtomicInteger();
+    private volatile String jobStatus = "PUBLISHED";
+
+    private JobServiceClient jobServiceClient;
+    private UserServiceClient userServiceClient;
+    private ApplicationRepository applicationRepository;
+    private EventPublisherPort eventPublisher;
+    private FileStoragePort fileStorage;
+    private ExecutorService asyncExecutor;
+
+    @BeforeEach
+    void setUp() {
+        jobServiceClient = mock(JobServiceClient.class);
+        when(jobServiceClient.getJobById(anyString())).thenAnswer(invocation -> {
+            jobCalls.incrementAndGet();
+            sleep(JOB_SERVICE_MS);
+            return RestResponse.success(jobData(invocation.getArgument(0)));
+        });
+
+        userServiceClient = mock(UserServiceClient.class);
+        when(userServiceClient.getUsersByUsernames(anyList())).thenAnswer(invocation -> {
+            userCalls.incrementAndGet();
+            sleep(USER_SERVICE_MS);
+            List<String> usernames = invocation.getArgument(0);
+            return RestResponse.success(usernames.stream()
+                    .map(u -> new UserInfo(u, u, u, u + "@example.com", null, null, null))
+                    .toList());
+        });
+
+        applicationRepository = mock(ApplicationRepository.class);
+        when(applicationRepository.save(any(Application.class))).thenAnswer(invocation -> {
+            sleep(MONGO_WRITE_MS);
+            Application app = invocation.getArgument(0);
+            app.setId(UUID.randomUUID().toString());
+            return app;
+        });
+        when(applicationRepository.countByJobId(anyString())).thenAnswer(invocation -> {
+            sleep(MONGO_COUNT_MS);
+            return 1L;
+        });
+
+        eventPublisher = mock(EventPublisherPort.class);
+        fileStorage = new MinioStandIn();
+        asyncExecutor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should call job-service once per apply and publish events after save")
+    void shouldFetchJobOnceAndPublishAsync() throws Exception {
+        ApplicationSagaOrchestrator saga = newSaga(sagaConfig(Duration.ZERO));
+
+        CountDownLatch published = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            published.countDown();
+            return null;
+        }).when(eventPublisher).publishCandidateNotification(anyString(), anyString(), anyString(), any(), any(),
+                any());
+
+        var response = saga.createApplication(request(UUID.randomUUID().toString()), "candidate");
+
+        assertNotNull(response.getId());
+        assertEquals(1, jobCalls.get(), "job validation and snapshot must share one call");
+        assertTrue(published.await(5, TimeUnit.SECONDS));
+        verify(eventPublisher).publishApplicationCreated(any());
+        verify(eventPublisher).publishJobStatsUpdate(any());
+    }
+
+    @Test
+    @DisplayName("Should reuse cached job snapshot across applies")
+    void shouldReuseCachedJobSnapshot() {
+        ApplicationSagaOrchestrator saga = newSaga(sagaConfig(Duration.ofSeconds(30)));
+        String jobId = UUID.randomUUID().toString();
+
+        for (int i = 0; i < 5; i++) {
+            saga.createApplication(request(jobId), "candidate" + i);
+        }
+
+        assertEquals(1, jobCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should delete uploaded CV when job validation fails during upload")
+    void shouldCompensateConcurrentUpload() {
+        ApplicationSagaOrchestrator saga = newSaga(sagaConfig(Duration.ZERO));
+        jobStatus = "CLOSED";
+
+        assertThrows(NotFoundException.class,
+                () -> saga.createApplication(request(UUID.randomUUID().toString()), "candidate"));
+
+        // job-service trả lỗi trước khi upload xong → compensation phải chờ upload rồi xoá
+        assertEquals(1, deletedFiles.get());
+        verify(applicationRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Concurrent applies fetch each job from job-service once")
+    void concurrentApplies_serveJobSnapshotsFromCache() throws Exception {
+        List<String> jobs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            jobs.add(UUID.randomUUID().toString());
+        }
+
+        ApplicationSagaOrchestrator saga = newSaga(sagaConfig(Duration.ofSeconds(30)));
+        measure(8, 10, jobs, request -> saga.createApplication(request, request.getEmail()));
+
+        assertTrue(jobCalls.get() <= jobs.size(), "job snapshots must be served from cache");
+    }
+
+    /**
+     * Load test: p50/p99 của apply theo luồng cũ (tuần tự, gọi job-service 2 lần, fan-out trên request
+     * thread) so với saga mới (1 lần gọi có cache, upload song song, fan-out async sau commit).
+     * Đo wall-clock nên chỉ chạy với -Pperf.
+     */
+    @Test
+    @Tag("perf")
+    @DisplayName("Load test: apply latency before/after")
+    void loadTest_applyLatency() throws Exception {
+        int threads = 16;
+        int appliesPerThread = 20;
+        List<String> jobs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            jobs.add(UUID.randomUUID().toString());
+        }
+
+        // Trước: pipeline đầy đủ + fetch lại job + upload + save + fan-out đồng bộ, không cache
+        JobServiceAdapter uncached = new JobServiceAdapter(jobServiceClient, sagaConfig(Duration.ZERO),
+                new SimpleMeterRegistry());
+        ValidationPipeline fullPipeline = pipeline(uncached);
+        ApplicationCreatedPublisher syncPublisher = new ApplicationCreatedPublisher(eventPublisher,
+                applicationRepository, userServiceClient);
+        long[] before = measure(threads, appliesPerThread, jobs, request -> {
+            fullPipeline.validate(request, request.getEmail());
+            JobInfo job = uncached.validateAndGetJob(request.getJobId());
+            FileUploadResult cv = fileStorage.uploadFile(request.getCvPdfFile(), request.getEmail(), "temp");
+            Application saved = applicationRepository.save(Application.builder()
+                    .username(request.getEmail()).jobId(request.getJobId()).cvFileUrl(cv.getFileUrl())
+                    .jobSnapshot(Application.JobSnapshot.builder().title(job.getTitle()).build())
+                    .build());
+            syncPublisher.publish(saved, job);
+        });
+        int jobCallsBefore = jobCalls.getAndSet(0);
+
+        ApplicationSagaOrchestrator saga = newSaga(sagaConfig(Duration.ofSeconds(30)));
+        long[] after = measure(threads, appliesPerThread, jobs,
+                request -> saga.createApplication(request, request.getEmail()));
+
+        assertTrue(jobCallsBefore > threads * appliesPerThread, "old flow calls job-service twice per apply");
+        assertTrue(percentile(after, 99) < percentile(before, 99), "p99 must improve");
+    }
+
+    // ==================== Harness ====================
+
+    private long[] measure(int threads, int appliesPerThread, List<String> jobs,
+            Consumer<CreateApplicationRequest> apply) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        long[] latencies = new long[threads * appliesPerThread];
+        AtomicInteger slot = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            futures.add(clients.submit(() -> {
+                start.await();
+                for (int i = 0; i < appliesPerThread; i++) {
+                    CreateApplicationRequest request = request(jobs.get((offset + i) % jobs.size()));
+                    request.setEmail("candidate-" + offset + "-" + i);
+                    long startedAt = System.nanoTime();
+                    apply.accept(request);
+                    latencies[slot.getAndIncrement()] = System.nanoTime() - startedAt;
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (var future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        clients.shutdown();
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static long percentile(long[] sortedNanos, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sortedNanos[Math.max(index, 0)]);
+    }
+
+    private ApplicationSagaOrchestrator newSaga(SagaConfig config) {
+        JobServiceAdapter jobService = new JobServiceAdapter(jobServiceClient, config, new SimpleMeterRegistry());
+        // Giả lập proxy @Async: chạy fan-out trên executor riêng
+        ApplicationCreatedPublisher asyncPublisher = new ApplicationCreatedPublisher(eventPublisher,
+                applicationRepository, userServiceClient) {
+            @Override
+            public void publish(Application app, JobInfo jobInfo) {
+                asyncExecutor.execute(() -> super.publish(app, jobInfo));
+            }
+        };
+        return new ApplicationSagaOrchestrator(pipeline(jobService), jobService, fileStorage,
+                applicationRepository, new ApplicationMapperImpl(), asyncPublisher, config);
+    }
+
+    private ValidationPipeline pipeline(JobServiceAdapter jobService) {
+        return new ValidationPipeline(List.of(
+                new DuplicateApplicationValidator(applicationRepository),
+                new FileValidator(),
+                new JobValidator(jobService)));
+    }
+
+    private static SagaConfig sagaConfig(Duration jobCacheTtl) {
+        SagaConfig config = new SagaConfig();
+        config.setJobCacheTtl(jobCacheTtl);
+        return config;
+    }
+
+    private static CreateApplicationRequest request(String jobId) {
+        return CreateApplicationRequest.builder()
+                .jobId(jobId)
+                .email("candidate@example.com")
+                .cvPdfFile(new MockMultipartFile("cvPdfFile", "cv.pdf", "application/pdf", new byte[1024]))
+                .build();
+    }
+
+    private Map<String, Object> jobData(String jobId) {
+        return Map.of(
+                "postId", jobId,
+                "title", "Backend Engineer",
+                "status", jobStatus,
+                "createdBy", "hr1",
+                "company", Map.of("companyNo", "company-1", "name", "WorkFitAI"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * MinIO stand-in: fixed upload latency, counts deletes.
+     */
+    private class MinioStandIn implements FileStoragePort {
+
+        @Override
+        public FileUploadResult uploadFile(MultipartFile file, String username, String folder) {
+            sleep(MINIO_UPLOAD_MS);
+            String key = username + "/" + folder + "/" + file.getOriginalFilename();
+            return FileUploadResult.builder()
+                    .fileUrl("http://minio/cvs/" + key)
+                    .fileName(file.getOriginalFilename())
+                    .contentType(file.getContentType())
+                    .fileSize(file.getSize())
+                    .objectKey(key)
+                    .build();
+        }
+
+        @Override
+        public void deleteFile(String fileUrl) {
+            deletedFiles.incrementAndGet();
+        }
+
+        @Override
+        public boolean fileExists(String fileUrl) {
+            return true;
+        }
+
+        @Override
+        public StreamingUpload openStreamingUpload(String objectKey, String contentType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteObject(String objectKey) {
+        }
+    }
+}
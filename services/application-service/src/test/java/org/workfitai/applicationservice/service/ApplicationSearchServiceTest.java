@@ -0,0 +1,209 @@
+package org.workfitai.applicationservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.workfitai.applicationservice.dto.response.ApplicationResponse;
+import org.workfitai.applicationservice.dto.response.ApplicationSearchResponse;
+import org.workfitai.applicationservice.mapper.ApplicationMapperImpl;
+import org.workfitai.applicationservice.model.Application;
+import org.workfitai.applicationservice.model.enums.ApplicationStatus;
+import org.workfitai.applicationservice.service.ApplicationSearchService.CountMode;
+
+/**
+ * ApplicationSearchService integration tests using Testcontainers.
+ *
+ * Covers the items pipeline (filters, page and cursor paging), company
+ * scoping and the $facet counts against a real MongoDB.
+ */
+@DataMongoTest
+@Testcontainers
+@Import({ ApplicationSearchService.class, ApplicationMapperImpl.class })
+@DisplayName("ApplicationSearchService Integration Tests")
+class ApplicationSearchServiceTest {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+    }
+
+    private static final Instant BASE = Instant.parse("2026-03-01T00:00:00Z");
+    private static final String COMPANY = "company-1";
+
+    @Autowired
+    private ApplicationSearchService searchService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final List<Application> active = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Application.class);
+        active.clear();
+
+        // job-0..2 xoay vòng, APPLIED/REVIEWING xen kẽ, từng cặp chung createdAt → thứ tự dựa vào _id
+        for (int i = 0; i < 30; i++) {
+            active.add(application(i, null));
+        }
+        List<Application> all = new ArrayList<>(active);
+        all.add(application(30, Instant.now()));
+        all.add(application(31, Instant.now()));
+        // Công ty khác, trùng job-0 để kiểm tra facet byJob không lẫn dữ liệu
+        for (int i = 40; i < 44; i++) {
+            Application other = application(i, null);
+            other.setCompanyId("company-2");
+            other.setJobId(i % 2 == 0 ? "job-0" : "job-9");
+            all.add(other);
+        }
+        mongoTemplate.insertAll(all);
+    }
+
+    @Test
+    @DisplayName("Items match every filter; each facet ignores only its own filter")
+    void filtersAndFacets() {
+        ApplicationSearchResponse response = searchService.search(COMPANY, List.of("job-0", "job-1"),
+                ApplicationStatus.REVIEWING, null, null, null, null, CountMode.EXACT, PageRequest.of(0, 50));
+
+        List<Application> expected = active.stream()
+                .filter(app -> Set.of("job-0", "job-1").contains(app.getJobId()))
+                .filter(app -> app.getStatus() == ApplicationStatus.REVIEWING)
+                .sorted(newestFirst())
+                .toList();
+        assertThat(response.getItems()).extracting(ApplicationResponse::getId)
+                .containsExactlyElementsOf(expected.stream().map(Application::getId).toList());
+        assertThat(response.getMeta().getTotalElements()).isEqualTo(expected.size());
+        assertThat(response.getMeta().isHasNext()).isFalse();
+
+        // byStatus: chỉ lọc theo job
+        assertThat(response.getFacets().getByStatus())
+                .isEqualTo(Map.of("APPLIED", 10L, "REVIEWING", 10L));
+        // byJob: chỉ lọc theo status
+        assertThat(response.getFacets().getByJob())
+                .extracting(ApplicationSearchResponse.JobFacet::getJobId, ApplicationSearchResponse.JobFacet::getCount)
+                .containsExactlyInAnyOrder(
+                        tuple("job-0", 5L),
+                        tuple("job-1", 5L),
+                        tuple("job-2", 5L));
+    }
+
+    @Test
+    @DisplayName("Cursor pages walk every match once, in (createdAt, _id) order")
+    void cursorWalksAllMatches() {
+        List<String> expected = active.stream()
+                .filter(app -> app.getStatus() == ApplicationStatus.APPLIED)
+                .sorted(newestFirst())
+                .map(Application::getId)
+                .toList();
+
+        List<String> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ApplicationSearchResponse page = searchService.search(COMPANY, null, ApplicationStatus.APPLIED, null, null,
+                    null, cursor, CountMode.EXACT, PageRequest.of(0, 4));
+            page.getItems().forEach(item -> walked.add(item.getId()));
+            assertThat(page.getMeta().getTotalElements()).isEqualTo(15);
+            cursor = page.getMeta().getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(4);
+        assertThat(walked).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Date range applies to items, totals and facets; page numbers match cursor paging")
+    void pageNumberAndDateRange() {
+        Instant from = BASE.plus(5, ChronoUnit.MINUTES);
+        Instant to = BASE.plus(9, ChronoUnit.MINUTES);
+
+        ApplicationSearchResponse first = searchService.search(COMPANY, null, null, from, to, null, null,
+                CountMode.EXACT, PageRequest.of(0, 4));
+        ApplicationSearchResponse second = searchService.search(COMPANY, null, null, from, to, null, null,
+                CountMode.EXACT, PageRequest.of(1, 4));
+        ApplicationSearchResponse viaCursor = searchService.search(COMPANY, null, null, from, to, null,
+                first.getMeta().getNextCursor(), CountMode.EXACT, PageRequest.of(0, 4));
+
+        // phút 5..9 → 5 cặp = 10 bản ghi
+        assertThat(first.getMeta().getTotalElements()).isEqualTo(10);
+        assertThat(first.getMeta().getTotalPages()).isEqualTo(3);
+        assertThat(second.getItems()).extracting(ApplicationResponse::getId)
+                .containsExactlyElementsOf(viaCursor.getItems().stream().map(ApplicationResponse::getId).toList());
+        assertThat(first.getFacets().getByStatus().values().stream().mapToLong(Long::longValue).sum())
+                .isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("A company-scoped search never counts or facets another company's applications")
+    void scopesToCompany() {
+        ApplicationSearchResponse scoped = searchService.search(COMPANY, null, null, null, null, null, null,
+                CountMode.EXACT, PageRequest.of(0, 50));
+
+        assertThat(scoped.getItems()).extracting(ApplicationResponse::getCompanyId).containsOnly(COMPANY);
+        assertThat(scoped.getMeta().getTotalElements()).isEqualTo(30);
+        assertThat(scoped.getFacets().getByJob())
+                .extracting(ApplicationSearchResponse.JobFacet::getJobId, ApplicationSearchResponse.JobFacet::getCount)
+                .containsExactlyInAnyOrder(
+                        tuple("job-0", 10L),
+                        tuple("job-1", 10L),
+                        tuple("job-2", 10L));
+
+        // Không truyền companyId (ADMIN): thấy mọi công ty
+        ApplicationSearchResponse global = searchService.search(null, null, null, null, null, null, null,
+                CountMode.EXACT, PageRequest.of(0, 50));
+
+        assertThat(global.getMeta().getTotalElements()).isEqualTo(34);
+        assertThat(global.getFacets().getByJob())
+                .extracting(ApplicationSearchResponse.JobFacet::getJobId, ApplicationSearchResponse.JobFacet::getCount)
+                .contains(tuple("job-0", 12L), tuple("job-9", 2L));
+    }
+
+    private static Comparator<Application> newestFirst() {
+        return Comparator.comparing(Application::getCreatedAt).thenComparing(Application::getId).reversed();
+    }
+
+    private static Application application(int index, Instant deletedAt) {
+        return Application.builder()
+                .id(String.format("app-%02d", index))
+                .username("candidate-" + index)
+                .email("candidate@example.com")
+                .jobId("job-" + (index % 3))
+                .companyId(COMPANY)
+                .cvFileUrl("http://minio:9000/cvs-files/test/resume.pdf")
+                .cvFileName("resume.pdf")
+                .cvContentType("application/pdf")
+                .cvFileSize(1024L)
+                .jobSnapshot(Application.JobSnapshot.builder().title("Java Dev " + (index % 3)).build())
+                .status(index % 2 == 0 ? ApplicationStatus.APPLIED : ApplicationStatus.REVIEWING)
+                .createdAt(BASE.plus(index / 2, ChronoUnit.MINUTES))
+                .deletedAt(deletedAt)
+                .build();
+    }
+}
@@ -10,10 +10,7 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.workfitai.applicationservice.dto.kafka.ApplicationStatusChangedEvent;
 import org.workfitai.applicationservice.dto.kafka.ApplicationWithdrawnEvent;
 import org.workfitai.applicationservice.dto.response.ApplicationResponse;
@@ -24,8 +21,11 @@ import org.workfitai.applicationservice.mapper.ApplicationMapper;
 import org.workfitai.applicationservice.model.Application;
 import org.workfitai.applicationservice.model.enums.ApplicationStatus;
 import org.workfitai.applicationservice.port.outbound.EventPublisherPort;
+import org.workfitai.applicationservice.repository.ApplicationIdentityMap;
+import org.workfitai.applicationservice.repository.ApplicationListingQuery;
 import org.workfitai.applicationservice.repository.ApplicationRepository;
 import org.workfitai.applicationservice.service.impl.ApplicationServiceImpl;
+import org.workfitai.applicationservice.util.ListingPage;
 
 import java.time.Instant;
 import java.util.List;
@@ -43,6 +43,12 @@ class ApplicationServiceImplTest {
     @Mock
     private ApplicationRepository applicationRepository;
 
+    @Mock
+    private ApplicationIdentityMap applicationIdentityMap;
+
+    @Mock
+    private ApplicationListingQuery listingQuery;
+
     @Mock
     private ApplicationMapper applicationMapper;
 
@@ -115,7 +121,7 @@ class ApplicationServiceImplTest {
         @Test
         @DisplayName("Should return application when found")
         void shouldReturnApplicationWhenFound() {
-            given(applicationRepository.findById(APP_ID)).willReturn(Optional.of(savedApplication));
+            given(applicationIdentityMap.findActive(APP_ID)).willReturn(Optional.of(savedApplication));
             given(applicationMapper.toResponse(savedApplication)).willReturn(applicationResponse);
 
             ApplicationResponse result = applicationService.getApplicationById(APP_ID);
@@ -128,7 +134,7 @@ class ApplicationServiceImplTest {
         @Test
         @DisplayName("Should throw NotFoundException when application doesn't exist")
         void shouldThrowNotFoundWhenMissing() {
-            given(applicationRepository.findById(APP_ID)).willReturn(Optional.empty());
+            given(applicationIdentityMap.findActive(APP_ID)).willReturn(Optional.empty());
 
             assertThatThrownBy(() -> applicationService.getApplicationById(APP_ID))
                     .isInstanceOf(NotFoundException.class)
@@ -143,13 +149,13 @@ class ApplicationServiceImplTest {
         @Test
         @DisplayName("Should return paginated applications for user")
         void shouldReturnPaginatedApplications() {
-            Pageable pageable = PageRequest.of(0, 10);
-            Page<Application> page = new PageImpl<>(List.of(savedApplication), pageable, 1);
+            ListingPage page = ListingPage.of(0, 10, null, null);
+            ResultPaginationDTO<Application> found = ResultPaginationDTO.of(List.of(savedApplication), 0, 10, 1, 1);
 
-            given(applicationRepository.findByUsername(USERNAME, pageable)).willReturn(page);
+            given(listingQuery.find(any(Criteria.class), eq(page))).willReturn(found);
             given(applicationMapper.toResponse(any(Application.class))).willReturn(applicationResponse);
 
-            ResultPaginationDTO<ApplicationResponse> result = applicationService.getMyApplications(USERNAME, pageable);
+            ResultPaginationDTO<ApplicationResponse> result = applicationService.getMyApplications(USERNAME, page);
 
             assertThat(result).isNotNull();
             assertThat(result.getItems()).hasSize(1);
@@ -159,12 +165,12 @@ class ApplicationServiceImplTest {
         @Test
         @DisplayName("Should return empty page when user has no applications")
         void shouldReturnEmptyPageWhenNoApplications() {
-            Pageable pageable = PageRequest.of(0, 10);
-            Page<Application> emptyPage = Page.empty(pageable);
+            ListingPage page = ListingPage.of(0, 10, null, null);
+            ResultPaginationDTO<Application> empty = ResultPaginationDTO.of(List.of(), 0, 10, 0, 0);
 
-            given(applicationRepository.findByUsername(USERNAME, pageable)).willReturn(emptyPage);
+            given(listingQuery.find(any(Criteria.class), eq(page))).willReturn(empty);
 
-            ResultPaginationDTO<ApplicationResponse> result = applicationService.getMyApplications(USERNAME, pageable);
+            ResultPaginationDTO<ApplicationResponse> result = applicationService.getMyApplications(USERNAME, page);
 
             assertThat(result.getItems()).isEmpty();
             assertThat(result.getMeta().getTotalElements()).isZero();
@@ -181,7 +187,7 @@ class ApplicationServiceImplTest {
             String updatedBy = "hr.manager";
             ApplicationStatus newStatus = ApplicationStatus.REVIEWING;
 
-            given(applicationRepository.findById(APP_ID)).willReturn(Optional.of(savedApplication));
+            given(applicationIdentityMap.findActive(APP_ID)).willReturn(Optional.of(savedApplication));
             given(applicationRepository.save(any(Application.class))).willReturn(savedApplication);
             given(applicationMapper.toResponse(any())).willReturn(applicationResponse);
 
@@ -201,7 +207,7 @@ class ApplicationServiceImplTest {
         @Test
         @DisplayName("Should throw NotFoundException when application doesn't exist")
         void shouldThrowNotFoundWhenUpdatingNonexistent() {
-            given(applicationRepository.findById(APP_ID)).willReturn(Optional.empty());
+            given(applicationIdentityMap.findActive(APP_ID)).willReturn(Optional.empty());
 
             assertThatThrownBy(() -> applicationService.updateStatus(APP_ID, ApplicationStatus.REVIEWING, "hr"))
                     .isInstanceOf(NotFoundException.class);
@@ -217,7 +223,7 @@ class ApplicationServiceImplTest {
         @Test
         @DisplayName("Should withdraw application and publish Kafka event when user is owner")
         void shouldWithdrawWhenOwner() {
-            given(applicationRepository.findById(APP_ID)).willReturn(Optional.of(savedApplication));
+            given(applicationIdentityMap.findActive(APP_ID)).willReturn(Optional.of(savedApplication));
 
             applicationService.withdrawApplication(APP_ID, USERNAME);
 
@@ -234,7 +240,7 @@ class ApplicationServiceImplTest {
         @Test
         @DisplayName("Should throw ForbiddenException when user is not owner")
         void shouldThrowForbiddenWhenNotOwner() {
-            given(applicationRepository.findById(APP_ID)).willReturn(Optional.of(savedApplication));
+            given(applicationIdentityMap.findActive(APP_ID)).willReturn(Optional.of(savedApplication));
 
             assertThatThrownBy(() -> applicationService.withdrawApplication(APP_ID, "other-user"))
                     .isInstanceOf(ForbiddenException.class);
@@ -246,7 +252,7 @@ class ApplicationServiceImplTest {
         @Test
         @DisplayName("Should throw NotFoundException when application doesn't exist")
         void shouldThrowNotFoundWhenWithdrawingNonexistent() {
-            given(applicationRepository.findById(APP_ID)).willReturn(Optional.empty());
+            given(applicationIdentityMap.findActive(APP_ID)).willReturn(Optional.empty());
 
             assertThatThrownBy(() -> applicationService.withdrawApplication(APP_ID, USERNAME))
                     .isInstanceOf(NotFoundException.class);
@@ -0,0 +1,257 @@
+package org.workfitai.applicationservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.workfitai.applicationservice.dto.kafka.ApplicationStatusChangedEvent;
+import org.workfitai.applicationservice.dto.request.BulkUpdateRequest;
+import org.workfitai.applicationservice.dto.response.BulkUpdateResult;
+import org.workfitai.applicationservice.exception.BadRequestException;
+import org.workfitai.applicationservice.model.Application;
+import org.workfitai.applicationservice.model.ApplicationStats;
+import org.workfitai.applicationservice.model.ApplicationStatsEntry;
+import org.workfitai.applicationservice.model.enums.ApplicationStatus;
+import org.workfitai.applicationservice.port.outbound.EventPublisherPort;
+import org.workfitai.applicationservice.repository.ApplicationRepository;
+import org.workfitai.applicationservice.service.stats.ApplicationStatsProjector;
+import org.workfitai.applicationservice.validation.StatusTransitionValidator;
+
+/**
+ * BulkOperationService integration tests using Testcontainers.
+ *
+ * Verifies the bulkWrite pipeline against a real MongoDB and checks it
+ * leaves the same documents as the previous per-application loop
+ * (findById + validate + save + publish). The throughput comparison is
+ * tagged perf.
+ */
+@DataMongoTest
+@Testcontainers
+@Import({ BulkOperationService.class, StatusTransitionValidator.class, ApplicationStatsProjector.class })
+@DisplayName("BulkOperationService Integration Tests")
+class BulkOperationServiceTest {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+    }
+
+    @Autowired
+    private BulkOperationService bulkOperationService;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private StatusTransitionValidator statusTransitionValidator;
+
+    @Autowired
+    private ApplicationStatsProjector statsProjector;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @MockBean
+    private EventPublisherPort eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        applicationRepository.deleteAll();
+        mongoTemplate.remove(new Query(), ApplicationStatsEntry.class);
+        mongoTemplate.remove(new Query(), ApplicationStats.class);
+    }
+
+    @Test
+    @DisplayName("Should update every application and queue one batch of events")
+    void shouldUpdateAllWithOneBulkWrite() {
+        List<String> ids = seed(50, ApplicationStatus.APPLIED);
+        statsProjector.rebuild();
+
+        BulkUpdateResult result = bulkOperationService.bulkUpdateStatus(request(ids, ApplicationStatus.REVIEWING),
+                "hr.manager");
+
+        assertThat(result.getSuccessCount()).isEqualTo(50);
+        assertThat(result.getFailureCount()).isZero();
+
+        Application updated = applicationRepository.findById(ids.get(0)).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(ApplicationStatus.REVIEWING);
+        assertThat(updated.getUpdatedBy()).isEqualTo("hr.manager");
+        assertThat(updated.getStatusHistory()).hasSize(1);
+        assertThat(updated.getStatusHistory().get(0).getPreviousStatus()).isEqualTo(ApplicationStatus.APPLIED);
+        assertThat(updated.getStatusHistory().get(0).getReason()).isEqualTo("Bulk status update");
+
+        then(eventPublisher).should().publishStatusChangedBatch(anyList());
+        then(eventPublisher).should(never()).publishStatusChanged(any());
+
+        ApplicationStats global = mongoTemplate.findById(ApplicationStats.GLOBAL, ApplicationStats.class);
+        assertThat(global).isNotNull();
+        assertThat(global.statusCount("APPLIED")).isZero();
+        assertThat(global.statusCount("REVIEWING")).isEqualTo(50);
+        assertThat(global.getReviewedCount()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Should write nothing when one transition is invalid")
+    void shouldRejectWholeBatchOnInvalidTransition() {
+        List<String> ids = seed(10, ApplicationStatus.APPLIED);
+        List<String> hired = seed(1, ApplicationStatus.HIRED);
+        List<String> all = new ArrayList<>(ids);
+        all.addAll(hired);
+
+        assertThatThrownBy(() -> bulkOperationService.bulkUpdateStatus(request(all, ApplicationStatus.REVIEWING),
+                "hr.manager"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining(hired.get(0));
+
+        assertThat(applicationRepository.findAll())
+                .filteredOn(application -> application.getStatus() == ApplicationStatus.REVIEWING)
+                .isEmpty();
+        then(eventPublisher).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("bulkWrite pipeline should leave the same state as the per-application loop")
+    void shouldMatchPerApplicationLoop() {
+        List<String> loopIds = seed(200, ApplicationStatus.APPLIED);
+        for (String id : loopIds) {
+            legacyUpdate(id, ApplicationStatus.REVIEWING, "hr.manager");
+        }
+        List<Application> viaLoop = applicationRepository.findAllById(loopIds);
+
+        applicationRepository.deleteAll();
+        List<String> bulkIds = seed(200, ApplicationStatus.APPLIED);
+        BulkUpdateResult result = bulkOperationService.bulkUpdateStatus(request(bulkIds, ApplicationStatus.REVIEWING),
+                "hr.manager");
+        List<Application> viaBulk = applicationRepository.findAllById(bulkIds);
+
+        assertThat(result.getSuccessCount()).isEqualTo(200);
+        assertThat(viaBulk).hasSameSizeAs(viaLoop);
+        for (List<Application> applications : List.of(viaLoop, viaBulk)) {
+            assertThat(applications).allSatisfy(application -> {
+                assertThat(application.getStatus()).isEqualTo(ApplicationStatus.REVIEWING);
+                assertThat(application.getStatusHistory()).singleElement()
+                        .satisfies(change -> {
+                            assertThat(change.getPreviousStatus()).isEqualTo(ApplicationStatus.APPLIED);
+                            assertThat(change.getChangedBy()).isEqualTo("hr.manager");
+                            assertThat(change.getReason()).isEqualTo("Bulk status update");
+                        });
+            });
+        }
+    }
+
+    /**
+     * Throughput benchmark: the previous loop vs the bulkWrite pipeline on the
+     * same number of applications. Wall-clock based, so only runs with -Pperf.
+     */
+    @Test
+    @Tag("perf")
+    @DisplayName("Benchmark: bulkWrite pipeline vs per-application loop")
+    void benchmarkAgainstPerApplicationLoop() {
+        int size = 2000;
+
+        List<String> loopIds = seed(size, ApplicationStatus.APPLIED);
+        long loopStartedAt = System.nanoTime();
+        for (String id : loopIds) {
+            legacyUpdate(id, ApplicationStatus.REVIEWING, "hr.manager");
+        }
+        long loopNanos = System.nanoTime() - loopStartedAt;
+
+        applicationRepository.deleteAll();
+        clearInvocations(eventPublisher);
+
+        List<String> bulkIds = seed(size, ApplicationStatus.APPLIED);
+        long bulkStartedAt = System.nanoTime();
+        BulkUpdateResult result = bulkOperationService.bulkUpdateStatus(request(bulkIds, ApplicationStatus.REVIEWING),
+                "hr.manager");
+        long bulkNanos = System.nanoTime() - bulkStartedAt;
+
+        assertThat(result.getSuccessCount()).isEqualTo(size);
+        assertThat(bulkNanos).isLessThan(loopNanos);
+    }
+
+    /**
+     * The per-application loop this service used before the bulkWrite pipeline.
+     */
+    private void legacyUpdate(String applicationId, ApplicationStatus newStatus, String updatedBy) {
+        Application application = applicationRepository.findByIdAndDeletedAtIsNull(applicationId).orElseThrow();
+        ApplicationStatus previousStatus = application.getStatus();
+        statusTransitionValidator.validateTransition(previousStatus, newStatus);
+
+        application.setStatus(newStatus);
+        application.getStatusHistory().add(Application.StatusChange.builder()
+                .previousStatus(previousStatus)
+                .newStatus(newStatus)
+                .changedBy(updatedBy)
+                .changedAt(Instant.now())
+                .reason("Bulk status update")
+                .build());
+        applicationRepository.save(application);
+        statsProjector.onSaved(application);
+
+        eventPublisher.publishStatusChanged(ApplicationStatusChangedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType("STATUS_CHANGED")
+                .timestamp(Instant.now())
+                .data(ApplicationStatusChangedEvent.StatusChangeData.builder()
+                        .applicationId(application.getId())
+                        .previousStatus(previousStatus)
+                        .newStatus(newStatus)
+                        .build())
+                .build());
+    }
+
+    private List<String> seed(int count, ApplicationStatus status) {
+        List<Application> applications = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            applications.add(Application.builder()
+                    .username("candidate-" + UUID.randomUUID())
+                    .email("candidate@example.com")
+                    .jobId("job-" + (i % 20))
+                    .companyId("company-" + (i % 3))
+                    .assignedTo("hr.manager")
+                    .cvFileUrl("http://minio:9000/cvs-files/test/resume.pdf")
+                    .cvFileName("resume.pdf")
+                    .cvContentType("application/pdf")
+                    .cvFileSize(1024L)
+                    .jobSnapshot(Application.JobSnapshot.builder().title("Java Dev").build())
+                    .status(status)
+                    .submittedAt(Instant.now())
+                    .build());
+        }
+        return applicationRepository.saveAll(applications).stream().map(Application::getId).toList();
+    }
+
+    private static BulkUpdateRequest request(List<String> ids, ApplicationStatus status) {
+        return BulkUpdateRequest.builder()
+                .applicationIds(ids)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package org.workfitai.applicationservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.workfitai.applicationservice.config.ExportConfig;
+import org.workfitai.applicationservice.model.ExportJob;
+import org.workfitai.applicationservice.model.enums.ExportStatus;
+import org.workfitai.applicationservice.port.outbound.FileStoragePort;
+import org.workfitai.applicationservice.repository.ExportJobRepository;
+
+import com.mongodb.client.result.UpdateResult;
+
+@DisplayName("ExportService Unit Tests")
+class ExportServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        ExportConfig config = new ExportConfig();
+        config.setStaleAfter(Duration.ofMinutes(30));
+        exportService = new ExportService(mongoTemplate, mock(ExportJobRepository.class),
+                mock(FileStoragePort.class), mock(MinioPreSignedUrlService.class), config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        exportService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should fail PROCESSING exports whose heartbeat is older than stale-after")
+    void shouldFailStaleProcessingExports() {
+        given(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(ExportJob.class)))
+                .willReturn(UpdateResult.acknowledged(2, 2L, null));
+        Instant before = Instant.now();
+
+        exportService.failStaleExports();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        then(mongoTemplate).should().updateMulti(query.capture(), update.capture(), eq(ExportJob.class));
+
+        Document criteria = query.getValue().getQueryObject();
+        assertThat(criteria.get("status")).isEqualTo(ExportStatus.PROCESSING);
+        Instant cutoff = toInstant(((Document) criteria.get("heartbeatAt")).get("$lt"));
+        assertThat(cutoff).isBetween(before.minus(Duration.ofMinutes(30)), Instant.now().minus(Duration.ofMinutes(30)));
+
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertThat(set.get("status")).isEqualTo(ExportStatus.FAILED);
+        assertThat(set).containsKeys("error", "completedAt");
+    }
+
+    private static Instant toInstant(Object value) {
+        return value instanceof Date date ? date.toInstant() : (Instant) value;
+    }
+}
@@ -1,7 +1,9 @@
 package org.workfitai.applicationservice.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.workfitai.applicationservice.service.ratelimit.LocalRateLimiter;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -14,7 +16,7 @@ class RateLimitServiceTest {
 
     @BeforeEach
     void setUp() {
-        rateLimitService = new RateLimitService();
+        rateLimitService = new RateLimitService(new LocalRateLimiter(), new SimpleMeterRegistry());
     }
 
     @Test
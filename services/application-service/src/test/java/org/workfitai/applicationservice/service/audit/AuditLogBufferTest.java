@@ -0,0 +1,138 @@
+package org.workfitai.applicationservice.service.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.workfitai.applicationservice.config.AuditConfig;
+import org.workfitai.applicationservice.model.AuditLog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for AuditLogBuffer (batching, overflow, shutdown flush).
+ */
+class AuditLogBufferTest {
+
+    private MongoTemplate mongoTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private AuditConfig config;
+    private AuditLogBuffer buffer;
+
+    /** Sizes of the batches passed to insertMany, in call order. */
+    private final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        config = new AuditConfig();
+        config.setBatchSize(10);
+        config.setFlushInterval(Duration.ofMillis(200));
+
+        willAnswer(invocation -> {
+            batches.add(invocation.<Collection<?>>getArgument(0).size());
+            return invocation.getArgument(0);
+        }).given(mongoTemplate).insert(anyCollection(), eq(AuditLog.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Writes queued records in batches of at most batch-size and flushes the rest on stop")
+    void batchesAndFlushesOnStop() {
+        buffer = start();
+
+        for (int i = 0; i < 25; i++) {
+            assertThat(buffer.enqueue(auditLog(i))).isTrue();
+        }
+        buffer.stop();
+
+        assertThat(batches).allMatch(size -> size <= 10);
+        assertThat(batches.stream().mapToInt(Integer::intValue).sum()).isEqualTo(25);
+        assertThat(meterRegistry.counter("audit.written").count()).isEqualTo(25);
+        assertThat(buffer.depth()).isZero();
+    }
+
+    @Test
+    @DisplayName("Flushes a partial batch once flush-interval elapses")
+    void flushesByTime() throws InterruptedException {
+        buffer = start();
+
+        buffer.enqueue(auditLog(1));
+        buffer.enqueue(auditLog(2));
+        buffer.enqueue(auditLog(3));
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (batches.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(batches).containsExactly(3);
+    }
+
+    @Test
+    @DisplayName("DROP policy drops and counts records once the buffer is full")
+    void dropsOnOverflow() throws InterruptedException {
+        config.setQueueCapacity(2);
+        config.setBatchSize(1);
+        config.setOverflowPolicy(AuditConfig.OverflowPolicy.DROP);
+
+        // Writer bị chặn trong insert đầu tiên → buffer đầy
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            batches.add(invocation.<Collection<?>>getArgument(0).size());
+            return invocation.getArgument(0);
+        }).given(mongoTemplate).insert(anyCollection(), eq(AuditLog.class));
+        buffer = start();
+
+        buffer.enqueue(auditLog(0));
+        assertThat(writing.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(buffer.enqueue(auditLog(1))).isTrue();
+        assertThat(buffer.enqueue(auditLog(2))).isTrue();
+        assertThat(buffer.enqueue(auditLog(3))).isFalse();
+
+        assertThat(meterRegistry.counter("audit.dropped", "reason", "overflow").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("audit.queue.depth").gauge().value()).isEqualTo(2);
+
+        release.countDown();
+        buffer.stop();
+        assertThat(batches.stream().mapToInt(Integer::intValue).sum()).isEqualTo(3);
+    }
+
+    private AuditLogBuffer start() {
+        AuditLogBuffer started = new AuditLogBuffer(mongoTemplate, config, meterRegistry);
+        started.start();
+        return started;
+    }
+
+    private static AuditLog auditLog(int index) {
+        return AuditLog.builder()
+                .entityType("APPLICATION")
+                .entityId("app-" + index)
+                .action("STATUS_UPDATED")
+                .performedBy("hr.manager")
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package org.workfitai.applicationservice.service.export;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the streaming CSV/XLSX export writers
+ */
+class ExportRowWriterTest {
+
+    @Test
+    void testCsv_EscapesSpecialCharactersAndFormulas() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvRowWriter writer = new CsvRowWriter(out, false)) {
+            writer.writeRow(List.of("id", "note"));
+            writer.writeRow(List.of("1", "a,b"));
+            writer.writeRow(List.of("2", "=HYPERLINK(\"x\")"));
+            writer.writeRow(java.util.Arrays.asList("3", null));
+        }
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertEquals("id,note\n1,\"a,b\"\n2,\"'=HYPERLINK(\"\"x\"\")\"\n3,\n", csv);
+    }
+
+    @Test
+    void testCsv_Gzip_ShouldRoundTrip() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvRowWriter writer = new CsvRowWriter(out, true)) {
+            for (int i = 0; i < 10_000; i++) {
+                writer.writeRow(List.of(String.valueOf(i), "user" + i + "@example.com"));
+            }
+        }
+
+        String csv;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals(10_000, csv.lines().count());
+        assertTrue(csv.endsWith("9999,user9999@example.com\n"));
+        assertTrue(out.size() < csv.length() / 3, "gzip should compress repetitive rows");
+    }
+
+    @Test
+    void testXlsx_ShouldProduceWellFormedWorkbook() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XlsxRowWriter writer = new XlsxRowWriter(out)) {
+            writer.writeRow(List.of("id", "name"));
+            writer.writeRow(List.of("1", "Nguyễn <Văn> & \"A\"\u0001"));
+        }
+
+        Map<String, byte[]> entries = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), zip.readAllBytes());
+            }
+        }
+        assertTrue(entries.containsKey("[Content_Types].xml"));
+        assertTrue(entries.containsKey("xl/workbook.xml"));
+
+        Document sheet = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(entries.get("xl/worksheets/sheet1.xml")));
+        assertEquals(2, sheet.getElementsByTagName("row").getLength());
+        assertEquals("Nguyễn <Văn> & \"A\"", sheet.getElementsByTagName("t").item(3).getTextContent());
+    }
+}
@@ -0,0 +1,115 @@
+package org.workfitai.applicationservice.service.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for LocalRateLimiter (sliding window + idle eviction).
+ */
+class LocalRateLimiterTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(10);
+
+    private MutableClock clock;
+    private LocalRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        limiter = new LocalRateLimiter(clock);
+    }
+
+    @Test
+    @DisplayName("Window slides: oldest request frees a slot once it leaves the window")
+    void slidingWindow() {
+        assertThat(limiter.tryAcquire("op", "alice", 2, WINDOW).allowed()).isTrue();
+        clock.advance(Duration.ofMinutes(4));
+        assertThat(limiter.tryAcquire("op", "alice", 2, WINDOW).allowed()).isTrue();
+
+        RateLimitDecision denied = limiter.tryAcquire("op", "alice", 2, WINDOW);
+        assertThat(denied.allowed()).isFalse();
+        assertThat(denied.remaining()).isZero();
+        assertThat(denied.resetAfter()).isEqualTo(Duration.ofMinutes(6));
+
+        // Request đầu tiên hết hạn, request thứ hai vẫn còn trong window
+        clock.advance(Duration.ofMinutes(6).plusMillis(1));
+        RateLimitDecision allowed = limiter.tryAcquire("op", "alice", 2, WINDOW);
+        assertThat(allowed.allowed()).isTrue();
+        assertThat(allowed.remaining()).isZero();
+        assertThat(limiter.remaining("op", "alice", 2, WINDOW)).isZero();
+    }
+
+    @Test
+    @DisplayName("Denied requests are not counted")
+    void deniedRequestsNotCounted() {
+        limiter.tryAcquire("op", "alice", 1, WINDOW);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("op", "alice", 1, WINDOW).allowed()).isFalse();
+        }
+
+        clock.advance(WINDOW.plusMillis(1));
+
+        assertThat(limiter.tryAcquire("op", "alice", 1, WINDOW).allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("evictIdle drops only windows without live requests")
+    void evictIdle() {
+        limiter.tryAcquire("op", "alice", 5, WINDOW);
+        clock.advance(Duration.ofMinutes(5));
+        limiter.tryAcquire("op", "bob", 5, WINDOW);
+        assertThat(limiter.trackedKeys()).isEqualTo(2);
+
+        clock.advance(Duration.ofMinutes(6));
+
+        assertThat(limiter.evictIdle()).isEqualTo(1);
+        assertThat(limiter.trackedKeys()).isEqualTo(1);
+        assertThat(limiter.remaining("op", "alice", 5, WINDOW)).isEqualTo(5);
+        assertThat(limiter.remaining("op", "bob", 5, WINDOW)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Changing the limit starts a fresh window")
+    void limitChange() {
+        limiter.tryAcquire("op", "alice", 1, WINDOW);
+        assertThat(limiter.tryAcquire("op", "alice", 1, WINDOW).allowed()).isFalse();
+
+        assertThat(limiter.tryAcquire("op", "alice", 3, WINDOW).allowed()).isTrue();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.workfitai.applicationservice.service.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * RedisRateLimiter integration tests against a real Redis (Testcontainers).
+ *
+ * Exercises the Lua ZSET sliding-window scripts, the per-operation key
+ * index and the fail-open fallback.
+ */
+@Testcontainers
+@DisplayName("RedisRateLimiter Integration Tests")
+class RedisRateLimiterTest {
+
+    @Container
+    static GenericContainer<?> redisContainer = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static final String PREFIX = "rl:";
+    private static final Duration WINDOW = Duration.ofMillis(800);
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private StringRedisTemplate redis;
+    private RedisRateLimiter limiter;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(redisContainer.getHost(), redisContainer.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis = new StringRedisTemplate(connectionFactory);
+        redis.getConnectionFactory().getConnection().serverCommands().flushAll();
+        limiter = new RedisRateLimiter(redis, PREFIX, new LocalRateLimiter());
+    }
+
+    @Test
+    @DisplayName("Window admits up to the limit, then slides once the oldest request expires")
+    void slidingWindow() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            RateLimitDecision allowed = limiter.tryAcquire("apply", "alice", 3, WINDOW);
+            assertThat(allowed.allowed()).isTrue();
+            assertThat(allowed.remaining()).isEqualTo(2 - i);
+        }
+
+        RateLimitDecision denied = limiter.tryAcquire("apply", "alice", 3, WINDOW);
+        assertThat(denied.allowed()).isFalse();
+        assertThat(denied.remaining()).isZero();
+        assertThat(denied.resetAfter()).isPositive().isLessThanOrEqualTo(WINDOW);
+        // request bị từ chối không được ghi vào ZSET
+        assertThat(redis.opsForZSet().zCard(PREFIX + "{apply}:w:alice")).isEqualTo(3);
+
+        // key khác không bị ảnh hưởng
+        assertThat(limiter.tryAcquire("apply", "bob", 3, WINDOW).allowed()).isTrue();
+
+        Thread.sleep(WINDOW.toMillis() + 100);
+        assertThat(limiter.remaining("apply", "alice", 3, WINDOW)).isEqualTo(3);
+        assertThat(limiter.resetAfter("apply", "alice", WINDOW)).isZero();
+        assertThat(limiter.tryAcquire("apply", "alice", 3, WINDOW).allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("remaining/resetAfter read the window without consuming")
+    void peekDoesNotConsume() {
+        limiter.tryAcquire("apply", "alice", 2, WINDOW);
+
+        assertThat(limiter.remaining("apply", "alice", 2, WINDOW)).isEqualTo(1);
+        assertThat(limiter.remaining("apply", "alice", 2, WINDOW)).isEqualTo(1);
+        assertThat(limiter.resetAfter("apply", "alice", WINDOW)).isPositive().isLessThanOrEqualTo(WINDOW);
+        assertThat(limiter.remaining("apply", "nobody", 2, WINDOW)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Window keys expire with the window; the index tracks keys and backs clear()")
+    void indexAndClear() {
+        limiter.tryAcquire("apply", "alice", 5, WINDOW);
+        limiter.tryAcquire("apply", "bob", 5, WINDOW);
+        limiter.tryAcquire("withdraw", "alice", 5, WINDOW);
+
+        assertThat(limiter.trackedKeys()).isEqualTo(3);
+        assertThat(redis.getExpire(PREFIX + "{apply}:w:alice")).isBetween(0L, 1L);
+
+        limiter.clear("apply");
+
+        assertThat(redis.hasKey(PREFIX + "{apply}:w:alice")).isFalse();
+        assertThat(redis.hasKey(PREFIX + "{apply}:keys")).isFalse();
+        assertThat(redis.hasKey(PREFIX + "{withdraw}:w:alice")).isTrue();
+        assertThat(limiter.trackedKeys()).isEqualTo(1);
+        assertThat(limiter.tryAcquire("apply", "alice", 1, WINDOW).allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Redis failures fall back to local limits, clear() included")
+    void failsOpenToLocalLimiter() {
+        StringRedisTemplate down = mock(StringRedisTemplate.class, invocation -> {
+            throw new RedisConnectionFailureException("connection refused");
+        });
+        RedisRateLimiter failing = new RedisRateLimiter(down, PREFIX, new LocalRateLimiter());
+
+        assertThat(failing.tryAcquire("apply", "alice", 1, WINDOW).allowed()).isTrue();
+        assertThat(failing.tryAcquire("apply", "alice", 1, WINDOW).allowed()).isFalse();
+        assertThat(failing.trackedKeys()).isEqualTo(1);
+
+        assertThatCode(() -> failing.clear("apply")).doesNotThrowAnyException();
+        assertThat(failing.tryAcquire("apply", "alice", 1, WINDOW).allowed()).isTrue();
+    }
+}
@@ -0,0 +1,197 @@
+package org.workfitai.applicationservice.service.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.workfitai.applicationservice.exception.ApplicationConflictException;
+import org.workfitai.applicationservice.model.Application;
+import org.workfitai.applicationservice.model.ApplicationStats;
+import org.workfitai.applicationservice.model.ApplicationStatsEntry;
+import org.workfitai.applicationservice.model.enums.ApplicationStatus;
+
+@DisplayName("ApplicationStatsProjector Unit Tests")
+class ApplicationStatsProjectorTest {
+
+    private static final String LOCK_COLLECTION = "application_stats_rebuild_lock";
+    private static final Instant CREATED_AT = Instant.parse("2026-03-02T10:00:00Z");
+
+    private MongoTemplate mongoTemplate;
+    private ApplicationStatsProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        projector = new ApplicationStatsProjector(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should move one count between statuses on a status change")
+    void shouldApplyStatusChangeDelta() {
+        Application applied = application(ApplicationStatus.APPLIED);
+        ApplicationStatsEntry previous = ApplicationStatsProjector.toEntry(applied);
+
+        Application reviewing = application(ApplicationStatus.REVIEWING);
+        reviewing.getStatusHistory().add(Application.StatusChange.builder()
+                .previousStatus(ApplicationStatus.APPLIED)
+                .newStatus(ApplicationStatus.REVIEWING)
+                .changedBy("hr")
+                .changedAt(CREATED_AT.plus(Duration.ofDays(2)))
+                .build());
+        given(mongoTemplate.findAndReplace(any(Query.class), any(ApplicationStatsEntry.class),
+                any(FindAndReplaceOptions.class))).willReturn(previous);
+
+        projector.onSaved(reviewing);
+
+        Map<String, Document> incs = capturedIncs(4);
+        assertThat(incs).containsOnlyKeys("global", "company:c1", "job:j1", "hr:c1:hr");
+        assertThat(incs.get("global"))
+                .containsEntry("byStatus.APPLIED", -1L)
+                .containsEntry("byStatus.REVIEWING", 1L)
+                .containsEntry("reviewedCount", 1L)
+                .containsEntry("reviewMsTotal", Duration.ofDays(2).toMillis())
+                .doesNotContainKey("active");
+        then(mongoTemplate).should(never()).upsert(any(Query.class), any(Update.class), eq(ApplicationStats.class));
+    }
+
+    @Test
+    @DisplayName("Should move a withdrawn application from active to deleted")
+    void shouldApplySoftDelete() {
+        Application applied = application(ApplicationStatus.APPLIED);
+        given(mongoTemplate.findAndReplace(any(Query.class), any(ApplicationStatsEntry.class),
+                any(FindAndReplaceOptions.class))).willReturn(ApplicationStatsProjector.toEntry(applied));
+
+        Application withdrawn = application(ApplicationStatus.WITHDRAWN);
+        withdrawn.setDeletedAt(CREATED_AT.plus(Duration.ofDays(1)));
+        projector.onSaved(withdrawn);
+
+        Document global = capturedIncs(4).get("global");
+        assertThat(global)
+                .containsEntry("active", -1L)
+                .containsEntry("deleted", 1L)
+                .containsEntry("byStatus.APPLIED", -1L)
+                .containsEntry("daily.2026-03-02", -1L)
+                .doesNotContainKey("byStatus.WITHDRAWN");
+    }
+
+    @Test
+    @DisplayName("Should count a job and company once when they get their first application")
+    void shouldCountDistinctJobsAndCompanies() {
+        given(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ApplicationStats.class))).willReturn(ApplicationStats.builder().active(1).build());
+
+        projector.onSaved(application(ApplicationStatus.APPLIED));
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        then(mongoTemplate).should(times(2)).upsert(queries.capture(), updates.capture(), eq(ApplicationStats.class));
+
+        Map<String, Document> transitions = new HashMap<>();
+        for (int i = 0; i < queries.getAllValues().size(); i++) {
+            transitions.put(String.valueOf(queries.getAllValues().get(i).getQueryObject().get("_id")),
+                    updates.getAllValues().get(i).getUpdateObject().get("$inc", Document.class));
+        }
+        assertThat(transitions.get("global")).containsEntry("activeJobs", 1L).containsEntry("companies", 1L);
+        assertThat(transitions.get("company:c1")).containsEntry("activeJobs", 1L);
+    }
+
+    @Test
+    @DisplayName("Should upsert entries during a rebuild so concurrent writes cannot abort it")
+    void shouldRebuildWithUpserts() {
+        BulkOperations bulk = mock(BulkOperations.class);
+        given(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class))).willReturn(bulk);
+        given(mongoTemplate.stream(any(Query.class), eq(Application.class)))
+                .willReturn(Stream.of(application(ApplicationStatus.APPLIED)));
+
+        assertThat(projector.rebuild()).isEqualTo(1);
+
+        then(bulk).should().replaceOne(any(Query.class), any(ApplicationStatsEntry.class),
+                any(FindAndReplaceOptions.class));
+        then(mongoTemplate).should(never()).insert(anyCollection(), eq(ApplicationStatsEntry.class));
+        // lease được lấy rồi trả lại
+        then(mongoTemplate).should().upsert(any(Query.class), any(Update.class), eq(LOCK_COLLECTION));
+        then(mongoTemplate).should().updateFirst(any(Query.class), any(Update.class), eq(LOCK_COLLECTION));
+    }
+
+    @Test
+    @DisplayName("Should refuse to rebuild while another instance holds the lease")
+    void shouldNotRebuildWithoutLease() {
+        given(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(LOCK_COLLECTION)))
+                .willThrow(new DuplicateKeyException("lock held"));
+
+        assertThatThrownBy(projector::rebuild).isInstanceOf(ApplicationConflictException.class);
+        then(mongoTemplate).should(never()).remove(any(Query.class), eq(ApplicationStats.class));
+
+        // lúc khởi động: instance khác đang rebuild → bỏ qua, không lỗi
+        given(mongoTemplate.exists(any(Query.class), eq(Application.class))).willReturn(true);
+        projector.rebuildIfEmpty();
+        then(mongoTemplate).should(never()).remove(any(Query.class), eq(ApplicationStats.class));
+    }
+
+    @Test
+    @DisplayName("Should skip the startup rebuild when another instance built the read model first")
+    void shouldRecheckEmptinessUnderLease() {
+        given(mongoTemplate.exists(any(Query.class), eq(ApplicationStats.class))).willReturn(false, true);
+        given(mongoTemplate.exists(any(Query.class), eq(Application.class))).willReturn(true);
+
+        projector.rebuildIfEmpty();
+
+        then(mongoTemplate).should().upsert(any(Query.class), any(Update.class), eq(LOCK_COLLECTION));
+        then(mongoTemplate).should(never()).remove(any(Query.class), eq(ApplicationStats.class));
+    }
+
+    private Map<String, Document> capturedIncs(int scopes) {
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        then(mongoTemplate).should(times(scopes)).findAndModify(queries.capture(), updates.capture(),
+                any(FindAndModifyOptions.class), eq(ApplicationStats.class));
+
+        Map<String, Document> incs = new HashMap<>();
+        for (int i = 0; i < scopes; i++) {
+            incs.put(String.valueOf(queries.getAllValues().get(i).getQueryObject().get("_id")),
+                    updates.getAllValues().get(i).getUpdateObject().get("$inc", Document.class));
+        }
+        return incs;
+    }
+
+    private static Application application(ApplicationStatus status) {
+        return Application.builder()
+                .id("app-1")
+                .username("candidate")
+                .jobId("j1")
+                .companyId("c1")
+                .assignedTo("hr")
+                .jobSnapshot(Application.JobSnapshot.builder().title("Java Dev").build())
+                .status(status)
+                .statusHistory(new ArrayList<>(List.of()))
+                .createdAt(CREATED_AT)
+                .build();
+    }
+}
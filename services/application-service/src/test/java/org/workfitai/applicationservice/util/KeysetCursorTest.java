@@ -0,0 +1,31 @@
+package org.workfitai.applicationservice.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.workfitai.applicationservice.exception.BadRequestException;
+
+@DisplayName("KeysetCursor Unit Tests")
+class KeysetCursorTest {
+
+    @Test
+    @DisplayName("Should decode what it encodes")
+    void shouldRoundTrip() {
+        KeysetCursor cursor = new KeysetCursor(Instant.parse("2026-03-02T10:00:00.123Z"), "65f1c0ffee0000000000abcd");
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered cursor")
+    void shouldRejectInvalidCursor() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not-a-cursor"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("%%%"))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
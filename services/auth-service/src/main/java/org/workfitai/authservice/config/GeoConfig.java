@@ -0,0 +1,36 @@
+package org.workfitai.authservice.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Session geolocation: offline IP database, reverse-geocode cache and the
+ * background enrichment pool.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.geo")
+public class GeoConfig {
+
+    /** DB-IP "IP to City Lite" CSV (plain or .gz); empty = no offline lookup */
+    private String ipDatabase = "";
+
+    /** Use ip-api.com / Nominatim when the offline table has no answer */
+    private boolean remoteFallback = true;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(3);
+
+    /** Coordinates are rounded to this many decimals for the cache key (2 ≈ 1 km) */
+    private int coordinatePrecision = 2;
+    private long coordinateCacheSize = 10_000;
+
+    /** Farthest known city accepted as the reverse-geocode answer */
+    private double maxCityDistanceKm = 50;
+
+    private int enrichThreads = 2;
+    private int enrichQueueCapacity = 1_000;
+}
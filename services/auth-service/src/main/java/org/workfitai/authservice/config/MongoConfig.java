@@ -1,6 +1,8 @@
 package org.workfitai.authservice.config;
 
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.Document;
@@ -10,12 +12,16 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
 import org.springframework.data.mongodb.core.MongoTemplate;
 
+import java.util.List;
+
 @Configuration
 @EnableMongoAuditing
 @RequiredArgsConstructor
 @Slf4j
 public class MongoConfig {
 
+    static final String USER_DEVICE_INDEX = "user_device_idx";
+
     /**
      * Create TTL indexes for auto-expiration of documents
      * MongoDB will automatically delete documents when expiresAt field is reached
@@ -30,6 +36,8 @@ public class MongoConfig {
                 // TTL index for password_reset_tokens collection
                 createTtlIndex(mongoTemplate, "password_reset_tokens", "expiresAt");
 
+                createSessionIndexes(mongoTemplate);
+
                 log.info("MongoDB TTL indexes created successfully");
             } catch (Exception e) {
                 log.warn("Failed to create TTL indexes (may already exist): {}", e.getMessage());
@@ -37,6 +45,57 @@ public class MongoConfig {
         };
     }
 
+    /**
+     * Login: per-device session upsert and oldest-first trimming.
+     * The only declaration of these indexes (tests call it too).
+     *
+     * user_device_idx is unique so concurrent logins from one device cannot
+     * both insert. Sessions created before it (several per device were
+     * allowed) are deduped once, keeping the newest, before it is built.
+     */
+    public static void createSessionIndexes(MongoTemplate mongoTemplate) {
+        MongoCollection<Document> sessions = mongoTemplate.getCollection("user_sessions");
+        Document deviceIndex = null;
+        for (Document index : sessions.listIndexes()) {
+            if (USER_DEVICE_INDEX.equals(index.getString("name"))) {
+                deviceIndex = index;
+            }
+        }
+        if (deviceIndex == null || !Boolean.TRUE.equals(deviceIndex.getBoolean("unique"))) {
+            long removed = dedupeDeviceSessions(sessions);
+            if (deviceIndex != null) {
+                sessions.dropIndex(USER_DEVICE_INDEX);
+            }
+            log.info("Building unique {} (removed {} duplicate device sessions)", USER_DEVICE_INDEX, removed);
+        }
+        sessions.createIndex(new Document("userId", 1).append("deviceId", 1),
+                new IndexOptions().name(USER_DEVICE_INDEX).unique(true));
+        sessions.createIndex(new Document("userId", 1).append("createdAt", -1),
+                new IndexOptions().name("user_created_idx"));
+    }
+
+    /**
+     * Deletes all but the newest session of every (userId, deviceId).
+     *
+     * @return number of sessions deleted
+     */
+    static long dedupeDeviceSessions(MongoCollection<Document> sessions) {
+        long removed = 0;
+        List<Document> pipeline = List.of(
+                new Document("$sort", new Document("createdAt", -1)),
+                new Document("$group", new Document("_id",
+                        new Document("userId", "$userId").append("deviceId", "$deviceId"))
+                        .append("ids", new Document("$push", "$_id"))
+                        .append("count", new Document("$sum", 1))),
+                new Document("$match", new Document("count", new Document("$gt", 1))));
+        for (Document duplicate : sessions.aggregate(pipeline).allowDiskUse(true)) {
+            List<Object> ids = duplicate.getList("ids", Object.class);
+            // ids[0] là session mới nhất → giữ lại
+            removed += sessions.deleteMany(Filters.in("_id", ids.subList(1, ids.size()))).getDeletedCount();
+        }
+        return removed;
+    }
+
     private void createTtlIndex(MongoTemplate mongoTemplate, String collectionName, String fieldName) {
         MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
 
@@ -45,7 +104,7 @@ public class MongoConfig {
         Document indexOptions = new Document("expireAfterSeconds", 0)
                 .append("name", fieldName + "_ttl");
 
-        collection.createIndex(indexKeys, new com.mongodb.client.model.IndexOptions()
+        collection.createIndex(indexKeys, new IndexOptions()
                 .expireAfter(0L, java.util.concurrent.TimeUnit.SECONDS)
                 .name(fieldName + "_ttl"));
 
@@ -0,0 +1,25 @@
+package org.workfitai.authservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.workfitai.authservice.security.PermissionSnapshotCache;
+
+/**
+ * Subscribes this instance to role/permission change notices so its
+ * permission snapshot follows changes made on any auth-service replica.
+ */
+@Configuration
+public class PermissionSnapshotConfig {
+
+    @Bean
+    public RedisMessageListenerContainer permissionChangeListenerContainer(RedisConnectionFactory connectionFactory,
+            PermissionSnapshotCache permissionSnapshotCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(permissionSnapshotCache, new ChannelTopic(PermissionSnapshotCache.CHANNEL));
+        return container;
+    }
+}
@@ -10,6 +10,7 @@ import org.workfitai.authservice.model.Permission;
 import org.workfitai.authservice.model.Role;
 import org.workfitai.authservice.repository.PermissionRepository;
 import org.workfitai.authservice.repository.RoleRepository;
+import org.workfitai.authservice.security.PermissionSnapshotCache;
 
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -30,6 +31,7 @@ public class RolePermissionDataInitializer implements ApplicationRunner {
 
     private final PermissionRepository permissionRepository;
     private final RoleRepository roleRepository;
+    private final PermissionSnapshotCache permissionSnapshot;
 
     @Override
     public void run(ApplicationArguments args) {
@@ -48,6 +50,9 @@ public class RolePermissionDataInitializer implements ApplicationRunner {
         createHRManagerRole();
         createAdminRole();
 
+        // 3) Load the token-minting snapshot here and on running replicas
+        permissionSnapshot.publishChange();
+
         log.info("[BOOTSTRAP] Role/permission seed complete");
     }
 
@@ -1,7 +1,15 @@
 package org.workfitai.authservice.config;
 
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -12,4 +20,40 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public record RsaKeyProperties(
         RSAPublicKey publicKey,
         RSAPrivateKey privateKey) {
-}
\ No newline at end of file
+
+    /**
+     * Key id = RFC 7638 JWK thumbprint (SHA-256) of the public key.
+     * Stable for a given key pair, changes automatically when keys are rotated.
+     */
+    public String keyId() {
+        String canonical = "{\"e\":\"" + base64Url(publicKey.getPublicExponent())
+                + "\",\"kty\":\"RSA\",\"n\":\"" + base64Url(publicKey.getModulus()) + "\"}";
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** Public key as a JWK (RFC 7517) */
+    public Map<String, String> toJwk() {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "RSA");
+        jwk.put("use", "sig");
+        jwk.put("alg", "RS256");
+        jwk.put("kid", keyId());
+        jwk.put("n", base64Url(publicKey.getModulus()));
+        jwk.put("e", base64Url(publicKey.getPublicExponent()));
+        return jwk;
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        // BigInteger adds a sign byte; JWK uses the unsigned big-endian form
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
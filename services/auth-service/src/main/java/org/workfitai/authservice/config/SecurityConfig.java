@@ -51,6 +51,7 @@ public class SecurityConfig {
                                 "/api/v1/auth/**",
                                 "/auth/oauth/**", // OAuth endpoints (new path)
                                 "/api/v1/keys/public",
+                                "/api/v1/keys/jwks",
                                 "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html")
                         .permitAll()
                         .requestMatchers("/logout").authenticated() // Require authentication for logout
@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.workfitai.authservice.config.RsaKeyProperties;
 
 import java.util.Base64;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -22,7 +23,14 @@ public class PublicKeyController {
     return Map.of(
         "alg", "RS256",
         "type", "RSA",
+        "kid", rsaKeys.keyId(),
         "publicKey", encoded
     );
   }
+
+  /** JWK Set (RFC 7517): tokens carry the matching "kid" header */
+  @GetMapping("/jwks")
+  public Map<String, List<Map<String, String>>> getJwks() {
+    return Map.of("keys", List.of(rsaKeys.toJwk()));
+  }
 }
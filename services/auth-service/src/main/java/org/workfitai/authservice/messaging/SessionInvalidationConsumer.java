@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.workfitai.authservice.dto.kafka.SessionInvalidationEvent;
 import org.workfitai.authservice.repository.UserSessionRepository;
+import org.workfitai.authservice.security.SessionPresenceCache;
 
 /**
  * Kafka consumer for session invalidation events.
@@ -18,6 +19,7 @@ import org.workfitai.authservice.repository.UserSessionRepository;
 public class SessionInvalidationConsumer {
 
     private final UserSessionRepository sessionRepository;
+    private final SessionPresenceCache sessionPresenceCache;
 
     @KafkaListener(topics = "session-invalidation-events", groupId = "auth-service-session-invalidation", containerFactory = "kafkaListenerContainerFactory")
     @Transactional
@@ -27,7 +29,9 @@ public class SessionInvalidationConsumer {
                     event.getUsername(), event.getReason());
 
             // Delete all sessions for the user
-            int deletedCount = sessionRepository.deleteByUserId(event.getUserId().toString());
+            String userId = event.getUserId().toString();
+            int deletedCount = sessionRepository.deleteByUserId(userId);
+            sessionPresenceCache.invalidateUser(userId);
 
             log.info("Invalidated {} sessions for user {} (reason: {})",
                     deletedCount, event.getUsername(), event.getReason());
@@ -9,6 +9,7 @@ import org.workfitai.authservice.dto.kafka.UserChangeEvent;
 import org.workfitai.authservice.model.User;
 import org.workfitai.authservice.repository.UserRepository;
 import org.workfitai.authservice.repository.UserSessionRepository;
+import org.workfitai.authservice.security.SessionPresenceCache;
 import org.workfitai.authservice.service.RefreshTokenService;
 
 import java.time.Instant;
@@ -26,6 +27,7 @@ public class UserBlockSyncConsumer {
 
     private final UserRepository userRepository;
     private final UserSessionRepository sessionRepository;
+    private final SessionPresenceCache sessionPresenceCache;
     private final RefreshTokenService refreshTokenService;
 
     @KafkaListener(topics = "user-change-events", groupId = "auth-service-block-sync", containerFactory = "userChangeEventListenerContainerFactory")
@@ -64,6 +66,7 @@ public class UserBlockSyncConsumer {
             if ("USER_DELETED".equals(eventType)) {
                 // Invalidate all sessions and refresh tokens
                 sessionRepository.deleteByUserId(userId);
+                sessionPresenceCache.invalidateUser(userId);
                 refreshTokenService.deleteAllByUserId(userId);
                 log.info("Deleted all sessions and refresh tokens for deleted user: {}", username);
                 return;
@@ -84,6 +87,7 @@ public class UserBlockSyncConsumer {
 
                 // Invalidate all sessions and refresh tokens when user is blocked
                 sessionRepository.deleteByUserId(userId);
+                sessionPresenceCache.invalidateUser(userId);
                 refreshTokenService.deleteAllByUserId(userId);
                 log.info("Successfully blocked user {} and deleted all sessions", username);
                 return;
@@ -18,6 +18,8 @@ public interface UserSessionRepository extends MongoRepository<UserSession, Stri
 
     long countByUserId(String userId);
 
+    boolean existsByUserId(String userId);
+
     int deleteByUserId(String userId);
 
     void deleteByUserIdAndSessionId(String userId, String sessionId);
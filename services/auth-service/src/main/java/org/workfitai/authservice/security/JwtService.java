@@ -2,6 +2,7 @@ package org.workfitai.authservice.security;
 
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -16,7 +17,6 @@ import org.workfitai.authservice.config.RsaKeyProperties;
 import org.workfitai.authservice.constants.Messages;
 import org.workfitai.authservice.model.User;
 import org.workfitai.authservice.repository.UserRepository;
-import org.workfitai.authservice.service.iRoleService;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
@@ -35,7 +35,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class JwtService {
 
-    private final iRoleService roleService;
+    private final PermissionSnapshotCache permissionSnapshot;
     private final RsaKeyProperties rsaKeys;
     private final UserRepository userRepository;
 
@@ -47,6 +47,7 @@ public class JwtService {
 
     private RSAPrivateKey privateKey;
     private RSAPublicKey publicKey;
+    private String keyId;
 
     @PostConstruct
     public void init() {
@@ -59,6 +60,8 @@ public class JwtService {
         if (this.publicKey == null) {
             throw new IllegalStateException("RSA public key must be configured for JWT verification");
         }
+        // kid header lets the gateway pick the right key from /api/v1/keys/jwks during rotation
+        this.keyId = rsaKeys.keyId();
     }
 
     /**
@@ -74,17 +77,31 @@ public class JwtService {
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
 
-        // fetch all permissions for these roles
-        Set<String> perms = roles.stream()
-                .flatMap(r -> roleService.getPermissions(r).stream())
-                .collect(Collectors.toSet());
-
         // Get user entity to access email
         User userEntity = userRepository.findByUsername(user.getUsername())
                 .orElseThrow(() -> new IllegalStateException("User not found: " + user.getUsername()));
 
+        return buildAccessToken(userEntity, roles, permissionsOf(roles));
+    }
+
+    /**
+     * Same token as {@link #generateAccessToken(UserDetails)}, built from an
+     * already loaded user (login context) without any database lookup.
+     */
+    public String generateAccessToken(User user) {
+        List<String> roles = user.getRoles() != null ? user.getRoles().stream().sorted().toList() : List.of();
+        return buildAccessToken(user, roles, permissionsOf(roles));
+    }
+
+    /** Union of all permissions for the given roles, from the in-memory snapshot */
+    public Set<String> permissionsOf(Collection<String> roles) {
+        return permissionSnapshot.permissionsOf(roles);
+    }
+
+    private String buildAccessToken(User userEntity, List<String> roles, Set<String> perms) {
         var builder = Jwts.builder()
-                .subject(user.getUsername())
+                .header().keyId(keyId).and()
+                .subject(userEntity.getUsername())
                 .issuer(Messages.JWT.ISSUER)
                 .claim(Messages.JWT.ROLES_CLAIM, roles)
                 .claim(Messages.JWT.PERMISSIONS_CLAIM, perms)
@@ -138,8 +155,14 @@ public class JwtService {
 
     /** Issue a refresh token carrying a specific jti */
     public String generateRefreshTokenWithJti(UserDetails user, String jti) {
+        return generateRefreshTokenWithJti(user.getUsername(), jti);
+    }
+
+    /** Issue a refresh token for a username carrying a specific jti */
+    public String generateRefreshTokenWithJti(String username, String jti) {
         return Jwts.builder()
-                .subject(user.getUsername())
+                .header().keyId(keyId).and()
+                .subject(username)
                 .issuer(Messages.JWT.ISSUER)
                 .id(jti) // <-- make jti part of the token
                 .issuedAt(new Date())
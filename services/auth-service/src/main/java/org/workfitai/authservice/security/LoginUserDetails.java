@@ -0,0 +1,40 @@
+package org.workfitai.authservice.security;
+
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.workfitai.authservice.document.TwoFactorAuth;
+import org.workfitai.authservice.model.User;
+
+import lombok.Getter;
+
+/**
+ * Principal produced by CustomUserDetailsService: besides the credentials it
+ * carries everything the login flow needs (user entity and 2FA settings),
+ * loaded in one query, so login does not go back to the database after
+ * authentication. Permissions come from PermissionSnapshotCache.
+ */
+@Getter
+public class LoginUserDetails extends org.springframework.security.core.userdetails.User {
+
+    private final transient User user;
+
+    /** Null when the user never set up 2FA. */
+    private final transient TwoFactorAuth twoFactorAuth;
+
+    public LoginUserDetails(User user, TwoFactorAuth twoFactorAuth) {
+        super(user.getUsername(), user.getPassword(), true, true, true, true,
+                AuthorityUtils.createAuthorityList(
+                        user.getRoles() != null ? user.getRoles().toArray(new String[0]) : new String[0]));
+        this.user = user;
+        this.twoFactorAuth = twoFactorAuth;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
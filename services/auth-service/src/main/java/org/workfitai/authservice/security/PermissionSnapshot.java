@@ -0,0 +1,34 @@
+package org.workfitai.authservice.security;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable role → permissions map at a given version.
+ *
+ * @param version           cluster-wide generation, bumped on every role or
+ *                          permission change
+ * @param permissionsByRole permissions of each role, keyed by role name
+ */
+public record PermissionSnapshot(long version, Map<String, Set<String>> permissionsByRole) {
+
+    public static final PermissionSnapshot EMPTY = new PermissionSnapshot(0, Map.of());
+
+    public PermissionSnapshot {
+        permissionsByRole = Map.copyOf(permissionsByRole);
+    }
+
+    /** Union of the permissions of the given roles; unknown roles add nothing */
+    public Set<String> permissionsOf(Collection<String> roles) {
+        if (roles.size() == 1) {
+            return permissionsByRole.getOrDefault(roles.iterator().next(), Set.of());
+        }
+        Set<String> perms = new HashSet<>();
+        for (String role : roles) {
+            perms.addAll(permissionsByRole.getOrDefault(role, Set.of()));
+        }
+        return Set.copyOf(perms);
+    }
+}
@@ -0,0 +1,205 @@
+package org.workfitai.authservice.security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.workfitai.authservice.model.Role;
+import org.workfitai.authservice.repository.RoleRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory role → permissions snapshot used when minting tokens, so issuing
+ * or refreshing a token reads no role or permission from the database.
+ *
+ * The snapshot is rebuilt from MongoDB and swapped atomically. After a role
+ * or permission change, {@link #publishChange()} bumps the cluster-wide
+ * version (Redis INCR), rebuilds locally and announces the version on a
+ * Redis pub/sub channel. Every other auth-service instance receives it and
+ * rebuilds too. The version is exported as auth.permissions.snapshot.version.
+ *
+ * Only Redis assigns versions: if the INCR fails the instance rebuilds under
+ * its current version, so it never runs ahead of the cluster and drops a
+ * later notice as already seen.
+ *
+ * Pub/sub is fire-and-forget: a notice sent while this instance was
+ * disconnected is lost. Every reconcile-interval, and whenever the listener
+ * container (re)subscribes, {@link #reconcile()} reads the cluster version
+ * and rebuilds if it is ahead of the local one.
+ */
+@Slf4j
+@Component
+public class PermissionSnapshotCache implements MessageListener, SubscriptionListener {
+
+    public static final String CHANNEL = "auth:perm:changed";
+    private static final String VERSION_KEY = "auth:perm:version";
+
+    private final RoleRepository roleRepository;
+    private final StringRedisTemplate redis;
+    private final Duration reconcileInterval;
+    private final AtomicReference<PermissionSnapshot> current = new AtomicReference<>(PermissionSnapshot.EMPTY);
+    private final ScheduledExecutorService reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "permission-snapshot-reconcile");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public PermissionSnapshotCache(RoleRepository roleRepository, StringRedisTemplate redis,
+            MeterRegistry meterRegistry,
+            @Value("${auth.permissions.reconcile-interval:30s}") Duration reconcileInterval) {
+        this.roleRepository = roleRepository;
+        this.redis = redis;
+        this.reconcileInterval = reconcileInterval;
+        Gauge.builder("auth.permissions.snapshot.version", current, ref -> ref.get().version())
+                .description("Version of the role/permission snapshot used for token minting")
+                .register(meterRegistry);
+    }
+
+    PermissionSnapshotCache(RoleRepository roleRepository, StringRedisTemplate redis,
+            MeterRegistry meterRegistry) {
+        this(roleRepository, redis, meterRegistry, Duration.ofSeconds(30));
+    }
+
+    @PostConstruct
+    void startReconciling() {
+        long periodMs = reconcileInterval.toMillis();
+        reconciler.scheduleWithFixedDelay(this::reconcile, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopReconciling() {
+        reconciler.shutdownNow();
+    }
+
+    /** Current snapshot; loaded on first use if no change was published yet */
+    public PermissionSnapshot current() {
+        PermissionSnapshot snapshot = current.get();
+        if (snapshot == PermissionSnapshot.EMPTY) {
+            snapshot = rebuild(clusterVersion());
+        }
+        return snapshot;
+    }
+
+    public Set<String> permissionsOf(Collection<String> roles) {
+        return current().permissionsOf(roles);
+    }
+
+    /**
+     * Call after any role/permission write: rebuilds this instance and tells
+     * the others to rebuild.
+     */
+    public void publishChange() {
+        Long version = null;
+        try {
+            version = redis.opsForValue().increment(VERSION_KEY);
+        } catch (RuntimeException e) {
+            log.warn("Could not bump permission snapshot version: {}", e.getMessage());
+        }
+        if (version == null) {
+            // Redis down: still refresh this instance but keep its version, so the
+            // next cluster notice (any higher version) is still applied here
+            rebuild(current.get().version());
+            return;
+        }
+        rebuild(version);
+        try {
+            redis.convertAndSend(CHANNEL, String.valueOf(version));
+        } catch (RuntimeException e) {
+            log.warn("Could not broadcast permission snapshot v{}: {}", version, e.getMessage());
+        }
+    }
+
+    /** Change notice from another instance (or our own echo) */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        long version;
+        try {
+            version = Long.parseLong(new String(message.getBody(), StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed permission change notice");
+            return;
+        }
+        if (version > current.get().version()) {
+            rebuild(version);
+        }
+    }
+
+    /**
+     * The listener container subscribed, at startup or after a reconnect:
+     * notices may have been missed while it was down. Runs off the
+     * subscription thread, which must not block on Redis.
+     */
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        try {
+            reconciler.execute(this::reconcile);
+        } catch (RuntimeException e) {
+            log.debug("Permission snapshot reconcile not scheduled: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Catches up with changes whose notice never arrived: rebuilds if the
+     * cluster version is ahead of the local snapshot. A snapshot not loaded
+     * yet is left to its first use.
+     */
+    void reconcile() {
+        try {
+            long local = current.get().version();
+            long cluster = clusterVersion();
+            if (current.get() != PermissionSnapshot.EMPTY && cluster > local) {
+                log.info("Permission snapshot v{} behind cluster v{}, rebuilding", local, cluster);
+                rebuild(cluster);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Permission snapshot reconcile failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Loads every role and swaps in the new snapshot unless a newer one was
+     * installed meanwhile.
+     */
+    public PermissionSnapshot rebuild(long version) {
+        Map<String, Set<String>> byRole = new HashMap<>();
+        for (Role role : roleRepository.findAll()) {
+            byRole.put(role.getName(), role.getPermissions() != null ? Set.copyOf(role.getPermissions()) : Set.of());
+        }
+        PermissionSnapshot rebuilt = new PermissionSnapshot(version, byRole);
+        PermissionSnapshot installed = current.accumulateAndGet(rebuilt,
+                (existing, candidate) -> candidate.version() >= existing.version() ? candidate : existing);
+        if (installed == rebuilt) {
+            log.info("Permission snapshot v{} loaded: {} roles", version, byRole.size());
+        }
+        return installed;
+    }
+
+    private long clusterVersion() {
+        try {
+            String version = redis.opsForValue().get(VERSION_KEY);
+            return version != null ? Long.parseLong(version) : 0;
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.workfitai.authservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.workfitai.authservice.repository.UserRepository;
+import org.workfitai.authservice.repository.UserSessionRepository;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived, in-process answer to "does this user still have a session?",
+ * keyed by username.
+ *
+ * Only positive answers are cached, so a steady stream of requests from a
+ * logged-in user costs no database call, and creating a session never needs
+ * an invalidation. Every place that removes sessions (session delete,
+ * password change/reset, block/delete and invalidation events) calls
+ * {@link #invalidateUser(String)} so revocation is immediate on this
+ * instance; other instances drop their copy within app.session.presence-ttl.
+ * A userId → username index keeps invalidation O(1).
+ */
+@Slf4j
+@Component
+public class SessionPresenceCache {
+
+    /**
+     * @param userId null when the username no longer exists
+     * @param active whether the user has at least one session
+     */
+    public record Presence(String userId, boolean active) {
+    }
+
+    private final UserRepository userRepository;
+    private final UserSessionRepository sessionRepository;
+    private final Cache<String, Presence> cache;
+    // userId → username của entry đang cache; dọn theo eviction của cache
+    private final Map<String, String> usernameByUserId = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SessionPresenceCache(UserRepository userRepository,
+            UserSessionRepository sessionRepository,
+            @Value("${app.session.presence-ttl:10s}") Duration ttl,
+            @Value("${app.session.presence-max-size:100000}") long maxSize) {
+        this(userRepository, sessionRepository, ttl, maxSize, Ticker.systemTicker());
+    }
+
+    SessionPresenceCache(UserRepository userRepository,
+            UserSessionRepository sessionRepository,
+            Duration ttl,
+            long maxSize,
+            Ticker ticker) {
+        this.userRepository = userRepository;
+        this.sessionRepository = sessionRepository;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .ticker(ticker)
+                .<String, Presence>evictionListener((username, presence, cause) -> {
+                    if (username != null && presence != null) {
+                        usernameByUserId.remove(presence.userId(), username);
+                    }
+                })
+                .build();
+    }
+
+    public Presence get(String username) {
+        Presence cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+
+        String userId = userRepository.findByUsername(username)
+                .map(user -> user.getId())
+                .orElse(null);
+        Presence presence = new Presence(userId, userId != null && sessionRepository.existsByUserId(userId));
+        if (presence.active()) {
+            Presence previous = cache.asMap().put(username, presence);
+            // ghi index sau put: put có thể đẩy ra entry hết hạn của cùng user và listener xoá index của nó
+            usernameByUserId.put(userId, username);
+            // username được cấp lại cho user khác → bỏ index của user cũ
+            if (previous != null && !userId.equals(previous.userId())) {
+                usernameByUserId.remove(previous.userId(), username);
+            }
+        }
+        return presence;
+    }
+
+    /**
+     * Forget the cached answer for a user whose sessions changed.
+     */
+    public void invalidateUser(String userId) {
+        if (userId == null) {
+            return;
+        }
+        String username = usernameByUserId.remove(userId);
+        if (username != null) {
+            cache.invalidate(username);
+            log.debug("Session presence invalidated for userId {}", userId);
+        }
+    }
+}
@@ -10,8 +10,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.workfitai.authservice.repository.UserRepository;
-import org.workfitai.authservice.repository.UserSessionRepository;
 
 import java.io.IOException;
 
@@ -25,14 +23,16 @@ import java.io.IOException;
  * 
  * This filter checks if the user has ANY active session.
  * If not → 401 Unauthorized (JWT is technically valid but user logged out)
+ *
+ * The answer comes from SessionPresenceCache, so most requests don't touch
+ * MongoDB.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class SessionValidationFilter extends OncePerRequestFilter {
 
-    private final UserSessionRepository sessionRepository;
-    private final UserRepository userRepository;
+    private final SessionPresenceCache sessionPresenceCache;
 
     private static final String[] SKIP_PATHS = {
             "/login",
@@ -75,10 +75,9 @@ public class SessionValidationFilter extends OncePerRequestFilter {
         if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
             String username = auth.getName();
 
-            // Get userId from username (sessions are stored with userId, not username)
-            String userId = userRepository.findByUsername(username)
-                    .map(user -> user.getId())
-                    .orElse(null);
+            // Sessions are stored with userId, not username
+            SessionPresenceCache.Presence presence = sessionPresenceCache.get(username);
+            String userId = presence.userId();
 
             if (userId == null) {
                 log.warn("🚫 User {} not found in database", username);
@@ -96,9 +95,7 @@ public class SessionValidationFilter extends OncePerRequestFilter {
             }
 
             // Check if user has any active sessions
-            long sessionCount = sessionRepository.countByUserId(userId);
-
-            if (sessionCount == 0) {
+            if (!presence.active()) {
                 log.warn(
                         "🚫 User {} (userId: {}) has valid JWT but NO active sessions (logged out or password changed)",
                         username, userId);
@@ -119,7 +116,7 @@ public class SessionValidationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            log.debug("✅ User {} has {} active session(s)", username, sessionCount);
+            log.debug("✅ User {} has an active session", username);
         }
 
         chain.doFilter(request, response);
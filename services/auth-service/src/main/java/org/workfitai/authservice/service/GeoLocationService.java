@@ -2,22 +2,96 @@ package org.workfitai.authservice.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.workfitai.authservice.config.GeoConfig;
 import org.workfitai.authservice.model.UserSession;
-
+import org.workfitai.authservice.service.geo.IpRangeTable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Resolves session locations.
+ *
+ * IP addresses are looked up in the offline {@link IpRangeTable} (loaded in
+ * the background at startup from app.geo.ip-database). Browser coordinates
+ * are reverse-geocoded to the nearest city of that table, through a bounded
+ * cache keyed by rounded coordinates. ip-api.com / Nominatim are only used,
+ * with timeouts, when the table has no answer and app.geo.remote-fallback
+ * is on. Callers run this off the request thread (SessionLocationEnricher).
+ */
 @Slf4j
 @Service
 public class GeoLocationService {
 
+    private static final String IP_API_URL = "http://ip-api.com/json/";
+
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
-    private static final String IP_API_URL = "http://ip-api.com/json/";
+    private final GeoConfig geoConfig;
+    private final Cache<Long, UserSession.Location> coordinateCache;
+    private volatile IpRangeTable ipTable;
+
+    @Autowired
+    public GeoLocationService(GeoConfig geoConfig) {
+        this(geoConfig, remoteClient(geoConfig), IpRangeTable.EMPTY);
+    }
 
-    public GeoLocationService() {
-        this.restTemplate = new RestTemplate();
+    GeoLocationService(GeoConfig geoConfig, RestTemplate restTemplate, IpRangeTable ipTable) {
+        this.restTemplate = restTemplate;
         this.objectMapper = new ObjectMapper();
+        this.geoConfig = geoConfig;
+        this.coordinateCache = Caffeine.newBuilder()
+                .maximumSize(geoConfig.getCoordinateCacheSize())
+                .build();
+        this.ipTable = ipTable;
+    }
+
+    private static RestTemplate remoteClient(GeoConfig geoConfig) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) geoConfig.getConnectTimeout().toMillis());
+        requestFactory.setReadTimeout((int) geoConfig.getReadTimeout().toMillis());
+        return new RestTemplate(requestFactory);
+    }
+
+    /**
+     * Loads the IP table without delaying startup; until it is ready,
+     * lookups fall back as if the table had no answer.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIpDatabase() {
+        String file = geoConfig.getIpDatabase();
+        if (file == null || file.isBlank()) {
+            log.info("No offline IP database configured (app.geo.ip-database)");
+            return;
+        }
+        Thread loader = new Thread(() -> {
+            Path path = Path.of(file);
+            if (!Files.isReadable(path)) {
+                log.warn("Offline IP database not readable: {}", path);
+                return;
+            }
+            long startedAt = System.nanoTime();
+            try {
+                IpRangeTable table = IpRangeTable.load(path);
+                ipTable = table;
+                coordinateCache.invalidateAll();
+                log.info("Loaded offline IP database {}: {} ranges, {} locations in {} ms", path, table.size(),
+                        table.locationCount(), (System.nanoTime() - startedAt) / 1_000_000);
+            } catch (Exception e) {
+                log.error("Failed to load offline IP database {}", path, e);
+            }
+        }, "geoip-loader");
+        loader.setDaemon(true);
+        loader.start();
     }
 
     public UserSession.Location getLocation(String ipAddress) {
@@ -26,6 +100,14 @@ public class GeoLocationService {
             return createDefaultLocation();
         }
 
+        UserSession.Location local = ipTable.lookup(ipAddress);
+        if (local != null) {
+            return local;
+        }
+        if (!geoConfig.isRemoteFallback()) {
+            return createDefaultLocation();
+        }
+
         try {
             String url = IP_API_URL + ipAddress;
             String response = restTemplate.getForObject(url, String.class);
@@ -58,6 +140,24 @@ public class GeoLocationService {
             return createDefaultLocation();
         }
 
+        Long key = coordinateKey(latitude, longitude);
+        UserSession.Location cached = coordinateCache.getIfPresent(key);
+        if (cached != null) {
+            return withCoordinates(cached, latitude, longitude);
+        }
+
+        UserSession.Location resolved = ipTable.nearest(latitude, longitude, geoConfig.getMaxCityDistanceKm());
+        if (resolved == null && geoConfig.isRemoteFallback()) {
+            resolved = reverseGeocodeRemote(latitude, longitude);
+        }
+        if (resolved == null) {
+            return createDefaultLocation();
+        }
+        coordinateCache.put(key, resolved);
+        return withCoordinates(resolved, latitude, longitude);
+    }
+
+    private UserSession.Location reverseGeocodeRemote(double latitude, double longitude) {
         try {
             // Using Nominatim reverse geocoding API (OpenStreetMap)
             String url = String.format("https://nominatim.openstreetmap.org/reverse?format=json&lat=%f&lon=%f",
@@ -85,14 +185,35 @@ public class GeoLocationService {
             }
 
             log.warn("Nominatim API returned no address for coordinates: {}, {}", latitude, longitude);
-            return createDefaultLocation();
+            return null;
 
         } catch (Exception e) {
             log.warn("Failed to get location from coordinates: {}, {}", latitude, longitude, e);
-            return createDefaultLocation();
+            return null;
         }
     }
 
+    /**
+     * Rounded (lat, lon) packed into one long: each scaled to an int.
+     */
+    private Long coordinateKey(double latitude, double longitude) {
+        double scale = Math.pow(10, geoConfig.getCoordinatePrecision());
+        long lat = Math.round(latitude * scale);
+        long lon = Math.round(longitude * scale);
+        return (lat << 32) ^ (lon & 0xFFFFFFFFL);
+    }
+
+    /** The city is shared; the session keeps the coordinates the browser sent */
+    private UserSession.Location withCoordinates(UserSession.Location city, double latitude, double longitude) {
+        return UserSession.Location.builder()
+                .country(city.getCountry())
+                .city(city.getCity())
+                .region(city.getRegion())
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+
     private String getJsonText(JsonNode node, String field, String defaultValue) {
         JsonNode fieldNode = node.get(field);
         return fieldNode != null && !fieldNode.isNull() ? fieldNode.asText() : defaultValue;
@@ -27,6 +27,7 @@ import org.workfitai.authservice.model.UserSession;
 import org.workfitai.authservice.repository.PasswordResetTokenRepository;
 import org.workfitai.authservice.repository.UserRepository;
 import org.workfitai.authservice.repository.UserSessionRepository;
+import org.workfitai.authservice.security.SessionPresenceCache;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -47,6 +48,7 @@ public class PasswordService {
 
     private final UserRepository userRepository;
     private final UserSessionRepository sessionRepository;
+    private final SessionPresenceCache sessionPresenceCache;
     private final PasswordResetTokenRepository resetTokenRepository;
     private final PasswordEncoder passwordEncoder;
     private final PasswordPolicyConfig passwordPolicy;
@@ -100,12 +102,12 @@ public class PasswordService {
         LogContext.setEntityId(user.getId());
 
         // Invalidate all refresh tokens (logout from all devices)
-        // Use userId instead of username to match the key format:
-        // auth:rt:{userId}:{deviceId}
+        // Keyed by userId (auth:rtu:{userId}), not username
         refreshTokenService.deleteAllByUserId(user.getId());
 
         // Delete all sessions to invalidate all JWTs
         sessionRepository.deleteByUserId(user.getId());
+        sessionPresenceCache.invalidateUser(user.getId());
         log.info("Deleted all sessions for user {} after password change", username);
 
         // Publish password change event to sync with user-service
@@ -245,6 +247,7 @@ public class PasswordService {
 
         // Delete all sessions to invalidate all JWTs
         sessionRepository.deleteByUserId(user.getId());
+        sessionPresenceCache.invalidateUser(user.getId());
         log.info("Deleted all sessions for user {} after password reset", user.getUsername());
 
         // Publish password change event to sync with user-service
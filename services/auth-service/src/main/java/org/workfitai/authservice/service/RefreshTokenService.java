@@ -1,42 +1,165 @@
 package org.workfitai.authservice.service;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Active refresh-token jti per user and device.
+ *
+ * One Redis hash per user (auth:rtu:{userId}, field = deviceId, value =
+ * "jti|expiresAtMillis"), so revoking every device is a single DEL instead
+ * of a KEYS scan over the whole keyspace. Redis (before 7.4) cannot expire
+ * hash fields, so each entry carries its own expiry: reads ignore expired
+ * entries, writes prune them, and the hash itself expires with its newest
+ * entry.
+ *
+ * Legacy per-device keys (auth:rt:{userId}:{deviceId}) are moved into the
+ * hashes by {@link #migrateLegacyKeys()} (incremental SCAN). Instances still
+ * on the old version keep writing them during a rolling deploy, so reads
+ * and deletes also look at the legacy keys until one refresh TTL after the
+ * last migration pass that found any (auth:rt:migrated holds that time).
+ * During that window revoke-all also scans the keyspace for legacy keys
+ * (see {@link #deleteAllByUserId(String)}).
+ */
+@Slf4j
 @Service
 public class RefreshTokenService {
 
-    private static final String KEY_FMT = "auth:rt:%s:%s"; // userId, deviceId
+    private static final String KEY_FMT = "auth:rtu:%s"; // userId
+    private static final String LEGACY_PREFIX = "auth:rt:";
+    private static final String LEGACY_KEY_FMT = LEGACY_PREFIX + "%s:%s"; // userId, deviceId
+    static final String MIGRATED_MARKER = "auth:rt:migrated";
+    private static final int MIGRATION_BATCH = 1_000;
+    private static final long MARKER_RECHECK_MS = 60_000;
+
+    // KEYS[1] hash; ARGV[1] device, ARGV[2] jti, ARGV[3] ttl ms
+    private static final RedisScript<Long> SAVE = new DefaultRedisScript<>("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            local ttl = tonumber(ARGV[3])
+            local entries = redis.call('HGETALL', KEYS[1])
+            for i = 1, #entries, 2 do
+              local expires = tonumber(string.match(entries[i + 1], '|(%d+)$'))
+              if expires == nil or expires <= now then
+                redis.call('HDEL', KEYS[1], entries[i])
+              end
+            end
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2] .. '|' .. (now + ttl))
+            if redis.call('PTTL', KEYS[1]) < ttl then
+              redis.call('PEXPIRE', KEYS[1], ttl)
+            end
+            return 1
+            """, Long.class);
+
+    // KEYS[1] hash; ARGV[1] device → jti or nil
+    private static final RedisScript<String> GET = new DefaultRedisScript<>("""
+            local value = redis.call('HGET', KEYS[1], ARGV[1])
+            if not value then
+              return false
+            end
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            local jti, expires = string.match(value, '^(.*)|(%d+)$')
+            if jti == nil or tonumber(expires) <= now then
+              redis.call('HDEL', KEYS[1], ARGV[1])
+              return false
+            end
+            return jti
+            """, String.class);
+
+    // KEYS = legacy key, hash, legacy key, hash...; ARGV[1] default ttl ms, ARGV[1 + n] device of pair n
+    // → number of keys moved
+    private static final RedisScript<Long> MIGRATE = new DefaultRedisScript<>("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            local moved = 0
+            for n = 1, #KEYS / 2 do
+              local legacy, hash = KEYS[2 * n - 1], KEYS[2 * n]
+              local jti = redis.call('GET', legacy)
+              local ttl = redis.call('PTTL', legacy)
+              if jti and ttl ~= -2 then
+                if ttl < 0 then
+                  ttl = tonumber(ARGV[1])
+                end
+                -- không ghi đè token mới hơn đã lưu vào hash
+                redis.call('HSETNX', hash, ARGV[1 + n], jti .. '|' .. (now + ttl))
+                if redis.call('PTTL', hash) < ttl then
+                  redis.call('PEXPIRE', hash, ttl)
+                end
+                redis.call('DEL', legacy)
+                moved = moved + 1
+              end
+            end
+            return moved
+            """, Long.class);
 
     private final StringRedisTemplate redis;
     private final Duration ttl;
+    private final Duration migrationInterval;
+    private final Clock clock;
+    // Hết hạn fallback sang key cũ (epoch ms); đọc lại marker mỗi MARKER_RECHECK_MS
+    private volatile long legacyFallbackUntil = Long.MAX_VALUE;
+    private volatile long markerRecheckAt = Long.MIN_VALUE;
 
+    @Autowired
     public RefreshTokenService(StringRedisTemplate redis,
-            @Value("${auth.jwt.refresh-exp-ms}") long refreshExpMs) {
+            @Value("${auth.jwt.refresh-exp-ms}") long refreshExpMs,
+            @Value("${auth.jwt.legacy-migration-interval:1h}") Duration migrationInterval) {
+        this(redis, refreshExpMs, migrationInterval, Clock.systemUTC());
+    }
+
+    RefreshTokenService(StringRedisTemplate redis, long refreshExpMs, Duration migrationInterval, Clock clock) {
         this.redis = redis;
         this.ttl = Duration.ofMillis(refreshExpMs);
+        this.migrationInterval = migrationInterval;
+        this.clock = clock;
     }
 
-    private String key(String userId, String deviceId) {
-        return String.format(KEY_FMT, userId, deviceId);
+    private String key(String userId) {
+        return String.format(KEY_FMT, userId);
+    }
+
+    private String legacyKey(String userId, String deviceId) {
+        return String.format(LEGACY_KEY_FMT, userId, deviceId);
     }
 
     /** Save/overwrite the active jti for this user+device */
     public void saveJti(String userId, String deviceId, String jti) {
-        redis.opsForValue().set(key(userId, deviceId), jti, ttl);
+        redis.execute(SAVE, List.of(key(userId)), deviceId, jti, String.valueOf(ttl.toMillis()));
+        if (legacyFallback()) {
+            redis.delete(legacyKey(userId, deviceId));
+        }
     }
 
     /** Get the currently active jti for this user+device */
     public String getJti(String userId, String deviceId) {
-        return redis.opsForValue().get(key(userId, deviceId));
+        String jti = redis.execute(GET, List.of(key(userId)), deviceId);
+        if (jti == null && legacyFallback()) {
+            return redis.opsForValue().get(legacyKey(userId, deviceId));
+        }
+        return jti;
     }
 
     /** Remove the device binding (used by logout later) */
     public void delete(String userId, String deviceId) {
-        redis.delete(String.format(KEY_FMT, userId, deviceId));
+        redis.opsForHash().delete(key(userId), deviceId);
+        if (legacyFallback()) {
+            redis.delete(legacyKey(userId, deviceId));
+        }
     }
 
     /** Delete all refresh tokens for a user (used when changing password) */
@@ -44,13 +167,144 @@ public class RefreshTokenService {
     public void deleteAllByUsername(String username) {
         // This method is deprecated and should not be used
         // Use deleteAllByUserId() instead
-        String pattern = String.format(KEY_FMT, username, "*");
-        redis.keys(pattern).forEach(redis::delete);
+        deleteAllByUserId(username);
     }
 
-    /** Delete all refresh tokens by userId (correct implementation) */
+    /**
+     * Delete all refresh tokens by userId: one DEL, O(devices).
+     *
+     * While the legacy fallback is on (at least one refresh TTL after the
+     * last migration pass that moved keys, so a week with the default
+     * expiry) it also SCANs the whole keyspace for the user's legacy keys:
+     * about keyspace / 1000 round trips per password change or reset, e.g.
+     * ~1000 on a million keys. The SCAN cannot be skipped earlier, because
+     * instances on the old version may still be writing legacy keys.
+     */
     public void deleteAllByUserId(String userId) {
-        String pattern = String.format(KEY_FMT, userId, "*");
-        redis.keys(pattern).forEach(redis::delete);
+        redis.delete(key(userId));
+        if (legacyFallback()) {
+            // Còn trong thời gian fallback: xoá cả key cũ (SCAN tăng dần, không chặn Redis như KEYS)
+            List<String> legacy = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions()
+                    .match(String.format(LEGACY_KEY_FMT, userId, "*"))
+                    .count(MIGRATION_BATCH)
+                    .build();
+            try (Cursor<String> cursor = redis.scan(options)) {
+                cursor.forEachRemaining(legacy::add);
+            }
+            if (!legacy.isEmpty()) {
+                redis.delete(legacy);
+            }
+        }
+    }
+
+    /**
+     * Migrates at startup, then repeats every legacy-migration-interval while
+     * the legacy fallback is still on, so keys that instances on the old
+     * version write during a rolling deploy are moved too (and keep the
+     * fallback on). The last pass runs once the fallback has expired.
+     * Each pass is an incremental SCAN, so it never blocks Redis.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyKeysInBackground() {
+        Thread migration = new Thread(() -> {
+            try {
+                while (true) {
+                    migrateLegacyKeys();
+                    long remaining = legacyFallbackUntil - clock.millis();
+                    if (remaining <= 0) {
+                        return;
+                    }
+                    Thread.sleep(Math.min(remaining, migrationInterval.toMillis()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Refresh token migration failed, will retry on next start", e);
+            }
+        }, "refresh-token-migration");
+        migration.setDaemon(true);
+        migration.start();
+    }
+
+    /**
+     * Moves every legacy auth:rt:{userId}:{deviceId} key into its user's hash
+     * (keeping its remaining TTL). A pass that moved keys, or the first one,
+     * stamps the marker with the current time, which keeps the legacy
+     * fallback on for one more refresh TTL. Uses SCAN, so Redis keeps serving
+     * other clients meanwhile; safe to run concurrently on several instances.
+     *
+     * @return number of keys moved
+     */
+    public long migrateLegacyKeys() {
+        long startedAt = System.nanoTime();
+        long moved = 0;
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(LEGACY_PREFIX + "*").count(MIGRATION_BATCH).build();
+        try (Cursor<String> cursor = redis.scan(options)) {
+            while (cursor.hasNext()) {
+                String legacy = cursor.next();
+                String rest = legacy.substring(LEGACY_PREFIX.length());
+                int separator = rest.indexOf(':');
+                if (legacy.equals(MIGRATED_MARKER) || separator <= 0) {
+                    continue;
+                }
+                keys.add(legacy);
+                keys.add(key(rest.substring(0, separator)));
+                args.add(rest.substring(separator + 1));
+                if (args.size() == MIGRATION_BATCH) {
+                    moved += migrateBatch(keys, args);
+                }
+            }
+        }
+        moved += migrateBatch(keys, args);
+        long now = clock.millis();
+        if (moved > 0) {
+            redis.opsForValue().set(MIGRATED_MARKER, String.valueOf(now));
+        } else {
+            redis.opsForValue().setIfAbsent(MIGRATED_MARKER, String.valueOf(now));
+        }
+        markerRecheckAt = Long.MIN_VALUE;
+        legacyFallback();
+        log.info("Migrated {} legacy refresh token keys in {} ms", moved, (System.nanoTime() - startedAt) / 1_000_000);
+        return moved;
+    }
+
+    /** One script call per batch; clears the batch */
+    private long migrateBatch(List<String> keys, List<String> devices) {
+        if (devices.isEmpty()) {
+            return 0;
+        }
+        List<String> args = new ArrayList<>(devices.size() + 1);
+        args.add(String.valueOf(ttl.toMillis()));
+        args.addAll(devices);
+        Long moved = redis.execute(MIGRATE, keys, args.toArray());
+        keys.clear();
+        devices.clear();
+        return moved != null ? moved : 0;
+    }
+
+    /**
+     * Whether legacy keys must still be read and deleted: always before the
+     * first migration pass, then until one refresh TTL after the marker time.
+     */
+    private boolean legacyFallback() {
+        long now = clock.millis();
+        if (now >= markerRecheckAt) {
+            // Instance khác có thể đã migrate hoặc dời marker
+            String marker = redis.opsForValue().get(MIGRATED_MARKER);
+            legacyFallbackUntil = marker != null ? markerTime(marker) + ttl.toMillis() : Long.MAX_VALUE;
+            markerRecheckAt = now + MARKER_RECHECK_MS;
+        }
+        return now < legacyFallbackUntil;
+    }
+
+    private static long markerTime(String marker) {
+        try {
+            return Long.parseLong(marker);
+        } catch (NumberFormatException e) {
+            return 0; // marker cũ không có thời gian: coi như đã migrate từ lâu
+        }
     }
 }
@@ -4,6 +4,12 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.workfitai.authservice.dto.response.SessionResponse;
@@ -11,19 +17,26 @@ import org.workfitai.authservice.exception.BadRequestException;
 import org.workfitai.authservice.exception.NotFoundException;
 import org.workfitai.authservice.model.UserSession;
 import org.workfitai.authservice.repository.UserSessionRepository;
+import org.workfitai.authservice.security.SessionPresenceCache;
+import org.workfitai.authservice.service.geo.SessionLocationEnricher;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SessionService {
 
     private final UserSessionRepository sessionRepository;
-    private final GeoLocationService geoLocationService;
+    private final MongoTemplate mongoTemplate;
+    private final SessionLocationEnricher sessionLocationEnricher;
+    private final SessionPresenceCache sessionPresenceCache;
 
     @Value("${app.session.max-sessions-per-user:5}")
     private int maxSessionsPerUser;
@@ -46,6 +59,7 @@ public class SessionService {
                 .orElseThrow(() -> new NotFoundException("Session not found"));
 
         sessionRepository.delete(session);
+        sessionPresenceCache.invalidateUser(userId);
         log.info("Session {} deleted for user {}", sessionId, userId);
     }
 
@@ -58,24 +72,28 @@ public class SessionService {
         }
 
         sessionRepository.deleteAll(sessions);
+        sessionPresenceCache.invalidateUser(userId);
         log.info("Deleted {} sessions for user {}", sessions.size(), userId);
     }
 
+    /**
+     * Creates the session for the calling device, replacing the device's
+     * previous session (the refresh token store also keeps one token per
+     * device).
+     *
+     * The session is written with a single upsert keyed by (userId,
+     * deviceId), unique in user_device_idx: when two logins from one device
+     * race, the losing insert is retried once as an update. Sessions beyond
+     * {@code max-sessions-per-user} are then trimmed oldest first, so a
+     * login costs two writes instead of a count, a full listing, a delete
+     * and an insert.
+     *
+     * The location is not resolved here: SessionLocationEnricher backfills
+     * it in the background so login never waits on geolocation.
+     */
     @Transactional
     public UserSession createSession(String userId, String refreshTokenHash, Long expirationMs,
             HttpServletRequest request, Double latitude, Double longitude) {
-        // Check session limit
-        long sessionCount = sessionRepository.countByUserId(userId);
-        if (sessionCount >= maxSessionsPerUser) {
-            // Delete oldest session
-            List<UserSession> sessions = sessionRepository.findByUserIdOrderByCreatedAtDesc(userId);
-            if (!sessions.isEmpty()) {
-                UserSession oldestSession = sessions.get(sessions.size() - 1);
-                sessionRepository.delete(oldestSession);
-                log.info("Deleted oldest session for user {} due to session limit", userId);
-            }
-        }
-
         String sessionId = UUID.randomUUID().toString();
         String ipAddress = getClientIpAddress(request);
         String userAgent = getUserAgent(request);
@@ -83,37 +101,55 @@ public class SessionService {
         log.info("Creating session - IP: {}, User-Agent: {}, Coords: {}, {}", ipAddress, userAgent, latitude,
                 longitude);
 
-        // Use browser coordinates if available, otherwise fall back to IP-based
-        // location
-        UserSession.Location location;
-        if (latitude != null && longitude != null) {
-            location = geoLocationService.getLocationFromCoordinates(latitude, longitude);
-            log.info("Using browser geolocation: {}", location);
-        } else {
-            location = geoLocationService.getLocation(ipAddress);
-            log.info("Using IP-based geolocation: {}", location);
-        }
-
         String deviceName = extractDeviceName(userAgent);
+        String deviceId = generateDeviceId(userAgent, ipAddress);
+
+        log.info("Device detected: {}", deviceName);
+
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("sessionId", sessionId)
+                .set("refreshTokenHash", refreshTokenHash)
+                .set("deviceName", deviceName)
+                .set("ipAddress", ipAddress)
+                .set("userAgent", userAgent)
+                .unset("location")
+                .set("createdAt", now)
+                .set("lastActivityAt", now)
+                .set("expiresAt", now.plusSeconds(expirationMs / 1000));
+
+        Query device = query(where("userId").is(userId).and("deviceId").is(deviceId));
+        FindAndModifyOptions upsert = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        UserSession saved;
+        try {
+            saved = mongoTemplate.findAndModify(device, update, upsert, UserSession.class);
+        } catch (DuplicateKeyException e) {
+            // Login đồng thời cùng thiết bị: upsert kia vừa insert trước → lần này khớp và update bản ghi đó
+            saved = mongoTemplate.findAndModify(device, update, upsert, UserSession.class);
+        }
 
-        log.info("Device detected: {}, Location: {}", deviceName,
-                location != null ? location.getCountry() + "/" + location.getCity() : "null");
-
-        UserSession session = UserSession.builder()
-                .userId(userId)
-                .sessionId(sessionId)
-                .refreshTokenHash(refreshTokenHash)
-                .deviceId(generateDeviceId(userAgent, ipAddress))
-                .deviceName(deviceName)
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .location(location)
-                .createdAt(LocalDateTime.now())
-                .lastActivityAt(LocalDateTime.now())
-                .expiresAt(LocalDateTime.now().plusSeconds(expirationMs / 1000))
-                .build();
+        evictOverflowSessions(userId);
+        // Use browser coordinates if available, otherwise fall back to IP-based location
+        sessionLocationEnricher.enrich(sessionId, ipAddress, latitude, longitude);
+        return saved;
+    }
 
-        return sessionRepository.save(session);
+    /**
+     * Deletes the user's sessions beyond the newest {@code maxSessionsPerUser}.
+     */
+    private void evictOverflowSessions(String userId) {
+        Query overflow = query(where("userId").is(userId))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+                .skip(maxSessionsPerUser);
+        overflow.fields().include("_id");
+
+        List<String> staleIds = mongoTemplate.find(overflow, UserSession.class).stream()
+                .map(UserSession::getId)
+                .toList();
+        if (!staleIds.isEmpty()) {
+            mongoTemplate.remove(query(where("_id").in(staleIds)), UserSession.class);
+            log.info("Deleted {} oldest session(s) for user {} due to session limit", staleIds.size(), userId);
+        }
     }
 
     @Transactional
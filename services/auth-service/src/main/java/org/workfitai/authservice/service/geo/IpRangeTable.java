@@ -0,0 +1,352 @@
+package org.workfitai.authservice.service.geo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import org.workfitai.authservice.model.UserSession;
+
+/**
+ * Offline IPv4 → location table.
+ *
+ * Built from a DB-IP "IP to City Lite" CSV
+ * (ip_start,ip_end,continent,country,stateprov,city,latitude,longitude; plain
+ * or .gz). Ranges are kept sorted in parallel int arrays (unsigned IPv4) with
+ * an index into a table of distinct locations, so a lookup is one binary
+ * search and the table costs ~12 bytes per range. Adjacent ranges with the
+ * same location are merged; IPv6 rows are skipped.
+ *
+ * The distinct locations double as the gazetteer for
+ * {@link #nearest(double, double)} (offline reverse geocoding), indexed by
+ * latitude.
+ */
+public final class IpRangeTable {
+
+    public static final IpRangeTable EMPTY = new IpRangeTable(new int[0], new int[0], new int[0],
+            new UserSession.Location[0]);
+
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] locationIds;
+    private final UserSession.Location[] locations;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] cosLatitudes;
+    // location ids ordered by latitude, for the latitude window of nearest()
+    private final int[] byLatitude;
+    private final double[] sortedLatitudes;
+
+    private IpRangeTable(int[] starts, int[] ends, int[] locationIds, UserSession.Location[] locations) {
+        this.starts = starts;
+        this.ends = ends;
+        this.locationIds = locationIds;
+        this.locations = locations;
+        this.latitudes = new double[locations.length];
+        this.longitudes = new double[locations.length];
+        this.cosLatitudes = new double[locations.length];
+        for (int i = 0; i < locations.length; i++) {
+            latitudes[i] = locations[i].getLatitude();
+            longitudes[i] = locations[i].getLongitude();
+            cosLatitudes[i] = Math.cos(Math.toRadians(latitudes[i]));
+        }
+        this.byLatitude = IntStream.range(0, locations.length).boxed()
+                .sorted(Comparator.comparingDouble(i -> latitudes[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.sortedLatitudes = new double[locations.length];
+        for (int i = 0; i < byLatitude.length; i++) {
+            sortedLatitudes[i] = latitudes[byLatitude[i]];
+        }
+    }
+
+    public static IpRangeTable load(Path file) throws IOException {
+        try (InputStream raw = Files.newInputStream(file)) {
+            InputStream in = file.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(raw) : raw;
+            return load(in);
+        }
+    }
+
+    public static IpRangeTable load(InputStream in) throws IOException {
+        Builder builder = new Builder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                List<String> columns = splitCsv(line);
+                if (columns.size() < 8 || columns.get(0).indexOf(':') >= 0) {
+                    continue;
+                }
+                Integer start = parseIpv4(columns.get(0));
+                Integer end = parseIpv4(columns.get(1));
+                if (start == null || end == null) {
+                    continue; // header hoặc dòng lỗi
+                }
+                try {
+                    builder.add(start, end, columns.get(3), columns.get(4), columns.get(5),
+                            Double.parseDouble(columns.get(6)), Double.parseDouble(columns.get(7)));
+                } catch (NumberFormatException e) {
+                    // bỏ qua dòng không có toạ độ hợp lệ
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /** Number of (merged) IPv4 ranges */
+    public int size() {
+        return starts.length;
+    }
+
+    /** Number of distinct locations */
+    public int locationCount() {
+        return locations.length;
+    }
+
+    /**
+     * @return the location of the range containing this IPv4 address, or null
+     *         if the address is not IPv4 or not covered
+     */
+    public UserSession.Location lookup(String ipAddress) {
+        Integer ip = parseIpv4(ipAddress);
+        if (ip == null || starts.length == 0) {
+            return null;
+        }
+        // Last range whose start <= ip
+        int low = 0;
+        int high = starts.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Integer.compareUnsigned(starts[mid], ip) <= 0) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (found < 0 || Integer.compareUnsigned(ip, ends[found]) > 0) {
+            return null;
+        }
+        return locations[locationIds[found]];
+    }
+
+    /**
+     * Closest known city (equirectangular distance, good enough at city
+     * scale), or null when the table is empty or the closest city is farther
+     * than maxDistanceKm.
+     *
+     * Cities are visited outward from the query latitude, nearest latitude
+     * first; the latitude gap alone bounds the distance, so the scan stops
+     * once it exceeds the best match (or maxDistanceKm) and only a narrow
+     * band of the table is examined.
+     */
+    public UserSession.Location nearest(double latitude, double longitude, double maxDistanceKm) {
+        int best = -1;
+        double limitDegrees = maxDistanceKm / 111.2;
+        double bestDistance = Math.nextUp(limitDegrees * limitDegrees);
+        double cosLatitude = Math.cos(Math.toRadians(latitude));
+        int up = lowerBound(sortedLatitudes, latitude);
+        int down = up - 1;
+        while (up < sortedLatitudes.length || down >= 0) {
+            int next;
+            if (down < 0 || (up < sortedLatitudes.length
+                    && sortedLatitudes[up] - latitude <= latitude - sortedLatitudes[down])) {
+                next = up++;
+            } else {
+                next = down--;
+            }
+            double dLat = sortedLatitudes[next] - latitude;
+            if (dLat * dLat >= bestDistance) {
+                break; // mọi thành phố còn lại đều xa hơn chỉ riêng theo vĩ độ
+            }
+            int i = byLatitude[next];
+            double dLon = Math.abs(longitudes[i] - longitude);
+            if (dLon > 180) {
+                dLon = 360 - dLon;
+            }
+            dLon *= (cosLatitude + cosLatitudes[i]) / 2;
+            double distance = dLat * dLat + dLon * dLon;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+        return best < 0 ? null : locations[best];
+    }
+
+    public UserSession.Location nearest(double latitude, double longitude) {
+        return nearest(latitude, longitude, Double.MAX_VALUE);
+    }
+
+    /** First index whose value is >= key */
+    private static int lowerBound(double[] sorted, double key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Dotted IPv4 → int (unsigned order), or null */
+    static Integer parseIpv4(String ip) {
+        if (ip == null) {
+            return null;
+        }
+        int value = 0;
+        int octet = -1;
+        int dots = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return null;
+                }
+            } else if (c == '.' && octet >= 0 && dots < 3) {
+                value = (value << 8) | octet;
+                octet = -1;
+                dots++;
+            } else {
+                return null;
+            }
+        }
+        if (dots != 3 || octet < 0) {
+            return null;
+        }
+        return (value << 8) | octet;
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> columns = new ArrayList<>(8);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        columns.add(current.toString());
+        return columns;
+    }
+
+    private static final class Builder {
+        private int[] starts = new int[1 << 16];
+        private int[] ends = new int[1 << 16];
+        private int[] locationIds = new int[1 << 16];
+        private int size;
+        private int lastEnd;
+        private final Map<String, Integer> locationIndex = new HashMap<>();
+        private final List<UserSession.Location> locations = new ArrayList<>();
+
+        void add(int start, int end, String countryCode, String region, String city, double lat, double lon) {
+            String key = countryCode + '\u0000' + region + '\u0000' + city;
+            Integer locationId = locationIndex.get(key);
+            if (locationId == null) {
+                locationId = locations.size();
+                locationIndex.put(key, locationId);
+                locations.add(UserSession.Location.builder()
+                        .country(countryName(countryCode))
+                        .region(region.isEmpty() ? "Unknown" : region)
+                        .city(city.isEmpty() ? "Unknown" : city)
+                        .latitude(lat)
+                        .longitude(lon)
+                        .build());
+            }
+            // Gộp dải liền kề cùng vị trí
+            if (size > 0 && locationIds[size - 1] == locationId && lastEnd + 1 == start) {
+                ends[size - 1] = end;
+                lastEnd = end;
+                return;
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                locationIds = Arrays.copyOf(locationIds, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            locationIds[size] = locationId;
+            lastEnd = end;
+            size++;
+        }
+
+        IpRangeTable build() {
+            int[] s = Arrays.copyOf(starts, size);
+            int[] e = Arrays.copyOf(ends, size);
+            int[] l = Arrays.copyOf(locationIds, size);
+            if (!isSorted(s)) {
+                sortByStart(s, e, l);
+            }
+            return new IpRangeTable(s, e, l, locations.toArray(new UserSession.Location[0]));
+        }
+
+        private static boolean isSorted(int[] values) {
+            for (int i = 1; i < values.length; i++) {
+                if (Integer.compareUnsigned(values[i - 1], values[i]) > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static void sortByStart(int[] s, int[] e, int[] l) {
+            long[] packed = new long[s.length];
+            for (int i = 0; i < s.length; i++) {
+                // start ở 32 bit cao (đảo bit dấu để sort có dấu = thứ tự unsigned), vị trí gốc ở 32 bit thấp
+                packed[i] = ((long) (s[i] ^ Integer.MIN_VALUE) << 32) | i;
+            }
+            Arrays.sort(packed);
+            int[] e2 = new int[e.length];
+            int[] l2 = new int[l.length];
+            for (int i = 0; i < packed.length; i++) {
+                int from = (int) packed[i];
+                s[i] = (int) (packed[i] >> 32) ^ Integer.MIN_VALUE;
+                e2[i] = e[from];
+                l2[i] = l[from];
+            }
+            System.arraycopy(e2, 0, e, 0, e.length);
+            System.arraycopy(l2, 0, l, 0, l.length);
+        }
+
+        private static String countryName(String code) {
+            if (code == null || code.length() != 2) {
+                return "Unknown";
+            }
+            String name = new Locale("", code).getDisplayCountry(Locale.ENGLISH);
+            return name.isEmpty() ? code : name;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.workfitai.authservice.service.geo;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.workfitai.authservice.config.GeoConfig;
+import org.workfitai.authservice.model.UserSession;
+import org.workfitai.authservice.service.GeoLocationService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Backfills the location of a new session off the login thread.
+ *
+ * Sessions are created without a location; {@link #enrich} queues the
+ * lookup on a small bounded pool and writes the result into the session.
+ * When the queue is full the session simply stays without a location.
+ */
+@Slf4j
+@Component
+public class SessionLocationEnricher {
+
+    private final GeoLocationService geoLocationService;
+    private final MongoTemplate mongoTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Counter enriched;
+    private final Counter dropped;
+
+    public SessionLocationEnricher(GeoLocationService geoLocationService, MongoTemplate mongoTemplate,
+            GeoConfig geoConfig, MeterRegistry meterRegistry) {
+        this.geoLocationService = geoLocationService;
+        this.mongoTemplate = mongoTemplate;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(geoConfig.getEnrichThreads(), geoConfig.getEnrichThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(geoConfig.getEnrichQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "session-geo-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.enriched = Counter.builder("auth.session.geo.enriched").register(meterRegistry);
+        this.dropped = Counter.builder("auth.session.geo.dropped").register(meterRegistry);
+        Gauge.builder("auth.session.geo.queue", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    /**
+     * Resolves the location (browser coordinates first, else IP) and stores
+     * it in the session, asynchronously.
+     */
+    public void enrich(String sessionId, String ipAddress, Double latitude, Double longitude) {
+        try {
+            executor.execute(() -> backfill(sessionId, ipAddress, latitude, longitude));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            log.warn("Geo enrichment queue full, session {} keeps no location", sessionId);
+        }
+    }
+
+    private void backfill(String sessionId, String ipAddress, Double latitude, Double longitude) {
+        try {
+            UserSession.Location location = latitude != null && longitude != null
+                    ? geoLocationService.getLocationFromCoordinates(latitude, longitude)
+                    : geoLocationService.getLocation(ipAddress);
+
+            // Session có thể đã bị thay thế (đăng nhập lại) → update không khớp, bỏ qua
+            long matched = mongoTemplate.updateFirst(query(where("sessionId").is(sessionId)),
+                    new Update().set("location", location), UserSession.class).getMatchedCount();
+            if (matched == 0) {
+                log.debug("Session {} is gone, location discarded", sessionId);
+                return;
+            }
+            enriched.increment();
+            log.debug("Session {} location: {}/{}", sessionId, location.getCountry(), location.getCity());
+        } catch (Exception e) {
+            log.warn("Failed to enrich location of session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+}
@@ -40,6 +40,7 @@ import org.workfitai.authservice.model.User;
 import org.workfitai.authservice.repository.TwoFactorAuthRepository;
 import org.workfitai.authservice.repository.UserRepository;
 import org.workfitai.authservice.security.JwtService;
+import org.workfitai.authservice.security.LoginUserDetails;
 import org.workfitai.authservice.service.OtpService;
 import org.workfitai.authservice.service.RefreshTokenService;
 import org.workfitai.authservice.service.SessionService;
@@ -309,12 +310,9 @@ public class AuthServiceImpl implements iAuthService {
             Authentication authentication = authManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             req.getUsernameOrEmail(), req.getPassword()));
-            UserDetails ud = (UserDetails) authentication.getPrincipal();
-
-            // Look up the user by username and check status
-            User user = users.findByUsername(ud.getUsername())
-                    .orElseThrow(
-                            () -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, Messages.Error.USER_NOT_FOUND));
+            // User and 2FA settings were loaded together during authentication
+            LoginUserDetails ud = (LoginUserDetails) authentication.getPrincipal();
+            User user = ud.getUser();
 
             // Check if user is blocked by admin
             if (Boolean.TRUE.equals(user.getIsBlocked())) {
@@ -354,7 +352,7 @@ public class AuthServiceImpl implements iAuthService {
             }
 
             // ✅ NEW: Check if 2FA is enabled
-            Optional<TwoFactorAuth> twoFactorAuth = twoFactorAuthRepository.findByUserId(user.getId());
+            Optional<TwoFactorAuth> twoFactorAuth = Optional.ofNullable(ud.getTwoFactorAuth());
             if (twoFactorAuth.isPresent() && Boolean.TRUE.equals(twoFactorAuth.get().getEnabled())) {
                 LogContext.setAction("LOGIN_2FA_REQUIRED");
                 LogContext.setEntityType("User");
@@ -376,7 +374,7 @@ public class AuthServiceImpl implements iAuthService {
             LogContext.setAction("LOGIN");
             LogContext.setEntityType("User");
             LogContext.setEntityId(user.getId());
-            return completeLogin(user, ud, deviceId, request, latitude, longitude);
+            return completeLogin(user, deviceId, request, latitude, longitude);
 
         } catch (BadCredentialsException ex) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, Messages.Error.INVALID_CREDENTIALS);
@@ -479,25 +477,18 @@ public class AuthServiceImpl implements iAuthService {
         LogContext.setEntityType("User");
         LogContext.setEntityId(user.getId());
 
-        // Complete login
-        UserDetails ud = org.springframework.security.core.userdetails.User
-                .withUsername(username)
-                .password(user.getPassword())
-                .authorities(user.getRoles().toArray(new String[0]))
-                .build();
-
         // 2FA verification happens after initial login, no new geolocation needed
-        return completeLogin(user, ud, deviceId, httpRequest, null, null);
+        return completeLogin(user, deviceId, httpRequest, null, null);
     }
 
     /**
      * Complete normal login (no 2FA) - generate tokens and create session
      */
-    private IssuedTokens completeLogin(User user, UserDetails ud, String deviceId, HttpServletRequest request,
+    private IssuedTokens completeLogin(User user, String deviceId, HttpServletRequest request,
             Double latitude, Double longitude) {
-        String access = jwt.generateAccessToken(ud);
+        String access = jwt.generateAccessToken(user);
         String jti = jwt.newJti();
-        String refresh = jwt.generateRefreshTokenWithJti(ud, jti);
+        String refresh = jwt.generateRefreshTokenWithJti(user.getUsername(), jti);
 
         String dev = normalizeDevice(deviceId);
         refreshStore.saveJti(user.getId(), dev, jti); // Redis: Store refresh token JTI
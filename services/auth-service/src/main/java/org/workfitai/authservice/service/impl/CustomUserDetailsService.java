@@ -1,36 +1,74 @@
 package org.workfitai.authservice.service.impl;
 
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.limit;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.workfitai.authservice.constants.Messages;
+import org.workfitai.authservice.document.TwoFactorAuth;
 import org.workfitai.authservice.model.User;
-import org.workfitai.authservice.repository.UserRepository;
+import org.workfitai.authservice.security.LoginUserDetails;
 
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Loads the login context in a single aggregation: the user matched by
+ * username or email and its 2FA settings.
+ */
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private static final String TWO_FACTOR = "twoFactor";
+
+    // users._id là ObjectId, two_factor_auth.userId là string
+    private static final AggregationOperation LOOKUP_TWO_FACTOR = context -> new Document("$lookup",
+            new Document("from", "two_factor_auth")
+                    .append("let", new Document("uid", new Document("$toString", "$_id")))
+                    .append("pipeline", List.of(
+                            new Document("$match", new Document("$expr",
+                                    new Document("$eq", List.of("$userId", "$$uid")))),
+                            new Document("$limit", 1)))
+                    .append("as", TWO_FACTOR));
+
+    private final MongoTemplate mongoTemplate;
 
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(usernameOrEmail)
-                .or(() -> userRepository.findByEmail(usernameOrEmail))
-                .orElseThrow(
-                        () -> new UsernameNotFoundException(Messages.Error.USER_NOT_FOUND + ": " + usernameOrEmail));
-
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .authorities(user.getRoles().toArray(new String[0]))
-                .accountExpired(false)
-                .accountLocked(false)
-                .credentialsExpired(false)
-                .disabled(false)
-                .build();
+        List<Document> matches = mongoTemplate.aggregate(newAggregation(
+                match(new Criteria().orOperator(
+                        where("username").is(usernameOrEmail),
+                        where("email").is(usernameOrEmail))),
+                // username và email đều unique → tối đa 2 kết quả
+                limit(2),
+                LOOKUP_TWO_FACTOR), "users", Document.class).getMappedResults();
+
+        // A username match wins over another account's email, as before
+        Document found = matches.stream()
+                .filter(doc -> usernameOrEmail.equals(doc.getString("username")))
+                .findFirst()
+                .orElse(matches.isEmpty() ? null : matches.get(0));
+        if (found == null) {
+            throw new UsernameNotFoundException(Messages.Error.USER_NOT_FOUND + ": " + usernameOrEmail);
+        }
+
+        User user = mongoTemplate.getConverter().read(User.class, found);
+
+        List<Document> twoFactorDocs = found.getList(TWO_FACTOR, Document.class, List.of());
+        TwoFactorAuth twoFactorAuth = twoFactorDocs.isEmpty() ? null
+                : mongoTemplate.getConverter().read(TwoFactorAuth.class, twoFactorDocs.get(0));
+
+        return new LoginUserDetails(user, twoFactorAuth);
     }
 }
@@ -12,6 +12,7 @@ import org.workfitai.authservice.constants.Messages;
 import org.workfitai.authservice.model.Permission;
 import org.workfitai.authservice.repository.PermissionRepository;
 import org.workfitai.authservice.repository.RoleRepository;
+import org.workfitai.authservice.security.PermissionSnapshotCache;
 import org.workfitai.authservice.service.iPermissionService;
 
 @Service
@@ -19,6 +20,7 @@ import org.workfitai.authservice.service.iPermissionService;
 public class PermissionServiceImpl implements iPermissionService {
     private final PermissionRepository perms;
     private final RoleRepository roles;
+    private final PermissionSnapshotCache permissionSnapshot;
 
     @Override
     public Permission create(Permission p) {
@@ -56,6 +58,7 @@ public class PermissionServiceImpl implements iPermissionService {
         Permission existing = perms.findByName(name)
                 .orElseThrow(() -> new NoSuchElementException(Messages.Error.PERMISSION_NOT_FOUND));
         perms.delete(existing);
+        permissionSnapshot.publishChange();
     }
 
     @Override
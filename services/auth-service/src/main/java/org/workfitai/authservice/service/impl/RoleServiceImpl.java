@@ -12,6 +12,7 @@ import org.workfitai.authservice.constants.Messages;
 import org.workfitai.authservice.model.Role;
 import org.workfitai.authservice.repository.PermissionRepository;
 import org.workfitai.authservice.repository.RoleRepository;
+import org.workfitai.authservice.security.PermissionSnapshotCache;
 import org.workfitai.authservice.service.iRoleService;
 
 @Service
@@ -19,6 +20,7 @@ import org.workfitai.authservice.service.iRoleService;
 public class RoleServiceImpl implements iRoleService {
     private final RoleRepository roles;
     private final PermissionRepository perms;
+    private final PermissionSnapshotCache permissionSnapshot;
 
     @Override
     public Role create(Role r) {
@@ -32,7 +34,9 @@ public class RoleServiceImpl implements iRoleService {
             perms.findByName(perm)
                     .orElseThrow(() -> new IllegalArgumentException(String.format(Messages.Error.UNKNOWN_PERMISSION, perm)));
         }
-        return roles.save(r);
+        Role saved = roles.save(r);
+        permissionSnapshot.publishChange();
+        return saved;
     }
 
     @Override
@@ -50,7 +54,9 @@ public class RoleServiceImpl implements iRoleService {
         if (!permissions.add(permName)) {
             throw new IllegalArgumentException(Messages.Error.PERMISSION_ALREADY_ASSIGNED);
         }
-        return roles.save(r);
+        Role saved = roles.save(r);
+        permissionSnapshot.publishChange();
+        return saved;
     }
 
     @Override
@@ -61,7 +67,9 @@ public class RoleServiceImpl implements iRoleService {
         if (permissions != null) {
             permissions.remove(permName);
         }
-        return roles.save(r);
+        Role saved = roles.save(r);
+        permissionSnapshot.publishChange();
+        return saved;
     }
 
     @Override
@@ -106,6 +114,7 @@ public class RoleServiceImpl implements iRoleService {
     public void deleteByName(String roleName) {
         Role existing = getByName(roleName);
         roles.delete(existing);
+        permissionSnapshot.publishChange();
     }
 
     @Override
@@ -127,7 +136,9 @@ public class RoleServiceImpl implements iRoleService {
         }
 
         permissions.addAll(permNames);
-        return roles.save(r);
+        Role saved = roles.save(r);
+        permissionSnapshot.publishChange();
+        return saved;
     }
 
     @Override
@@ -138,6 +149,8 @@ public class RoleServiceImpl implements iRoleService {
         if (permissions != null) {
             permissions.removeAll(permNames);
         }
-        return roles.save(r);
+        Role saved = roles.save(r);
+        permissionSnapshot.publishChange();
+        return saved;
     }
 }
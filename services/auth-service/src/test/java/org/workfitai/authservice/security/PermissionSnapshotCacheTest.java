@@ -0,0 +1,181 @@
+package org.workfitai.authservice.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.workfitai.authservice.model.Role;
+import org.workfitai.authservice.repository.RoleRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("PermissionSnapshotCache Unit Tests")
+class PermissionSnapshotCacheTest {
+
+    private RoleRepository roleRepository;
+    private StringRedisTemplate redis;
+    private ValueOperations<String, String> values;
+    private SimpleMeterRegistry meterRegistry;
+    private PermissionSnapshotCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        roleRepository = mock(RoleRepository.class);
+        redis = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        given(redis.opsForValue()).willReturn(values);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PermissionSnapshotCache(roleRepository, redis, meterRegistry);
+
+        roles(Set.of("job:read"));
+    }
+
+    @Test
+    @DisplayName("First use loads the snapshot at the cluster version")
+    void loadsLazily() {
+        given(values.get("auth:perm:version")).willReturn("7");
+
+        assertThat(cache.permissionsOf(List.of("HR"))).containsExactly("job:read");
+        assertThat(cache.current().version()).isEqualTo(7);
+        verify(roleRepository, times(1)).findAll();
+        assertThat(meterRegistry.get("auth.permissions.snapshot.version").gauge().value()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("publishChange bumps the version in Redis, rebuilds and broadcasts it")
+    void publishesChange() {
+        given(values.increment("auth:perm:version")).willReturn(3L);
+        roles(Set.of("job:read", "job:write"));
+
+        cache.publishChange();
+
+        assertThat(cache.current().version()).isEqualTo(3);
+        assertThat(cache.permissionsOf(List.of("HR"))).containsExactlyInAnyOrder("job:read", "job:write");
+        verify(redis).convertAndSend(PermissionSnapshotCache.CHANNEL, "3");
+    }
+
+    @Test
+    @DisplayName("Notices rebuild only for a newer version; stale, echoed and malformed ones are ignored")
+    void ordersNotices() {
+        cache.rebuild(5);
+
+        cache.onMessage(notice("4"), null);
+        cache.onMessage(notice("5"), null);
+        cache.onMessage(notice("not-a-number"), null);
+        verify(roleRepository, times(1)).findAll();
+
+        roles(Set.of("job:read", "cv:review"));
+        cache.onMessage(notice("6"), null);
+
+        assertThat(cache.current().version()).isEqualTo(6);
+        assertThat(cache.permissionsOf(List.of("HR"))).contains("cv:review");
+    }
+
+    @Test
+    @DisplayName("An older rebuild finishing late does not replace a newer snapshot")
+    void keepsNewestSnapshot() {
+        cache.rebuild(8);
+        roles(Set.of("stale"));
+
+        assertThat(cache.rebuild(7).version()).isEqualTo(8);
+        assertThat(cache.permissionsOf(List.of("HR"))).containsExactly("job:read");
+    }
+
+    @Test
+    @DisplayName("Redis down: rebuild locally under the same version, then still apply the next cluster notice")
+    void redisFailureKeepsVersion() {
+        cache.rebuild(3);
+        given(values.increment("auth:perm:version")).willThrow(new RedisConnectionFailureException("down"));
+        roles(Set.of("job:read", "job:write"));
+
+        cache.publishChange();
+
+        assertThat(cache.current().version()).isEqualTo(3);
+        assertThat(cache.permissionsOf(List.of("HR"))).contains("job:write");
+        verify(redis, never()).convertAndSend(anyString(), anyString());
+
+        // instance khác bump thành công lên 4 → instance này vẫn phải rebuild
+        roles(Set.of("job:read", "job:write", "job:delete"));
+        cache.onMessage(notice("4"), null);
+
+        assertThat(cache.current().version()).isEqualTo(4);
+        assertThat(cache.permissionsOf(List.of("HR"))).contains("job:delete");
+    }
+
+    @Test
+    @DisplayName("Reconcile rebuilds when a notice was missed and the cluster version is ahead")
+    void reconcilesMissedNotice() {
+        cache.rebuild(5);
+        given(values.get("auth:perm:version")).willReturn("5");
+        cache.reconcile();
+        verify(roleRepository, times(1)).findAll();
+
+        // notice v6 bị mất khi mất kết nối pub/sub
+        given(values.get("auth:perm:version")).willReturn("6");
+        roles(Set.of("job:read", "cv:review"));
+        cache.reconcile();
+
+        assertThat(cache.current().version()).isEqualTo(6);
+        assertThat(cache.permissionsOf(List.of("HR"))).contains("cv:review");
+    }
+
+    @Test
+    @DisplayName("Reconcile leaves an unloaded snapshot to first use and survives Redis being down")
+    void reconcileSkipsUnloadedAndRedisDown() {
+        given(values.get("auth:perm:version")).willReturn("4");
+        cache.reconcile();
+        verify(roleRepository, never()).findAll();
+
+        cache.rebuild(3);
+        given(values.get("auth:perm:version")).willThrow(new RedisConnectionFailureException("down"));
+        cache.reconcile();
+
+        assertThat(cache.current().version()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("A (re)subscription of the listener container triggers a reconcile")
+    void reconcilesOnSubscribe() {
+        cache.rebuild(2);
+        given(values.get("auth:perm:version")).willReturn("3");
+
+        cache.onChannelSubscribed(PermissionSnapshotCache.CHANNEL.getBytes(StandardCharsets.UTF_8), 1);
+
+        verify(roleRepository, timeout(2000).times(2)).findAll();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (cache.current().version() < 3 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(cache.current().version()).isEqualTo(3);
+        cache.stopReconciling();
+    }
+
+    private void roles(Set<String> hrPermissions) {
+        given(roleRepository.findAll()).willReturn(List.of(
+                Role.builder().name("HR").permissions(hrPermissions).build(),
+                Role.builder().name("CANDIDATE").permissions(Set.of("cv:write")).build()));
+    }
+
+    private static DefaultMessage notice(String body) {
+        return new DefaultMessage(PermissionSnapshotCache.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,112 @@
+package org.workfitai.authservice.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.workfitai.authservice.model.User;
+import org.workfitai.authservice.repository.UserRepository;
+import org.workfitai.authservice.repository.UserSessionRepository;
+
+@DisplayName("SessionPresenceCache Unit Tests")
+class SessionPresenceCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(10);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private UserRepository userRepository;
+    private UserSessionRepository sessionRepository;
+    private SessionPresenceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        sessionRepository = mock(UserSessionRepository.class);
+        cache = new SessionPresenceCache(userRepository, sessionRepository, TTL, 1000, nanos::get);
+
+        given(userRepository.findByUsername("alice")).willReturn(Optional.of(User.builder().id("u1").build()));
+        given(userRepository.findByUsername("bob")).willReturn(Optional.of(User.builder().id("u2").build()));
+    }
+
+    @Test
+    @DisplayName("Active presence is cached; repeated checks hit no repository")
+    void cachesPositiveAnswers() {
+        given(sessionRepository.existsByUserId("u1")).willReturn(true);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(cache.get("alice")).isEqualTo(new SessionPresenceCache.Presence("u1", true));
+        }
+
+        verify(userRepository, times(1)).findByUsername("alice");
+        verify(sessionRepository, times(1)).existsByUserId("u1");
+    }
+
+    @Test
+    @DisplayName("No session or unknown user is never cached")
+    void doesNotCacheNegativeAnswers() {
+        given(sessionRepository.existsByUserId("u1")).willReturn(false, true);
+        given(userRepository.findByUsername("ghost")).willReturn(Optional.empty());
+
+        assertThat(cache.get("alice").active()).isFalse();
+        // vừa login → lần kiểm tra sau thấy session ngay, không cần invalidate
+        assertThat(cache.get("alice").active()).isTrue();
+
+        assertThat(cache.get("ghost")).isEqualTo(new SessionPresenceCache.Presence(null, false));
+        cache.get("ghost");
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    @DisplayName("Cached presence expires after the TTL")
+    void expiresAfterTtl() {
+        given(sessionRepository.existsByUserId("u1")).willReturn(true, false);
+        cache.get("alice");
+
+        nanos.addAndGet(TTL.minusMillis(1).toNanos());
+        assertThat(cache.get("alice").active()).isTrue();
+
+        nanos.addAndGet(Duration.ofMillis(2).toNanos());
+        assertThat(cache.get("alice").active()).isFalse();
+        verify(sessionRepository, times(2)).existsByUserId("u1");
+    }
+
+    @Test
+    @DisplayName("invalidateUser drops only that user's entry")
+    void invalidatesByUserId() {
+        given(sessionRepository.existsByUserId("u1")).willReturn(true, false);
+        given(sessionRepository.existsByUserId("u2")).willReturn(true);
+        cache.get("alice");
+        cache.get("bob");
+
+        cache.invalidateUser("u1");
+        cache.invalidateUser("unknown");
+        cache.invalidateUser(null);
+
+        assertThat(cache.get("alice").active()).isFalse();
+        assertThat(cache.get("bob").active()).isTrue();
+        verify(sessionRepository, times(2)).existsByUserId("u1");
+        verify(sessionRepository, times(1)).existsByUserId("u2");
+    }
+
+    @Test
+    @DisplayName("Invalidation still works after an entry expired and was re-cached")
+    void invalidatesAfterRecache() {
+        given(sessionRepository.existsByUserId("u1")).willReturn(true, true, false);
+        cache.get("alice");
+        nanos.addAndGet(TTL.plusSeconds(1).toNanos());
+        cache.get("alice");
+
+        cache.invalidateUser("u1");
+
+        assertThat(cache.get("alice").active()).isFalse();
+    }
+}
@@ -0,0 +1,119 @@
+package org.workfitai.authservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+import org.workfitai.authservice.config.GeoConfig;
+import org.workfitai.authservice.model.UserSession;
+import org.workfitai.authservice.service.geo.IpRangeTable;
+
+@DisplayName("GeoLocationService Unit Tests")
+class GeoLocationServiceTest {
+
+    private static final String CSV = """
+            ip_start,ip_end,continent,country,stateprov,city,latitude,longitude
+            14.160.0.0,14.160.255.255,AS,VN,Hanoi,Hanoi,21.0245,105.841
+            """;
+
+    private static final String IP_API_RESPONSE = """
+            {"status":"success","country":"Japan","regionName":"Tokyo","city":"Tokyo","lat":35.6895,"lon":139.692}
+            """;
+
+    private static final String NOMINATIM_RESPONSE = """
+            {"address":{"city":"Da Nang","state":"Da Nang","country":"Vietnam"}}
+            """;
+
+    private GeoConfig geoConfig;
+    private RestTemplate restTemplate;
+    private IpRangeTable table;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        geoConfig = new GeoConfig();
+        restTemplate = mock(RestTemplate.class);
+        table = IpRangeTable.load(new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)));
+
+        given(restTemplate.getForObject(startsWith("http://ip-api.com/"), eq(String.class)))
+                .willReturn(IP_API_RESPONSE);
+        given(restTemplate.getForObject(startsWith("https://nominatim.openstreetmap.org/"), eq(String.class)))
+                .willReturn(NOMINATIM_RESPONSE);
+    }
+
+    @Test
+    @DisplayName("IPs and coordinates covered by the offline table never call the remote APIs")
+    void answersFromOfflineTable() {
+        GeoLocationService service = new GeoLocationService(geoConfig, restTemplate, table);
+
+        assertThat(service.getLocation("14.160.1.1").getCity()).isEqualTo("Hanoi");
+
+        UserSession.Location fromCoordinates = service.getLocationFromCoordinates(21.03, 105.85);
+        assertThat(fromCoordinates.getCity()).isEqualTo("Hanoi");
+        // session giữ toạ độ trình duyệt gửi, không phải toạ độ thành phố
+        assertThat(fromCoordinates.getLatitude()).isEqualTo(21.03);
+        assertThat(fromCoordinates.getLongitude()).isEqualTo(105.85);
+
+        verify(restTemplate, never()).getForObject(anyString(), eq(String.class));
+    }
+
+    @Test
+    @DisplayName("Coordinates rounding to the same key are reverse-geocoded once")
+    void cachesReverseGeocoding() {
+        GeoLocationService service = new GeoLocationService(geoConfig, restTemplate, IpRangeTable.EMPTY);
+
+        UserSession.Location first = service.getLocationFromCoordinates(16.0544, 108.2022);
+        UserSession.Location second = service.getLocationFromCoordinates(16.0531, 108.2049);
+
+        assertThat(first.getCity()).isEqualTo("Da Nang");
+        assertThat(second.getCity()).isEqualTo("Da Nang");
+        assertThat(second.getLatitude()).isEqualTo(16.0531);
+        verify(restTemplate, times(1)).getForObject(startsWith("https://nominatim.openstreetmap.org/"),
+                eq(String.class));
+
+        service.getLocationFromCoordinates(16.10, 108.2022);
+        verify(restTemplate, times(2)).getForObject(startsWith("https://nominatim.openstreetmap.org/"),
+                eq(String.class));
+    }
+
+    @Test
+    @DisplayName("Table misses use ip-api.com / Nominatim only when remote-fallback is on")
+    void remoteFallbackToggle() {
+        GeoLocationService withFallback = new GeoLocationService(geoConfig, restTemplate, table);
+        assertThat(withFallback.getLocation("8.8.8.8").getCity()).isEqualTo("Tokyo");
+        assertThat(withFallback.getLocationFromCoordinates(16.0544, 108.2022).getCity()).isEqualTo("Da Nang");
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(String.class));
+
+        geoConfig.setRemoteFallback(false);
+        RestTemplate unused = mock(RestTemplate.class);
+        GeoLocationService offlineOnly = new GeoLocationService(geoConfig, unused, table);
+        assertThat(offlineOnly.getLocation("8.8.8.8").getCity()).isEqualTo("Unknown");
+        assertThat(offlineOnly.getLocationFromCoordinates(16.0544, 108.2022).getCity()).isEqualTo("Unknown");
+        assertThat(offlineOnly.getLocation("14.160.1.1").getCity()).isEqualTo("Hanoi");
+        verify(unused, never()).getForObject(anyString(), eq(String.class));
+    }
+
+    @Test
+    @DisplayName("Local addresses resolve to the default location without any lookup")
+    void skipsLocalAddresses() {
+        GeoLocationService service = new GeoLocationService(geoConfig, restTemplate, table);
+
+        assertThat(service.getLocation("127.0.0.1").getCountry()).isEqualTo("Unknown");
+        assertThat(service.getLocation("192.168.1.20").getCountry()).isEqualTo("Unknown");
+        assertThat(service.getLocation(null).getCountry()).isEqualTo("Unknown");
+        verify(restTemplate, never()).getForObject(anyString(), eq(String.class));
+    }
+}
@@ -0,0 +1,104 @@
+package org.workfitai.authservice.service;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * JMH: one login (context load, tokens, refresh jti, session write) through
+ * the current pipeline vs the previous one, on real MongoDB and Redis
+ * (Testcontainers). Reports ops/ms and the latency distribution
+ * (p50/p90/p99 of SampleTime).
+ *
+ * Run with {@code mvn test -Pperf -Dtest=LoginPipelineBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginPipelineBenchmark {
+
+    private static final int USERS = 50;
+
+    private MongoDBContainer mongo;
+    private GenericContainer<?> redisContainer;
+    private MongoClient mongoClient;
+    private LettuceConnectionFactory redisConnectionFactory;
+    private LoginPipelineFixture fixture;
+    private int n;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        mongo = new MongoDBContainer("mongo:7.0");
+        mongo.start();
+        redisContainer = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+        redisContainer.start();
+
+        mongoClient = MongoClients.create(mongo.getReplicaSetUrl());
+        redisConnectionFactory = new LettuceConnectionFactory(redisContainer.getHost(),
+                redisContainer.getMappedPort(6379));
+        redisConnectionFactory.afterPropertiesSet();
+        redisConnectionFactory.start();
+
+        fixture = new LoginPipelineFixture(mongoClient, redisConnectionFactory, "auth_benchmark");
+        for (int i = 0; i < USERS; i++) {
+            fixture.saveUser("user" + i, Set.of("CANDIDATE", "HR"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redisConnectionFactory.destroy();
+        mongoClient.close();
+        redisContainer.stop();
+        mongo.stop();
+    }
+
+    @Benchmark
+    public String loginContextPipeline() {
+        int i = n++;
+        return fixture.login("user" + (i % USERS) + "@example.com", i);
+    }
+
+    @Benchmark
+    public String previousPipeline() {
+        int i = n++;
+        return fixture.legacyLogin("user" + (i % USERS) + "@example.com", i);
+    }
+
+    @Test
+    @Tag("perf")
+    @DisplayName("JMH: login context pipeline vs previous pipeline")
+    void runBenchmarks() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoginPipelineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,195 @@
+package org.workfitai.authservice.service;
+
+import static org.mockito.Mockito.mock;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.workfitai.authservice.config.MongoConfig;
+import org.workfitai.authservice.config.RsaKeyProperties;
+import org.workfitai.authservice.document.TwoFactorAuth;
+import org.workfitai.authservice.enums.UserStatus;
+import org.workfitai.authservice.model.Role;
+import org.workfitai.authservice.model.User;
+import org.workfitai.authservice.model.UserSession;
+import org.workfitai.authservice.repository.RoleRepository;
+import org.workfitai.authservice.repository.TwoFactorAuthRepository;
+import org.workfitai.authservice.repository.UserRepository;
+import org.workfitai.authservice.repository.UserSessionRepository;
+import org.workfitai.authservice.security.JwtService;
+import org.workfitai.authservice.security.LoginUserDetails;
+import org.workfitai.authservice.security.PermissionSnapshotCache;
+import org.workfitai.authservice.security.SessionPresenceCache;
+import org.workfitai.authservice.service.geo.SessionLocationEnricher;
+import org.workfitai.authservice.service.impl.CustomUserDetailsService;
+
+import com.mongodb.client.MongoClient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Login services wired by hand on a real MongoDB and Redis, shared by
+ * {@link LoginPipelineTest} and the JMH {@link LoginPipelineBenchmark}.
+ *
+ * The constructor drops the database and flushes Redis. {@link #login}
+ * is the current pipeline, {@link #legacyLogin} the one before the login
+ * context, query for query (password hashing, identical in both, left out).
+ */
+class LoginPipelineFixture {
+
+    static final int MAX_SESSIONS = 5;
+
+    final MongoTemplate mongoTemplate;
+    final UserRepository userRepository;
+    final UserSessionRepository sessionRepository;
+    final TwoFactorAuthRepository twoFactorAuthRepository;
+    final RoleRepository roleRepository;
+    final StringRedisTemplate redis;
+    final RefreshTokenService refreshStore;
+    final JwtService jwt;
+    final CustomUserDetailsService userDetailsService;
+    final SessionService sessionService;
+
+    LoginPipelineFixture(MongoClient mongoClient, RedisConnectionFactory redisConnectionFactory, String database)
+            throws NoSuchAlgorithmException {
+        mongoTemplate = new MongoTemplate(mongoClient, database);
+        mongoTemplate.getDb().drop();
+        MongoPersistentEntityIndexResolver indexResolver = new MongoPersistentEntityIndexResolver(
+                mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> type : List.of(User.class, Role.class, TwoFactorAuth.class, UserSession.class)) {
+            indexResolver.resolveIndexFor(type).forEach(mongoTemplate.indexOps(type)::ensureIndex);
+        }
+        MongoConfig.createSessionIndexes(mongoTemplate);
+
+        MongoRepositoryFactory repositories = new MongoRepositoryFactory(mongoTemplate);
+        userRepository = repositories.getRepository(UserRepository.class);
+        sessionRepository = repositories.getRepository(UserSessionRepository.class);
+        twoFactorAuthRepository = repositories.getRepository(TwoFactorAuthRepository.class);
+        roleRepository = repositories.getRepository(RoleRepository.class);
+
+        redis = new StringRedisTemplate(redisConnectionFactory);
+        redis.getConnectionFactory().getConnection().serverCommands().flushAll();
+        refreshStore = new RefreshTokenService(redis, Duration.ofDays(7).toMillis(), Duration.ofHours(1));
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        jwt = new JwtService(
+                new PermissionSnapshotCache(roleRepository, redis, new SimpleMeterRegistry(), Duration.ofSeconds(30)),
+                new RsaKeyProperties((RSAPublicKey) keyPair.getPublic(), (RSAPrivateKey) keyPair.getPrivate()),
+                userRepository);
+        jwt.setAccessExpMs(Duration.ofMinutes(15).toMillis());
+        jwt.setRefreshExpMs(Duration.ofDays(7).toMillis());
+        jwt.init();
+
+        userDetailsService = new CustomUserDetailsService(mongoTemplate);
+        sessionService = new SessionService(sessionRepository, mongoTemplate, mock(SessionLocationEnricher.class),
+                new SessionPresenceCache(userRepository, sessionRepository, Duration.ofSeconds(10), 1000));
+        ReflectionTestUtils.setField(sessionService, "maxSessionsPerUser", MAX_SESSIONS);
+
+        roleRepository.save(Role.builder().name("CANDIDATE").permissions(Set.of("job:read", "cv:write")).build());
+        roleRepository.save(Role.builder().name("HR").permissions(Set.of("job:read", "application:review")).build());
+    }
+
+    User saveUser(String username, Set<String> roles) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("{noop}secret")
+                .roles(roles)
+                .status(UserStatus.ACTIVE)
+                .build());
+    }
+
+    /**
+     * Current pipeline: login context, tokens, refresh jti, session upsert.
+     *
+     * @return the access token
+     */
+    String login(String usernameOrEmail, int n) {
+        LoginUserDetails ud = (LoginUserDetails) userDetailsService.loadUserByUsername(usernameOrEmail);
+        User user = ud.getUser();
+        if (ud.getTwoFactorAuth() != null && Boolean.TRUE.equals(ud.getTwoFactorAuth().getEnabled())) {
+            throw new IllegalStateException("2FA not expected");
+        }
+        String access = jwt.generateAccessToken(user);
+        String jti = jwt.newJti();
+        jwt.generateRefreshTokenWithJti(user.getUsername(), jti);
+        refreshStore.saveJti(user.getId(), "device-" + (n % 7), jti);
+        sessionService.createSession(user.getId(), jti, jwt.getRefreshExpMs(),
+                request("Device-" + (n % 7), "10.0.0." + (n % 7)), null, null);
+        return access;
+    }
+
+    /**
+     * Previous pipeline: user lookup by username then email, user and 2FA
+     * reloads, per-role permission lookups, count + list + delete + insert
+     * for the session.
+     *
+     * @return the access token
+     */
+    String legacyLogin(String usernameOrEmail, int n) {
+        User found = userRepository.findByUsername(usernameOrEmail)
+                .or(() -> userRepository.findByEmail(usernameOrEmail))
+                .orElseThrow();
+        UserDetails ud = org.springframework.security.core.userdetails.User
+                .withUsername(found.getUsername())
+                .password(found.getPassword())
+                .authorities(found.getRoles().toArray(new String[0]))
+                .build();
+        User user = userRepository.findByUsername(ud.getUsername()).orElseThrow();
+        if (twoFactorAuthRepository.findByUserId(user.getId()).filter(t -> Boolean.TRUE.equals(t.getEnabled()))
+                .isPresent()) {
+            throw new IllegalStateException("2FA not expected");
+        }
+        // Permissions were read per role on every token
+        user.getRoles().forEach(role -> roleRepository.findByName(role).orElseThrow());
+        String access = jwt.generateAccessToken(ud);
+        String jti = jwt.newJti();
+        jwt.generateRefreshTokenWithJti(ud, jti);
+        refreshStore.saveJti(user.getId(), "device-" + (n % 7), jti);
+
+        if (sessionRepository.countByUserId(user.getId()) >= MAX_SESSIONS) {
+            List<UserSession> sessions = sessionRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
+            sessionRepository.delete(sessions.get(sessions.size() - 1));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        sessionRepository.save(UserSession.builder()
+                .userId(user.getId())
+                .sessionId(UUID.randomUUID().toString())
+                .refreshTokenHash(jti)
+                // Một id mỗi lần: bản cũ luôn insert session mới, index unique hiện tại không cho trùng thiết bị
+                .deviceId(UUID.nameUUIDFromBytes(("Device-" + (n % 7) + "10.0.0." + n).getBytes()).toString())
+                .deviceName("Unknown Device")
+                .ipAddress("10.0.0." + (n % 7))
+                .userAgent("Device-" + (n % 7))
+                .createdAt(now)
+                .lastActivityAt(now)
+                .expiresAt(now.plusSeconds(jwt.getRefreshExpMs() / 1000))
+                .build());
+        return access;
+    }
+
+    static MockHttpServletRequest request(String userAgent, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("User-Agent", userAgent);
+        request.setRemoteAddr(ip);
+        return request;
+    }
+}
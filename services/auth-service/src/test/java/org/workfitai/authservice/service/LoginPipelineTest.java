@@ -0,0 +1,242 @@
+package org.workfitai.authservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import org.workfitai.authservice.config.MongoConfig;
+import org.workfitai.authservice.document.TwoFactorAuth;
+import org.workfitai.authservice.enums.UserStatus;
+import org.workfitai.authservice.model.User;
+import org.workfitai.authservice.model.UserSession;
+import org.workfitai.authservice.repository.TwoFactorAuthRepository;
+import org.workfitai.authservice.repository.UserRepository;
+import org.workfitai.authservice.repository.UserSessionRepository;
+import org.workfitai.authservice.security.JwtService;
+import org.workfitai.authservice.security.LoginUserDetails;
+import org.workfitai.authservice.service.impl.CustomUserDetailsService;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * Login pipeline integration tests against real MongoDB and Redis
+ * (Testcontainers).
+ *
+ * Checks the single-query login context and the per-device session upsert.
+ * Throughput and latency against the previous pipeline are measured by the
+ * JMH {@link LoginPipelineBenchmark}.
+ */
+@Testcontainers
+@DisplayName("Login Pipeline Integration Tests")
+class LoginPipelineTest {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0");
+
+    @Container
+    static GenericContainer<?> redisContainer = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static final int MAX_SESSIONS = LoginPipelineFixture.MAX_SESSIONS;
+
+    private static MongoClient mongoClient;
+    private static LettuceConnectionFactory redisConnectionFactory;
+
+    private LoginPipelineFixture fixture;
+    private MongoTemplate mongoTemplate;
+    private UserRepository userRepository;
+    private UserSessionRepository sessionRepository;
+    private TwoFactorAuthRepository twoFactorAuthRepository;
+    private JwtService jwt;
+    private CustomUserDetailsService userDetailsService;
+    private SessionService sessionService;
+
+    @BeforeAll
+    static void connect() {
+        mongoClient = MongoClients.create(mongoDBContainer.getReplicaSetUrl());
+        redisConnectionFactory = new LettuceConnectionFactory(redisContainer.getHost(),
+                redisContainer.getMappedPort(6379));
+        redisConnectionFactory.afterPropertiesSet();
+        redisConnectionFactory.start();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        redisConnectionFactory.destroy();
+        mongoClient.close();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fixture = new LoginPipelineFixture(mongoClient, redisConnectionFactory, "auth_login_test");
+        mongoTemplate = fixture.mongoTemplate;
+        userRepository = fixture.userRepository;
+        sessionRepository = fixture.sessionRepository;
+        twoFactorAuthRepository = fixture.twoFactorAuthRepository;
+        jwt = fixture.jwt;
+        userDetailsService = fixture.userDetailsService;
+        sessionService = fixture.sessionService;
+    }
+
+    @Test
+    @DisplayName("Login context carries user and 2FA settings; token carries permission closure")
+    void loadsLoginContext() {
+        User user = saveUser("alice", Set.of("CANDIDATE", "HR"));
+        twoFactorAuthRepository.save(TwoFactorAuth.builder().userId(user.getId()).method("TOTP").enabled(true)
+                .build());
+
+        LoginUserDetails byEmail = (LoginUserDetails) userDetailsService.loadUserByUsername("alice@example.com");
+
+        assertThat(byEmail.getUsername()).isEqualTo("alice");
+        assertThat(byEmail.getUser().getId()).isEqualTo(user.getId());
+        assertThat(byEmail.getTwoFactorAuth()).isNotNull();
+        assertThat(byEmail.getTwoFactorAuth().getMethod()).isEqualTo("TOTP");
+        assertThat(jwt.getClaims(jwt.generateAccessToken(byEmail.getUser())).get("perms", List.class))
+                .containsExactlyInAnyOrder("job:read", "cv:write", "application:review");
+    }
+
+    @Test
+    @DisplayName("Username match wins over another account's email")
+    void prefersUsernameMatch() {
+        saveUser("bob", Set.of("CANDIDATE"));
+        User other = User.builder()
+                .username("carol")
+                .email("bob")
+                .password("{noop}secret")
+                .roles(Set.of("CANDIDATE"))
+                .status(UserStatus.ACTIVE)
+                .build();
+        userRepository.save(other);
+
+        LoginUserDetails loaded = (LoginUserDetails) userDetailsService.loadUserByUsername("bob");
+
+        assertThat(loaded.getUsername()).isEqualTo("bob");
+        assertThat(loaded.getTwoFactorAuth()).isNull();
+    }
+
+    @Test
+    @DisplayName("Logging in again from a device replaces its session; other devices are capped")
+    void upsertsSessionPerDevice() {
+        User user = saveUser("dave", Set.of("CANDIDATE"));
+
+        UserSession first = sessionService.createSession(user.getId(), "jti-1", jwt.getRefreshExpMs(),
+                request("Chrome", "10.0.0.1"), null, null);
+        UserSession second = sessionService.createSession(user.getId(), "jti-2", jwt.getRefreshExpMs(),
+                request("Chrome", "10.0.0.1"), null, null);
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(second.getRefreshTokenHash()).isEqualTo("jti-2");
+        assertThat(sessionRepository.countByUserId(user.getId())).isEqualTo(1);
+
+        for (int i = 0; i < MAX_SESSIONS + 2; i++) {
+            sessionService.createSession(user.getId(), "jti-d" + i, jwt.getRefreshExpMs(),
+                    request("Device-" + i, "10.0.1." + i), null, null);
+        }
+
+        List<UserSession> sessions = sessionRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
+        assertThat(sessions).hasSize(MAX_SESSIONS);
+        assertThat(sessions).extracting(UserSession::getRefreshTokenHash)
+                .contains("jti-d" + (MAX_SESSIONS + 1))
+                .doesNotContain("jti-2");
+    }
+
+    @Test
+    @DisplayName("Concurrent logins from one device leave a single session")
+    void concurrentLoginsFromOneDevice() throws Exception {
+        User user = saveUser("erin", Set.of("CANDIDATE"));
+        int logins = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(logins);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<UserSession>> results = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                String jti = "jti-" + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return sessionService.createSession(user.getId(), jti, jwt.getRefreshExpMs(),
+                            request("Chrome", "10.0.0.9"), null, null);
+                }));
+            }
+            start.countDown();
+            for (Future<UserSession> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isNotNull();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(sessionRepository.countByUserId(user.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Duplicate device sessions from before the unique index are reduced to the newest")
+    void dedupesDeviceSessionsBeforeUniqueIndex() {
+        mongoTemplate.dropCollection(UserSession.class);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            mongoTemplate.insert(session("u1", "device-a", "jti-a" + i, now.plusMinutes(i)));
+        }
+        mongoTemplate.insert(session("u1", "device-b", "jti-b", now));
+        mongoTemplate.insert(session("u2", "device-a", "jti-u2", now));
+
+        MongoConfig.createSessionIndexes(mongoTemplate);
+        MongoConfig.createSessionIndexes(mongoTemplate);
+
+        assertThat(sessionRepository.findByUserIdOrderByCreatedAtDesc("u1"))
+                .extracting(UserSession::getRefreshTokenHash)
+                .containsExactly("jti-a2", "jti-b");
+        assertThat(sessionRepository.countByUserId("u2")).isEqualTo(1);
+        assertThat(mongoTemplate.indexOps(UserSession.class).getIndexInfo())
+                .anySatisfy(index -> {
+                    assertThat(index.getName()).isEqualTo("user_device_idx");
+                    assertThat(index.isUnique()).isTrue();
+                });
+        assertThatThrownBy(() -> mongoTemplate.insert(session("u1", "device-b", "jti-dup", now)))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    private static UserSession session(String userId, String deviceId, String jti, LocalDateTime createdAt) {
+        return UserSession.builder()
+                .userId(userId)
+                .sessionId(UUID.randomUUID().toString())
+                .refreshTokenHash(jti)
+                .deviceId(deviceId)
+                .createdAt(createdAt)
+                .lastActivityAt(createdAt)
+                .expiresAt(createdAt.plusDays(7))
+                .build();
+    }
+
+    private User saveUser(String username, Set<String> roles) {
+        return fixture.saveUser(username, roles);
+    }
+
+    private static MockHttpServletRequest request(String userAgent, String ip) {
+        return LoginPipelineFixture.request(userAgent, ip);
+    }
+}
@@ -0,0 +1,119 @@
+package org.workfitai.authservice.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * JMH: revoke-all (password change/reset) for one user with a million
+ * refresh tokens of other users in Redis. The previous implementation
+ * (KEYS auth:rt:{userId}:* + DEL per key) vs one DEL of the user's hash
+ * (RefreshTokenService after the legacy fallback window). Reports the
+ * latency distribution (SampleTime, p50/p90/p99).
+ *
+ * Run with {@code mvn test -Pperf -Dtest=RefreshTokenRevokeBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefreshTokenRevokeBenchmark {
+
+    private static final int KEYS = 1_000_000;
+    private static final int DEVICES = 5;
+    private static final long TTL_MS = Duration.ofDays(7).toMillis();
+
+    // ARGV[1] from, ARGV[2] to, ARGV[3] ttl ms → SET auth:rt:user{i}:web for i in [from, to]
+    private static final DefaultRedisScript<Long> FILL_LEGACY = new DefaultRedisScript<>("""
+            for i = tonumber(ARGV[1]), tonumber(ARGV[2]) do
+              redis.call('SET', 'auth:rt:user' .. i .. ':web', 'jti-' .. i, 'PX', ARGV[3])
+            end
+            return 1
+            """, Long.class);
+
+    private GenericContainer<?> redisContainer;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redis;
+    private RefreshTokenService refreshTokenService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redisContainer = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+        redisContainer.start();
+        connectionFactory = new LettuceConnectionFactory(redisContainer.getHost(), redisContainer.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redis = new StringRedisTemplate(connectionFactory);
+
+        for (int from = 1; from <= KEYS; from += 100_000) {
+            redis.execute(FILL_LEGACY, List.of(), String.valueOf(from), String.valueOf(from + 99_999),
+                    String.valueOf(TTL_MS));
+        }
+        // marker không có thời gian = đã migrate từ lâu → không còn fallback sang key cũ
+        redis.opsForValue().set(RefreshTokenService.MIGRATED_MARKER, "1");
+        refreshTokenService = new RefreshTokenService(redis, TTL_MS, Duration.ofHours(1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionFactory.destroy();
+        redisContainer.stop();
+    }
+
+    /** The revoked user's devices, in both layouts, before every revoke */
+    @Setup(Level.Invocation)
+    public void saveTargetTokens() {
+        for (int d = 0; d < DEVICES; d++) {
+            redis.opsForValue().set("auth:rt:target:device-" + d, "jti-" + d, Duration.ofMillis(TTL_MS));
+            refreshTokenService.saveJti("target", "device-" + d, "jti-" + d);
+        }
+    }
+
+    @Benchmark
+    public int keysAndDel() {
+        Set<String> matches = redis.keys("auth:rt:target:*");
+        matches.forEach(redis::delete);
+        return matches.size();
+    }
+
+    @Benchmark
+    public void perUserHash() {
+        refreshTokenService.deleteAllByUserId("target");
+    }
+
+    @Test
+    @Tag("perf")
+    @DisplayName("JMH: revoke-all with 1M keys, KEYS + DEL vs per-user hash")
+    void runBenchmarks() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RefreshTokenRevokeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,206 @@
+package org.workfitai.authservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * RefreshTokenService integration tests against a real Redis
+ * (Testcontainers).
+ *
+ * Covers the per-user hash, the migration of legacy auth:rt:{userId}:{deviceId}
+ * keys and the legacy fallback window. Revoke-all latency on a million
+ * keys is measured by the JMH {@link RefreshTokenRevokeBenchmark}.
+ */
+@Testcontainers
+@DisplayName("RefreshTokenService Integration Tests")
+class RefreshTokenServiceTest {
+
+    @Container
+    static GenericContainer<?> redisContainer = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static final long TTL_MS = Duration.ofDays(7).toMillis();
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private MutableClock clock;
+    private StringRedisTemplate redis;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(redisContainer.getHost(), redisContainer.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis = new StringRedisTemplate(connectionFactory);
+        redis.getConnectionFactory().getConnection().serverCommands().flushAll();
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        refreshTokenService = new RefreshTokenService(redis, TTL_MS, Duration.ofHours(1), clock);
+    }
+
+    @Test
+    @DisplayName("Devices share one hash; revoke-all removes every device")
+    void storesDevicesInOneHash() {
+        redis.opsForValue().set(RefreshTokenService.MIGRATED_MARKER, "1");
+        refreshTokenService.saveJti("u1", "web", "jti-web");
+        refreshTokenService.saveJti("u1", "mobile", "jti-mobile");
+        refreshTokenService.saveJti("u2", "web", "jti-other");
+
+        assertThat(redis.keys("*")).containsExactlyInAnyOrder("auth:rtu:u1", "auth:rtu:u2",
+                RefreshTokenService.MIGRATED_MARKER);
+        assertThat(refreshTokenService.getJti("u1", "web")).isEqualTo("jti-web");
+        assertThat(redis.getExpire("auth:rtu:u1")).isPositive();
+
+        refreshTokenService.saveJti("u1", "web", "jti-web-2");
+        assertThat(refreshTokenService.getJti("u1", "web")).isEqualTo("jti-web-2");
+
+        refreshTokenService.delete("u1", "mobile");
+        assertThat(refreshTokenService.getJti("u1", "mobile")).isNull();
+
+        refreshTokenService.deleteAllByUserId("u1");
+        assertThat(refreshTokenService.getJti("u1", "web")).isNull();
+        assertThat(refreshTokenService.getJti("u2", "web")).isEqualTo("jti-other");
+    }
+
+    @Test
+    @DisplayName("Expired entries are ignored and pruned on the next write")
+    void ignoresExpiredEntries() {
+        redis.opsForValue().set(RefreshTokenService.MIGRATED_MARKER, "1");
+        redis.opsForHash().put("auth:rtu:u1", "old", "jti-old|1000");
+
+        assertThat(refreshTokenService.getJti("u1", "old")).isNull();
+
+        redis.opsForHash().put("auth:rtu:u1", "stale", "jti-stale|1000");
+        refreshTokenService.saveJti("u1", "web", "jti-web");
+        assertThat(redis.opsForHash().keys("auth:rtu:u1")).containsExactly("web");
+    }
+
+    @Test
+    @DisplayName("Legacy keys are readable before migration and moved with their TTL")
+    void migratesLegacyKeys() {
+        redis.opsForValue().set("auth:rt:u1:web", "jti-legacy", Duration.ofHours(1));
+        redis.opsForValue().set("auth:rt:u1:device:with:colons", "jti-colons", Duration.ofHours(1));
+        redis.opsForValue().set("auth:rt:u2:web", "jti-u2", Duration.ofHours(1));
+
+        assertThat(refreshTokenService.getJti("u1", "web")).isEqualTo("jti-legacy");
+
+        // Token mới hơn đã ghi vào hash thì giữ nguyên
+        refreshTokenService.saveJti("u2", "web", "jti-u2-new");
+        redis.opsForValue().set("auth:rt:u2:web", "jti-u2", Duration.ofHours(1));
+
+        long moved = refreshTokenService.migrateLegacyKeys();
+
+        assertThat(moved).isEqualTo(3);
+        assertThat(redis.keys("auth:rt:*")).containsExactly(RefreshTokenService.MIGRATED_MARKER);
+        assertThat(refreshTokenService.getJti("u1", "web")).isEqualTo("jti-legacy");
+        assertThat(refreshTokenService.getJti("u1", "device:with:colons")).isEqualTo("jti-colons");
+        assertThat(refreshTokenService.getJti("u2", "web")).isEqualTo("jti-u2-new");
+        assertThat(redis.getExpire("auth:rtu:u1")).isBetween(3500L, 3600L);
+    }
+
+    @Test
+    @DisplayName("Before migration, revoke-all also removes the user's legacy keys")
+    void revokesLegacyKeysBeforeMigration() {
+        redis.opsForValue().set("auth:rt:u1:web", "jti-legacy", Duration.ofHours(1));
+        redis.opsForValue().set("auth:rt:u10:web", "jti-other", Duration.ofHours(1));
+        refreshTokenService.saveJti("u1", "mobile", "jti-mobile");
+
+        refreshTokenService.deleteAllByUserId("u1");
+
+        assertThat(redis.keys("auth:rt*")).containsExactly("auth:rt:u10:web");
+    }
+
+    @Test
+    @DisplayName("For one refresh TTL after migration, legacy keys from old instances are still read and revoked")
+    void keepsLegacyFallbackForOneTtl() {
+        redis.opsForValue().set("auth:rt:u1:web", "jti-legacy", Duration.ofHours(1));
+        refreshTokenService.migrateLegacyKeys();
+
+        // instance bản cũ vẫn ghi key cũ trong lúc rolling deploy
+        clock.advance(Duration.ofDays(1));
+        redis.opsForValue().set("auth:rt:u2:web", "jti-old-pod", Duration.ofHours(1));
+        redis.opsForValue().set("auth:rt:u3:web", "jti-old-pod", Duration.ofHours(1));
+        assertThat(refreshTokenService.getJti("u2", "web")).isEqualTo("jti-old-pod");
+        refreshTokenService.deleteAllByUserId("u3");
+        assertThat(redis.hasKey("auth:rt:u3:web")).isFalse();
+
+        clock.advance(Duration.ofMillis(TTL_MS));
+        assertThat(refreshTokenService.getJti("u2", "web")).isNull();
+        refreshTokenService.deleteAllByUserId("u2");
+        assertThat(redis.hasKey("auth:rt:u2:web")).isTrue();
+    }
+
+    @Test
+    @DisplayName("A pass that moves keys extends the fallback window, an empty pass does not")
+    void extendsFallbackOnlyWhenKeysMoved() {
+        refreshTokenService.migrateLegacyKeys();
+        String firstMarker = redis.opsForValue().get(RefreshTokenService.MIGRATED_MARKER);
+
+        clock.advance(Duration.ofDays(1));
+        assertThat(refreshTokenService.migrateLegacyKeys()).isZero();
+        assertThat(redis.opsForValue().get(RefreshTokenService.MIGRATED_MARKER)).isEqualTo(firstMarker);
+
+        redis.opsForValue().set("auth:rt:u1:web", "jti-old-pod", Duration.ofHours(1));
+        assertThat(refreshTokenService.migrateLegacyKeys()).isEqualTo(1);
+        assertThat(redis.opsForValue().get(RefreshTokenService.MIGRATED_MARKER))
+                .isEqualTo(String.valueOf(clock.millis()));
+
+        // TTL tính từ lần chuyển key gần nhất, không phải lần đầu
+        clock.advance(Duration.ofMillis(TTL_MS - 1));
+        redis.opsForValue().set("auth:rt:u2:web", "jti-old-pod", Duration.ofHours(1));
+        assertThat(refreshTokenService.getJti("u2", "web")).isEqualTo("jti-old-pod");
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.workfitai.authservice.service.geo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.workfitai.authservice.model.UserSession;
+
+@DisplayName("IpRangeTable Unit Tests")
+class IpRangeTableTest {
+
+    private static final String CSV = """
+            ip_start,ip_end,continent,country,stateprov,city,latitude,longitude
+            1.0.0.0,1.0.0.255,OC,AU,Queensland,"South Brisbane",-27.4767,153.017
+            14.160.0.0,14.160.127.255,AS,VN,Hanoi,Hanoi,21.0245,105.841
+            14.160.128.0,14.160.255.255,AS,VN,Hanoi,Hanoi,21.0245,105.841
+            113.160.0.0,113.160.255.255,AS,VN,"Ho Chi Minh","Ho Chi Minh City",10.8231,106.63
+            200.0.0.0,200.0.0.255,SA,BR,"Sao Paulo","Sao Paulo, Centro",-23.5505,-46.6333
+            2001:200::,2001:200:ffff:ffff:ffff:ffff:ffff:ffff,AS,JP,Tokyo,Tokyo,35.6895,139.692
+            """;
+
+    private IpRangeTable table;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        table = IpRangeTable.load(new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Adjacent ranges with the same location are merged, IPv6 rows skipped")
+    void mergesAdjacentRanges() {
+        assertThat(table.size()).isEqualTo(4);
+        assertThat(table.locationCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Lookup finds the containing range, including above 128.0.0.0")
+    void looksUpContainingRange() {
+        assertThat(table.lookup("14.160.200.1").getCity()).isEqualTo("Hanoi");
+        assertThat(table.lookup("14.160.200.1").getCountry()).isEqualTo("Vietnam");
+        assertThat(table.lookup("113.160.0.0").getCity()).isEqualTo("Ho Chi Minh City");
+        assertThat(table.lookup("200.0.0.255").getCity()).isEqualTo("Sao Paulo, Centro");
+    }
+
+    @Test
+    @DisplayName("Addresses outside every range, or not IPv4, have no location")
+    void missesOutsideRanges() {
+        assertThat(table.lookup("1.0.1.0")).isNull();
+        assertThat(table.lookup("9.9.9.9")).isNull();
+        assertThat(table.lookup("255.255.255.255")).isNull();
+        assertThat(table.lookup("2001:200::1")).isNull();
+        assertThat(table.lookup("14.160.0")).isNull();
+        assertThat(table.lookup("14.160.0.256")).isNull();
+    }
+
+    @Test
+    @DisplayName("Reverse geocoding picks the nearest city within the distance limit")
+    void findsNearestCity() {
+        UserSession.Location nearHanoi = table.nearest(21.03, 105.85, 50);
+        assertThat(nearHanoi).isNotNull();
+        assertThat(nearHanoi.getCity()).isEqualTo("Hanoi");
+
+        assertThat(table.nearest(16.05, 108.2, 50)).isNull();
+        assertThat(table.nearest(16.05, 108.2).getCountry()).isEqualTo("Vietnam");
+    }
+
+    @Test
+    @DisplayName("The latitude-indexed search returns the same city as a full scan")
+    void nearestMatchesFullScan() throws IOException {
+        Random random = new Random(42);
+        StringBuilder csv = new StringBuilder();
+        double[][] cities = new double[2_000][];
+        for (int i = 0; i < cities.length; i++) {
+            cities[i] = new double[] { round4(random.nextDouble() * 170 - 85), round4(random.nextDouble() * 360 - 180) };
+            csv.append(String.format(Locale.ROOT, "10.%d.%d.0,10.%d.%d.255,AS,VN,R%d,C%d,%.4f,%.4f%n",
+                    i / 256, i % 256, i / 256, i % 256, i, i, cities[i][0], cities[i][1]));
+        }
+        IpRangeTable generated = IpRangeTable.load(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        for (int q = 0; q < 500; q++) {
+            double lat = random.nextDouble() * 180 - 90;
+            double lon = random.nextDouble() * 360 - 180;
+            int expected = bruteForceNearest(cities, lat, lon);
+            assertThat(generated.nearest(lat, lon).getCity()).isEqualTo("C" + expected);
+        }
+        // ngoài bán kính → null dù vẫn có thành phố gần nhất
+        assertThat(generated.nearest(89.9, 0, 1)).isNull();
+    }
+
+    @Test
+    @DisplayName("Empty table answers nothing")
+    void emptyTable() {
+        assertThat(IpRangeTable.EMPTY.lookup("14.160.0.1")).isNull();
+        assertThat(IpRangeTable.EMPTY.nearest(21.0, 105.8)).isNull();
+    }
+
+    private static double round4(double value) {
+        return Math.round(value * 10_000) / 10_000.0;
+    }
+
+    private static int bruteForceNearest(double[][] cities, double lat, double lon) {
+        int best = -1;
+        double bestDistance = Double.MAX_VALUE;
+        double cosLat = Math.cos(Math.toRadians(lat));
+        for (int i = 0; i < cities.length; i++) {
+            double dLat = cities[i][0] - lat;
+            double dLon = Math.abs(cities[i][1] - lon);
+            if (dLon > 180) {
+                dLon = 360 - dLon;
+            }
+            dLon *= (cosLat + Math.cos(Math.toRadians(cities[i][0]))) / 2;
+            double distance = dLat * dLat + dLon * dLon;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+        return best;
+    }
+}
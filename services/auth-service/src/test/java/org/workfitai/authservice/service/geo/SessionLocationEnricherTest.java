@@ -0,0 +1,130 @@
+package org.workfitai.authservice.service.geo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.workfitai.authservice.config.GeoConfig;
+import org.workfitai.authservice.model.UserSession;
+import org.workfitai.authservice.service.GeoLocationService;
+
+import com.mongodb.client.result.UpdateResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("SessionLocationEnricher Unit Tests")
+class SessionLocationEnricherTest {
+
+    private static final UserSession.Location HANOI = UserSession.Location.builder()
+            .country("Vietnam").region("Hanoi").city("Hanoi").latitude(21.0245).longitude(105.841).build();
+
+    private GeoLocationService geoLocationService;
+    private MongoTemplate mongoTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private SessionLocationEnricher enricher;
+
+    @BeforeEach
+    void setUp() {
+        geoLocationService = mock(GeoLocationService.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        GeoConfig geoConfig = new GeoConfig();
+        geoConfig.setEnrichThreads(1);
+        geoConfig.setEnrichQueueCapacity(1);
+        enricher = new SessionLocationEnricher(geoLocationService, mongoTemplate, geoConfig, meterRegistry);
+
+        given(geoLocationService.getLocation(anyString())).willReturn(HANOI);
+        given(geoLocationService.getLocationFromCoordinates(any(), any())).willReturn(HANOI);
+        given(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(UserSession.class)))
+                .willReturn(UpdateResult.acknowledged(1, 1L, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        enricher.stop();
+    }
+
+    @Test
+    @DisplayName("Browser coordinates win over the IP; the location is written into the session")
+    void backfillsLocation() {
+        enricher.enrich("s1", "14.160.1.1", 21.03, 105.85);
+
+        verify(mongoTemplate, timeout(2000)).updateFirst(
+                argThat(query -> "s1".equals(query.getQueryObject().get("sessionId"))),
+                any(UpdateDefinition.class), eq(UserSession.class));
+        verify(geoLocationService).getLocationFromCoordinates(21.03, 105.85);
+        verify(geoLocationService, never()).getLocation(anyString());
+        awaitCount("auth.session.geo.enriched", 1);
+    }
+
+    @Test
+    @DisplayName("A session that is already gone is not counted as enriched")
+    void countsOnlyMatchedSessions() {
+        given(mongoTemplate.updateFirst(argThat(query -> "gone".equals(query.getQueryObject().get("sessionId"))),
+                any(UpdateDefinition.class), eq(UserSession.class)))
+                .willReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        // một worker, FIFO: khi "s2" đã được đếm thì "gone" chắc chắn đã xử lý xong
+        enricher.enrich("gone", "14.160.1.1", null, null);
+        enricher.enrich("s2", "14.160.1.1", null, null);
+
+        awaitCount("auth.session.geo.enriched", 1);
+        assertThat(counter("auth.session.geo.enriched")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("When the queue is full the session is dropped, not run on the login thread")
+    void dropsWhenQueueFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(geoLocationService.getLocation("10.0.0.1")).willAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return HANOI;
+        });
+
+        enricher.enrich("busy", "10.0.0.1", null, null); // chiếm worker duy nhất
+        assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+        enricher.enrich("queued", "14.160.1.1", null, null); // lấp hàng đợi (capacity 1)
+        enricher.enrich("dropped", "14.160.1.1", null, null);
+
+        assertThat(counter("auth.session.geo.dropped")).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.session.geo.queue").gauge().value()).isEqualTo(1);
+
+        release.countDown();
+        awaitCount("auth.session.geo.enriched", 2);
+        verify(mongoTemplate, never()).updateFirst(
+                argThat(query -> "dropped".equals(query.getQueryObject().get("sessionId"))),
+                any(UpdateDefinition.class), eq(UserSession.class));
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private void awaitCount(String name, double expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (counter(name) < expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(counter(name)).isEqualTo(expected);
+    }
+}
@@ -3,9 +3,11 @@ package org.workfitai.jobservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = "org.workfitai.jobservice.client")
+@EnableScheduling
 public class JobServiceApplication {
 
     public static void main(String[] args) {
@@ -32,11 +32,12 @@ public class JobController {
     @GetMapping("/{id}")
     @ApiMessage(JOB_DETAIL_FETCHED_SUCCESSFULLY)
     public RestResponse<ResJobDetailsDTO> getJob(@PathVariable("id") UUID id) throws InvalidDataException {
-        jobService.increaseViews(id);
         ResJobDetailsDTO currentJob = this.jobService.fetchJobById(id);
         if (currentJob == null) {
             throw new InvalidDataException(JOB_NOT_FOUND);
         }
+        // Chỉ đếm view cho job public tồn tại (id rác không vào bộ đếm)
+        jobService.increaseViews(id);
         return RestResponse.success(currentJob);
     }
 
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Component;
 import org.workfitai.jobservice.model.Company;
 import org.workfitai.jobservice.model.dto.kafka.CompanySyncEvent;
 import org.workfitai.jobservice.repository.CompanyRepository;
+import org.workfitai.jobservice.service.JobListingReadModel;
 
 @Component
 @RequiredArgsConstructor
@@ -15,6 +16,7 @@ import org.workfitai.jobservice.repository.CompanyRepository;
 public class CompanySyncConsumer {
 
     private final CompanyRepository companyRepository;
+    private final JobListingReadModel jobListingReadModel;
 
     @KafkaListener(topics = "${app.kafka.topics.company-sync:company-sync}", groupId = "${spring.kafka.consumer.group-id:job-service-group}", containerFactory = "companySyncKafkaListenerContainerFactory")
     public void handleCompanySync(@Payload CompanySyncEvent event) {
@@ -38,6 +40,7 @@ public class CompanySyncConsumer {
             company.setSize(data.getSize());
 
             Company savedCompany = companyRepository.save(company);
+            jobListingReadModel.refreshCompany(savedCompany.getCompanyNo());
 
             if ("COMPANY_CREATED".equals(event.getEventType())) {
                 log.info("Successfully created new company: {} with ID: {}", savedCompany.getName(),
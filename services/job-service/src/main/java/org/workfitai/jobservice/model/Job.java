@@ -99,7 +99,8 @@ public class Job extends AbstractAuditingEntity<UUID> {
 
     @NotNull(message = "Views must not be null")
     @Min(value = 0, message = "Views must be >= 0")
-    @Column(nullable = false)
+    // Chỉ JobViewCounter ghi (UPDATE views = views + ?); save cả entity không được ghi đè số đã flush
+    @Column(nullable = false, updatable = false)
     private Long views = 0L;
 
     @Column(length = 500)
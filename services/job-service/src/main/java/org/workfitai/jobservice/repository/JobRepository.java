@@ -3,6 +3,7 @@ package org.workfitai.jobservice.repository;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
@@ -49,11 +50,30 @@ public interface JobRepository extends JpaRepository<Job, UUID>, JpaSpecificatio
   @Query("""
           SELECT j FROM Job j
           WHERE j.status = 'PUBLISHED'
+            AND j.isDeleted = false
             AND j.expiresAt > CURRENT_TIMESTAMP
           ORDER BY j.views DESC, j.totalApplications DESC
       """)
   Page<Job> findFeaturedJobs(Pageable pageable);
 
+  // Nguồn dữ liệu để rebuild read model (JobListingReadModel)
+  @Query("""
+      SELECT j FROM Job j
+      WHERE j.status = 'PUBLISHED'
+        AND j.isDeleted = false
+        AND j.expiresAt > CURRENT_TIMESTAMP
+      """)
+  Slice<Job> findListableJobs(Pageable pageable);
+
+  @Query("""
+      SELECT j FROM Job j
+      WHERE j.company.companyNo = :companyNo
+        AND j.status = 'PUBLISHED'
+        AND j.isDeleted = false
+        AND j.expiresAt > CURRENT_TIMESTAMP
+      """)
+  List<Job> findListableJobsByCompany(@Param("companyNo") String companyNo);
+
   Optional<Job> findByIdAndCreatedBy(UUID id, String createdBy);
 
   @Query("""
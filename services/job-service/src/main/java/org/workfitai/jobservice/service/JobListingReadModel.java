@@ -0,0 +1,421 @@
+package org.workfitai.jobservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.workfitai.jobservice.model.Job;
+import org.workfitai.jobservice.model.dto.response.ResultPaginationDTO;
+import org.workfitai.jobservice.model.enums.JobStatus;
+import org.workfitai.jobservice.model.mapper.JobMapper;
+import org.workfitai.jobservice.repository.JobRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Redis read model cho danh sách job public (homepage featured + listing mặc định).
+ * <p>
+ * - job:view:cards    hash   jobId → ResJobDTO JSON (đã map sẵn company + skills)
+ * - job:view:featured zset   score = views * 2^20 + totalApplications (ORDER BY views, totalApplications)
+ * - job:view:recent   zset   score = createdDate (epoch millis)
+ * - job:view:expiry   zset   score = expiresAt, job hết hạn được gỡ bởi {@link #maintain()};
+ *                            tổng của trang = ZCOUNT job còn hạn (không tính job hết hạn chưa bị gỡ)
+ * <p>
+ * Được cập nhật sau khi transaction commit (create/update/status/delete, apply), views theo lô flush,
+ * rebuild toàn bộ từ Postgres khi chưa có cờ ready. Mọi lỗi Redis → caller fallback về DB.
+ */
+@Service
+@Slf4j
+public class JobListingReadModel {
+
+    private static final String CARDS_KEY = "job:view:cards";
+    private static final String FEATURED_KEY = "job:view:featured";
+    private static final String RECENT_KEY = "job:view:recent";
+    private static final String EXPIRY_KEY = "job:view:expiry";
+    private static final String READY_KEY = "job:view:ready";
+    private static final String REBUILD_LOCK_KEY = "job:view:rebuild-lock";
+    private static final List<String> MODEL_KEYS = List.of(CARDS_KEY, FEATURED_KEY, RECENT_KEY, EXPIRY_KEY);
+
+    // views chiếm phần cao của score, totalApplications phần thấp (đủ chính xác tới ~8.5 tỷ views)
+    private static final long APPLICATION_SLOTS = 1L << 20;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    // Chỉ tăng score của job đang có trong zset (job draft/closed không được thêm vào)
+    private static final RedisScript<String> INCREMENT_IF_PRESENT = new DefaultRedisScript<>("""
+            if redis.call('ZSCORE', KEYS[1], ARGV[1]) then
+              return redis.call('ZINCRBY', KEYS[1], ARGV[2], ARGV[1])
+            end
+            return false
+            """, String.class);
+
+    private final StringRedisTemplate redis;
+    private final JobRepository jobRepository;
+    private final JobMapper jobMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+    private final Counter servedHits;
+    private final Counter servedFallbacks;
+
+    @Value("${app.read-model.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.read-model.rebuild-interval:6h}")
+    private Duration rebuildInterval;
+
+    public JobListingReadModel(StringRedisTemplate redis, JobRepository jobRepository, JobMapper jobMapper,
+                               ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.redis = redis;
+        this.jobRepository = jobRepository;
+        this.jobMapper = jobMapper;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.servedHits = Counter.builder("job.read_model.reads").tag("result", "hit")
+                .description("Public job listing reads served from the Redis read model")
+                .register(meterRegistry);
+        this.servedFallbacks = Counter.builder("job.read_model.reads").tag("result", "fallback")
+                .description("Public job listing reads that fell back to Postgres")
+                .register(meterRegistry);
+    }
+
+    // ========================= READ =========================
+
+    /** Featured jobs (views DESC, totalApplications DESC); null → caller đọc DB */
+    public ResultPaginationDTO featured(int page, int size) {
+        return page(FEATURED_KEY, page, size);
+    }
+
+    /** Job public mới nhất (createdDate DESC); null → caller đọc DB */
+    public ResultPaginationDTO latest(int page, int size) {
+        return page(RECENT_KEY, page, size);
+    }
+
+    private ResultPaginationDTO page(String indexKey, int page, int size) {
+        if (!enabled || page < 0 || size <= 0) {
+            servedFallbacks.increment();
+            return null;
+        }
+        try {
+            long start = (long) page * size;
+            Instant now = Instant.now();
+            // expiresAt phải > now (như listable()); mọi job trong index đều có trong expiry zset
+            double notExpiredFrom = now.toEpochMilli() + 1;
+            // 1 round-trip: cờ ready + tổng + id của trang
+            List<Object> head = redis.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                public Object execute(RedisOperations operations) {
+                    operations.hasKey(READY_KEY);
+                    operations.opsForZSet().count(EXPIRY_KEY, notExpiredFrom, Double.POSITIVE_INFINITY);
+                    operations.opsForZSet().reverseRange(indexKey, start, start + size - 1);
+                    return null;
+                }
+            });
+            if (!Boolean.TRUE.equals(head.get(0))) {
+                servedFallbacks.increment();
+                return null;
+            }
+            long total = head.get(1) != null ? (Long) head.get(1) : 0L;
+            @SuppressWarnings("unchecked")
+            Collection<String> ids = head.get(2) != null ? (Collection<String>) head.get(2) : List.of();
+
+            List<JsonNode> cards = new ArrayList<>(ids.size());
+            if (!ids.isEmpty()) {
+                List<Object> raw = redis.opsForHash().multiGet(CARDS_KEY, new ArrayList<>(ids));
+                for (Object json : raw) {
+                    JsonNode card = json != null ? objectMapper.readTree((String) json) : null;
+                    // Sweep chạy định kỳ → lọc thêm job vừa hết hạn giữa 2 lần sweep
+                    if (card != null && !expired(card, now)) {
+                        cards.add(card);
+                    }
+                }
+            }
+
+            servedHits.increment();
+            ResultPaginationDTO.Meta meta = ResultPaginationDTO.Meta.builder()
+                    .page(page + 1)
+                    .pageSize(size)
+                    .pages((int) Math.ceil((double) total / size))
+                    .total(total)
+                    .build();
+            return ResultPaginationDTO.builder().meta(meta).result(cards).build();
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("⚠️ Job read model unavailable ({}), falling back to database", e.getMessage());
+            servedFallbacks.increment();
+            return null;
+        }
+    }
+
+    private boolean expired(JsonNode card, Instant now) {
+        JsonNode expiresAt = card.get("expiresAt");
+        if (expiresAt == null || expiresAt.isNull()) return false;
+        return !objectMapper.convertValue(expiresAt, Instant.class).isAfter(now);
+    }
+
+    // ========================= WRITE =========================
+
+    /**
+     * Đồng bộ card của job vào read model sau khi transaction hiện tại commit.
+     * Card được map ngay (trong session đang mở) để không lazy-load sau commit.
+     */
+    public void upsertAfterCommit(Job job) {
+        if (!enabled || job == null || job.getJobId() == null) return;
+        UUID jobId = job.getJobId();
+        if (!listable(job, Instant.now())) {
+            afterCommit(() -> remove(List.of(jobId.toString())));
+            return;
+        }
+        String card = toCard(job);
+        if (card == null) return;
+        double featuredScore = featuredScore(job);
+        long created = job.getCreatedDate() != null ? job.getCreatedDate().toEpochMilli() : System.currentTimeMillis();
+        long expires = job.getExpiresAt().toEpochMilli();
+        afterCommit(() -> write(List.of(new Entry(jobId.toString(), card, featuredScore, created, expires))));
+    }
+
+    public void removeAfterCommit(UUID jobId) {
+        if (!enabled || jobId == null) return;
+        afterCommit(() -> remove(List.of(jobId.toString())));
+    }
+
+    /** views đã flush xuống DB (JobViewCounter): +delta trên score featured, 1 pipeline cho cả lô */
+    public void addViews(Map<UUID, Long> deltas) {
+        if (!enabled || deltas.isEmpty()) return;
+        try {
+            // EVAL thẳng (không EVALSHA): trong pipeline không retry được khi NOSCRIPT
+            byte[] script = INCREMENT_IF_PRESENT.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+            byte[] featuredKey = FEATURED_KEY.getBytes(StandardCharsets.UTF_8);
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                deltas.forEach((jobId, delta) -> connection.scriptingCommands().eval(script, ReturnType.VALUE, 1,
+                        featuredKey,
+                        jobId.toString().getBytes(StandardCharsets.UTF_8),
+                        String.valueOf((double) delta * APPLICATION_SLOTS).getBytes(StandardCharsets.UTF_8)));
+                return null;
+            });
+        } catch (DataAccessException e) {
+            markStale("add views for " + deltas.size() + " job(s)", e);
+        }
+    }
+
+    /** totalApplications: +delta trên score featured */
+    public void addApplicationsAfterCommit(UUID jobId, long delta) {
+        incrementAfterCommit(jobId, delta);
+    }
+
+    /** Company đổi tên/logo → card của mọi job public thuộc company phải map lại */
+    public void refreshCompany(String companyNo) {
+        if (!enabled || companyNo == null) return;
+        List<Entry> entries = readOnlyTx.execute(status -> {
+            Instant now = Instant.now();
+            List<Entry> mapped = new ArrayList<>();
+            for (Job job : jobRepository.findListableJobsByCompany(companyNo)) {
+                Entry entry = toEntry(job, now);
+                if (entry != null) mapped.add(entry);
+            }
+            return mapped;
+        });
+        if (entries != null && !entries.isEmpty()) {
+            afterCommit(() -> write(entries));
+        }
+    }
+
+    private void incrementAfterCommit(UUID jobId, double delta) {
+        if (!enabled || jobId == null || delta == 0) return;
+        afterCommit(() -> {
+            try {
+                redis.execute(INCREMENT_IF_PRESENT, List.of(FEATURED_KEY), jobId.toString(), String.valueOf(delta));
+            } catch (DataAccessException e) {
+                markStale("increment " + jobId, e);
+            }
+        });
+    }
+
+    private void write(List<Entry> entries) {
+        try {
+            redis.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                public Object execute(RedisOperations operations) {
+                    for (Entry entry : entries) {
+                        operations.opsForHash().put(CARDS_KEY, entry.id(), entry.card());
+                        operations.opsForZSet().add(FEATURED_KEY, entry.id(), entry.featuredScore());
+                        operations.opsForZSet().add(RECENT_KEY, entry.id(), entry.createdMillis());
+                        operations.opsForZSet().add(EXPIRY_KEY, entry.id(), entry.expiresMillis());
+                    }
+                    return null;
+                }
+            });
+        } catch (DataAccessException e) {
+            markStale("upsert " + entries.size() + " job(s)", e);
+        }
+    }
+
+    private void remove(List<String> ids) {
+        if (ids.isEmpty()) return;
+        Object[] members = ids.toArray();
+        try {
+            redis.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                public Object execute(RedisOperations operations) {
+                    operations.opsForHash().delete(CARDS_KEY, members);
+                    operations.opsForZSet().remove(FEATURED_KEY, members);
+                    operations.opsForZSet().remove(RECENT_KEY, members);
+                    operations.opsForZSet().remove(EXPIRY_KEY, members);
+                    return null;
+                }
+            });
+        } catch (DataAccessException e) {
+            markStale("remove " + ids, e);
+        }
+    }
+
+    // Ghi hụt 1 lần là model lệch → bỏ cờ ready để đọc DB cho tới lần rebuild kế tiếp
+    private void markStale(String operation, DataAccessException e) {
+        log.error("❌ Job read model write failed ({}): {}", operation, e.getMessage());
+        try {
+            redis.delete(READY_KEY);
+        } catch (DataAccessException ignored) {
+            // Redis down hẳn: đọc cũng sẽ fallback
+        }
+    }
+
+    // ========================= MAINTENANCE =========================
+
+    /** Gỡ job hết hạn; rebuild khi cờ ready chưa có (khởi động lần đầu, hết hạn, sau lỗi ghi) */
+    @Scheduled(initialDelayString = "${app.read-model.initial-delay:10s}",
+            fixedDelayString = "${app.read-model.sweep-interval:30s}")
+    public void maintain() {
+        if (!enabled) return;
+        try {
+            Set<String> expired = redis.opsForZSet().rangeByScore(EXPIRY_KEY, 0, System.currentTimeMillis());
+            if (expired != null && !expired.isEmpty()) {
+                remove(new ArrayList<>(expired));
+                log.debug("🧹 Removed {} expired job(s) from read model", expired.size());
+            }
+            if (!Boolean.TRUE.equals(redis.hasKey(READY_KEY))) {
+                rebuild();
+            }
+        } catch (DataAccessException e) {
+            log.warn("⚠️ Job read model maintenance skipped: {}", e.getMessage());
+        }
+    }
+
+    /** Dựng lại toàn bộ read model từ Postgres; chỉ 1 instance chạy tại một thời điểm */
+    public void rebuild() {
+        Boolean locked = redis.opsForValue().setIfAbsent(REBUILD_LOCK_KEY, "1", Duration.ofMinutes(10));
+        if (!Boolean.TRUE.equals(locked)) return;
+        try {
+            long startedAt = System.currentTimeMillis();
+            // Ghi đồng thời trong lúc rebuild vẫn đi thẳng vào key live; DB đọc sau DEL nên không mất
+            redis.delete(MODEL_KEYS);
+            int count = 0;
+            PageRequest request = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("jobId"));
+            while (request != null) {
+                PageRequest current = request;
+                // map trong cùng transaction: company/skills được batch-fetch theo từng slice
+                RebuildBatch batch = readOnlyTx.execute(status -> {
+                    Slice<Job> slice = jobRepository.findListableJobs(current);
+                    Instant now = Instant.now();
+                    List<Entry> mapped = new ArrayList<>(slice.getNumberOfElements());
+                    for (Job job : slice) {
+                        Entry entry = toEntry(job, now);
+                        if (entry != null) mapped.add(entry);
+                    }
+                    return new RebuildBatch(mapped, slice.hasNext());
+                });
+                if (batch == null) break;
+                if (!batch.entries().isEmpty()) {
+                    write(batch.entries());
+                    count += batch.entries().size();
+                }
+                request = batch.hasNext() ? current.next() : null;
+            }
+            redis.opsForValue().set(READY_KEY, Instant.now().toString(), rebuildInterval);
+            log.info("📦 Job read model rebuilt: {} job(s) in {} ms", count, System.currentTimeMillis() - startedAt);
+        } finally {
+            redis.delete(REBUILD_LOCK_KEY);
+        }
+    }
+
+    // ========================= HELPERS =========================
+
+    private record Entry(String id, String card, double featuredScore, long createdMillis, long expiresMillis) {
+    }
+
+    private record RebuildBatch(List<Entry> entries, boolean hasNext) {
+    }
+
+    private Entry toEntry(Job job, Instant now) {
+        if (!listable(job, now)) return null;
+        String card = toCard(job);
+        if (card == null) return null;
+        long created = job.getCreatedDate() != null ? job.getCreatedDate().toEpochMilli() : now.toEpochMilli();
+        return new Entry(job.getJobId().toString(), card, featuredScore(job), created,
+                job.getExpiresAt().toEpochMilli());
+    }
+
+    private String toCard(Job job) {
+        try {
+            return objectMapper.writeValueAsString(jobMapper.toResJobDTO(job));
+        } catch (JsonProcessingException e) {
+            log.error("❌ Cannot serialize job card {}: {}", job.getJobId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean listable(Job job, Instant now) {
+        return JobStatus.PUBLISHED.equals(job.getStatus())
+                && !job.isDeleted()
+                && job.getExpiresAt() != null
+                && job.getExpiresAt().isAfter(now);
+    }
+
+    private static double featuredScore(Job job) {
+        long views = job.getViews() != null ? job.getViews() : 0L;
+        long applications = job.getTotalApplications() != null ? job.getTotalApplications() : 0L;
+        return (double) views * APPLICATION_SLOTS + Math.min(applications, APPLICATION_SLOTS - 1);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.workfitai.jobservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind bộ đếm lượt xem job.
+ * <p>
+ * - Mỗi lượt xem chỉ là LongAdder.increment() trong bộ nhớ (không lock row, không transaction)
+ * - Job idle bị evict khỏi map; counter bị retire bằng CAS nên record() chạy song song không mất view
+ * - Định kỳ (app.views.flush-interval) flush bằng 1 JDBC batch
+ *   {@code UPDATE jobs SET views = views + ? WHERE job_id = ?}, rồi cộng score featured trên read model
+ * - Flush lỗi → delta giữ nguyên, cộng dồn vào lần flush sau; flush lần cuối khi shutdown
+ * - Metrics: job.views.pending, job.views.pending.jobs, job.views.flush.lag, job.views.flush, job.views.flushed
+ */
+@Service
+@Slf4j
+public class JobViewCounter {
+
+    private static final String FLUSH_SQL = "UPDATE jobs SET views = views + ? WHERE job_id = ?";
+    // job không có view mới sau ngần này lần flush thì bỏ khỏi map
+    private static final int IDLE_FLUSHES_BEFORE_EVICT = 3;
+
+    /**
+     * Tổng view đã ghi (monotonic) và phần đã flush; delta = recorded - flushed.
+     * {@code writers} đếm record() đang chạy; RETIRED (âm) = đã bị evict, record() phải lấy counter mới.
+     */
+    private static final class Pending {
+        private static final int RETIRED = Integer.MIN_VALUE / 2;
+
+        final LongAdder recorded = new LongAdder();
+        final AtomicInteger writers = new AtomicInteger();
+        volatile long flushed;
+        int idleFlushes;
+
+        boolean tryRecord() {
+            if (writers.getAndIncrement() < 0) {
+                return false;
+            }
+            recorded.increment();
+            writers.decrementAndGet();
+            return true;
+        }
+
+        /** Chỉ retire khi không có record() nào đang chạy giữa chừng */
+        boolean retire() {
+            return writers.compareAndSet(0, RETIRED);
+        }
+
+        long delta() {
+            return recorded.sum() - flushed;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JobListingReadModel jobListingReadModel;
+    private final ConcurrentHashMap<UUID, Pending> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Timer flushTimer;
+    private final Counter flushedViews;
+    private final Counter flushFailures;
+    // view cũ nhất chưa flush (0 = không có gì pending)
+    private volatile long oldestPendingAt;
+
+    public JobViewCounter(JdbcTemplate jdbcTemplate, JobListingReadModel jobListingReadModel,
+                          MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobListingReadModel = jobListingReadModel;
+        this.flushTimer = Timer.builder("job.views.flush")
+                .description("Duration of one write-behind view flush")
+                .register(meterRegistry);
+        this.flushedViews = Counter.builder("job.views.flushed")
+                .description("Job views written to the database")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("job.views.flush.failures")
+                .description("View flushes that failed and were retried on the next cycle")
+                .register(meterRegistry);
+        Gauge.builder("job.views.pending", this, JobViewCounter::pendingViews)
+                .description("Recorded job views not yet flushed to the database")
+                .register(meterRegistry);
+        Gauge.builder("job.views.pending.jobs", pending, Map::size)
+                .description("Jobs with buffered view counters")
+                .register(meterRegistry);
+        Gauge.builder("job.views.flush.lag", this, JobViewCounter::flushLagSeconds)
+                .description("Age of the oldest unflushed job view")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public void record(UUID jobId) {
+        if (oldestPendingAt == 0) {
+            oldestPendingAt = System.currentTimeMillis();
+        }
+        // counter vừa bị evict → lấy counter mới trong map
+        while (!pending.computeIfAbsent(jobId, id -> new Pending()).tryRecord()) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.views.flush-interval:5s}",
+            fixedDelayString = "${app.views.flush-interval:5s}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        int flushed = flush();
+        if (flushed > 0) {
+            log.info("💾 Flushed views of {} job(s) on shutdown", flushed);
+        }
+    }
+
+    /** @return số job đã flush thành công */
+    public int flush() {
+        if (!flushLock.tryLock()) return 0;
+        try {
+            long cycleStartedAt = System.currentTimeMillis();
+            Map<UUID, Long> deltas = new HashMap<>();
+            List<UUID> idle = new ArrayList<>();
+            pending.forEach((jobId, counter) -> {
+                long delta = counter.delta();
+                if (delta > 0) {
+                    deltas.put(jobId, delta);
+                    counter.idleFlushes = 0;
+                } else if (++counter.idleFlushes >= IDLE_FLUSHES_BEFORE_EVICT) {
+                    idle.add(jobId);
+                }
+            });
+            evict(idle);
+            if (deltas.isEmpty()) {
+                oldestPendingAt = 0;
+                return 0;
+            }
+
+            List<Object[]> batch = new ArrayList<>(deltas.size());
+            deltas.forEach((jobId, delta) -> batch.add(new Object[]{delta, jobId}));
+            try {
+                flushTimer.record(() -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+            } catch (DataAccessException e) {
+                flushFailures.increment();
+                log.error("❌ Failed to flush views of {} job(s), retrying next cycle: {}", deltas.size(),
+                        e.getMessage());
+                return 0;
+            }
+
+            long total = 0;
+            for (Map.Entry<UUID, Long> entry : deltas.entrySet()) {
+                pending.get(entry.getKey()).flushed += entry.getValue();
+                total += entry.getValue();
+            }
+            flushedViews.increment(total);
+            // view ghi trong lúc flush chưa được tính → lag tính từ đầu chu kỳ này
+            oldestPendingAt = pendingViews() > 0 ? cycleStartedAt : 0;
+
+            jobListingReadModel.addViews(deltas);
+            log.debug("💾 Flushed {} view(s) for {} job(s)", total, deltas.size());
+            return deltas.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void evict(List<UUID> idle) {
+        for (UUID jobId : idle) {
+            Pending counter = pending.get(jobId);
+            // đang có record() chạy → job không còn idle, giữ lại
+            if (counter == null || !counter.retire()) continue;
+            pending.remove(jobId, counter);
+            // view ghi sau lần kiểm tra idle nhưng trước khi retire → đưa lại vào map để lần flush sau ghi
+            long late = counter.delta();
+            if (late > 0) {
+                pending.computeIfAbsent(jobId, id -> new Pending()).recorded.add(late);
+            }
+        }
+    }
+
+    long pendingViews() {
+        long total = 0;
+        for (Pending counter : pending.values()) {
+            total += counter.delta();
+        }
+        return total;
+    }
+
+    double flushLagSeconds() {
+        long since = oldestPendingAt;
+        return since == 0 ? 0 : (System.currentTimeMillis() - since) / 1000.0;
+    }
+}
@@ -39,7 +39,7 @@ public interface iJobService {
 
     void deleteJob(UUID jobId);
 
-    Job increaseViews(UUID jobId);
+    void increaseViews(UUID jobId);
 
     List<ResJobDTO> getSimilarJobs(UUID jobId);
 
@@ -15,6 +15,7 @@ import org.workfitai.jobservice.model.dto.response.ResultPaginationDTO;
 import org.workfitai.jobservice.model.mapper.CompanyMapper;
 import org.workfitai.jobservice.repository.CompanyRepository;
 import org.workfitai.jobservice.service.CloudinaryService;
+import org.workfitai.jobservice.service.JobListingReadModel;
 import org.workfitai.jobservice.service.iCompanyService;
 import org.workfitai.jobservice.util.PaginationUtils;
 
@@ -27,6 +28,7 @@ public class CompanyService implements iCompanyService {
     private final CompanyRepository companyRepository;
     private final CompanyMapper companyMapper;
     private final CloudinaryService cloudinaryService;
+    private final JobListingReadModel jobListingReadModel;
 
     @Override
     public ResCompanyDTO getById(String id) {
@@ -65,6 +67,8 @@ public class CompanyService implements iCompanyService {
         companyMapper.updateEntityFromDTO(dto, company);
 
         companyRepository.save(company);
+        // Card job public nhúng thông tin company → map lại
+        jobListingReadModel.refreshCompany(company.getCompanyNo());
 
         return companyMapper.toResUpdateDTO(company);
     }
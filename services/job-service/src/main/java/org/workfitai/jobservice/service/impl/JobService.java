@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.stereotype.Service;
@@ -29,6 +30,8 @@ import org.workfitai.jobservice.repository.SkillRepository;
 import org.workfitai.jobservice.security.SecurityUtils;
 import org.workfitai.jobservice.service.CloudinaryService;
 import org.workfitai.jobservice.service.JobEventProducer;
+import org.workfitai.jobservice.service.JobListingReadModel;
+import org.workfitai.jobservice.service.JobViewCounter;
 import org.workfitai.jobservice.service.iJobService;
 import org.workfitai.jobservice.service.specifications.JobSpecifications;
 import org.workfitai.jobservice.util.HtmlSanitizer;
@@ -46,6 +49,9 @@ import static org.workfitai.jobservice.util.MessageConstant.JOB_STATUS_CONFLICT;
 @Service
 @Slf4j
 public class JobService implements iJobService {
+    // Cùng thứ tự với zset job:view:recent (score createdDate, hoà thì member jobId giảm dần)
+    private static final Sort LATEST_ORDER = Sort.by(Sort.Order.desc("createdDate"), Sort.Order.desc("jobId"));
+
     private final JobRepository jobRepository;
     private final JobMapper jobMapper;
 
@@ -59,10 +65,15 @@ public class JobService implements iJobService {
 
     private final NotificationProducer notificationProducer;
 
+    private final JobListingReadModel jobListingReadModel;
+
+    private final JobViewCounter jobViewCounter;
+
     public JobService(JobRepository jobRepository, JobMapper jobMapper,
             SkillRepository skillRepository, CompanyRepository companyRepository,
             CloudinaryService cloudinaryService, JobEventProducer jobEventProducer,
-            NotificationProducer notificationProducer) {
+            NotificationProducer notificationProducer, JobListingReadModel jobListingReadModel,
+            JobViewCounter jobViewCounter) {
         this.jobRepository = jobRepository;
         this.jobMapper = jobMapper;
         this.skillRepository = skillRepository;
@@ -70,10 +81,21 @@ public class JobService implements iJobService {
         this.cloudinaryService = cloudinaryService;
         this.jobEventProducer = jobEventProducer;
         this.notificationProducer = notificationProducer;
+        this.jobListingReadModel = jobListingReadModel;
+        this.jobViewCounter = jobViewCounter;
     }
 
     @Override
     public ResultPaginationDTO fetchAll(Specification<Job> spec, Pageable pageable) {
+        // 0. Listing "mới nhất" (không filter, sort=createdDate,desc) → đọc từ Redis read model
+        boolean latest = spec == null && servesLatest(pageable);
+        if (latest) {
+            ResultPaginationDTO cached = jobListingReadModel.latest(pageable.getPageNumber(), pageable.getPageSize());
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         // 1. Nếu spec null => khởi tạo Specification mở rộng (unrestricted)
         Specification<Job> baseSpec = (spec != null) ? spec : Specification.unrestricted();
 
@@ -82,6 +104,12 @@ public class JobService implements iJobService {
                 .and(JobSpecifications.statusPublished())
                 .and(JobSpecifications.isNoDeleted());
 
+        // Fallback của listing "mới nhất" trả đúng như read model: bỏ job hết hạn, jobId phá hoà
+        if (latest) {
+            finalSpec = finalSpec.and(JobSpecifications.notExpired());
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), LATEST_ORDER);
+        }
+
         // 3. Lấy dữ liệu từ repository
         Page<Job> pageJob = jobRepository.findAll(finalSpec, pageable);
 
@@ -89,6 +117,19 @@ public class JobService implements iJobService {
         return PaginationUtils.toResultPaginationDTO(pageJob, jobMapper::toResJobDTO);
     }
 
+    /**
+     * Chỉ listing read model được dựng cho: sort đúng createdDate DESC. Request không sort
+     * giữ nguyên hành vi cũ (thứ tự DB, gồm cả job hết hạn).
+     */
+    private static boolean servesLatest(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return false;
+        }
+        Sort sort = pageable.getSort();
+        Sort.Order order = sort.getOrderFor("createdDate");
+        return order != null && order.isDescending() && sort.stream().count() == 1;
+    }
+
     @Override
     public ResultPaginationDTO fetchAllForHr(Specification<Job> spec, Pageable pageable) {
         // 1. Nếu spec null => khởi tạo Specification mở rộng (unrestricted)
@@ -188,6 +229,7 @@ public class JobService implements iJobService {
 
             // Publish job created event to Kafka
             jobEventProducer.publishJobCreated(currentJob);
+            jobListingReadModel.upsertAfterCommit(currentJob);
 
             // Send notification to HR
             sendJobCreatedNotification(currentJob);
@@ -277,6 +319,7 @@ public class JobService implements iJobService {
         if (!changes.isEmpty()) {
             jobEventProducer.publishJobUpdated(dbJob, changes);
         }
+        jobListingReadModel.upsertAfterCommit(dbJob);
 
         return jobMapper.toResUpdateJobDTO(dbJob);
     }
@@ -300,6 +343,7 @@ public class JobService implements iJobService {
         Map<String, Object> changes = new HashMap<>();
         changes.put("status", Map.of("old", oldStatus.toString(), "new", status.toString()));
         jobEventProducer.publishJobUpdated(job, changes);
+        jobListingReadModel.upsertAfterCommit(job);
 
         return new ResModifyStatus().builder()
                 .status(String.valueOf(job.getStatus()))
@@ -317,6 +361,7 @@ public class JobService implements iJobService {
 
         // Publish job deleted event
         jobEventProducer.publishJobDeleted(job, "Soft deleted by user");
+        jobListingReadModel.removeAfterCommit(jobId);
     }
 
     private void checkCompany(Job job, Job dbJob) {
@@ -378,17 +423,19 @@ public class JobService implements iJobService {
 
         jobRepository.save(job);
 
+        if (job.getStatus() == JobStatus.CLOSED) {
+            jobListingReadModel.removeAfterCommit(jobId);
+        } else {
+            jobListingReadModel.addApplicationsAfterCommit(jobId, applyCount);
+        }
+
         log.info("Updated totalApplications for jobId {}: {}", jobId, job.getTotalApplications());
     }
 
-    @Transactional
-    public Job increaseViews(UUID jobId) {
-        Job job = jobRepository.findById(jobId)
-                .orElseThrow(() -> new RuntimeException("Job not found"));
-
-        job.setViews(job.getViews() + 1);
-
-        return jobRepository.save(job);
+    @Override
+    public void increaseViews(UUID jobId) {
+        // Write-behind: chỉ tăng bộ đếm trong bộ nhớ, JobViewCounter flush xuống DB theo lô
+        jobViewCounter.record(jobId);
     }
 
     @Override
@@ -416,6 +463,11 @@ public class JobService implements iJobService {
 
     @Override
     public ResultPaginationDTO getFeaturedJobs(int page) {
+        ResultPaginationDTO cached = jobListingReadModel.featured(page, 4);
+        if (cached != null) {
+            return cached;
+        }
+
         Pageable pageable = PageRequest.of(page, 4);
 
         Page<Job> pageJob = jobRepository.findFeaturedJobs(pageable);
@@ -456,17 +508,21 @@ public class JobService implements iJobService {
         clone.setQuantity(job.getQuantity());
         clone.setExpiresAt(job.getExpiresAt());
         clone.setStatus(job.getStatus());
+        clone.setCompany(job.getCompany());
+        clone.setSkills(job.getSkills() != null ? new ArrayList<>(job.getSkills()) : null);
         return clone;
     }
 
     /**
-     * Detect changes between old and new job
+     * Detect changes between old and new job.
+     * Covers every field updateJob writes: job.updated also drives the gateway's
+     * cache invalidation, so a field missing here leaves cached pages stale.
      */
     private Map<String, Object> detectChanges(Job oldJob, Job newJob) {
         Map<String, Object> changes = new HashMap<>();
 
         if (!Objects.equals(oldJob.getTitle(), newJob.getTitle())) {
-            changes.put("title", Map.of("old", oldJob.getTitle(), "new", newJob.getTitle()));
+            changes.put("title", change(oldJob.getTitle(), newJob.getTitle()));
         }
         if (!Objects.equals(oldJob.getDescription(), newJob.getDescription())) {
             changes.put("description", "updated");
@@ -475,26 +531,70 @@ public class JobService implements iJobService {
             changes.put("shortDescription", "updated");
         }
         if (!Objects.equals(oldJob.getLocation(), newJob.getLocation())) {
-            changes.put("location", Map.of("old", oldJob.getLocation(), "new", newJob.getLocation()));
+            changes.put("location", change(oldJob.getLocation(), newJob.getLocation()));
         }
         if (!Objects.equals(oldJob.getSalaryMin(), newJob.getSalaryMin())) {
-            changes.put("salaryMin", Map.of("old", oldJob.getSalaryMin(), "new", newJob.getSalaryMin()));
+            changes.put("salaryMin", change(oldJob.getSalaryMin(), newJob.getSalaryMin()));
         }
         if (!Objects.equals(oldJob.getSalaryMax(), newJob.getSalaryMax())) {
-            changes.put("salaryMax", Map.of("old", oldJob.getSalaryMax(), "new", newJob.getSalaryMax()));
+            changes.put("salaryMax", change(oldJob.getSalaryMax(), newJob.getSalaryMax()));
+        }
+        if (!Objects.equals(oldJob.getCurrency(), newJob.getCurrency())) {
+            changes.put("currency", change(oldJob.getCurrency(), newJob.getCurrency()));
         }
         if (!Objects.equals(oldJob.getExperienceLevel(), newJob.getExperienceLevel())) {
-            changes.put("experienceLevel",
-                    Map.of("old", oldJob.getExperienceLevel(), "new", newJob.getExperienceLevel()));
+            changes.put("experienceLevel", change(oldJob.getExperienceLevel(), newJob.getExperienceLevel()));
+        }
+        if (!Objects.equals(oldJob.getEducationLevel(), newJob.getEducationLevel())) {
+            changes.put("educationLevel", change(oldJob.getEducationLevel(), newJob.getEducationLevel()));
         }
         if (!Objects.equals(oldJob.getEmploymentType(), newJob.getEmploymentType())) {
-            changes.put("employmentType", Map.of("old", oldJob.getEmploymentType(), "new", newJob.getEmploymentType()));
+            changes.put("employmentType", change(oldJob.getEmploymentType(), newJob.getEmploymentType()));
+        }
+        if (!Objects.equals(oldJob.getRequirements(), newJob.getRequirements())) {
+            changes.put("requirements", "updated");
+        }
+        if (!Objects.equals(oldJob.getResponsibilities(), newJob.getResponsibilities())) {
+            changes.put("responsibilities", "updated");
+        }
+        if (!Objects.equals(oldJob.getBenefits(), newJob.getBenefits())) {
+            changes.put("benefits", "updated");
+        }
+        if (!Objects.equals(oldJob.getQuantity(), newJob.getQuantity())) {
+            changes.put("quantity", change(oldJob.getQuantity(), newJob.getQuantity()));
+        }
+        if (!Objects.equals(oldJob.getExpiresAt(), newJob.getExpiresAt())) {
+            changes.put("expiresAt", change(Objects.toString(oldJob.getExpiresAt(), null),
+                    Objects.toString(newJob.getExpiresAt(), null)));
+        }
+        if (!Objects.equals(companyIdOf(oldJob), companyIdOf(newJob))) {
+            changes.put("company", change(companyIdOf(oldJob), companyIdOf(newJob)));
+        }
+        if (!Objects.equals(skillIdsOf(oldJob), skillIdsOf(newJob))) {
+            changes.put("skills", "updated");
         }
         if (!Objects.equals(oldJob.getStatus(), newJob.getStatus())) {
-            changes.put("status", Map.of("old", oldJob.getStatus().toString(), "new", newJob.getStatus().toString()));
+            changes.put("status", change(String.valueOf(oldJob.getStatus()), String.valueOf(newJob.getStatus())));
         }
 
         return changes;
     }
 
+    /** {old, new}; giá trị có thể null (Map.of không nhận null) */
+    private static Map<String, Object> change(Object oldValue, Object newValue) {
+        Map<String, Object> change = new HashMap<>();
+        change.put("old", oldValue);
+        change.put("new", newValue);
+        return change;
+    }
+
+    private static String companyIdOf(Job job) {
+        return job.getCompany() != null ? job.getCompany().getId() : null;
+    }
+
+    private static Set<UUID> skillIdsOf(Job job) {
+        return job.getSkills() == null ? Set.of()
+                : job.getSkills().stream().map(Skill::getId).collect(Collectors.toSet());
+    }
+
 }
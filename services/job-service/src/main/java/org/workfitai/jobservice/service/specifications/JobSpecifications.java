@@ -5,6 +5,8 @@ import org.workfitai.jobservice.model.Job;
 import org.workfitai.jobservice.model.enums.JobStatus;
 import org.workfitai.jobservice.security.SecurityUtils;
 
+import java.time.Instant;
+
 public class JobSpecifications {
 
     public static Specification<Job> statusPublished() {
@@ -22,6 +24,11 @@ public class JobSpecifications {
                 cb.equal(root.get("isDeleted"), false);
     }
 
+    public static Specification<Job> notExpired() {
+        return (root, query, cb) ->
+                cb.greaterThan(root.get("expiresAt"), Instant.now());
+    }
+
     public static Specification<Job> hasCompanyId(String companyId) {
         return (root, query, cb) ->
                 cb.equal(root.get("company").get("id"), companyId);
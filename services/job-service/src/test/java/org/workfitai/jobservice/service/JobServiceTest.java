@@ -2,15 +2,22 @@ package org.workfitai.jobservice.service;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.workfitai.jobservice.model.Company;
 import org.workfitai.jobservice.model.Job;
 import org.workfitai.jobservice.model.Skill;
 import org.workfitai.jobservice.model.dto.request.Job.ReqJobDTO;
+import org.workfitai.jobservice.model.dto.request.Job.ReqUpdateJobDTO;
 import org.workfitai.jobservice.model.dto.response.Job.ResCreateJobDTO;
 import org.workfitai.jobservice.model.mapper.JobMapper;
 import org.workfitai.jobservice.repository.CompanyRepository;
@@ -18,12 +25,15 @@ import org.workfitai.jobservice.repository.JobRepository;
 import org.workfitai.jobservice.repository.SkillRepository;
 import org.workfitai.jobservice.service.impl.JobService;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +47,10 @@ class JobServiceImplTest {
     private SkillRepository skillRepository;
     @Mock
     private JobRepository jobRepository;
+    @Mock
+    private JobEventProducer jobEventProducer;
+    @Mock
+    private JobListingReadModel jobListingReadModel;
     @InjectMocks
     private JobService jobService;
 
@@ -106,4 +120,98 @@ class JobServiceImplTest {
         // Save gọi
         verify(jobRepository).save(Mockito.<Job>any(Job.class));
     }
+
+    @Test
+    void updateJob_textOnlyChange_publishesJobUpdated() {
+        Job dbJob = existingJob();
+        ReqUpdateJobDTO dto = updateOf(dbJob);
+        dto.setRequirements("Java 21, Spring Boot 3");
+        dto.setExpiresAt(Instant.parse("2026-12-31T00:00:00Z"));
+        dto.setQuantity(3);
+
+        jobService.updateJob(dto, dbJob);
+
+        Map<String, Object> changes = publishedChanges(dbJob);
+        assertThat(changes).containsEntry("requirements", "updated")
+                .containsKeys("expiresAt", "quantity")
+                .doesNotContainKeys("title", "location");
+        assertThat((Map<?, ?>) changes.get("quantity")).containsEntry("old", null).containsEntry("new", 3);
+        verify(jobListingReadModel).upsertAfterCommit(dbJob);
+    }
+
+    @Test
+    void updateJob_noChange_doesNotPublish() {
+        Job dbJob = existingJob();
+
+        jobService.updateJob(updateOf(dbJob), dbJob);
+
+        verify(jobEventProducer, never()).publishJobUpdated(any(Job.class), anyMap());
+        verify(jobListingReadModel).upsertAfterCommit(dbJob);
+    }
+
+    @Test
+    void fetchAll_readModelUnavailable_fallsBackInReadModelOrder() {
+        when(jobListingReadModel.latest(2, 10)).thenReturn(null);
+        when(jobRepository.findAll(Mockito.<Specification<Job>>any(), any(Pageable.class))).thenReturn(Page.empty());
+
+        jobService.fetchAll(null, PageRequest.of(2, 10, Sort.by(Sort.Order.desc("createdDate"))));
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(jobRepository).findAll(Mockito.<Specification<Job>>any(), pageable.capture());
+        assertThat(pageable.getValue().getPageNumber()).isEqualTo(2);
+        assertThat(pageable.getValue().getSort())
+                .containsExactly(Sort.Order.desc("createdDate"), Sort.Order.desc("jobId"));
+    }
+
+    @Test
+    void fetchAll_customSort_keepsRequestedOrder() {
+        Pageable requested = PageRequest.of(0, 10, Sort.by("title"));
+        when(jobRepository.findAll(Mockito.<Specification<Job>>any(), any(Pageable.class))).thenReturn(Page.empty());
+
+        jobService.fetchAll(null, requested);
+
+        verify(jobListingReadModel, never()).latest(anyInt(), anyInt());
+        verify(jobRepository).findAll(Mockito.<Specification<Job>>any(), eq(requested));
+    }
+
+    @Test
+    void fetchAll_unsorted_keepsDatabaseListing() {
+        Pageable requested = PageRequest.of(0, 10);
+        when(jobRepository.findAll(Mockito.<Specification<Job>>any(), any(Pageable.class))).thenReturn(Page.empty());
+
+        jobService.fetchAll(null, requested);
+
+        // read model chỉ phục vụ sort=createdDate,desc; không sort thì như trước (không ép thứ tự)
+        verify(jobListingReadModel, never()).latest(anyInt(), anyInt());
+        verify(jobRepository).findAll(Mockito.<Specification<Job>>any(), eq(requested));
+    }
+
+    private Job existingJob() {
+        Company company = Company.builder().companyNo("FPT#25").name("FPT Software").build();
+        when(companyRepository.findById(any())).thenReturn(Optional.of(company));
+
+        Job dbJob = new Job();
+        dbJob.setJobId(UUID.randomUUID());
+        dbJob.setTitle("Java Developer");
+        dbJob.setRequirements("Java 17");
+        dbJob.setExpiresAt(Instant.parse("2026-06-30T00:00:00Z"));
+        dbJob.setCompany(company);
+        return dbJob;
+    }
+
+    private static ReqUpdateJobDTO updateOf(Job job) {
+        ReqUpdateJobDTO dto = new ReqUpdateJobDTO();
+        dto.setJobId(job.getJobId());
+        dto.setTitle(job.getTitle());
+        dto.setRequirements(job.getRequirements());
+        dto.setExpiresAt(job.getExpiresAt());
+        return dto;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> publishedChanges(Job job) {
+        ArgumentCaptor<Map<String, Object>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(jobEventProducer).publishJobUpdated(eq(job), captor.capture());
+        return captor.getValue();
+    }
 }
@@ -0,0 +1,230 @@
+package org.workfitai.jobservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Column;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.workfitai.jobservice.model.Job;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobViewCounterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private JobListingReadModel jobListingReadModel;
+
+    private SimpleMeterRegistry meterRegistry;
+    private JobViewCounter counter;
+
+    // Tổng view đã "ghi xuống DB" theo jobId
+    private final Map<UUID, Long> flushedToDb = new ConcurrentHashMap<>();
+    private final AtomicInteger batches = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        counter = new JobViewCounter(jdbcTemplate, jobListingReadModel, meterRegistry);
+    }
+
+    private void captureBatches() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            batches.incrementAndGet();
+            for (Object[] row : args) {
+                flushedToDb.merge((UUID) row[1], (Long) row[0], Long::sum);
+            }
+            return new int[args.size()];
+        });
+    }
+
+    @Test
+    void flush_writesOneBatchWithAggregatedDeltas() {
+        captureBatches();
+        UUID hot = UUID.randomUUID();
+        UUID cold = UUID.randomUUID();
+        for (int i = 0; i < 1_000; i++) {
+            counter.record(hot);
+        }
+        counter.record(cold);
+
+        assertEquals(1001, meterRegistry.get("job.views.pending").gauge().value());
+        assertEquals(2, counter.flush());
+
+        assertEquals(1, batches.get());
+        assertEquals(1000L, flushedToDb.get(hot));
+        assertEquals(1L, flushedToDb.get(cold));
+        assertEquals(0, meterRegistry.get("job.views.pending").gauge().value());
+        assertEquals(0, meterRegistry.get("job.views.flush.lag").gauge().value());
+        verify(jobListingReadModel).addViews(Map.of(hot, 1000L, cold, 1L));
+
+        // Không có view mới → không chạm DB
+        assertEquals(0, counter.flush());
+        assertEquals(1, batches.get());
+    }
+
+    @Test
+    void flush_keepsDeltasWhenDatabaseFails() {
+        UUID jobId = UUID.randomUUID();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new QueryTimeoutException("db down"))
+                .thenReturn(new int[1]);
+
+        counter.record(jobId);
+        counter.record(jobId);
+        assertEquals(0, counter.flush());
+        assertEquals(2, meterRegistry.get("job.views.pending").gauge().value());
+        assertEquals(1, meterRegistry.get("job.views.flush.failures").counter().count());
+        verifyNoInteractions(jobListingReadModel);
+
+        counter.record(jobId);
+        assertEquals(1, counter.flush());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+        verify(jobListingReadModel).addViews(Map.of(jobId, 3L));
+    }
+
+    @Test
+    void flush_evictsIdleJobs() {
+        captureBatches();
+        UUID jobId = UUID.randomUUID();
+        counter.record(jobId);
+        counter.flush();
+
+        for (int i = 0; i < 3; i++) {
+            counter.flush();
+        }
+        assertEquals(0, meterRegistry.get("job.views.pending.jobs").gauge().value());
+
+        counter.record(jobId);
+        counter.flush();
+        assertEquals(2L, flushedToDb.get(jobId));
+    }
+
+    /**
+     * Load test: nhiều thread cùng xem một nhóm nhỏ job "hot" trong khi flusher chạy liên tục.
+     * Không được mất hay đếm trùng view nào, và số batch DB phải nhỏ hơn rất nhiều so với số view.
+     */
+    @Test
+    void concurrentViews_areFlushedExactlyOnce() throws Exception {
+        captureBatches();
+        int threads = 16;
+        int viewsPerThread = 50_000;
+        List<UUID> jobs = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        pool.submit(() -> {
+            while (running.get()) {
+                counter.flush();
+                Thread.sleep(1);
+            }
+            return null;
+        });
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < viewsPerThread; i++) {
+                    counter.record(jobs.get((i + offset) % jobs.size()));
+                }
+                done.countDown();
+                return null;
+            });
+        }
+
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        running.set(false);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        counter.flush();
+
+        long recorded = (long) threads * viewsPerThread;
+        long flushed = flushedToDb.values().stream().mapToLong(Long::longValue).sum();
+        assertEquals(recorded, flushed);
+        for (UUID jobId : jobs) {
+            assertEquals(recorded / jobs.size(), flushedToDb.get(jobId));
+        }
+        assertTrue(batches.get() < recorded / 100, "views must be coalesced into few batches");
+    }
+
+    /**
+     * Job liên tục idle → bị evict trong khi vẫn có view lẻ tẻ chen vào.
+     * View ghi vào counter đang bị retire phải chuyển sang counter mới, không được mất.
+     */
+    @Test
+    void viewsRacingWithEviction_areNotLost() throws Exception {
+        captureBatches();
+        int threads = 4;
+        int viewsPerThread = 20_000;
+        List<UUID> jobs = List.of(UUID.randomUUID(), UUID.randomUUID());
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        // flush liên tục → mỗi job chỉ cần vài chu kỳ không có view là bị evict
+        pool.submit(() -> {
+            while (running.get()) {
+                counter.flush();
+            }
+            return null;
+        });
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            pool.submit(() -> {
+                for (int i = 0; i < viewsPerThread; i++) {
+                    counter.record(jobs.get((i + offset) % jobs.size()));
+                    if (i % 64 == 0) {
+                        Thread.yield();
+                    }
+                }
+                done.countDown();
+                return null;
+            });
+        }
+
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        running.set(false);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        counter.flush();
+
+        long flushed = flushedToDb.values().stream().mapToLong(Long::longValue).sum();
+        assertEquals((long) threads * viewsPerThread, flushed);
+        assertEquals(0, meterRegistry.get("job.views.pending").gauge().value());
+    }
+
+    @Test
+    void viewsColumn_isNotOverwrittenByEntitySaves() throws Exception {
+        // updateJob() save cả entity: nếu views nằm trong UPDATE thì số đã flush bị ghi đè bằng giá trị cũ
+        Column column = Job.class.getDeclaredField("views").getAnnotation(Column.class);
+        assertFalse(column.updatable());
+        assertTrue(column.insertable());
+    }
+}